@@ -56,6 +56,20 @@ sourceSets {
             }
         }
     }
+    create("jmh") {
+        java {
+            compileClasspath += sourceSets.main.get().compileClasspath
+            compileClasspath += sourceSets.main.get().output
+
+            runtimeClasspath += sourceSets.main.get().runtimeClasspath
+            runtimeClasspath += sourceSets.main.get().output
+        }
+    }
+}
+
+dependencies {
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator)
 }
 
 tasks {
@@ -85,6 +99,15 @@ tasks {
         useJUnitPlatform()
     }
 
+    register<JavaExec>("jmh") {
+        group = "benchmark"
+        description = "Runs the JMH benchmarks, a filter can be given with -Pjmh.include=<regex>"
+
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        args(listOfNotNull(project.findProperty("jmh.include")?.toString()))
+    }
+
     jacocoTestReport {
         reports {
             xml.required.set(true)
@@ -122,7 +145,7 @@ testlogger {
 
 jib {
     from {
-        image = "eclipse-temurin:17-jdk"
+        image = "eclipse-temurin:21-jdk"
         platforms {
             platform {
                 os = "linux"
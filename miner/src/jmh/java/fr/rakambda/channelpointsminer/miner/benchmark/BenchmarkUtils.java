@@ -0,0 +1,33 @@
+package fr.rakambda.channelpointsminer.miner.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkUtils{
+	private static Object unsafe;
+	
+	/**
+	 * Create an instance of a class without calling any constructor, only meant to get objects of the right type where their content doesn't matter.
+	 *
+	 * @param clazz The class to instantiate.
+	 * @param <T>   The type of the class.
+	 *
+	 * @return A new instance with all fields left to their default value.
+	 */
+	@NotNull
+	public static <T> T allocate(@NotNull Class<T> clazz){
+		try{
+			if(unsafe == null){
+				var field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+				field.setAccessible(true);
+				unsafe = field.get(null);
+			}
+			return clazz.cast(unsafe.getClass().getMethod("allocateInstance", Class.class).invoke(unsafe, clazz));
+		}
+		catch(ReflectiveOperationException e){
+			throw new IllegalStateException("Failed to allocate " + clazz, e);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package fr.rakambda.channelpointsminer.miner.benchmark.chat;
+
+import fr.rakambda.channelpointsminer.miner.api.chat.ws.IrcMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the regex previously used to extract chat messages with {@link IrcMessage}, over recorded chat lines (messages with many tags, user notices, room states, pings, ...).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IrcParseBenchmark{
+	private static final String LINES_RESOURCE = "/benchmark/chat/lines.txt";
+	private static final int LINE_COUNT = 20;
+	private static final Pattern MESSAGE_PATTERN = Pattern.compile("badges=([^;]*);.*display-name=([^;]*);.*PRIVMSG #([^ ]*) :(.*)");
+	
+	private String[] lines;
+	
+	@Setup
+	public void setUp() throws IOException{
+		try(var is = Objects.requireNonNull(IrcParseBenchmark.class.getResourceAsStream(LINES_RESOURCE));
+				var reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))){
+			lines = reader.lines().filter(line -> !line.isBlank()).toArray(String[]::new);
+		}
+		if(lines.length != LINE_COUNT){
+			throw new IllegalStateException("Expected " + LINE_COUNT + " lines but got " + lines.length);
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(LINE_COUNT)
+	public void regex(Blackhole blackhole){
+		for(var line : lines){
+			if(line.startsWith("PONG :tmi.twitch.tv")){
+				blackhole.consume(line);
+				continue;
+			}
+			var matcher = MESSAGE_PATTERN.matcher(line);
+			if(matcher.find()){
+				blackhole.consume(matcher.group(1));
+				blackhole.consume(matcher.group(2));
+				blackhole.consume(matcher.group(3));
+				blackhole.consume(matcher.group(4));
+			}
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(LINE_COUNT)
+	public void parser(Blackhole blackhole){
+		for(var line : lines){
+			IrcMessage.forEachLine(line, message -> {
+				if(message.isCommand("PONG")){
+					blackhole.consume(message);
+				}
+				else if(message.isCommand("PRIVMSG")){
+					blackhole.consume(message.getTag("badges"));
+					blackhole.consume(message.getTag("display-name"));
+					blackhole.consume(message.getParameter(0));
+					blackhole.consume(message.getTrailing());
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package fr.rakambda.channelpointsminer.miner.benchmark.dispatch;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ActiveMultipliersUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ChannelLastViewedContentUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimAvailable;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimClaimed;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.Commercial;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.CommunityMomentStart;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.CreateNotification;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.DeleteNotification;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.EventCreated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.EventUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.GlobalLastViewedContentUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PointsEarned;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PointsSpent;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionMade;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionResult;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.RaidCancelV2;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.RaidGoV2;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.RaidUpdateV2;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ReadNotifications;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.StreamDown;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.StreamUp;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.UpdateSummary;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ViewCount;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.WatchPartyVod;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName;
+import fr.rakambda.channelpointsminer.miner.benchmark.BenchmarkUtils;
+import fr.rakambda.channelpointsminer.miner.event.EventHandlerAdapter;
+import fr.rakambda.channelpointsminer.miner.event.IEvent;
+import fr.rakambda.channelpointsminer.miner.event.ILoggableEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.ChatMessageEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.ClaimAvailableEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.ClaimMomentEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.ClaimedMomentEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.DropClaimEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.DropClaimedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.EventCreatedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.EventUpdatedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.MinerStartedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PointsEarnedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PointsSpentEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PredictionMadeEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PredictionResultEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.StreamDownEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.StreamUpEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.StreamerAddedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.StreamerRemovedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.StreamerUnknownEvent;
+import fr.rakambda.channelpointsminer.miner.handler.PubSubMessageHandlerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hierarchy walk + method handle dispatch the adapters used to do with the precomputed dispatch tables, over every event and message type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark{
+	private static final List<Class<? extends IEvent>> EVENT_TYPES = List.of(
+			ChatMessageEvent.class,
+			ClaimAvailableEvent.class,
+			ClaimMomentEvent.class,
+			ClaimedMomentEvent.class,
+			DropClaimEvent.class,
+			DropClaimedEvent.class,
+			EventCreatedEvent.class,
+			EventUpdatedEvent.class,
+			MinerStartedEvent.class,
+			PointsEarnedEvent.class,
+			PointsSpentEvent.class,
+			PredictionMadeEvent.class,
+			PredictionResultEvent.class,
+			StreamDownEvent.class,
+			StreamUpEvent.class,
+			StreamerAddedEvent.class,
+			StreamerRemovedEvent.class,
+			StreamerUnknownEvent.class
+	);
+	private static final List<Class<? extends IPubSubMessage>> MESSAGE_TYPES = List.of(
+			ActiveMultipliersUpdated.class,
+			ChannelLastViewedContentUpdated.class,
+			ClaimAvailable.class,
+			ClaimClaimed.class,
+			Commercial.class,
+			CommunityMomentStart.class,
+			CreateNotification.class,
+			DeleteNotification.class,
+			EventCreated.class,
+			EventUpdated.class,
+			GlobalLastViewedContentUpdated.class,
+			PointsEarned.class,
+			PointsSpent.class,
+			PredictionMade.class,
+			PredictionResult.class,
+			PredictionUpdated.class,
+			RaidCancelV2.class,
+			RaidGoV2.class,
+			RaidUpdateV2.class,
+			ReadNotifications.class,
+			StreamDown.class,
+			StreamUp.class,
+			UpdateSummary.class,
+			ViewCount.class,
+			WatchPartyVod.class
+	);
+	private static final int EVENT_COUNT = 18;
+	private static final int MESSAGE_COUNT = 25;
+	
+	private IEvent[] events;
+	private IPubSubMessage[] messages;
+	private Topic topic;
+	private CountingEventHandler eventHandler;
+	private CountingMessageHandler messageHandler;
+	
+	@Setup
+	public void setUp(){
+		events = EVENT_TYPES.stream().map(BenchmarkUtils::allocate).toArray(IEvent[]::new);
+		messages = MESSAGE_TYPES.stream().map(BenchmarkUtils::allocate).toArray(IPubSubMessage[]::new);
+		topic = Topic.builder().name(TopicName.COMMUNITY_POINTS_USER_V1).target("123456789").build();
+		eventHandler = new CountingEventHandler();
+		messageHandler = new CountingMessageHandler();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(EVENT_COUNT)
+	public void legacyEventDispatch(Blackhole blackhole){
+		for(var event : events){
+			LegacyEventDispatcher.onEvent(eventHandler, event);
+		}
+		blackhole.consume(eventHandler.count);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(EVENT_COUNT)
+	public void compiledEventDispatch(Blackhole blackhole){
+		for(var event : events){
+			eventHandler.onEvent(event);
+		}
+		blackhole.consume(eventHandler.count);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(MESSAGE_COUNT)
+	public void legacyMessageDispatch(Blackhole blackhole){
+		for(var message : messages){
+			LegacyPubSubDispatcher.handle(messageHandler, topic, message);
+		}
+		blackhole.consume(messageHandler.count);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(MESSAGE_COUNT)
+	public void compiledMessageDispatch(Blackhole blackhole){
+		for(var message : messages){
+			messageHandler.handle(topic, message);
+		}
+		blackhole.consume(messageHandler.count);
+	}
+	
+	private static class CountingEventHandler extends EventHandlerAdapter{
+		private long count;
+		
+		@Override
+		public void onILoggableEvent(@NotNull ILoggableEvent event){
+			count++;
+		}
+		
+		@Override
+		public void onChatMessageEvent(@NotNull ChatMessageEvent event){
+			count++;
+		}
+	}
+	
+	private static class CountingMessageHandler extends PubSubMessageHandlerAdapter{
+		private long count;
+		
+		@Override
+		public void onPointsEarned(@NotNull Topic topic, @NotNull PointsEarned message){
+			count++;
+		}
+		
+		@Override
+		public void onViewCount(@NotNull Topic topic, @NotNull ViewCount message){
+			count++;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package fr.rakambda.channelpointsminer.miner.benchmark.dispatch;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.handler.PubSubMessageHandlerAdapter;
+import fr.rakambda.channelpointsminer.miner.util.ClassWalker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Copy of the dispatch {@link PubSubMessageHandlerAdapter} used to do: walk the hierarchy on each message and invoke the matching method handles.
+ */
+public class LegacyPubSubDispatcher{
+	private static final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+	private static final ConcurrentMap<Class<?>, MethodHandle> methods = new ConcurrentHashMap<>();
+	private static final Set<Class<?>> unresolved;
+	
+	public static void handle(@NotNull PubSubMessageHandlerAdapter handler, @NotNull Topic topic, @NotNull IPubSubMessage message){
+		for(var clazz : ClassWalker.range(message.getClass(), IPubSubMessage.class)){
+			if(unresolved.contains(clazz)){
+				continue;
+			}
+			var methodHandle = methods.computeIfAbsent(clazz, LegacyPubSubDispatcher::findMethod);
+			if(methodHandle == null){
+				unresolved.add(clazz);
+				continue;
+			}
+			
+			try{
+				methodHandle.invoke(handler, topic, message);
+			}
+			catch(Throwable throwable){
+				throw new IllegalStateException(throwable);
+			}
+		}
+	}
+	
+	@Nullable
+	private static MethodHandle findMethod(@NotNull Class<?> clazz){
+		var name = clazz.getSimpleName();
+		var type = MethodType.methodType(Void.TYPE, Topic.class, clazz);
+		try{
+			name = "on" + name;
+			return lookup.findVirtual(PubSubMessageHandlerAdapter.class, name, type);
+		}
+		catch(NoSuchMethodException | IllegalAccessException ignored){
+		}
+		return null;
+	}
+	
+	static{
+		unresolved = ConcurrentHashMap.newKeySet();
+		Collections.addAll(unresolved,
+				Object.class
+		);
+	}
+}
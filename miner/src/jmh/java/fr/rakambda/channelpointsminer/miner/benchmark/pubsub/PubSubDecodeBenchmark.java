@@ -0,0 +1,70 @@
+package fr.rakambda.channelpointsminer.miner.benchmark.pubsub;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import fr.rakambda.channelpointsminer.miner.api.ws.PubSubFrameDecoder;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
+import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the double polymorphic deserialization of PubSub frames with {@link PubSubFrameDecoder}, over recorded frames with a traffic-like mix (mostly view counts).
+ * Run with {@code -prof gc} to see the allocation per frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PubSubDecodeBenchmark{
+	private static final String FRAMES_RESOURCE = "/benchmark/pubsub/frames.jsonl";
+	private static final int FRAME_COUNT = 28;
+	
+	private String[] frames;
+	private PubSubFrameDecoder decoder;
+	
+	@Setup
+	public void setUp() throws IOException{
+		try(var is = Objects.requireNonNull(PubSubDecodeBenchmark.class.getResourceAsStream(FRAMES_RESOURCE));
+				var reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))){
+			frames = reader.lines().filter(line -> !line.isBlank()).toArray(String[]::new);
+		}
+		if(frames.length != FRAME_COUNT){
+			throw new IllegalStateException("Expected " + FRAME_COUNT + " frames but got " + frames.length);
+		}
+		decoder = PubSubFrameDecoder.getInstance();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(FRAME_COUNT)
+	public void legacyDecode(Blackhole blackhole) throws IOException{
+		for(var frame : frames){
+			blackhole.consume(JacksonUtils.read(frame, new TypeReference<ITwitchWebSocketResponse>(){}));
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(FRAME_COUNT)
+	public void frameDecoder(Blackhole blackhole) throws IOException{
+		for(var frame : frames){
+			blackhole.consume(decoder.decode(frame));
+		}
+	}
+}
@@ -2,11 +2,15 @@ package fr.rakambda.channelpointsminer.miner;
 
 import fr.rakambda.channelpointsminer.miner.cli.CLIHolder;
 import fr.rakambda.channelpointsminer.miner.cli.CLIParameters;
+import fr.rakambda.channelpointsminer.miner.config.AccountConfiguration;
 import fr.rakambda.channelpointsminer.miner.event.impl.MinerStartedEvent;
 import fr.rakambda.channelpointsminer.miner.factory.ConfigurationFactory;
 import fr.rakambda.channelpointsminer.miner.factory.MinerFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
+import fr.rakambda.channelpointsminer.miner.factory.TwitchWebSocketClientFactory;
 import fr.rakambda.channelpointsminer.miner.log.UnirestLogger;
+import fr.rakambda.channelpointsminer.miner.runtime.MinerRuntime;
+import fr.rakambda.channelpointsminer.miner.runtime.StartupOrchestrator;
 import fr.rakambda.channelpointsminer.miner.util.GitProperties;
 import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
 import kong.unirest.core.Unirest;
@@ -17,6 +21,7 @@ import org.jetbrains.annotations.NotNull;
 import picocli.CommandLine;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import static kong.unirest.core.HeaderNames.USER_AGENT;
 
 @Log4j2
@@ -35,16 +40,25 @@ public class MinerApplication{
 		var accountConfigurations = ConfigurationFactory.getInstance();
 		log.info("Picked up configuration: {}", accountConfigurations);
 		
+		var runtime = new MinerRuntime(accountConfigurations.getRuntime());
+		Runtime.getRuntime().addShutdownHook(new Thread(runtime::close, "runtime-shutdown"));
+		TwitchWebSocketClientFactory.setOptions(runtime.getWebSocketOptions());
+		
+		var enabledAccounts = new ArrayList<AccountConfiguration>();
 		for(var accountConfiguration : accountConfigurations.getAccounts()){
 			if(accountConfiguration.isEnabled()){
-				var miner = MinerFactory.create(accountConfiguration);
-				miner.start();
-				miner.onEvent(new MinerStartedEvent(miner, version, commitId, branch, TimeFactory.now()));
+				enabledAccounts.add(accountConfiguration);
 			}
 			else{
 				log.info("Account {} is disabled, skipping it", accountConfiguration.getUsername());
 			}
 		}
+		
+		new StartupOrchestrator(accountConfigurations.getRuntime()).startAll(enabledAccounts, AccountConfiguration::getUsername, accountConfiguration -> {
+			var miner = MinerFactory.create(accountConfiguration, runtime);
+			miner.start();
+			miner.onEvent(new MinerStartedEvent(miner, version, commitId, branch, TimeFactory.now()));
+		});
 	}
 	
 	@NotNull
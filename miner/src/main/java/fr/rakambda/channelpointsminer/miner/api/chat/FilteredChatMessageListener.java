@@ -0,0 +1,38 @@
+package fr.rakambda.channelpointsminer.miner.api.chat;
+
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import java.util.function.Predicate;
+
+/**
+ * Listener only receiving messages whose badges match a predicate, see {@link ITwitchChatClient#addChatMessageListener(ITwitchChatMessageListener, Predicate)}.
+ * <p>
+ * Chat clients check {@link #accepts(ITwitchChatMessageListener, String)} with the badges of a message before reading anything else from it.
+ */
+@RequiredArgsConstructor
+public class FilteredChatMessageListener implements ITwitchChatMessageListener{
+	@NotNull
+	private final ITwitchChatMessageListener delegate;
+	@NotNull
+	private final Predicate<String> badgesFilter;
+	
+	/**
+	 * @param listener The listener.
+	 * @param badges   The badges of the message, empty if it has none.
+	 *
+	 * @return True if the listener wants to receive a message with these badges.
+	 */
+	public static boolean accepts(@NotNull ITwitchChatMessageListener listener, @NotNull String badges){
+		return !(listener instanceof FilteredChatMessageListener filtered) || filtered.badgesFilter.test(badges);
+	}
+	
+	@Override
+	public void onChatMessage(@NotNull String streamer, @NotNull String actor, @NotNull String message){
+		delegate.onChatMessage(streamer, actor, message);
+	}
+	
+	@Override
+	public void onChatMessage(@NotNull String streamer, @NotNull String actor, @NotNull String message, @NotNull String badges){
+		delegate.onChatMessage(streamer, actor, message, badges);
+	}
+}
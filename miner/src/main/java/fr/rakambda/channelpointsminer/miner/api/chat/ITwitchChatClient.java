@@ -1,6 +1,7 @@
 package fr.rakambda.channelpointsminer.miner.api.chat;
 
 import org.jetbrains.annotations.NotNull;
+import java.util.function.Predicate;
 
 public interface ITwitchChatClient extends AutoCloseable{
 	void join(@NotNull String channel);
@@ -15,4 +16,14 @@ public interface ITwitchChatClient extends AutoCloseable{
 	void close();
 	
 	void addChatMessageListener(@NotNull ITwitchChatMessageListener listener);
+	
+	/**
+	 * Add a listener only receiving messages whose badges match a filter. Other messages are dropped while being parsed.
+	 *
+	 * @param listener     The listener.
+	 * @param badgesFilter The filter on the badges of the messages.
+	 */
+	default void addChatMessageListener(@NotNull ITwitchChatMessageListener listener, @NotNull Predicate<String> badgesFilter){
+		addChatMessageListener(new FilteredChatMessageListener(listener, badgesFilter));
+	}
 }
@@ -0,0 +1,26 @@
+package fr.rakambda.channelpointsminer.miner.api.chat.irc;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the activity of one IRC connection.
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class IrcShardMetrics{
+	private final int shard;
+	private final int channels;
+	/**
+	 * Number of lines received since the connection was created.
+	 */
+	private final long receivedLines;
+	/**
+	 * Lines received per second since the previous snapshot of this shard.
+	 */
+	private final double receivedLinesPerSecond;
+}
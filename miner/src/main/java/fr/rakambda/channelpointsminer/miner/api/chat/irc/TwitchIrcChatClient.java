@@ -3,46 +3,44 @@ package fr.rakambda.channelpointsminer.miner.api.chat.irc;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatClient;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
-import lombok.RequiredArgsConstructor;
+import fr.rakambda.channelpointsminer.miner.util.ConsistentHashRing;
 import lombok.extern.log4j.Log4j2;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-import org.kitteh.irc.client.library.Client;
-import org.kitteh.irc.client.library.defaults.element.messagetag.DefaultMessageTagLabel;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.stream.IntStream;
 
-@RequiredArgsConstructor
+/**
+ * IRC chat client spreading channels over one or more connections (shards).
+ * <p>
+ * Channels are assigned to shards with consistent hashing, so that a channel always goes to the same shard and changing the number of shards only moves a few channels.
+ */
 @Log4j2
 public class TwitchIrcChatClient implements ITwitchChatClient{
+	private static final int VIRTUAL_NODES_PER_SHARD = 64;
 	
-	private static final String TAGS_CAPABILITY = "twitch.tv/tags";
-	private static final String EMOTE_SETS_TAG_NAME = "emote-sets";
+	private final Collection<ITwitchChatMessageListener> chatMessageListeners;
+	private final List<TwitchIrcShard> shards;
+	private final ConsistentHashRing<TwitchIrcShard> shardRing;
 	
-	@NotNull
-	private final TwitchLogin twitchLogin;
-	private final boolean listenMessages;
-	private final Collection<ITwitchChatMessageListener> chatMessageListeners = new LinkedList<>();
+	public TwitchIrcChatClient(@NotNull TwitchLogin twitchLogin, boolean listenMessages){
+		this(twitchLogin, listenMessages, 1);
+	}
 	
-	@Nullable
-	private Client ircClient;
-	@Nullable
-	private TwitchIrcMessageHandler ircMessageHandler;
+	public TwitchIrcChatClient(@NotNull TwitchLogin twitchLogin, boolean listenMessages, int shardCount){
+		chatMessageListeners = new LinkedList<>();
+		shards = IntStream.range(0, Math.max(1, shardCount))
+				.mapToObj(index -> new TwitchIrcShard(index, twitchLogin, listenMessages, chatMessageListeners))
+				.toList();
+		shardRing = new ConsistentHashRing<>(shards, VIRTUAL_NODES_PER_SHARD);
+	}
 	
 	@Override
 	public void join(@NotNull String channel){
-		var client = getIrcClient();
-		var ircChannelName = "#%s".formatted(channel.toLowerCase(Locale.ROOT));
-		if(client.getChannel(ircChannelName).isPresent()){
-			log.trace("Tried to join IRC channel {} that is already joined", ircChannelName);
-			return;
-		}
-		
-		log.info("Joining IRC channel {}", ircChannelName);
-		client.addChannel(ircChannelName);
+		var ircChannelName = toIrcChannelName(channel);
+		shardRing.get(ircChannelName).join(ircChannelName);
 	}
 	
 	@Override
@@ -52,63 +50,45 @@ public class TwitchIrcChatClient implements ITwitchChatClient{
 	@Override
 	public void addChatMessageListener(@NotNull ITwitchChatMessageListener listener){
 		chatMessageListeners.add(listener);
-		Optional.ofNullable(ircMessageHandler).ifPresent(i -> i.addListener(listener));
+		shards.forEach(shard -> shard.addChatMessageListener(listener));
 	}
 	
 	@Override
 	public void leave(@NotNull String channel){
-		if(Objects.isNull(ircClient)){
-			log.debug("Didn't leave irc channel #{} as no connection has been made", channel);
-			return;
-		}
-		
-		var ircChannelName = "#%s".formatted(channel);
-		if(ircClient.getChannel(ircChannelName).isEmpty()){
-			log.trace("Tried to leave IRC channel {} that is not joined", ircChannelName);
-			return;
-		}
-		
-		log.info("Leaving IRC channel {}", ircChannelName);
-		ircClient.removeChannel(ircChannelName);
+		var ircChannelName = toIrcChannelName(channel);
+		shardRing.get(ircChannelName).leave(ircChannelName);
 	}
 	
 	@Override
 	public void ping(){
+		if(log.isDebugEnabled()){
+			log.debug("IRC shards activity: {}", getShardMetrics());
+		}
 	}
 	
 	@Override
 	public void close(){
-		Optional.ofNullable(ircClient).ifPresent(Client::shutdown);
+		shards.forEach(TwitchIrcShard::close);
 	}
 	
+	/**
+	 * Get the metrics of each shard. Rates are computed since the previous call.
+	 *
+	 * @return The metrics, ordered by shard.
+	 */
 	@NotNull
-	private synchronized Client getIrcClient(){
-		if(Objects.isNull(ircClient)){
-			log.info("Creating new Twitch IRC client");
-			
-			ircClient = TwitchIrcFactory.createIrcClient(twitchLogin);
-			ircClient.connect();
-			ircClient.setExceptionListener(e -> log.error("Error from irc", e));
-			
-			var eventManager = ircClient.getEventManager();
-			eventManager.registerEventListener(TwitchIrcFactory.createIrcConnectionHandler(twitchLogin.getUsername()));
-			
-			if(listenMessages){
-				ircMessageHandler = TwitchIrcFactory.createIrcMessageHandler(twitchLogin.getUsername());
-				chatMessageListeners.forEach(ircMessageHandler::addListener);
-				eventManager.registerEventListener(ircMessageHandler);
-				
-				var capabilityRequest = ircClient.commands().capabilityRequest();
-				capabilityRequest.enable(TAGS_CAPABILITY);
-				capabilityRequest.execute();
-				
-				var tagManager = ircClient.getMessageTagManager();
-				tagManager.registerTagCreator(TAGS_CAPABILITY, EMOTE_SETS_TAG_NAME, DefaultMessageTagLabel.FUNCTION);
-			}
-			
-			log.info("IRC Client created");
-		}
-		
-		return ircClient;
+	public List<IrcShardMetrics> getShardMetrics(){
+		return shards.stream()
+				.map(TwitchIrcShard::getMetrics)
+				.toList();
+	}
+	
+	public int getShardCount(){
+		return shards.size();
+	}
+	
+	@NotNull
+	private static String toIrcChannelName(@NotNull String channel){
+		return "#%s".formatted(channel.toLowerCase(Locale.ROOT));
 	}
 }
@@ -1,11 +1,13 @@
 package fr.rakambda.channelpointsminer.miner.api.chat.irc;
 
+import fr.rakambda.channelpointsminer.miner.api.chat.FilteredChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.log.LogContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import net.engio.mbassy.listener.Handler;
 import org.jetbrains.annotations.NotNull;
+import org.kitteh.irc.client.library.element.MessageTag;
 import org.kitteh.irc.client.library.event.channel.ChannelMessageEvent;
 import java.util.Collection;
 import java.util.LinkedList;
@@ -24,19 +26,25 @@ public class TwitchIrcMessageHandler{
 	public void onMessageEvent(@NotNull ChannelMessageEvent event){
 		try(var ignored = LogContext.with(accountName)){
 			log.trace("Received Irc Chat Message");
-			var badges = event.getTag("badges");
-			if(badges.isPresent()){
-				listeners.forEach(l -> l.onChatMessage(
-						event.getChannel().getName().substring(1),
-						event.getActor().getMessagingName(),
-						event.getMessage(),
-						badges.get().getAsString()));
+			var badgesTag = event.getTag("badges");
+			var badges = badgesTag.map(MessageTag::getAsString).orElse("");
+			if(listeners.stream().noneMatch(l -> FilteredChatMessageListener.accepts(l, badges))){
+				return;
 			}
-			else{
-				listeners.forEach(l -> l.onChatMessage(
-						event.getChannel().getName().substring(1),
-						event.getActor().getMessagingName(),
-						event.getMessage()));
+			
+			var streamer = event.getChannel().getName().substring(1);
+			var actor = event.getActor().getMessagingName();
+			var message = event.getMessage();
+			for(var listener : listeners){
+				if(!FilteredChatMessageListener.accepts(listener, badges)){
+					continue;
+				}
+				if(badgesTag.isPresent()){
+					listener.onChatMessage(streamer, actor, message, badges);
+				}
+				else{
+					listener.onChatMessage(streamer, actor, message);
+				}
 			}
 		}
 	}
@@ -0,0 +1,145 @@
+package fr.rakambda.channelpointsminer.miner.api.chat.irc;
+
+import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
+import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
+import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.kitteh.irc.client.library.Client;
+import org.kitteh.irc.client.library.defaults.element.messagetag.DefaultMessageTagLabel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One IRC connection of a {@link TwitchIrcChatClient}, created on the first channel joined.
+ * <p>
+ * Each shard has its own kitteh client, and so its own input thread and reconnection, a disconnect only drops the channels of this shard.
+ */
+@Log4j2
+class TwitchIrcShard{
+	private static final String TAGS_CAPABILITY = "twitch.tv/tags";
+	private static final String EMOTE_SETS_TAG_NAME = "emote-sets";
+	
+	@Getter
+	private final int index;
+	private final TwitchLogin twitchLogin;
+	private final boolean listenMessages;
+	private final Collection<ITwitchChatMessageListener> chatMessageListeners;
+	private final Set<String> channels;
+	private final AtomicLong receivedLines;
+	
+	@Nullable
+	private Client ircClient;
+	@Nullable
+	private TwitchIrcMessageHandler ircMessageHandler;
+	private Instant lastSampleTime;
+	private long lastSampleLines;
+	
+	TwitchIrcShard(int index, @NotNull TwitchLogin twitchLogin, boolean listenMessages, @NotNull Collection<ITwitchChatMessageListener> chatMessageListeners){
+		this.index = index;
+		this.twitchLogin = twitchLogin;
+		this.listenMessages = listenMessages;
+		this.chatMessageListeners = chatMessageListeners;
+		channels = ConcurrentHashMap.newKeySet();
+		receivedLines = new AtomicLong();
+		lastSampleTime = TimeFactory.now();
+	}
+	
+	void join(@NotNull String ircChannelName){
+		var client = getIrcClient();
+		if(client.getChannel(ircChannelName).isPresent()){
+			log.trace("Tried to join IRC channel {} that is already joined", ircChannelName);
+			return;
+		}
+		
+		log.info("Joining IRC channel {} on shard {}", ircChannelName, index);
+		channels.add(ircChannelName);
+		client.addChannel(ircChannelName);
+	}
+	
+	void leave(@NotNull String ircChannelName){
+		if(Objects.isNull(ircClient)){
+			log.debug("Didn't leave irc channel {} as no connection has been made", ircChannelName);
+			return;
+		}
+		
+		if(ircClient.getChannel(ircChannelName).isEmpty()){
+			log.trace("Tried to leave IRC channel {} that is not joined", ircChannelName);
+			return;
+		}
+		
+		log.info("Leaving IRC channel {}", ircChannelName);
+		channels.remove(ircChannelName);
+		ircClient.removeChannel(ircChannelName);
+	}
+	
+	void addChatMessageListener(@NotNull ITwitchChatMessageListener listener){
+		Optional.ofNullable(ircMessageHandler).ifPresent(i -> i.addListener(listener));
+	}
+	
+	void close(){
+		Optional.ofNullable(ircClient).ifPresent(Client::shutdown);
+	}
+	
+	/**
+	 * Get the metrics of this shard. The rate is computed since the previous call.
+	 *
+	 * @return The metrics.
+	 */
+	@NotNull
+	synchronized IrcShardMetrics getMetrics(){
+		var now = TimeFactory.now();
+		var lines = receivedLines.get();
+		var elapsedMillis = Duration.between(lastSampleTime, now).toMillis();
+		var rate = elapsedMillis <= 0 ? 0 : (lines - lastSampleLines) * 1000D / elapsedMillis;
+		lastSampleTime = now;
+		lastSampleLines = lines;
+		
+		return IrcShardMetrics.builder()
+				.shard(index)
+				.channels(channels.size())
+				.receivedLines(lines)
+				.receivedLinesPerSecond(rate)
+				.build();
+	}
+	
+	@NotNull
+	private synchronized Client getIrcClient(){
+		if(Objects.isNull(ircClient)){
+			log.info("Creating new Twitch IRC client for shard {}", index);
+			
+			ircClient = TwitchIrcFactory.createIrcClient(twitchLogin);
+			ircClient.setInputListener(line -> receivedLines.incrementAndGet());
+			ircClient.connect();
+			ircClient.setExceptionListener(e -> log.error("Error from irc shard {}", index, e));
+			
+			var eventManager = ircClient.getEventManager();
+			eventManager.registerEventListener(TwitchIrcFactory.createIrcConnectionHandler(twitchLogin.getUsername()));
+			
+			if(listenMessages){
+				ircMessageHandler = TwitchIrcFactory.createIrcMessageHandler(twitchLogin.getUsername());
+				chatMessageListeners.forEach(ircMessageHandler::addListener);
+				eventManager.registerEventListener(ircMessageHandler);
+				
+				var capabilityRequest = ircClient.commands().capabilityRequest();
+				capabilityRequest.enable(TAGS_CAPABILITY);
+				capabilityRequest.execute();
+				
+				var tagManager = ircClient.getMessageTagManager();
+				tagManager.registerTagCreator(TAGS_CAPABILITY, EMOTE_SETS_TAG_NAME, DefaultMessageTagLabel.FUNCTION);
+			}
+			
+			log.info("IRC Client created");
+		}
+		
+		return ircClient;
+	}
+}
@@ -0,0 +1,237 @@
+package fr.rakambda.channelpointsminer.miner.api.chat.ws;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.function.Consumer;
+
+/**
+ * An IRC line, with IRCv3 tags, parsed in a single pass without regex.
+ * <p>
+ * Parsing only records where the tags, prefix, command and parameters are in the line, values are sliced out of it when asked for.
+ * Twitch batches several {@code \r\n} separated lines in a single websocket frame, see {@link #forEachLine(String, Consumer)}.
+ */
+public class IrcMessage{
+	private final String line;
+	private final int start;
+	private final int tagsStart;
+	private final int tagsEnd;
+	private final int prefixStart;
+	private final int prefixEnd;
+	private final int commandStart;
+	private final int commandEnd;
+	private final int paramsStart;
+	private final int end;
+	
+	private IrcMessage(@NotNull String line, int start, int tagsStart, int tagsEnd, int prefixStart, int prefixEnd, int commandStart, int commandEnd, int paramsStart, int end){
+		this.line = line;
+		this.start = start;
+		this.tagsStart = tagsStart;
+		this.tagsEnd = tagsEnd;
+		this.prefixStart = prefixStart;
+		this.prefixEnd = prefixEnd;
+		this.commandStart = commandStart;
+		this.commandEnd = commandEnd;
+		this.paramsStart = paramsStart;
+		this.end = end;
+	}
+	
+	/**
+	 * Parse each line of a frame.
+	 *
+	 * @param frame    The frame, made of one or more lines.
+	 * @param consumer Called with each valid line, in order.
+	 */
+	public static void forEachLine(@NotNull String frame, @NotNull Consumer<IrcMessage> consumer){
+		var start = 0;
+		var length = frame.length();
+		while(start < length){
+			var lineEnd = frame.indexOf('\n', start);
+			if(lineEnd < 0){
+				lineEnd = length;
+			}
+			var contentEnd = lineEnd > start && frame.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+			
+			var message = parse(frame, start, contentEnd);
+			if(message != null){
+				consumer.accept(message);
+			}
+			start = lineEnd + 1;
+		}
+	}
+	
+	@Nullable
+	public static IrcMessage parse(@NotNull String line){
+		return parse(line, 0, line.length());
+	}
+	
+	/**
+	 * Parse a line.
+	 *
+	 * @param line  The text containing the line.
+	 * @param start Index of the first character of the line.
+	 * @param end   Index after the last character of the line, excluding line terminators.
+	 *
+	 * @return The message, null if the line is empty or has no command.
+	 */
+	@Nullable
+	public static IrcMessage parse(@NotNull String line, int start, int end){
+		var position = skipSpaces(line, start, end);
+		
+		var tagsStart = -1;
+		var tagsEnd = -1;
+		if(position < end && line.charAt(position) == '@'){
+			tagsStart = position + 1;
+			tagsEnd = indexOfSpace(line, tagsStart, end);
+			position = skipSpaces(line, tagsEnd, end);
+		}
+		
+		var prefixStart = -1;
+		var prefixEnd = -1;
+		if(position < end && line.charAt(position) == ':'){
+			prefixStart = position + 1;
+			prefixEnd = indexOfSpace(line, prefixStart, end);
+			position = skipSpaces(line, prefixEnd, end);
+		}
+		
+		if(position >= end){
+			return null;
+		}
+		var commandEnd = indexOfSpace(line, position, end);
+		return new IrcMessage(line, start, tagsStart, tagsEnd, prefixStart, prefixEnd, position, commandEnd, skipSpaces(line, commandEnd, end), end);
+	}
+	
+	private static int indexOfSpace(@NotNull String line, int start, int end){
+		var index = line.indexOf(' ', start);
+		return index < 0 || index > end ? end : index;
+	}
+	
+	private static int skipSpaces(@NotNull String line, int start, int end){
+		var position = start;
+		while(position < end && line.charAt(position) == ' '){
+			position++;
+		}
+		return position;
+	}
+	
+	@NotNull
+	public String getCommand(){
+		return line.substring(commandStart, commandEnd);
+	}
+	
+	public boolean isCommand(@NotNull String command){
+		return commandEnd - commandStart == command.length() && line.regionMatches(commandStart, command, 0, command.length());
+	}
+	
+	/**
+	 * @return The prefix without its leading colon ({@code nick!user@host}), null if there is none.
+	 */
+	@Nullable
+	public String getPrefix(){
+		return prefixStart < 0 ? null : line.substring(prefixStart, prefixEnd);
+	}
+	
+	/**
+	 * Get the value of a tag.
+	 *
+	 * @param name The name of the tag.
+	 *
+	 * @return The unescaped value, empty if the tag has no value, null if the tag isn't present.
+	 */
+	@Nullable
+	public String getTag(@NotNull String name){
+		var position = tagsStart;
+		while(position >= 0 && position < tagsEnd){
+			var tagEnd = line.indexOf(';', position);
+			if(tagEnd < 0 || tagEnd > tagsEnd){
+				tagEnd = tagsEnd;
+			}
+			
+			var nameEnd = position + name.length();
+			if(nameEnd <= tagEnd && line.regionMatches(position, name, 0, name.length())){
+				if(nameEnd == tagEnd){
+					return "";
+				}
+				if(line.charAt(nameEnd) == '='){
+					return unescapeTagValue(line, nameEnd + 1, tagEnd);
+				}
+			}
+			position = tagEnd + 1;
+		}
+		return null;
+	}
+	
+	/**
+	 * Get a parameter, the trailing one (after a colon) being the last one and possibly containing spaces.
+	 *
+	 * @param index The index of the parameter.
+	 *
+	 * @return The parameter, null if there are not that many.
+	 */
+	@Nullable
+	public String getParameter(int index){
+		var position = paramsStart;
+		var current = 0;
+		while(position < end){
+			if(line.charAt(position) == ':'){
+				return current == index ? line.substring(position + 1, end) : null;
+			}
+			var paramEnd = indexOfSpace(line, position, end);
+			if(current == index){
+				return line.substring(position, paramEnd);
+			}
+			current++;
+			position = skipSpaces(line, paramEnd, end);
+		}
+		return null;
+	}
+	
+	/**
+	 * @return The last parameter, null if there are no parameters.
+	 */
+	@Nullable
+	public String getTrailing(){
+		if(paramsStart >= end){
+			return null;
+		}
+		var trailing = line.indexOf(" :", paramsStart - 1);
+		if(trailing >= 0 && trailing < end){
+			return line.substring(trailing + 2, end);
+		}
+		var lastSpace = line.lastIndexOf(' ', end - 1);
+		return line.substring(Math.max(lastSpace + 1, paramsStart), end);
+	}
+	
+	@NotNull
+	private static String unescapeTagValue(@NotNull String line, int start, int end){
+		var escape = line.indexOf('\\', start);
+		if(escape < 0 || escape >= end){
+			return line.substring(start, end);
+		}
+		
+		var builder = new StringBuilder(end - start);
+		builder.append(line, start, escape);
+		for(var i = escape; i < end; i++){
+			var c = line.charAt(i);
+			if(c != '\\'){
+				builder.append(c);
+				continue;
+			}
+			if(++i >= end){
+				break;
+			}
+			switch(line.charAt(i)){
+				case ':' -> builder.append(';');
+				case 's' -> builder.append(' ');
+				case 'r' -> builder.append('\r');
+				case 'n' -> builder.append('\n');
+				default -> builder.append(line.charAt(i));
+			}
+		}
+		return builder.toString();
+	}
+	
+	@Override
+	public String toString(){
+		return line.substring(start, end);
+	}
+}
@@ -1,8 +1,11 @@
 package fr.rakambda.channelpointsminer.miner.api.chat.ws;
 
+import fr.rakambda.channelpointsminer.miner.api.chat.FilteredChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatClient;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
+import fr.rakambda.channelpointsminer.miner.api.websocket.MultiplexedWebSocketClient;
+import fr.rakambda.channelpointsminer.miner.api.websocket.WebSocketOptions;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.log.LogContext;
 import lombok.AccessLevel;
@@ -10,7 +13,6 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 import org.java_websocket.WebSocket;
-import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.framing.Framedata;
 import org.java_websocket.framing.PongFrame;
 import org.java_websocket.handshake.ServerHandshake;
@@ -19,16 +21,19 @@ import org.jetbrains.annotations.TestOnly;
 import java.net.URI;
 import java.time.Instant;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.regex.Pattern;
 
 @Log4j2
-public class TwitchChatWebSocketClient extends WebSocketClient implements ITwitchChatClient{
-	private final static Pattern MESSAGE_PATTERN = Pattern.compile("badges=([^;]*);.*display-name=([^;]*);.*PRIVMSG #([^ ]*) :(.*)");
+public class TwitchChatWebSocketClient extends MultiplexedWebSocketClient implements ITwitchChatClient{
+	private static final String BADGES_TAG = "badges";
+	private static final String DISPLAY_NAME_TAG = "display-name";
+	private static final int MAX_LINE_LENGTH = 510;
 	
 	@Getter
 	private final Set<String> channels;
@@ -44,13 +49,17 @@ public class TwitchChatWebSocketClient extends WebSocketClient implements ITwitc
 	private Instant lastHeartbeat;
 	
 	public TwitchChatWebSocketClient(@NotNull URI uri, @NotNull TwitchLogin twitchLogin, boolean listenMessages){
-		super(uri);
+		this(uri, twitchLogin, listenMessages, WebSocketOptions.DEFAULT);
+	}
+	
+	public TwitchChatWebSocketClient(@NotNull URI uri, @NotNull TwitchLogin twitchLogin, boolean listenMessages, @NotNull WebSocketOptions options){
+		super(uri, options);
 		this.twitchLogin = twitchLogin;
 		this.listenMessages = listenMessages;
 		uuid = UUID.randomUUID().toString();
 		
 		setConnectionLostTimeout(0);
-		channels = new HashSet<>();
+		channels = ConcurrentHashMap.newKeySet();
 		socketClosedListeners = new ConcurrentLinkedQueue<>();
 		chatMessageListeners = new LinkedList<>();
 		lastHeartbeat = Instant.EPOCH;
@@ -71,29 +80,45 @@ public class TwitchChatWebSocketClient extends WebSocketClient implements ITwitc
 	public void onMessage(String messageStr){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
 			log.trace("Received Chat Websocket message: {}", messageStr.strip());
-			if(messageStr.startsWith("PONG :tmi.twitch.tv")){
-				onWebsocketPong(this, new PongFrame());
-			}
-			else if(listenMessages){
-				var messageMatch = MESSAGE_PATTERN.matcher(messageStr);
-				if(messageMatch.find()){
-					var badges = messageMatch.group(1);
-					var actor = messageMatch.group(2);
-					var streamer = messageMatch.group(3);
-					var message = messageMatch.group(4);
-					chatMessageListeners.forEach(l -> l.onChatMessage(streamer, actor, message, badges));
-				}
-			}
+			IrcMessage.forEachLine(messageStr, this::onIrcMessage);
 		}
 		catch(Exception e){
 			log.error("Failed to handle Chat WebSocket message {}", messageStr, e);
 		}
 	}
 	
+	private void onIrcMessage(@NotNull IrcMessage ircMessage){
+		if(ircMessage.isCommand("PONG")){
+			onWebsocketPong(this, new PongFrame());
+		}
+		else if(listenMessages && ircMessage.isCommand("PRIVMSG")){
+			var badges = ircMessage.getTag(BADGES_TAG);
+			if(Objects.isNull(badges) || chatMessageListeners.stream().noneMatch(l -> FilteredChatMessageListener.accepts(l, badges))){
+				return;
+			}
+			
+			var channel = ircMessage.getParameter(0);
+			var message = ircMessage.getTrailing();
+			var actor = ircMessage.getTag(DISPLAY_NAME_TAG);
+			if(Objects.isNull(channel) || !channel.startsWith("#") || Objects.isNull(message) || Objects.isNull(actor)){
+				log.debug("Ignored chat message without expected tags {}", ircMessage);
+				return;
+			}
+			
+			var streamer = channel.substring(1);
+			for(var listener : chatMessageListeners){
+				if(FilteredChatMessageListener.accepts(listener, badges)){
+					listener.onChatMessage(streamer, actor, message, badges);
+				}
+			}
+		}
+	}
+	
 	@Override
 	public void onClose(int code, String reason, boolean remote){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
 			log.info("Chat WebSocket closed with code {}, from host {}, reason {}", code, remote, reason);
+			getCompressionMetrics().ifPresent(metrics -> log.debug("Chat WebSocket compression: {}", metrics));
 			socketClosedListeners.forEach(l -> l.onWebSocketClosed(this, code, reason, remote));
 		}
 	}
@@ -126,10 +151,32 @@ public class TwitchChatWebSocketClient extends WebSocketClient implements ITwitc
 	
 	@Override
 	public void join(@NotNull String channel){
+		joinAll(List.of(channel));
+	}
+	
+	/**
+	 * Join several channels, packed in as few comma-separated JOIN lines as the IRC line length allows. Channels already joined are ignored.
+	 *
+	 * @param channels The channels to join.
+	 */
+	public void joinAll(@NotNull Collection<String> channels){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
-			if(channels.add(channel)){
+			var line = new StringBuilder();
+			for(var channel : channels){
+				if(!this.channels.add(channel)){
+					continue;
+				}
 				log.info("Joining Chat channel {}", channel);
-				sendMessage("JOIN #" + channel);
+				
+				if(!line.isEmpty() && line.length() + 2 + channel.length() > MAX_LINE_LENGTH){
+					sendMessage(line.toString());
+					line.setLength(0);
+				}
+				line.append(line.isEmpty() ? "JOIN #" : ",#").append(channel);
+			}
+			
+			if(!line.isEmpty()){
+				sendMessage(line.toString());
 			}
 		}
 	}
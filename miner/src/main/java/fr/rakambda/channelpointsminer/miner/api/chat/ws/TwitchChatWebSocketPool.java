@@ -5,37 +5,65 @@ import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TwitchWebSocketClientFactory;
+import fr.rakambda.channelpointsminer.miner.util.TokenBucket;
 import lombok.extern.log4j.Log4j2;
 import org.java_websocket.client.WebSocketClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.java_websocket.framing.CloseFrame.ABNORMAL_CLOSE;
 import static org.java_websocket.framing.CloseFrame.NORMAL;
 
+/**
+ * Pool of chat websockets.
+ * <p>
+ * Channels to join are queued and sent in batched JOIN lines, at most {@link #JOIN_RATE_LIMIT} channels every {@link #JOIN_RATE_PERIOD} as Twitch throttles join attempts per account.
+ * Channels that can't be joined right away are sent from the scheduler once the rate limit allows it, including the ones replayed after a connection is lost.
+ */
 @Log4j2
 public class TwitchChatWebSocketPool implements AutoCloseable, ITwitchChatWebSocketClosedListener, ITwitchChatClient{
 	private static final int SOCKET_TIMEOUT_MINUTES = 5;
+	private static final int JOIN_RATE_LIMIT = 20;
+	private static final Duration JOIN_RATE_PERIOD = Duration.ofSeconds(10);
 	
 	private final Collection<TwitchChatWebSocketClient> clients;
+	private final Map<String, TwitchChatWebSocketClient> channelOwners;
 	private final int maxTopicPerClient;
 	private final boolean listenMessages;
 	private final Collection<ITwitchChatMessageListener> chatMessageListeners;
 	private final TwitchLogin twitchLogin;
-	private final Queue<String> pendingJoin;
+	private final ScheduledExecutorService scheduler;
+	private final Set<String> pendingJoin;
+	private final TokenBucket joinBucket;
+	private final AtomicBoolean joinScheduled;
 	
-	public TwitchChatWebSocketPool(int maxTopicPerClient, @NotNull TwitchLogin twitchLogin, boolean listenMessages){
+	private volatile boolean closed;
+	
+	public TwitchChatWebSocketPool(int maxTopicPerClient, @NotNull TwitchLogin twitchLogin, boolean listenMessages, @NotNull ScheduledExecutorService scheduler){
 		this.maxTopicPerClient = maxTopicPerClient;
 		this.twitchLogin = twitchLogin;
 		this.listenMessages = listenMessages;
+		this.scheduler = scheduler;
 		clients = new ConcurrentLinkedQueue<>();
-		pendingJoin = new ConcurrentLinkedQueue<>();
+		channelOwners = new ConcurrentHashMap<>();
+		pendingJoin = new LinkedHashSet<>();
 		chatMessageListeners = new LinkedList<>();
+		joinBucket = new TokenBucket(JOIN_RATE_LIMIT, JOIN_RATE_PERIOD);
+		joinScheduled = new AtomicBoolean(false);
 	}
 	
 	@Override
@@ -57,52 +85,119 @@ public class TwitchChatWebSocketPool implements AutoCloseable, ITwitchChatWebSoc
 	@Override
 	public void onWebSocketClosed(@NotNull TwitchChatWebSocketClient client, int code, @Nullable String reason, boolean remote){
 		clients.remove(client);
-		if(code != NORMAL){
-			pendingJoin.addAll(client.getChannels());
+		
+		var channels = new ArrayList<String>();
+		channelOwners.entrySet().removeIf(entry -> {
+			if(entry.getValue() == client){
+				channels.add(entry.getKey());
+				return true;
+			}
+			return false;
+		});
+		
+		if(code != NORMAL && !closed && !channels.isEmpty()){
+			log.info("Joining {} chat channels again", channels.size());
+			synchronized(pendingJoin){
+				pendingJoin.addAll(channels);
+			}
+			try{
+				scheduler.execute(this::joinPending);
+			}
+			catch(RejectedExecutionException e){
+				log.debug("Failed to schedule chat channels join", e);
+			}
 		}
 	}
 	
+	/**
+	 * Join a channel. It is sent right away if the rate limit allows it, otherwise it is queued and sent later from the scheduler.
+	 *
+	 * @param channel The channel to join.
+	 */
 	@Override
 	public void join(@NotNull String channel){
 		var lowerChannel = channel.toLowerCase();
-		var isListened = isChannelJoined(lowerChannel);
-		if(isListened){
+		if(channelOwners.containsKey(lowerChannel)){
 			log.debug("Channel {} is already joined", lowerChannel);
 			return;
 		}
 		
-		try{
-			getAvailableClient().join(lowerChannel);
-		}
-		catch(RuntimeException e){
+		synchronized(pendingJoin){
 			pendingJoin.add(lowerChannel);
-			throw e;
 		}
+		flushPendingJoin();
 	}
 	
 	@Override
 	public void joinPending(){
 		try{
-			String channel;
-			while(Objects.nonNull(channel = pendingJoin.poll())){
-				join(channel);
-			}
+			flushPendingJoin();
 		}
 		catch(RuntimeException e){
 			log.error("Failed to join pending chats", e);
 		}
 	}
 	
+	/**
+	 * Send as many pending channels as the rate limit allows, filling the existing clients before creating new ones.
+	 * If some are left, another flush is scheduled for when the rate limit allows it.
+	 */
+	private synchronized void flushPendingJoin(){
+		while(!closed && getPendingJoinCount() > 0){
+			if(joinBucket.getAvailable() <= 0){
+				scheduleJoin();
+				return;
+			}
+			
+			var client = getAvailableClient();
+			var batch = new ArrayList<String>();
+			synchronized(pendingJoin){
+				var count = (int) Math.min(pendingJoin.size(), maxTopicPerClient - client.getChannelCount());
+				var iterator = pendingJoin.iterator();
+				for(var granted = joinBucket.tryAcquire(count); granted > 0 && iterator.hasNext(); granted--){
+					batch.add(iterator.next());
+					iterator.remove();
+				}
+			}
+			if(batch.isEmpty()){
+				return;
+			}
+			
+			batch.forEach(channel -> channelOwners.put(channel, client));
+			client.joinAll(batch);
+		}
+	}
+	
+	private void scheduleJoin(){
+		if(closed || !joinScheduled.compareAndSet(false, true)){
+			return;
+		}
+		
+		var delay = Math.max(1, joinBucket.getDelayUntilAvailable().toMillis());
+		log.debug("Chat join rate limit reached, joining pending channels in {}ms", delay);
+		try{
+			scheduler.schedule(() -> {
+				joinScheduled.set(false);
+				joinPending();
+			}, delay, MILLISECONDS);
+		}
+		catch(RejectedExecutionException e){
+			joinScheduled.set(false);
+			log.debug("Failed to schedule chat channels join", e);
+		}
+	}
+	
 	@Override
 	public void leave(@NotNull String channel){
 		var lowerChannel = channel.toLowerCase();
-		clients.stream()
-				.filter(client -> client.isChannelJoined(lowerChannel))
-				.forEach(client -> client.leave(lowerChannel));
-	}
-	
-	private boolean isChannelJoined(@NotNull String channel){
-		return clients.stream().anyMatch(client -> client.isChannelJoined(channel));
+		synchronized(pendingJoin){
+			pendingJoin.remove(lowerChannel);
+		}
+		
+		var client = channelOwners.remove(lowerChannel);
+		if(Objects.nonNull(client)){
+			client.leave(lowerChannel);
+		}
 	}
 	
 	@NotNull
@@ -133,6 +228,7 @@ public class TwitchChatWebSocketPool implements AutoCloseable, ITwitchChatWebSoc
 	
 	@Override
 	public void close(){
+		closed = true;
 		clients.forEach(WebSocketClient::close);
 	}
 	
@@ -140,6 +236,12 @@ public class TwitchChatWebSocketPool implements AutoCloseable, ITwitchChatWebSoc
 		return clients.size();
 	}
 	
+	public int getPendingJoinCount(){
+		synchronized(pendingJoin){
+			return pendingJoin.size();
+		}
+	}
+	
 	@Override
 	public void addChatMessageListener(@NotNull ITwitchChatMessageListener listener){
 		chatMessageListeners.add(listener);
@@ -1,5 +1,6 @@
 package fr.rakambda.channelpointsminer.miner.api.gql.gql;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLError;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLResponse;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.IGQLOperation;
@@ -35,16 +36,25 @@ import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IIntegrityProvider
 import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IntegrityException;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.api.passport.exceptions.InvalidCredentials;
+import fr.rakambda.channelpointsminer.miner.runtime.AsyncLimiter;
+import kong.unirest.core.GenericType;
+import kong.unirest.core.HttpRequestWithBody;
+import kong.unirest.core.HttpResponse;
+import kong.unirest.core.ObjectMapper;
 import kong.unirest.core.UnirestInstance;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import static kong.unirest.core.HeaderNames.AUTHORIZATION;
 
 @RequiredArgsConstructor
@@ -60,61 +70,71 @@ public class GQLApi{
 	private static final String ORDER_DESC = "DESC";
 	private static final Set<String> EXPECTED_ERROR_MESSAGES = Set.of("service timeout", "service error", "server error", "service unavailable");
 	private static final Set<String> INTEGRITY_ERROR_MESSAGES = Set.of("failed integrity check");
+	private static final int MAX_BATCH_SIZE = 35;
 	
 	private final TwitchLogin twitchLogin;
 	private final UnirestInstance unirest;
 	private final IIntegrityProvider integrityProvider;
+	private final AsyncLimiter requestLimiter;
+	private final Executor requestExecutor;
 	
 	@NotNull
 	public Optional<GQLResponse<ReportMenuItemData>> reportMenuItem(@NotNull String username){
 		return postGqlRequest(new ReportMenuItemOperation(username));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<ReportMenuItemData>>> reportMenuItemAsync(@NotNull String username){
+		return postGqlRequestAsync(new ReportMenuItemOperation(username));
+	}
+	
+	/**
+	 * Send several operations, of any type, in as few requests as possible.
+	 * Twitch accepts an array of operations in a single request, and answers with one response per operation in the same order.
+	 * Operations are split in requests of at most {@value #MAX_BATCH_SIZE} operations.
+	 *
+	 * @param operations The operations to send.
+	 *
+	 * @return The responses, to be read with the operations given.
+	 */
+	@NotNull
+	public GQLBatchResponse batch(@NotNull List<? extends IGQLOperation<?>> operations){
+		var batchResponse = new GQLBatchResponse();
+		for(var start = 0; start < operations.size(); start += MAX_BATCH_SIZE){
+			postGqlBatchRequest(operations.subList(start, Math.min(operations.size(), start + MAX_BATCH_SIZE)), batchResponse);
+		}
+		return batchResponse;
+	}
+	
+	/**
+	 * Asynchronous version of {@link #batch(List)}, the requests of the batch being sent in parallel.
+	 *
+	 * @param operations The operations to send.
+	 *
+	 * @return A future of the responses, to be read with the operations given.
+	 */
+	@NotNull
+	public CompletableFuture<GQLBatchResponse> batchAsync(@NotNull List<? extends IGQLOperation<?>> operations){
+		var result = CompletableFuture.completedFuture(new GQLBatchResponse());
+		for(var start = 0; start < operations.size(); start += MAX_BATCH_SIZE){
+			var requestResponse = postGqlBatchRequestAsync(operations.subList(start, Math.min(operations.size(), start + MAX_BATCH_SIZE)));
+			result = result.thenCombine(requestResponse, (batchResponse, other) -> {
+				batchResponse.putAll(other);
+				return batchResponse;
+			});
+		}
+		return result;
+	}
+	
 	@NotNull
 	private <T> Optional<GQLResponse<T>> postGqlRequest(@NotNull IGQLOperation<T> operation){
 		try{
 			log.debug("Sending GQL operation {}", operation);
-			var integrity = integrityProvider.getIntegrity();
-			
-			var request = unirest.post(ENDPOINT)
-					.header(AUTHORIZATION, "OAuth " + twitchLogin.getAccessToken())
-					.header(CLIENT_ID_HEADER, twitchLogin.getTwitchClient().getClientId());
-			
-			integrity.ifPresent(i -> request
-					.header(CLIENT_INTEGRITY_HEADER, i.getToken())
-					.header(CLIENT_SESSION_ID_HEADER, i.getClientSessionId())
-					.header(CLIENT_VERSION_HEADER, i.getClientVersion())
-					.header(X_DEVICE_ID_HEADER, i.getXDeviceId()));
-			
-			var response = request
+			var response = createRequest()
 					.body(operation)
 					.asObject(operation.getResponseType());
 			
-			if(!response.isSuccess()){
-				if(response.getStatus() == 401){
-					throw new InvalidCredentials(response.getStatus(), -1, "Invalid credentials provided");
-				}
-				return Optional.empty();
-			}
-			
-			var body = response.getBody();
-			if(body.isError()){
-				var errors = body.getErrors();
-				
-				if(isErrorIntegrity(errors)){
-					log.error("Received GQL integrity error response: {}", errors);
-					integrityProvider.invalidate();
-				}
-				else if(isErrorExpected(errors)){
-					log.warn("Received GQL error response: {}", errors);
-				}
-				else{
-					log.error("Received GQL error response: {}", errors);
-				}
-				return Optional.empty();
-			}
-			
-			return Optional.of(body);
+			return readResponse(response);
 		}
 		catch(IntegrityException | InvalidCredentials e){
 			throw new RuntimeException(e);
@@ -125,6 +145,172 @@ public class GQLApi{
 		}
 	}
 	
+	/**
+	 * Send an operation without waiting for its response.
+	 * The number of requests in flight is limited, requests over this limit are sent once previous ones completed.
+	 *
+	 * @param operation The operation to send.
+	 * @param <T>       Type of the response data.
+	 *
+	 * @return A future of the response, completed exceptionally on the same errors {@link #postGqlRequest(IGQLOperation)} throws.
+	 */
+	@NotNull
+	private <T> CompletableFuture<Optional<GQLResponse<T>>> postGqlRequestAsync(@NotNull IGQLOperation<T> operation){
+		return requestLimiter.<Optional<GQLResponse<T>>> submit(() -> createRequestAsync()
+				.thenCompose(request -> {
+					log.debug("Sending async GQL operation {}", operation);
+					return request.body(operation).asObjectAsync(operation.getResponseType());
+				})
+				.thenApply(response -> {
+					try{
+						return readResponse(response);
+					}
+					catch(InvalidCredentials e){
+						throw new RuntimeException(e);
+					}
+				}))
+				.whenComplete((response, error) -> logUnknownError(error));
+	}
+	
+	private void postGqlBatchRequest(@NotNull List<? extends IGQLOperation<?>> operations, @NotNull GQLBatchResponse batchResponse){
+		try{
+			log.debug("Sending GQL batch of {} operations", operations.size());
+			var response = createRequest()
+					.body(operations)
+					.asObject(new GenericType<List<JsonNode>>(){});
+			
+			readBatchResponse(operations, response, batchResponse);
+		}
+		catch(IntegrityException | InvalidCredentials e){
+			throw new RuntimeException(e);
+		}
+		catch(Throwable e){
+			log.error("Unknown error during GQL batch request", e);
+			throw new RuntimeException(e);
+		}
+	}
+	
+	@NotNull
+	private CompletableFuture<GQLBatchResponse> postGqlBatchRequestAsync(@NotNull List<? extends IGQLOperation<?>> operations){
+		return requestLimiter.<GQLBatchResponse> submit(() -> createRequestAsync()
+				.thenCompose(request -> {
+					log.debug("Sending async GQL batch of {} operations", operations.size());
+					return request.body(operations).asObjectAsync(new GenericType<List<JsonNode>>(){});
+				})
+				.thenApply(response -> {
+					try{
+						var batchResponse = new GQLBatchResponse();
+						readBatchResponse(operations, response, batchResponse);
+						return batchResponse;
+					}
+					catch(InvalidCredentials e){
+						throw new RuntimeException(e);
+					}
+				}))
+				.whenComplete((response, error) -> logUnknownError(error));
+	}
+	
+	@NotNull
+	private <T> Optional<GQLResponse<T>> readResponse(@NotNull HttpResponse<GQLResponse<T>> response) throws InvalidCredentials{
+		if(!response.isSuccess()){
+			if(response.getStatus() == 401){
+				throw new InvalidCredentials(response.getStatus(), -1, "Invalid credentials provided");
+			}
+			return Optional.empty();
+		}
+		
+		return checkResponse(response.getBody());
+	}
+	
+	private void readBatchResponse(@NotNull List<? extends IGQLOperation<?>> operations, @NotNull HttpResponse<List<JsonNode>> response, @NotNull GQLBatchResponse batchResponse) throws InvalidCredentials{
+		if(!response.isSuccess()){
+			if(response.getStatus() == 401){
+				throw new InvalidCredentials(response.getStatus(), -1, "Invalid credentials provided");
+			}
+			return;
+		}
+		
+		var bodies = response.getBody();
+		if(Objects.isNull(bodies) || bodies.size() != operations.size()){
+			log.error("Received an invalid GQL batch response for {} operations: {}", operations.size(), bodies);
+			return;
+		}
+		
+		var objectMapper = unirest.config().getObjectMapper();
+		for(var i = 0; i < operations.size(); i++){
+			addBatchResponse(batchResponse, operations.get(i), objectMapper, bodies.get(i).toString());
+		}
+	}
+	
+	private void logUnknownError(@Nullable Throwable error){
+		if(Objects.isNull(error)){
+			return;
+		}
+		if(ExceptionUtils.indexOfThrowable(error, IntegrityException.class) < 0 && ExceptionUtils.indexOfThrowable(error, InvalidCredentials.class) < 0){
+			log.error("Unknown error during async GQL request", error);
+		}
+	}
+	
+	private <T> void addBatchResponse(@NotNull GQLBatchResponse batchResponse, @NotNull IGQLOperation<T> operation, @NotNull ObjectMapper objectMapper, @NotNull String body){
+		checkResponse(objectMapper.readValue(body, operation.getResponseType())).ifPresent(response -> batchResponse.put(operation, response));
+	}
+	
+	/**
+	 * Create a request on the request executor.
+	 * Getting the integrity can wait on an HTTP call, which mustn't happen on the thread completing the previous request.
+	 *
+	 * @return A future of the request, completed exceptionally if the integrity couldn't be obtained.
+	 */
+	@NotNull
+	private CompletableFuture<HttpRequestWithBody> createRequestAsync(){
+		return CompletableFuture.supplyAsync(() -> {
+			try{
+				return createRequest();
+			}
+			catch(IntegrityException e){
+				throw new RuntimeException(e);
+			}
+		}, requestExecutor);
+	}
+	
+	@NotNull
+	private HttpRequestWithBody createRequest() throws IntegrityException{
+		var integrity = integrityProvider.getIntegrity();
+		
+		var request = unirest.post(ENDPOINT)
+				.header(AUTHORIZATION, "OAuth " + twitchLogin.getAccessToken())
+				.header(CLIENT_ID_HEADER, twitchLogin.getTwitchClient().getClientId());
+		
+		integrity.ifPresent(i -> request
+				.header(CLIENT_INTEGRITY_HEADER, i.getToken())
+				.header(CLIENT_SESSION_ID_HEADER, i.getClientSessionId())
+				.header(CLIENT_VERSION_HEADER, i.getClientVersion())
+				.header(X_DEVICE_ID_HEADER, i.getXDeviceId()));
+		
+		return request;
+	}
+	
+	@NotNull
+	private <T> Optional<GQLResponse<T>> checkResponse(@NotNull GQLResponse<T> body){
+		if(body.isError()){
+			var errors = body.getErrors();
+			
+			if(isErrorIntegrity(errors)){
+				log.error("Received GQL integrity error response: {}", errors);
+				integrityProvider.invalidate();
+			}
+			else if(isErrorExpected(errors)){
+				log.warn("Received GQL error response: {}", errors);
+			}
+			else{
+				log.error("Received GQL error response: {}", errors);
+			}
+			return Optional.empty();
+		}
+		
+		return Optional.of(body);
+	}
+	
 	private boolean isErrorExpected(@NotNull Collection<GQLError> errors){
 		return errors.stream().allMatch(this::isErrorExpected);
 	}
@@ -146,46 +332,91 @@ public class GQLApi{
 		return postGqlRequest(new ChannelPointsContextOperation(username));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<ChannelPointsContextData>>> channelPointsContextAsync(@NotNull String username){
+		return postGqlRequestAsync(new ChannelPointsContextOperation(username));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<VideoPlayerStreamInfoOverlayChannelData>> videoPlayerStreamInfoOverlayChannel(@NotNull String username){
 		return postGqlRequest(new VideoPlayerStreamInfoOverlayChannelOperation(username));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<VideoPlayerStreamInfoOverlayChannelData>>> videoPlayerStreamInfoOverlayChannelAsync(@NotNull String username){
+		return postGqlRequestAsync(new VideoPlayerStreamInfoOverlayChannelOperation(username));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<DropsHighlightServiceAvailableDropsData>> dropsHighlightServiceAvailableDrops(@NotNull String channelId){
 		return postGqlRequest(new DropsHighlightServiceAvailableDropsOperation(channelId));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<DropsHighlightServiceAvailableDropsData>>> dropsHighlightServiceAvailableDropsAsync(@NotNull String channelId){
+		return postGqlRequestAsync(new DropsHighlightServiceAvailableDropsOperation(channelId));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<ClaimCommunityPointsData>> claimCommunityPoints(@NotNull String channelId, @NotNull String claimId){
 		return postGqlRequest(new ClaimCommunityPointsOperation(channelId, claimId));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<ClaimCommunityPointsData>>> claimCommunityPointsAsync(@NotNull String channelId, @NotNull String claimId){
+		return postGqlRequestAsync(new ClaimCommunityPointsOperation(channelId, claimId));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<CommunityMomentCalloutClaimData>> claimCommunityMoment(@NotNull String momentId){
 		return postGqlRequest(new CommunityMomentCalloutClaimOperation(momentId));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<CommunityMomentCalloutClaimData>>> claimCommunityMomentAsync(@NotNull String momentId){
+		return postGqlRequestAsync(new CommunityMomentCalloutClaimOperation(momentId));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<JoinRaidData>> joinRaid(@NotNull String raidId){
 		return postGqlRequest(new JoinRaidOperation(raidId));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<JoinRaidData>>> joinRaidAsync(@NotNull String raidId){
+		return postGqlRequestAsync(new JoinRaidOperation(raidId));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<InventoryData>> inventory(){
 		return postGqlRequest(new InventoryOperation());
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<InventoryData>>> inventoryAsync(){
+		return postGqlRequestAsync(new InventoryOperation());
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<DropsPageClaimDropRewardsData>> dropsPageClaimDropRewards(@NotNull String dropInstanceId){
 		return postGqlRequest(new DropsPageClaimDropRewardsOperation(dropInstanceId));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<DropsPageClaimDropRewardsData>>> dropsPageClaimDropRewardsAsync(@NotNull String dropInstanceId){
+		return postGqlRequestAsync(new DropsPageClaimDropRewardsOperation(dropInstanceId));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<MakePredictionData>> makePrediction(@NotNull String eventId, @NotNull String outcomeId, int amount, @NotNull String transactionId){
 		return postGqlRequest(new MakePredictionOperation(eventId, outcomeId, amount, transactionId));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<MakePredictionData>>> makePredictionAsync(@NotNull String eventId, @NotNull String outcomeId, int amount, @NotNull String transactionId){
+		return postGqlRequestAsync(new MakePredictionOperation(eventId, outcomeId, amount, transactionId));
+	}
+	
 	@NotNull
 	public List<User> allChannelFollows(){
 		var follows = new ArrayList<User>();
@@ -221,8 +452,18 @@ public class GQLApi{
 		return postGqlRequest(new ChannelFollowsOperation(limit, order, cursor));
 	}
 	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<ChannelFollowsData>>> channelFollowsAsync(int limit, @NotNull String order, @Nullable String cursor){
+		return postGqlRequestAsync(new ChannelFollowsOperation(limit, order, cursor));
+	}
+	
 	@NotNull
 	public Optional<GQLResponse<ChatRoomBanStatusData>> chatRoomBanStatus(@NotNull String channelId, @NotNull String targetUserId){
 		return postGqlRequest(new ChatRoomBanStatusOperation(channelId, targetUserId));
 	}
+	
+	@NotNull
+	public CompletableFuture<Optional<GQLResponse<ChatRoomBanStatusData>>> chatRoomBanStatusAsync(@NotNull String channelId, @NotNull String targetUserId){
+		return postGqlRequestAsync(new ChatRoomBanStatusOperation(channelId, targetUserId));
+	}
 }
@@ -0,0 +1,48 @@
+package fr.rakambda.channelpointsminer.miner.api.gql.gql;
+
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLResponse;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.IGQLOperation;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Responses of a batch of GQL operations, read back with the operation instances that were sent.
+ * <p>
+ * Operations are matched by identity, as several equal operations can be part of the same batch.
+ */
+@ToString
+public class GQLBatchResponse{
+	private final Map<IGQLOperation<?>, GQLResponse<?>> responses = new IdentityHashMap<>();
+	
+	public <T> void put(@NotNull IGQLOperation<T> operation, @NotNull GQLResponse<T> response){
+		responses.put(operation, response);
+	}
+	
+	/**
+	 * @param operation The operation that was sent.
+	 * @param <T>       Type of the response data.
+	 *
+	 * @return The response of this operation, empty if the request or the operation failed.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public <T> Optional<GQLResponse<T>> get(@NotNull IGQLOperation<T> operation){
+		return Optional.ofNullable((GQLResponse<T>) responses.get(operation));
+	}
+	
+	/**
+	 * Add all the responses of another batch, sent separately.
+	 *
+	 * @param other The other responses.
+	 */
+	public void putAll(@NotNull GQLBatchResponse other){
+		responses.putAll(other.responses);
+	}
+	
+	public int size(){
+		return responses.size();
+	}
+}
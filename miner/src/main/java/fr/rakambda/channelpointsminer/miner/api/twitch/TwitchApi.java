@@ -2,6 +2,7 @@ package fr.rakambda.channelpointsminer.miner.api.twitch;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import fr.rakambda.channelpointsminer.miner.api.twitch.data.PlayerEvent;
+import fr.rakambda.channelpointsminer.miner.runtime.AsyncLimiter;
 import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
 import kong.unirest.core.UnirestInstance;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import java.net.URI;
 import java.net.URL;
 import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -22,51 +24,80 @@ public class TwitchApi{
 	private static final Pattern SPADE_URL_PATTERN = Pattern.compile("\"spade(Url|_url)\":\"(.*?)\"");
 	
 	private final UnirestInstance unirest;
+	private final AsyncLimiter requestLimiter;
 	
 	@NotNull
 	public Optional<URL> getSpadeUrl(@NotNull URL streamerUrl){
-		return getStreamerPageContent(streamerUrl).flatMap(this::getSpadeUrlFromContent);
+		return getSpadeUrlAsync(streamerUrl).join();
 	}
 	
-	private Optional<URL> getSpadeUrlFromContent(@NotNull String content){
-		var result = extractUrl(SPADE_URL_PATTERN, 2, content).or(() -> extractSpadeFromSettings(content));
-		if(result.isEmpty()){
-			log.error("Failed to get Spade URL, content was : {}", content);
-		}
-		return result;
+	/**
+	 * Get the spade url of a streamer without waiting for the pages to be downloaded.
+	 * The number of requests in flight is limited, requests over this limit are sent once previous ones completed.
+	 *
+	 * @param streamerUrl The url of the streamer page.
+	 *
+	 * @return A future of the spade url, empty if it couldn't be found.
+	 */
+	@NotNull
+	public CompletableFuture<Optional<URL>> getSpadeUrlAsync(@NotNull URL streamerUrl){
+		return getStreamerPageContent(streamerUrl)
+				.thenCompose(content -> content
+						.map(this::getSpadeUrlFromContent)
+						.orElseGet(() -> CompletableFuture.completedFuture(Optional.empty())));
 	}
 	
 	@NotNull
-	private Optional<String> getStreamerPageContent(@NotNull URL streamerUrl){
-		var response = unirest.get(streamerUrl.toString()).asString();
-		
-		if(!response.isSuccess()){
-			log.warn("Failed to get streamer page content");
-			return Optional.empty();
-		}
+	private CompletableFuture<Optional<URL>> getSpadeUrlFromContent(@NotNull String content){
+		var spadeUrl = extractUrl(SPADE_URL_PATTERN, 2, content);
+		var result = spadeUrl.isPresent() ? CompletableFuture.completedFuture(spadeUrl) : extractSpadeFromSettings(content);
 		
-		return Optional.of(response.getBody());
+		return result.thenApply(url -> {
+			if(url.isEmpty()){
+				log.error("Failed to get Spade URL, content was : {}", content);
+			}
+			return url;
+		});
 	}
 	
 	@NotNull
-	private Optional<URL> extractSpadeFromSettings(@NotNull String content){
-		var settings = extractUrl(SETTINGS_URL_PATTERN, 1, content)
-				.map(settingsUrl -> {
-					var response = unirest.get(settingsUrl.toString()).asString();
-					
+	private CompletableFuture<Optional<String>> getStreamerPageContent(@NotNull URL streamerUrl){
+		return requestLimiter.submit(() -> unirest.get(streamerUrl.toString()).asStringAsync())
+				.thenApply(response -> {
 					if(!response.isSuccess()){
-						log.warn("Failed to get spade settings from {}", settingsUrl);
-						return null;
+						log.warn("Failed to get streamer page content");
+						return Optional.empty();
 					}
 					
-					return response.getBody();
+					return Optional.of(response.getBody());
 				});
-		var result = settings.flatMap(c -> extractUrl(SPADE_URL_PATTERN, 2, c));
-		
-		if(result.isEmpty()){
-			log.info("Spade settings : {}", settings);
+	}
+	
+	@NotNull
+	private CompletableFuture<Optional<URL>> extractSpadeFromSettings(@NotNull String content){
+		var settingsUrl = extractUrl(SETTINGS_URL_PATTERN, 1, content);
+		if(settingsUrl.isEmpty()){
+			log.info("Spade settings url not found");
+			return CompletableFuture.completedFuture(Optional.empty());
 		}
-		return result;
+		
+		return requestLimiter.submit(() -> unirest.get(settingsUrl.get().toString()).asStringAsync())
+				.thenApply(response -> {
+					if(!response.isSuccess()){
+						log.warn("Failed to get spade settings from {}", settingsUrl.get());
+						return Optional.<String> empty();
+					}
+					
+					return Optional.of(response.getBody());
+				})
+				.thenApply(settings -> {
+					var result = settings.flatMap(c -> extractUrl(SPADE_URL_PATTERN, 2, c));
+					
+					if(result.isEmpty()){
+						log.info("Spade settings : {}", settings);
+					}
+					return result;
+				});
 	}
 	
 	@NotNull
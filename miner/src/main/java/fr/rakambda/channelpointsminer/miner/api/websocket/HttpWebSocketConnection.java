@@ -0,0 +1,268 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.java_websocket.enums.ReadyState;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.PingFrame;
+import org.java_websocket.framing.PongFrame;
+import org.java_websocket.handshake.HandshakeImpl1Server;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.java_websocket.framing.CloseFrame.ABNORMAL_CLOSE;
+import static org.java_websocket.framing.CloseFrame.GOING_AWAY;
+import static org.java_websocket.framing.CloseFrame.NEVER_CONNECTED;
+import static org.java_websocket.framing.CloseFrame.NORMAL;
+
+/**
+ * A websocket connection made with the {@link HttpClient} of the JDK, forwarding its events to the callbacks of a {@link MultiplexedWebSocketClient}.
+ * <p>
+ * The HTTP client only has one selector thread for all its connections, callbacks are run on its executor.
+ * As it allows a single pending send at a time, messages are chained one after the other.
+ */
+@Log4j2
+class HttpWebSocketConnection implements WebSocket.Listener{
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+	private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+	
+	private final HttpClient httpClient;
+	private final URI uri;
+	private final MultiplexedWebSocketClient client;
+	private final StringBuilder textBuffer;
+	private final CountDownLatch openLatch;
+	private final CountDownLatch closeLatch;
+	private final AtomicBoolean connectCalled;
+	private final AtomicBoolean closeNotified;
+	private final Object sendLock;
+	
+	@Getter
+	private volatile ReadyState readyState;
+	private volatile WebSocket webSocket;
+	private volatile boolean closedLocally;
+	private CompletableFuture<?> lastSend;
+	
+	HttpWebSocketConnection(@NotNull HttpClient httpClient, @NotNull URI uri, @NotNull MultiplexedWebSocketClient client){
+		this.httpClient = httpClient;
+		this.uri = uri;
+		this.client = client;
+		
+		textBuffer = new StringBuilder();
+		openLatch = new CountDownLatch(1);
+		closeLatch = new CountDownLatch(1);
+		connectCalled = new AtomicBoolean(false);
+		closeNotified = new AtomicBoolean(false);
+		sendLock = new Object();
+		readyState = ReadyState.NOT_YET_CONNECTED;
+		lastSend = CompletableFuture.completedFuture(null);
+	}
+	
+	void connect(){
+		if(!connectCalled.compareAndSet(false, true)){
+			throw new IllegalStateException("WebSocketClient objects are not reuseable");
+		}
+		
+		try{
+			httpClient.newWebSocketBuilder()
+					.connectTimeout(CONNECT_TIMEOUT)
+					.buildAsync(uri, this)
+					.whenComplete((ws, error) -> {
+						if(Objects.nonNull(error)){
+							var cause = error instanceof CompletionException && Objects.nonNull(error.getCause()) ? error.getCause() : error;
+							onFailure(cause, NEVER_CONNECTED);
+						}
+					});
+		}
+		catch(RuntimeException e){
+			onFailure(e, NEVER_CONNECTED);
+		}
+	}
+	
+	boolean connectBlocking() throws InterruptedException{
+		connect();
+		openLatch.await();
+		return readyState == ReadyState.OPEN;
+	}
+	
+	void send(@NotNull String text){
+		var ws = getOpenWebSocket();
+		enqueue(() -> ws.sendText(text, true));
+	}
+	
+	void sendPing(){
+		var ws = getOpenWebSocket();
+		enqueue(() -> ws.sendPing(ByteBuffer.allocate(0)));
+	}
+	
+	@NotNull
+	private WebSocket getOpenWebSocket(){
+		var ws = webSocket;
+		if(readyState != ReadyState.OPEN || Objects.isNull(ws)){
+			throw new WebsocketNotConnectedException();
+		}
+		return ws;
+	}
+	
+	private void enqueue(@NotNull Supplier<CompletableFuture<WebSocket>> send){
+		synchronized(sendLock){
+			lastSend = lastSend.handle((result, error) -> null)
+					.thenCompose(ignored -> send.get())
+					.whenComplete((result, error) -> {
+						if(Objects.nonNull(error)){
+							log.warn("Failed to send websocket message", error);
+						}
+					});
+		}
+	}
+	
+	void close(int code, @Nullable String reason){
+		var state = readyState;
+		if(state == ReadyState.CLOSING || state == ReadyState.CLOSED){
+			return;
+		}
+		closedLocally = true;
+		readyState = ReadyState.CLOSING;
+		
+		var ws = webSocket;
+		if(Objects.isNull(ws)){
+			// Still connecting, the socket is aborted once opened
+			notifyClosed(code, reason, false);
+			return;
+		}
+		if(!canBeSent(code)){
+			ws.abort();
+			notifyClosed(code, reason, false);
+			return;
+		}
+		
+		enqueue(() -> ws.sendClose(code, Objects.requireNonNullElse(reason, "")));
+		CompletableFuture.delayedExecutor(CLOSE_TIMEOUT.toMillis(), MILLISECONDS).execute(() -> {
+			if(readyState != ReadyState.CLOSED){
+				log.debug("Websocket didn't acknowledge the close in time, aborting it");
+				ws.abort();
+				notifyClosed(code, reason, false);
+			}
+		});
+	}
+	
+	void closeBlocking() throws InterruptedException{
+		close(NORMAL, "");
+		closeLatch.await();
+	}
+	
+	/**
+	 * Codes like {@link org.java_websocket.framing.CloseFrame#ABNORMAL_CLOSE} are reserved to report a connection lost and can't be sent to the server, the connection is dropped instead.
+	 *
+	 * @param code The close code.
+	 *
+	 * @return True if a close frame can be sent with this code.
+	 */
+	private static boolean canBeSent(int code){
+		return code == NORMAL || code == GOING_AWAY || (code >= 3000 && code <= 4999);
+	}
+	
+	@Override
+	public void onOpen(WebSocket ws){
+		if(readyState != ReadyState.NOT_YET_CONNECTED){
+			ws.abort();
+			return;
+		}
+		
+		webSocket = ws;
+		readyState = ReadyState.OPEN;
+		openLatch.countDown();
+		try{
+			client.onOpen(new HandshakeImpl1Server());
+		}
+		finally{
+			ws.request(1);
+		}
+	}
+	
+	@Override
+	public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last){
+		try{
+			textBuffer.append(data);
+			if(last){
+				var message = textBuffer.toString();
+				textBuffer.setLength(0);
+				client.onMessage(message);
+			}
+		}
+		finally{
+			ws.request(1);
+		}
+		return null;
+	}
+	
+	@Override
+	public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last){
+		ws.request(1);
+		return null;
+	}
+	
+	@Override
+	public CompletionStage<?> onPing(WebSocket ws, ByteBuffer message){
+		try{
+			client.onWebsocketPing(client, new PingFrame());
+		}
+		finally{
+			ws.request(1);
+		}
+		return null;
+	}
+	
+	@Override
+	public CompletionStage<?> onPong(WebSocket ws, ByteBuffer message){
+		try{
+			client.onWebsocketPong(client, new PongFrame());
+		}
+		finally{
+			ws.request(1);
+		}
+		return null;
+	}
+	
+	@Override
+	public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason){
+		notifyClosed(statusCode, reason, !closedLocally);
+		return null;
+	}
+	
+	@Override
+	public void onError(WebSocket ws, Throwable error){
+		onFailure(error, ABNORMAL_CLOSE);
+	}
+	
+	private void onFailure(@NotNull Throwable error, int code){
+		client.onError(error instanceof Exception exception ? exception : new RuntimeException(error));
+		notifyClosed(code, error.getMessage(), true);
+	}
+	
+	private void notifyClosed(int code, @Nullable String reason, boolean remote){
+		readyState = ReadyState.CLOSED;
+		if(!closeNotified.compareAndSet(false, true)){
+			return;
+		}
+		
+		openLatch.countDown();
+		try{
+			client.onClose(code, Objects.requireNonNullElse(reason, ""), remote);
+		}
+		finally{
+			closeLatch.countDown();
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.Framedata;
+import org.jetbrains.annotations.NotNull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * permessage-deflate extension counting the bytes and CPU time of each data frame going through it.
+ * <p>
+ * Java-WebSocket copies the extensions of its draft for each connection, copies share the metrics of the original.
+ */
+class MeteredPerMessageDeflateExtension extends PerMessageDeflateExtension{
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+	
+	private final WebSocketCompressionMetrics metrics;
+	
+	MeteredPerMessageDeflateExtension(@NotNull WebSocketCompressionMetrics metrics){
+		this.metrics = metrics;
+	}
+	
+	@Override
+	public void decodeFrame(Framedata inputFrame) throws InvalidDataException{
+		if(!isDataFrame(inputFrame)){
+			super.decodeFrame(inputFrame);
+			return;
+		}
+		
+		var wireBytes = inputFrame.getPayloadData().remaining();
+		var start = cpuTime();
+		super.decodeFrame(inputFrame);
+		metrics.onInflated(wireBytes, inputFrame.getPayloadData().remaining(), cpuTime() - start);
+	}
+	
+	@Override
+	public void encodeFrame(Framedata inputFrame){
+		if(!isDataFrame(inputFrame)){
+			super.encodeFrame(inputFrame);
+			return;
+		}
+		
+		var messageBytes = inputFrame.getPayloadData().remaining();
+		var start = cpuTime();
+		super.encodeFrame(inputFrame);
+		metrics.onDeflated(messageBytes, inputFrame.getPayloadData().remaining(), cpuTime() - start);
+	}
+	
+	@Override
+	public IExtension copyInstance(){
+		return new MeteredPerMessageDeflateExtension(metrics);
+	}
+	
+	private static boolean isDataFrame(@NotNull Framedata frame){
+		var opcode = frame.getOpcode();
+		return opcode == Opcode.TEXT || opcode == Opcode.BINARY || opcode == Opcode.CONTINUOUS;
+	}
+	
+	private static long cpuTime(){
+		return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+	}
+}
@@ -0,0 +1,192 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import lombok.extern.log4j.Log4j2;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.enums.ReadyState;
+import org.java_websocket.framing.Framedata;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Objects;
+import java.util.Optional;
+import static org.java_websocket.framing.CloseFrame.NORMAL;
+
+/**
+ * A {@link WebSocketClient} that can be backed by an {@link HttpClient} instead of its own threads.
+ * <p>
+ * Java-WebSocket uses a reader and a writer thread for each connection. When an {@link HttpClient} is given, the connection is made by it instead, sharing its selector thread and executor with all the other sockets.
+ * Subclasses keep receiving the usual {@link WebSocketClient} callbacks either way.
+ */
+@Log4j2
+public abstract class MultiplexedWebSocketClient extends WebSocketClient{
+	@Nullable
+	private final HttpWebSocketConnection connection;
+	@Nullable
+	private final WebSocketCompressionMetrics compressionMetrics;
+	
+	protected MultiplexedWebSocketClient(@NotNull URI uri, @NotNull WebSocketOptions options){
+		this(uri, options, createCompressionMetrics(options));
+	}
+	
+	private MultiplexedWebSocketClient(@NotNull URI uri, @NotNull WebSocketOptions options, @Nullable WebSocketCompressionMetrics compressionMetrics){
+		super(uri, createDraft(compressionMetrics));
+		this.compressionMetrics = compressionMetrics;
+		connection = Optional.ofNullable(options.getHttpClient())
+				.map(httpClient -> new HttpWebSocketConnection(httpClient, uri, this))
+				.orElse(null);
+	}
+	
+	@Nullable
+	private static WebSocketCompressionMetrics createCompressionMetrics(@NotNull WebSocketOptions options){
+		if(!options.isCompression()){
+			return null;
+		}
+		if(Objects.nonNull(options.getHttpClient())){
+			log.debug("Compression is not supported on multiplexed websockets, it won't be negotiated");
+			return null;
+		}
+		return new WebSocketCompressionMetrics();
+	}
+	
+	@NotNull
+	private static Draft createDraft(@Nullable WebSocketCompressionMetrics compressionMetrics){
+		if(Objects.isNull(compressionMetrics)){
+			return new Draft_6455();
+		}
+		return new Draft_6455(new MeteredPerMessageDeflateExtension(compressionMetrics));
+	}
+	
+	public boolean isMultiplexed(){
+		return Objects.nonNull(connection);
+	}
+	
+	/**
+	 * @return Counters of the compression extension, empty if compression wasn't requested. Counters stay at 0 if the server didn't accept it.
+	 */
+	@NotNull
+	public Optional<WebSocketCompressionMetrics> getCompressionMetrics(){
+		return Optional.ofNullable(compressionMetrics);
+	}
+	
+	@Override
+	public void connect(){
+		if(Objects.isNull(connection)){
+			super.connect();
+			return;
+		}
+		connection.connect();
+	}
+	
+	@Override
+	public boolean connectBlocking() throws InterruptedException{
+		if(Objects.isNull(connection)){
+			return super.connectBlocking();
+		}
+		return connection.connectBlocking();
+	}
+	
+	@Override
+	public void close(){
+		if(Objects.isNull(connection)){
+			super.close();
+			return;
+		}
+		connection.close(NORMAL, "");
+	}
+	
+	@Override
+	public void close(int code){
+		if(Objects.isNull(connection)){
+			super.close(code);
+			return;
+		}
+		connection.close(code, "");
+	}
+	
+	@Override
+	public void close(int code, String message){
+		if(Objects.isNull(connection)){
+			super.close(code, message);
+			return;
+		}
+		connection.close(code, message);
+	}
+	
+	@Override
+	public void closeBlocking() throws InterruptedException{
+		if(Objects.isNull(connection)){
+			super.closeBlocking();
+			return;
+		}
+		connection.closeBlocking();
+	}
+	
+	@Override
+	public void send(String text){
+		if(Objects.isNull(connection)){
+			super.send(text);
+			return;
+		}
+		connection.send(text);
+	}
+	
+	@Override
+	public void sendPing(){
+		if(Objects.isNull(connection)){
+			super.sendPing();
+			return;
+		}
+		connection.sendPing();
+	}
+	
+	@Override
+	public void sendFrame(Framedata framedata){
+		if(Objects.isNull(connection)){
+			super.sendFrame(framedata);
+			return;
+		}
+		// The HTTP client answers pings by itself
+		if(framedata.getOpcode() == Opcode.PING){
+			connection.sendPing();
+		}
+		else if(framedata.getOpcode() != Opcode.PONG){
+			throw new UnsupportedOperationException("Only pings can be sent as frames on a multiplexed websocket");
+		}
+	}
+	
+	@Override
+	public boolean isOpen(){
+		if(Objects.isNull(connection)){
+			return super.isOpen();
+		}
+		return connection.getReadyState() == ReadyState.OPEN;
+	}
+	
+	@Override
+	public boolean isClosing(){
+		if(Objects.isNull(connection)){
+			return super.isClosing();
+		}
+		return connection.getReadyState() == ReadyState.CLOSING;
+	}
+	
+	@Override
+	public boolean isClosed(){
+		if(Objects.isNull(connection)){
+			return super.isClosed();
+		}
+		return connection.getReadyState() == ReadyState.CLOSED;
+	}
+	
+	@Override
+	public ReadyState getReadyState(){
+		if(Objects.isNull(connection)){
+			return super.getReadyState();
+		}
+		return connection.getReadyState();
+	}
+}
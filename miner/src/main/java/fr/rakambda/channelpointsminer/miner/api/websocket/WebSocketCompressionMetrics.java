@@ -0,0 +1,77 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the permessage-deflate extension of a single socket.
+ * <p>
+ * Wire bytes are the payloads as sent on the network, message bytes the payloads once inflated (or before being deflated).
+ */
+public class WebSocketCompressionMetrics{
+	private final AtomicLong receivedWireBytes = new AtomicLong();
+	private final AtomicLong receivedMessageBytes = new AtomicLong();
+	private final AtomicLong sentWireBytes = new AtomicLong();
+	private final AtomicLong sentMessageBytes = new AtomicLong();
+	private final AtomicLong cpuNanos = new AtomicLong();
+	
+	void onInflated(long wireBytes, long messageBytes, long cpuNanos){
+		receivedWireBytes.addAndGet(wireBytes);
+		receivedMessageBytes.addAndGet(messageBytes);
+		this.cpuNanos.addAndGet(cpuNanos);
+	}
+	
+	void onDeflated(long messageBytes, long wireBytes, long cpuNanos){
+		sentMessageBytes.addAndGet(messageBytes);
+		sentWireBytes.addAndGet(wireBytes);
+		this.cpuNanos.addAndGet(cpuNanos);
+	}
+	
+	public long getReceivedWireBytes(){
+		return receivedWireBytes.get();
+	}
+	
+	public long getReceivedMessageBytes(){
+		return receivedMessageBytes.get();
+	}
+	
+	public long getSentWireBytes(){
+		return sentWireBytes.get();
+	}
+	
+	public long getSentMessageBytes(){
+		return sentMessageBytes.get();
+	}
+	
+	/**
+	 * @return CPU time spent inflating and deflating payloads, in nanoseconds.
+	 */
+	public long getCpuNanos(){
+		return cpuNanos.get();
+	}
+	
+	/**
+	 * @return Ratio of received bytes on the wire compared to the inflated messages, 1 if nothing was received.
+	 */
+	public double getReceivedCompressionRatio(){
+		return ratio(getReceivedWireBytes(), getReceivedMessageBytes());
+	}
+	
+	/**
+	 * @return Ratio of sent bytes on the wire compared to the messages before being deflated, 1 if nothing was sent.
+	 */
+	public double getSentCompressionRatio(){
+		return ratio(getSentWireBytes(), getSentMessageBytes());
+	}
+	
+	private static double ratio(long wireBytes, long messageBytes){
+		return messageBytes == 0 ? 1 : (double) wireBytes / messageBytes;
+	}
+	
+	@Override
+	public String toString(){
+		return "WebSocketCompressionMetrics(received=%d/%d bytes (%.2f), sent=%d/%d bytes (%.2f), cpu=%dms)".formatted(
+				getReceivedWireBytes(), getReceivedMessageBytes(), getReceivedCompressionRatio(),
+				getSentWireBytes(), getSentMessageBytes(), getSentCompressionRatio(),
+				getCpuNanos() / 1_000_000);
+	}
+}
@@ -0,0 +1,29 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+import java.net.http.HttpClient;
+
+/**
+ * How websockets created by the miner are connected.
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class WebSocketOptions{
+	public static final WebSocketOptions DEFAULT = WebSocketOptions.builder().build();
+	
+	/**
+	 * Client to multiplex the sockets on, null for each socket to use its own threads.
+	 */
+	@Nullable
+	private final HttpClient httpClient;
+	/**
+	 * Negotiate permessage-deflate with the server. Only supported by sockets having their own threads.
+	 */
+	private final boolean compression;
+}
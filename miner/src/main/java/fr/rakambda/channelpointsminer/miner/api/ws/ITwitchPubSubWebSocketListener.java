@@ -1,11 +1,39 @@
 package fr.rakambda.channelpointsminer.miner.api.ws;
 
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import static org.java_websocket.framing.CloseFrame.GOING_AWAY;
 
 public interface ITwitchPubSubWebSocketListener{
 	void onWebSocketMessage(@NotNull ITwitchWebSocketResponse message);
 	
 	void onWebSocketClosed(@NotNull TwitchPubSubWebSocketClient client, int code, @Nullable String reason, boolean remote);
+	
+	/**
+	 * Called once the connection is established and requests made before it were sent.
+	 *
+	 * @param client The client that opened.
+	 */
+	default void onWebSocketOpened(@NotNull TwitchPubSubWebSocketClient client){
+	}
+	
+	/**
+	 * Called when Twitch confirmed a LISTEN request.
+	 *
+	 * @param client The client the topics were listened on.
+	 * @param topics The topics of the request.
+	 */
+	default void onTopicsListened(@NotNull TwitchPubSubWebSocketClient client, @NotNull Topics topics){
+	}
+	
+	/**
+	 * Called when Twitch asks the client to reconnect. The server will close the connection shortly after, but keeps delivering messages until then.
+	 *
+	 * @param client The client asked to reconnect.
+	 */
+	default void onWebSocketReconnectRequested(@NotNull TwitchPubSubWebSocketClient client){
+		client.close(GOING_AWAY);
+	}
 }
@@ -0,0 +1,178 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.Commercial;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ViewCount;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.WatchPartyVod;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageData;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageResponse;
+import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decodes PubSub frames without going through the polymorphic deserialization twice.
+ * <p>
+ * The frame type, the topic and the type of the embedded message are read with a streaming parser, the embedded message is then bound directly to its class with a reader resolved once.
+ * Messages of a skipped type are dropped as soon as their type is known, before being bound.
+ * Anything unexpected (fields in another order, unknown types) falls back to the regular deserialization, so it fails the same way it used to.
+ */
+@Log4j2
+public class PubSubFrameDecoder{
+	private static final String TYPE_FIELD = "type";
+	private static final String DATA_FIELD = "data";
+	private static final String TOPIC_FIELD = "topic";
+	private static final String MESSAGE_FIELD = "message";
+	private static final String MESSAGE_TYPE = "MESSAGE";
+	
+	/**
+	 * Messages no handler does anything with.
+	 */
+	public static final Set<Class<? extends IPubSubMessage>> UNUSED_MESSAGES = Set.of(ViewCount.class, WatchPartyVod.class, Commercial.class);
+	
+	private static PubSubFrameDecoder instance;
+	
+	private final JsonFactory factory;
+	private final ObjectReader responseReader;
+	private final ObjectReader messageReader;
+	private final ObjectReader topicReader;
+	private final Map<String, ObjectReader> messageReaders;
+	private final Set<String> skippedTypes;
+	
+	public PubSubFrameDecoder(@NotNull ObjectMapper mapper, @NotNull Collection<Class<? extends IPubSubMessage>> skippedMessages){
+		factory = mapper.getFactory();
+		responseReader = mapper.readerFor(ITwitchWebSocketResponse.class);
+		messageReader = mapper.readerFor(IPubSubMessage.class);
+		topicReader = mapper.readerFor(Topic.class);
+		messageReaders = new HashMap<>();
+		skippedTypes = new HashSet<>();
+		
+		for(var subType : IPubSubMessage.class.getAnnotation(JsonSubTypes.class).value()){
+			if(skippedMessages.contains(subType.value())){
+				skippedTypes.add(subType.name());
+			}
+			else{
+				messageReaders.put(subType.name(), mapper.readerFor(subType.value()));
+			}
+		}
+	}
+	
+	@NotNull
+	public static PubSubFrameDecoder getInstance(){
+		if(Objects.isNull(instance)){
+			instance = new PubSubFrameDecoder(JacksonUtils.getMapper(), UNUSED_MESSAGES);
+		}
+		return instance;
+	}
+	
+	/**
+	 * Decode a frame.
+	 *
+	 * @param frame The frame received from the websocket.
+	 *
+	 * @return The decoded response, null if it holds a message of a skipped type.
+	 *
+	 * @throws IOException If the frame isn't valid.
+	 */
+	@Nullable
+	public ITwitchWebSocketResponse decode(@NotNull String frame) throws IOException{
+		try(var parser = factory.createParser(frame)){
+			if(parser.nextToken() != JsonToken.START_OBJECT
+					|| parser.nextToken() != JsonToken.FIELD_NAME
+					|| !TYPE_FIELD.equals(parser.currentName())
+					|| parser.nextToken() != JsonToken.VALUE_STRING
+					|| !MESSAGE_TYPE.equals(parser.getText())){
+				return responseReader.readValue(frame);
+			}
+			
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				var name = parser.currentName();
+				parser.nextToken();
+				if(DATA_FIELD.equals(name)){
+					return decodeData(parser, frame);
+				}
+				parser.skipChildren();
+			}
+			return responseReader.readValue(frame);
+		}
+	}
+	
+	@Nullable
+	private ITwitchWebSocketResponse decodeData(@NotNull JsonParser parser, @NotNull String frame) throws IOException{
+		if(parser.currentToken() != JsonToken.START_OBJECT){
+			return responseReader.readValue(frame);
+		}
+		
+		Topic topic = null;
+		String message = null;
+		while(parser.nextToken() == JsonToken.FIELD_NAME){
+			var name = parser.currentName();
+			parser.nextToken();
+			if(TOPIC_FIELD.equals(name)){
+				topic = topicReader.readValue(parser);
+			}
+			else if(MESSAGE_FIELD.equals(name) && parser.currentToken() == JsonToken.VALUE_STRING){
+				message = parser.getText();
+			}
+			else{
+				parser.skipChildren();
+			}
+		}
+		
+		if(Objects.isNull(message)){
+			return responseReader.readValue(frame);
+		}
+		
+		var messageType = peekType(message);
+		if(Objects.nonNull(messageType) && skippedTypes.contains(messageType)){
+			log.trace("Skipped message of type {}", messageType);
+			return null;
+		}
+		
+		var reader = Objects.isNull(messageType) ? messageReader : messageReaders.getOrDefault(messageType, messageReader);
+		IPubSubMessage pubSubMessage = reader.readValue(message);
+		return MessageResponse.builder()
+				.data(MessageData.builder()
+						.topic(topic)
+						.message(pubSubMessage)
+						.contentHash(MessageData.hashContent(message))
+						.build())
+				.build();
+	}
+	
+	/**
+	 * Read the type of message, Twitch always sends it as the first field.
+	 *
+	 * @param message The message.
+	 *
+	 * @return The type, null if it isn't the first field.
+	 */
+	@Nullable
+	private String peekType(@NotNull String message) throws IOException{
+		try(var parser = factory.createParser(message)){
+			if(parser.nextToken() == JsonToken.START_OBJECT
+					&& parser.nextToken() == JsonToken.FIELD_NAME
+					&& TYPE_FIELD.equals(parser.currentName())
+					&& parser.nextToken() == JsonToken.VALUE_STRING){
+				return parser.getText();
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Outcome of moving the topics of a socket to other sockets.
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PubSubHandoverMetrics{
+	@NotNull
+	private final String socket;
+	@NotNull
+	private final PubSubHandoverReason reason;
+	private final int topics;
+	/**
+	 * Time between the old socket stopping to deliver messages and the last of its topics being confirmed on a new socket, 0 if there was no moment without a socket listening.
+	 */
+	private final long gapMs;
+	/**
+	 * Time between the handover being started and all topics being confirmed on new sockets.
+	 */
+	private final long durationMs;
+}
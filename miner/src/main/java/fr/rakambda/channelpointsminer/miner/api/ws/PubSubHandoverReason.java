@@ -0,0 +1,16 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+public enum PubSubHandoverReason{
+	/**
+	 * Twitch asked the socket to reconnect, a new socket is subscribed before the old one is closed.
+	 */
+	RECONNECT_REQUESTED,
+	/**
+	 * The socket closed unexpectedly, its topics are listened again on other sockets.
+	 */
+	CONNECTION_LOST,
+	/**
+	 * The socket was almost empty, its topics are moved to fuller sockets before it is closed.
+	 */
+	COMPACTION
+}
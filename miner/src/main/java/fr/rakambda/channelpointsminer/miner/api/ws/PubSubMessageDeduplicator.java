@@ -0,0 +1,122 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.EventUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionMade;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionResult;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Event;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Prediction;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageData;
+import fr.rakambda.channelpointsminer.miner.util.LongLruSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drops PubSub messages already received.
+ * <p>
+ * While topics are handed over between sockets, or when Twitch resends the same state, the exact same message can be received several times.
+ * Messages are identified by their topic and the hash of their content, the most recently seen ones are kept in a fixed size set.
+ * <p>
+ * Prediction messages are also identified by the state they carry, whatever the topic and timestamp, so that the same prediction state received on the channel and user topics is only handled once.
+ */
+public class PubSubMessageDeduplicator{
+	private final LongLruSet seen;
+	private final AtomicLong duplicates;
+	
+	public PubSubMessageDeduplicator(int capacity){
+		seen = new LongLruSet(capacity);
+		duplicates = new AtomicLong();
+	}
+	
+	/**
+	 * Record a message.
+	 *
+	 * @param data The message.
+	 *
+	 * @return True if the same message was already received on the same topic, or the same prediction state on any topic, recently.
+	 */
+	public boolean isDuplicate(@NotNull MessageData data){
+		var contentKey = data.getContentHash() == 0 || Objects.isNull(data.getTopic()) ? 0 : data.getContentHash() * 31 + data.getTopic().hashCode();
+		var identityKey = getIdentityKey(data.getMessage());
+		if(contentKey == 0 && identityKey == 0){
+			return false;
+		}
+		
+		boolean added;
+		synchronized(seen){
+			var contentAdded = contentKey == 0 || seen.add(contentKey);
+			var identityAdded = identityKey == 0 || seen.add(identityKey);
+			added = contentAdded && identityAdded;
+		}
+		if(!added){
+			duplicates.incrementAndGet();
+		}
+		return !added;
+	}
+	
+	/**
+	 * Get the key of the prediction state carried by a message, independent of the topic it was received on.
+	 *
+	 * @param message The message.
+	 *
+	 * @return The key, 0 if the message doesn't carry a prediction.
+	 */
+	static long getIdentityKey(@Nullable IPubSubMessage message){
+		if(message instanceof EventUpdated eventUpdated){
+			return hashIdentity(message, eventUpdated.getData().getEvent());
+		}
+		if(message instanceof PredictionMade predictionMade){
+			return hashIdentity(message, predictionMade.getData().getPrediction());
+		}
+		if(message instanceof PredictionUpdated predictionUpdated){
+			return hashIdentity(message, predictionUpdated.getData().getPrediction());
+		}
+		if(message instanceof PredictionResult predictionResult){
+			return hashIdentity(message, predictionResult.getData().getPrediction());
+		}
+		return 0;
+	}
+	
+	private static long hashIdentity(@NotNull IPubSubMessage message, @Nullable Event event){
+		if(Objects.isNull(event)){
+			return 0;
+		}
+		var identity = new StringBuilder(message.getClass().getSimpleName())
+				.append('|').append(event.getId())
+				.append('|').append(event.getStatus())
+				.append('|').append(event.getWinningOutcomeId());
+		for(var outcome : event.getOutcomes()){
+			identity.append('|').append(outcome.getId())
+					.append(':').append(outcome.getTotalPoints())
+					.append(':').append(outcome.getTotalUsers());
+		}
+		return MessageData.hashContent(identity);
+	}
+	
+	private static long hashIdentity(@NotNull IPubSubMessage message, @Nullable Prediction prediction){
+		if(Objects.isNull(prediction)){
+			return 0;
+		}
+		var identity = new StringBuilder(message.getClass().getSimpleName())
+				.append('|').append(prediction.getId())
+				.append('|').append(prediction.getEventId())
+				.append('|').append(prediction.getOutcomeId())
+				.append('|').append(prediction.getPoints());
+		var result = prediction.getResult();
+		if(Objects.nonNull(result)){
+			identity.append('|').append(result.getType())
+					.append(':').append(result.getPointsWon());
+		}
+		return MessageData.hashContent(identity);
+	}
+	
+	/**
+	 * @return Number of messages dropped since the creation.
+	 */
+	public long getDuplicateCount(){
+		return duplicates.get();
+	}
+}
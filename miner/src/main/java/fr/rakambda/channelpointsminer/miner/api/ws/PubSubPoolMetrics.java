@@ -0,0 +1,45 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import java.util.List;
+
+/**
+ * Snapshot of how topics are spread over the sockets of a pool.
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PubSubPoolMetrics{
+	private final int sockets;
+	private final int topics;
+	private final int maxTopicsPerSocket;
+	/**
+	 * Sockets whose topics are being moved before they are closed, not counted in {@link #sockets}.
+	 */
+	private final int drainingSockets;
+	/**
+	 * Number of sockets closed by compaction since the pool was created.
+	 */
+	private final long compactedSockets;
+	/**
+	 * Number of messages received again on the same topic and dropped since the pool was created.
+	 */
+	private final long duplicateMessages;
+	/**
+	 * Topic count of each socket, fullest first.
+	 */
+	@NotNull
+	private final List<Integer> topicsPerSocket;
+	
+	/**
+	 * @return The ratio of used topic slots over all sockets, between 0 and 1.
+	 */
+	public double getFillRatio(){
+		return sockets == 0 ? 0 : (double) topics / ((long) sockets * maxTopicsPerSocket);
+	}
+}
@@ -0,0 +1,114 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the set of topics an account wants to listen to, and applies to the pool only what changed.
+ * <p>
+ * Declaring a topic that is already wanted (or removing one that isn't) costs a map lookup and doesn't send anything.
+ * Changes are accumulated until {@link #flush()} that sends all of them at once, letting the pool group them in a single LISTEN / UNLISTEN per connection.
+ */
+@Log4j2
+public class PubSubTopicReconciler{
+	private final TwitchPubSubWebSocketPool pool;
+	private final Object flushLock;
+	private final Map<Topic, String> desired;
+	private final Map<Topic, String> pendingListen;
+	private final Set<Topic> pendingUnlisten;
+	private final Set<Topic> subscribed;
+	
+	public PubSubTopicReconciler(@NotNull TwitchPubSubWebSocketPool pool){
+		this.pool = pool;
+		flushLock = new Object();
+		desired = new HashMap<>();
+		pendingListen = new LinkedHashMap<>();
+		pendingUnlisten = new LinkedHashSet<>();
+		subscribed = new HashSet<>();
+	}
+	
+	/**
+	 * Declare a topic as wanted.
+	 *
+	 * @param topic     The topic.
+	 * @param authToken The token used to listen to it.
+	 */
+	public synchronized void want(@NotNull Topic topic, @Nullable String authToken){
+		desired.put(topic, authToken);
+		pendingUnlisten.remove(topic);
+		if(!subscribed.contains(topic)){
+			pendingListen.put(topic, authToken);
+		}
+	}
+	
+	/**
+	 * Declare a topic as not wanted anymore.
+	 *
+	 * @param topic The topic.
+	 */
+	public synchronized void unwant(@NotNull Topic topic){
+		desired.remove(topic);
+		pendingListen.remove(topic);
+		if(subscribed.contains(topic)){
+			pendingUnlisten.add(topic);
+		}
+	}
+	
+	public synchronized boolean isWanted(@NotNull Topic topic){
+		return desired.containsKey(topic);
+	}
+	
+	public synchronized boolean hasPendingChanges(){
+		return !pendingListen.isEmpty() || !pendingUnlisten.isEmpty();
+	}
+	
+	/**
+	 * Send the changes accumulated since the last flush to the pool.
+	 * <p>
+	 * Changes made while a flush is in progress are kept for the next one.
+	 */
+	public void flush(){
+		synchronized(flushLock){
+			Map<String, List<Topic>> toListen;
+			List<Topic> toUnlisten;
+			synchronized(this){
+				if(!hasPendingChanges()){
+					return;
+				}
+				toUnlisten = new ArrayList<>(pendingUnlisten);
+				toListen = new HashMap<>();
+				pendingListen.forEach((topic, authToken) -> toListen.computeIfAbsent(authToken, key -> new ArrayList<>()).add(topic));
+				
+				toUnlisten.forEach(subscribed::remove);
+				subscribed.addAll(pendingListen.keySet());
+				pendingUnlisten.clear();
+				pendingListen.clear();
+			}
+			
+			if(!toUnlisten.isEmpty()){
+				log.debug("Removing {} topics", toUnlisten.size());
+				pool.removeTopics(toUnlisten);
+			}
+			toListen.forEach((authToken, topics) -> {
+				log.debug("Listening to {} topics", topics.size());
+				try{
+					pool.listenTopic(new Topics(topics, authToken));
+				}
+				catch(RuntimeException e){
+					log.error("Failed to listen to topics, they will be retried with the pending topics", e);
+				}
+			});
+		}
+	}
+}
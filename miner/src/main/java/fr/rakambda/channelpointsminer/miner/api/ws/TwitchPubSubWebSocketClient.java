@@ -1,14 +1,14 @@
 package fr.rakambda.channelpointsminer.miner.api.ws;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import fr.rakambda.channelpointsminer.miner.api.websocket.MultiplexedWebSocketClient;
+import fr.rakambda.channelpointsminer.miner.api.websocket.WebSocketOptions;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.ITwitchWebSocketRequest;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.ListenTopicRequest;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.PingRequest;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.UnlistenTopicRequest;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
-import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageResponse;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.PongResponse;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ReconnectResponse;
@@ -19,37 +19,59 @@ import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.java_websocket.WebSocket;
-import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ServerHandshake;
 import org.jetbrains.annotations.NotNull;
 import java.net.URI;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.java_websocket.framing.CloseFrame.GOING_AWAY;
 
 @Log4j2
-public class TwitchPubSubWebSocketClient extends WebSocketClient{
+public class TwitchPubSubWebSocketClient extends MultiplexedWebSocketClient{
 	@Getter
 	private final Set<Topics> topics;
+	private final Map<Topic, Topics> topicIndex;
+	private final AtomicInteger topicCount;
+	private final Map<String, Topics> pendingListens;
+	private final Queue<ITwitchWebSocketRequest> requestsBeforeOpen;
 	private final Collection<ITwitchPubSubWebSocketListener> listeners;
 	@Getter
 	private final String uuid;
 	
 	@Getter
 	private Instant lastPong;
+	private boolean opened;
 	
 	public TwitchPubSubWebSocketClient(@NotNull URI uri){
-		super(uri);
+		this(uri, WebSocketOptions.DEFAULT);
+	}
+	
+	public TwitchPubSubWebSocketClient(@NotNull URI uri, @NotNull WebSocketOptions options){
+		super(uri, options);
 		uuid = UUID.randomUUID().toString();
 		
 		setConnectionLostTimeout(0);
-		topics = new HashSet<>();
+		topics = ConcurrentHashMap.newKeySet();
+		topicIndex = new ConcurrentHashMap<>();
+		topicCount = new AtomicInteger(0);
+		pendingListens = new ConcurrentHashMap<>();
+		requestsBeforeOpen = new LinkedList<>();
 		listeners = new ConcurrentLinkedQueue<>();
 		lastPong = Instant.EPOCH;
 	}
@@ -58,7 +80,16 @@ public class TwitchPubSubWebSocketClient extends WebSocketClient{
 	public void onOpen(ServerHandshake serverHandshake){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
 			log.info("PubSub WebSocket opened");
-			ping();
+			synchronized(requestsBeforeOpen){
+				opened = true;
+				ping();
+				
+				ITwitchWebSocketRequest request;
+				while(Objects.nonNull(request = requestsBeforeOpen.poll())){
+					send(request);
+				}
+			}
+			listeners.forEach(listener -> listener.onWebSocketOpened(this));
 		}
 	}
 	
@@ -66,16 +97,23 @@ public class TwitchPubSubWebSocketClient extends WebSocketClient{
 	public void onMessage(String messageStr){
 		try(var logContext = LogContext.empty().withSocketId(uuid)){
 			log.trace("Received Websocket message: {}", messageStr.strip());
-			var message = JacksonUtils.read(messageStr, new TypeReference<ITwitchWebSocketResponse>(){});
+			var message = PubSubFrameDecoder.getInstance().decode(messageStr);
+			if(Objects.isNull(message)){
+				return;
+			}
 			log.trace("Parsed message: {}", message);
 			
 			if(message instanceof ResponseResponse responseMessage){
+				var listenedTopics = Optional.ofNullable(responseMessage.getNonce()).map(pendingListens::remove);
 				if(responseMessage.hasError()){
 					log.error("Received error response {}", responseMessage);
 					if(Objects.equals("ERR_BADAUTH", responseMessage.getError())){
 						close(GOING_AWAY, "Invalid credentials");
 					}
 				}
+				else{
+					listenedTopics.ifPresent(topics -> listeners.forEach(listener -> listener.onTopicsListened(this, topics)));
+				}
 			}
 			else if(message instanceof PongResponse){
 				onPong();
@@ -84,7 +122,8 @@ public class TwitchPubSubWebSocketClient extends WebSocketClient{
 				logContext.withTopic(messageResponse.getData().getTopic());
 			}
 			else if(message instanceof ReconnectResponse){
-				close(GOING_AWAY);
+				log.info("PubSub WebSocket asked to reconnect");
+				listeners.forEach(listener -> listener.onWebSocketReconnectRequested(this));
 			}
 			listeners.forEach(listener -> listener.onWebSocketMessage(message));
 		}
@@ -97,6 +136,7 @@ public class TwitchPubSubWebSocketClient extends WebSocketClient{
 	public void onClose(int code, String reason, boolean remote){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
 			log.info("WebSocket closed with code {}, from host {}, reason {}", code, remote, reason);
+			getCompressionMetrics().ifPresent(metrics -> log.debug("WebSocket compression: {}", metrics));
 			listeners.forEach(l -> l.onWebSocketClosed(this, code, reason, remote));
 		}
 	}
@@ -114,11 +154,24 @@ public class TwitchPubSubWebSocketClient extends WebSocketClient{
 		send(new PingRequest());
 	}
 	
+	/**
+	 * Send a request, or keep it to be sent once the socket is opened.
+	 *
+	 * @param request The request to send.
+	 */
 	private void send(@NotNull ITwitchWebSocketRequest request){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
-			var data = JacksonUtils.writeAsString(request);
-			log.trace("Sending WebSocket message: {}", data);
-			send(data);
+			synchronized(requestsBeforeOpen){
+				if(!opened){
+					log.trace("Socket not opened yet, delaying message {}", request);
+					requestsBeforeOpen.add(request);
+					return;
+				}
+				
+				var data = JacksonUtils.writeAsString(request);
+				log.trace("Sending WebSocket message: {}", data);
+				send(data);
+			}
 		}
 		catch(JsonProcessingException e){
 			log.error("Failed to convert WebSocket message to json", e);
@@ -135,33 +188,69 @@ public class TwitchPubSubWebSocketClient extends WebSocketClient{
 	}
 	
 	public boolean isTopicListened(@NotNull Topic topic){
-		return topics.stream()
-				.flatMap(t -> t.getTopics().stream())
-				.anyMatch(t -> Objects.equals(t, topic));
+		return topicIndex.containsKey(topic);
 	}
 	
-	public void listenTopic(@NotNull Topics topics){
+	public synchronized void listenTopic(@NotNull Topics topics){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
 			if(this.topics.add(topics)){
-				send(new ListenTopicRequest(topics));
+				index(topics);
+				var request = new ListenTopicRequest(topics);
+				pendingListens.put(request.getNonce(), topics);
+				send(request);
 			}
 		}
 	}
 	
 	public void removeTopic(@NotNull Topic topic){
+		removeTopics(List.of(topic));
+	}
+	
+	/**
+	 * Stop listening to some topics, with a single UNLISTEN request for all of them (per auth token).
+	 * Topics that were listened together with the removed ones keep being listened.
+	 *
+	 * @param topics The topics to remove.
+	 */
+	public synchronized void removeTopics(@NotNull Collection<Topic> topics){
 		try(var ignored = LogContext.empty().withSocketId(uuid)){
-			var topics = this.topics.stream()
-					.filter(t -> t.getTopics().contains(topic))
-					.toList();
+			var removedByGroup = new LinkedHashMap<Topics, Set<Topic>>();
+			for(var topic : topics){
+				var group = topicIndex.get(topic);
+				if(Objects.nonNull(group)){
+					removedByGroup.computeIfAbsent(group, key -> new HashSet<>()).add(topic);
+				}
+			}
 			
-			topics.forEach(t -> {
-				send(new UnlistenTopicRequest(t));
-				this.topics.remove(t);
+			var removedByAuthToken = new HashMap<String, List<Topic>>();
+			removedByGroup.forEach((group, removed) -> {
+				this.topics.remove(group);
+				unindex(group);
+				if(removed.size() < group.getTopicCount()){
+					var kept = new Topics(group.getTopics().stream()
+							.filter(topic -> !removed.contains(topic))
+							.toList(), group.getAuthToken());
+					this.topics.add(kept);
+					index(kept);
+				}
+				removedByAuthToken.computeIfAbsent(group.getAuthToken(), key -> new ArrayList<>()).addAll(removed);
 			});
+			
+			removedByAuthToken.forEach((authToken, removed) -> send(new UnlistenTopicRequest(new Topics(removed, authToken))));
 		}
 	}
 	
+	private void index(@NotNull Topics group){
+		group.getTopics().forEach(topic -> topicIndex.put(topic, group));
+		topicCount.addAndGet(group.getTopicCount());
+	}
+	
+	private void unindex(@NotNull Topics group){
+		group.getTopics().forEach(topic -> topicIndex.remove(topic, group));
+		topicCount.addAndGet(-group.getTopicCount());
+	}
+	
 	public int getTopicCount(){
-		return topics.stream().mapToInt(Topics::getTopicCount).sum();
+		return topicCount.get();
 	}
 }
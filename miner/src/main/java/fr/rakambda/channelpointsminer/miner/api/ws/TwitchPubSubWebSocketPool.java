@@ -6,32 +6,113 @@ import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocke
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageResponse;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TwitchWebSocketClientFactory;
+import fr.rakambda.channelpointsminer.miner.util.ExponentialBackoff;
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.java_websocket.client.WebSocketClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.java_websocket.framing.CloseFrame.ABNORMAL_CLOSE;
+import static org.java_websocket.framing.CloseFrame.GOING_AWAY;
 import static org.java_websocket.framing.CloseFrame.NORMAL;
 
+/**
+ * Spreads topics over several PubSub sockets.
+ * <p>
+ * When a socket is lost, its topics are listened again on other sockets right away, then with an exponential backoff while this fails.
+ * When Twitch asks a socket to reconnect, its topics are first listened on other sockets and the old socket is only closed once Twitch confirmed them, so no message is lost in between.
+ * Each of these handovers is measured, see {@link #getHandoverMetrics()}.
+ * <p>
+ * Sockets are connected asynchronously, topics given to a socket before it is opened are sent once it is. At most {@code maxConcurrentConnections} sockets are being connected at the same time, others wait for their turn.
+ * Once the sockets are filled above {@code spareThreshold}, a spare socket is opened in advance so that new topics don't have to wait for a connection.
+ * <p>
+ * As topics are removed, sockets may be left almost empty. {@link #compact()} moves their topics into fuller sockets and closes them, the same way as for a reconnection.
+ */
 @Log4j2
 public class TwitchPubSubWebSocketPool implements AutoCloseable, ITwitchPubSubWebSocketListener{
 	private static final int SOCKET_TIMEOUT_MINUTES = 5;
+	private static final int CONNECT_TIMEOUT_SECONDS = 30;
+	private static final int HANDOVER_TIMEOUT_SECONDS = 30;
+	private static final int DEFAULT_MAX_CONCURRENT_CONNECTIONS = 4;
+	private static final double DEFAULT_SPARE_THRESHOLD = 0.8;
+	private static final int MAX_HANDOVER_METRICS = 100;
+	private static final double COMPACTION_THRESHOLD = 0.5;
+	private static final int DEDUPLICATION_CAPACITY = 4096;
+	private static final ExponentialBackoff RECONNECT_BACKOFF = new ExponentialBackoff(Duration.ofMillis(500), Duration.ofMinutes(1));
 	
 	private final Collection<TwitchPubSubWebSocketClient> clients;
+	private final Map<Topic, TwitchPubSubWebSocketClient> topicOwners;
+	private final Set<TwitchPubSubWebSocketClient> clientsWithCapacity;
 	private final Collection<ITwitchPubSubMessageListener> listeners;
 	private final Queue<Topics> pendingTopics;
 	private final int maxTopicPerClient;
+	private final ScheduledExecutorService scheduler;
+	private final Map<TwitchPubSubWebSocketClient, Handover> drainingClients;
+	private final Map<Topic, Handover> handoverTopics;
+	private final Deque<PubSubHandoverMetrics> handoverMetrics;
+	private final AtomicBoolean reconnectScheduled;
+	private final AtomicInteger reconnectAttempts;
+	private final Queue<TwitchPubSubWebSocketClient> waitingConnections;
+	private final Map<TwitchPubSubWebSocketClient, Instant> connectingClients;
+	private final Semaphore connectPermits;
+	private final double spareThreshold;
+	private final AtomicLong compactedClients;
+	private final PubSubMessageDeduplicator deduplicator;
 	
-	public TwitchPubSubWebSocketPool(int maxTopicPerClient){
+	private volatile boolean closed;
+	
+	public TwitchPubSubWebSocketPool(int maxTopicPerClient, @NotNull ScheduledExecutorService scheduler){
+		this(maxTopicPerClient, scheduler, DEFAULT_MAX_CONCURRENT_CONNECTIONS, DEFAULT_SPARE_THRESHOLD);
+	}
+	
+	public TwitchPubSubWebSocketPool(int maxTopicPerClient, @NotNull ScheduledExecutorService scheduler, int maxConcurrentConnections, double spareThreshold){
 		this.maxTopicPerClient = maxTopicPerClient;
-		clients = new ConcurrentLinkedQueue<>();
+		this.scheduler = scheduler;
+		this.spareThreshold = spareThreshold;
+		clients = ConcurrentHashMap.newKeySet();
+		topicOwners = new ConcurrentHashMap<>();
+		clientsWithCapacity = new LinkedHashSet<>();
 		listeners = new ConcurrentLinkedQueue<>();
 		pendingTopics = new ConcurrentLinkedQueue<>();
+		drainingClients = new ConcurrentHashMap<>();
+		handoverTopics = new ConcurrentHashMap<>();
+		handoverMetrics = new ArrayDeque<>();
+		reconnectScheduled = new AtomicBoolean(false);
+		reconnectAttempts = new AtomicInteger(0);
+		waitingConnections = new ConcurrentLinkedQueue<>();
+		connectingClients = new ConcurrentHashMap<>();
+		connectPermits = new Semaphore(Math.max(1, maxConcurrentConnections));
+		compactedClients = new AtomicLong(0);
+		deduplicator = new PubSubMessageDeduplicator(DEDUPLICATION_CAPACITY);
 	}
 	
 	public void ping(){
@@ -44,15 +125,49 @@ public class TwitchPubSubWebSocketPool implements AutoCloseable, ITwitchPubSubWe
 	}
 	
 	public void checkStaleConnection(){
+		var now = TimeFactory.now();
 		clients.stream()
-				.filter(client -> TimeFactory.now().isAfter(client.getLastPong().plus(SOCKET_TIMEOUT_MINUTES, MINUTES)))
+				.filter(client -> !waitingConnections.contains(client))
+				.filter(client -> {
+					var connectingSince = connectingClients.get(client);
+					if(Objects.nonNull(connectingSince)){
+						return now.isAfter(connectingSince.plusSeconds(CONNECT_TIMEOUT_SECONDS));
+					}
+					return now.isAfter(client.getLastPong().plus(SOCKET_TIMEOUT_MINUTES, MINUTES));
+				})
 				.forEach(client -> client.close(ABNORMAL_CLOSE, "Timeout reached"));
 	}
 	
 	public void removeTopic(@NotNull Topic topic){
-		clients.stream()
-				.filter(client -> client.isTopicListened(topic))
-				.forEach(client -> client.removeTopic(topic));
+		removeTopics(List.of(topic));
+	}
+	
+	/**
+	 * Stop listening to some topics, sending at most one UNLISTEN request per client.
+	 *
+	 * @param topics The topics to remove.
+	 */
+	public synchronized void removeTopics(@NotNull Collection<Topic> topics){
+		var topicsByClient = new HashMap<TwitchPubSubWebSocketClient, List<Topic>>();
+		for(var topic : topics){
+			var owner = topicOwners.get(topic);
+			if(Objects.nonNull(owner)){
+				topicsByClient.computeIfAbsent(owner, key -> new ArrayList<>()).add(topic);
+			}
+		}
+		
+		topicsByClient.forEach((client, owned) -> {
+			client.removeTopics(owned);
+			owned.forEach(topic -> topicOwners.remove(topic, client));
+			updateCapacity(client);
+		});
+		
+		for(var topic : topics){
+			var handover = handoverTopics.remove(topic);
+			if(Objects.nonNull(handover) && handover.abandon(topic)){
+				completeHandover(handover);
+			}
+		}
 	}
 	
 	public void addListener(@NotNull ITwitchPubSubMessageListener listener){
@@ -63,82 +178,585 @@ public class TwitchPubSubWebSocketPool implements AutoCloseable, ITwitchPubSubWe
 	public void onWebSocketMessage(@NotNull ITwitchWebSocketResponse response){
 		if(response instanceof MessageResponse m){
 			var topic = m.getData().getTopic();
+			if(deduplicator.isDuplicate(m.getData())){
+				log.trace("Dropped duplicate message on topic {}", topic);
+				return;
+			}
 			var message = m.getData().getMessage();
 			listeners.forEach(l -> l.onTwitchMessage(topic, message));
 		}
 	}
 	
+	/**
+	 * Not synchronized on purpose: this is called from the thread of the closed socket, possibly while another thread holds the lock waiting for a new socket to connect.
+	 * Closed clients are dropped lazily from the ones with capacity.
+	 */
 	@Override
 	public void onWebSocketClosed(@NotNull TwitchPubSubWebSocketClient client, int code, @Nullable String reason, boolean remote){
 		clients.remove(client);
-		if(code != NORMAL){
+		client.getTopics().forEach(topics -> topics.getTopics().forEach(topic -> topicOwners.remove(topic, client)));
+		if(Objects.nonNull(connectingClients.remove(client))){
+			log.warn("PubSub websocket {} failed to connect", client.getUuid());
+			reconnectAttempts.incrementAndGet();
+			connectPermits.release();
+			startWaitingConnections();
+		}
+		
+		var drained = drainingClients.remove(client);
+		if(Objects.nonNull(drained)){
+			// Topics were already moved to other clients
+			drained.stop(TimeFactory.now());
+			return;
+		}
+		
+		if(code != NORMAL && !closed){
+			startHandover(new Handover(client, PubSubHandoverReason.CONNECTION_LOST, TimeFactory.now(), getTopics(client)));
 			pendingTopics.addAll(client.getTopics());
+			scheduleReconnect();
+		}
+	}
+	
+	@Override
+	public void onWebSocketOpened(@NotNull TwitchPubSubWebSocketClient client){
+		if(Objects.nonNull(connectingClients.remove(client))){
+			reconnectAttempts.set(0);
+			connectPermits.release();
+			startWaitingConnections();
+		}
+	}
+	
+	/**
+	 * Move the topics of the client to other clients before closing it.
+	 * This is done from the scheduler as the pool lock may be held for a while, and the old client must keep receiving messages meanwhile.
+	 */
+	@Override
+	public void onWebSocketReconnectRequested(@NotNull TwitchPubSubWebSocketClient client){
+		try{
+			scheduler.execute(() -> migrate(client));
+		}
+		catch(RejectedExecutionException e){
+			log.warn("Failed to schedule topics migration, closing socket directly");
+			client.close(GOING_AWAY);
+		}
+	}
+	
+	@Override
+	public void onTopicsListened(@NotNull TwitchPubSubWebSocketClient client, @NotNull Topics topics){
+		if(handoverTopics.isEmpty()){
+			return;
+		}
+		
+		var now = TimeFactory.now();
+		for(var topic : topics.getTopics()){
+			var handover = handoverTopics.get(topic);
+			if(Objects.nonNull(handover) && handover.getClient() != client && handoverTopics.remove(topic, handover) && handover.confirm(topic, now)){
+				completeHandover(handover);
+			}
+		}
+	}
+	
+	private synchronized void migrate(@NotNull TwitchPubSubWebSocketClient client){
+		if(closed || !clients.contains(client)){
+			return;
+		}
+		drain(client, PubSubHandoverReason.RECONNECT_REQUESTED, List.of());
+	}
+	
+	/**
+	 * Move the topics of sparsely used sockets into the fullest sockets having room for them, and close the emptied sockets.
+	 * A socket is only drained if it is at most half full and the other sockets can take all of its topics, so this never opens new sockets.
+	 * Sockets still connecting are left alone and, when a spare socket is wanted, one empty socket is kept.
+	 * <p>
+	 * The whole pass is planned before draining anything: topic counts are updated with the topics planned to be moved, and a socket receiving topics is never drained in the same pass.
+	 *
+	 * @return The number of sockets being drained.
+	 */
+	public synchronized int compact(){
+		if(closed){
+			return 0;
+		}
+		
+		var remaining = clients.stream()
+				.filter(client -> !client.isClosing() && !client.isClosed())
+				.collect(Collectors.toCollection(ArrayList::new));
+		var topicCounts = new HashMap<TwitchPubSubWebSocketClient, Integer>();
+		remaining.forEach(client -> topicCounts.put(client, client.getTopicCount()));
+		var sources = new ArrayList<>(remaining);
+		sources.sort(Comparator.comparingInt(topicCounts::get));
+		
+		var keepEmpty = spareThreshold > 0;
+		var receivers = new HashSet<TwitchPubSubWebSocketClient>();
+		var plan = new LinkedHashMap<TwitchPubSubWebSocketClient, List<TwitchPubSubWebSocketClient>>();
+		for(var source : sources){
+			int topicCount = topicCounts.get(source);
+			if(receivers.contains(source) || topicCount > maxTopicPerClient * COMPACTION_THRESHOLD || isConnecting(source)){
+				continue;
+			}
+			if(topicCount == 0 && keepEmpty){
+				keepEmpty = false;
+				continue;
+			}
+			
+			var candidates = remaining.stream()
+					.filter(client -> client != source)
+					.sorted(Comparator.comparingInt((TwitchPubSubWebSocketClient client) -> topicCounts.get(client)).reversed())
+					.toList();
+			var targets = new ArrayList<TwitchPubSubWebSocketClient>();
+			var toMove = topicCount;
+			for(var candidate : candidates){
+				if(toMove <= 0){
+					break;
+				}
+				var freeSlots = maxTopicPerClient - topicCounts.get(candidate);
+				if(freeSlots > 0){
+					targets.add(candidate);
+					toMove -= freeSlots;
+				}
+			}
+			if(toMove > 0){
+				continue;
+			}
+			
+			toMove = topicCount;
+			for(var target : targets){
+				var moved = Math.min(toMove, maxTopicPerClient - topicCounts.get(target));
+				topicCounts.merge(target, moved, Integer::sum);
+				toMove -= moved;
+			}
+			receivers.addAll(targets);
+			remaining.remove(source);
+			plan.put(source, targets);
+		}
+		
+		plan.forEach((source, targets) -> {
+			drain(source, PubSubHandoverReason.COMPACTION, targets);
+			compactedClients.incrementAndGet();
+		});
+		return plan.size();
+	}
+	
+	private boolean isConnecting(@NotNull TwitchPubSubWebSocketClient client){
+		return connectingClients.containsKey(client) || waitingConnections.contains(client);
+	}
+	
+	/**
+	 * Listen to the topics of a client on other clients before closing it.
+	 *
+	 * @param client  The client to drain.
+	 * @param reason  Why the client is drained.
+	 * @param targets Clients to move the topics to first, in order of preference.
+	 */
+	private void drain(@NotNull TwitchPubSubWebSocketClient client, @NotNull PubSubHandoverReason reason, @NotNull List<TwitchPubSubWebSocketClient> targets){
+		clients.remove(client);
+		clientsWithCapacity.remove(client);
+		
+		var groups = List.copyOf(client.getTopics());
+		groups.forEach(topics -> topics.getTopics().forEach(topic -> topicOwners.remove(topic, client)));
+		
+		var handover = new Handover(client, reason, TimeFactory.now(), getTopics(client));
+		drainingClients.put(client, handover);
+		startHandover(handover);
+		log.info("Moving {} topics to other sockets before closing socket {}", handover.getTopicCount(), client.getUuid());
+		
+		try{
+			scheduler.schedule(() -> stopDrainedClient(handover, "Topics not confirmed in time"), HANDOVER_TIMEOUT_SECONDS, SECONDS);
+		}
+		catch(RejectedExecutionException e){
+			log.debug("Failed to schedule handover timeout", e);
+		}
+		
+		for(var topics : groups){
+			try{
+				listenTopic(topics, targets);
+			}
+			catch(RuntimeException e){
+				log.error("Failed to move topics to another socket", e);
+				scheduleReconnect();
+			}
+		}
+	}
+	
+	private void startHandover(@NotNull Handover handover){
+		for(var topic : handover.getRemaining()){
+			var previous = handoverTopics.put(topic, handover);
+			if(Objects.nonNull(previous) && previous != handover && previous.abandon(topic)){
+				completeHandover(previous);
+			}
+		}
+		if(handover.isDone()){
+			completeHandover(handover);
+		}
+	}
+	
+	private void completeHandover(@NotNull Handover handover){
+		if(handover.getReason() != PubSubHandoverReason.CONNECTION_LOST){
+			stopDrainedClient(handover, "Topics moved to another socket");
+		}
+		
+		handover.complete(TimeFactory.now()).ifPresent(metrics -> {
+			log.info("Topics of socket {} handed over in {}ms with a gap of {}ms", metrics.getSocket(), metrics.getDurationMs(), metrics.getGapMs());
+			synchronized(handoverMetrics){
+				handoverMetrics.addLast(metrics);
+				while(handoverMetrics.size() > MAX_HANDOVER_METRICS){
+					handoverMetrics.removeFirst();
+				}
+			}
+		});
+	}
+	
+	private void stopDrainedClient(@NotNull Handover handover, @NotNull String reason){
+		if(handover.stop(TimeFactory.now())){
+			handover.getClient().close(NORMAL, reason);
 		}
 	}
 	
+	/**
+	 * Listen to the topics of clients that were lost. In case of failure this is retried with an exponential backoff.
+	 */
 	public void listenPendingTopics(){
+		if(!flushPendingTopics()){
+			scheduleReconnect();
+		}
+	}
+	
+	private synchronized boolean flushPendingTopics(){
 		try{
 			Topics topic;
 			while(Objects.nonNull(topic = pendingTopics.poll())){
 				listenTopic(topic);
 			}
+			return true;
 		}
 		catch(RuntimeException e){
-			log.error("Failed to join pending chats", e);
+			log.error("Failed to listen pending topics", e);
+			return false;
+		}
+	}
+	
+	/**
+	 * Failures to connect are counted when the sockets close before being opened, the backoff is reset once one opens.
+	 */
+	private void reconnect(){
+		if(!flushPendingTopics()){
+			reconnectAttempts.incrementAndGet();
+			scheduleReconnect();
 		}
 	}
 	
-	public void listenTopic(@NotNull Topics topics){
-		var isListened = topics.getTopics().stream().anyMatch(this::isTopicListened);
-		if(isListened){
+	private void scheduleReconnect(){
+		if(closed || !reconnectScheduled.compareAndSet(false, true)){
+			return;
+		}
+		
+		var delay = RECONNECT_BACKOFF.getDelay(reconnectAttempts.get());
+		log.info("Listening pending topics again in {}ms", delay);
+		try{
+			scheduler.schedule(() -> {
+				reconnectScheduled.set(false);
+				reconnect();
+			}, delay, MILLISECONDS);
+		}
+		catch(RejectedExecutionException e){
+			reconnectScheduled.set(false);
+			log.debug("Failed to schedule reconnection", e);
+		}
+	}
+	
+	/**
+	 * Listen to some topics. Topics already listened are ignored, others are sent in as few LISTEN requests as possible, filling the existing clients before creating new ones.
+	 *
+	 * @param topics The topics to listen to.
+	 */
+	public synchronized void listenTopic(@NotNull Topics topics){
+		listenTopic(topics, List.of());
+	}
+	
+	private void listenTopic(@NotNull Topics topics, @NotNull List<TwitchPubSubWebSocketClient> preferredClients){
+		var notListened = topics.getTopics().stream()
+				.filter(topic -> !isTopicListened(topic))
+				.toList();
+		if(notListened.isEmpty()){
 			log.debug("Topic {} is already being listened", topics);
 			return;
 		}
 		
+		var remaining = notListened.size() == topics.getTopics().size() ? topics : new Topics(notListened, topics.getAuthToken());
 		try{
-			getAvailableClient().listenTopic(topics);
+			while(Objects.nonNull(remaining)){
+				var client = getAvailableClient(preferredClients);
+				var freeSlots = maxTopicPerClient - client.getTopicCount();
+				Topics batch;
+				if(remaining.getTopics().size() <= freeSlots){
+					batch = remaining;
+					remaining = null;
+				}
+				else{
+					var topicList = new ArrayList<>(remaining.getTopics());
+					batch = new Topics(topicList.subList(0, freeSlots), remaining.getAuthToken());
+					remaining = new Topics(topicList.subList(freeSlots, topicList.size()), remaining.getAuthToken());
+				}
+				
+				client.listenTopic(batch);
+				batch.getTopics().forEach(topic -> topicOwners.put(topic, client));
+				if(!clients.contains(client)){
+					// Closed while we were registering, its topics may already have been re-queued without this batch
+					batch.getTopics().forEach(topic -> topicOwners.remove(topic, client));
+					pendingTopics.add(batch);
+					scheduleReconnect();
+				}
+				updateCapacity(client);
+			}
 		}
 		catch(RuntimeException e){
-			pendingTopics.add(topics);
+			pendingTopics.add(remaining);
 			throw e;
 		}
+		
+		openSpareIfNeeded();
 	}
 	
-	private boolean isTopicListened(@NotNull Topic topic){
-		return clients.stream().anyMatch(client -> client.isTopicListened(topic));
+	/**
+	 * Open a new socket in advance when the existing ones are almost full, so the next topics don't have to wait for it to connect.
+	 */
+	private void openSpareIfNeeded(){
+		if(spareThreshold <= 0 || closed){
+			return;
+		}
+		
+		var capacity = (long) clients.size() * maxTopicPerClient;
+		var used = topicOwners.size();
+		if(capacity == 0 || capacity - used >= maxTopicPerClient || used < capacity * spareThreshold){
+			return;
+		}
+		
+		log.debug("PubSub sockets are {}% full, opening a spare one", used * 100 / capacity);
+		try{
+			createNewClient();
+		}
+		catch(RuntimeException e){
+			log.warn("Failed to open spare pubsub websocket", e);
+		}
 	}
 	
-	@NotNull
-	private TwitchPubSubWebSocketClient getAvailableClient(){
-		return clients.stream()
-				.filter(client -> !client.isClosing() && !client.isClosed())
-				.filter(client -> client.getTopicCount() < maxTopicPerClient)
-				.findAny()
-				.orElseGet(this::createNewClient);
+	public boolean isTopicListened(@NotNull Topic topic){
+		return topicOwners.containsKey(topic);
 	}
 	
+	/**
+	 * Get a client that can listen to more topics, creating one if needed.
+	 * Clients found full or closing are dropped from the candidates on the way, so picking a client doesn't depend on the total number of clients.
+	 *
+	 * @param preferredClients Clients to pick first if they have a free slot.
+	 *
+	 * @return A client with at least one free slot.
+	 */
 	@NotNull
-	private TwitchPubSubWebSocketClient createNewClient(){
-		try{
-			var client = TwitchWebSocketClientFactory.createPubSubClient();
-			log.debug("Created pubsub websocket client with uuid {}", client.getUuid());
-			client.addListener(this);
-			client.connectBlocking();
-			clients.add(client);
+	private TwitchPubSubWebSocketClient getAvailableClient(@NotNull List<TwitchPubSubWebSocketClient> preferredClients){
+		for(var client : preferredClients){
+			if(clients.contains(client) && !client.isClosing() && !client.isClosed() && client.getTopicCount() < maxTopicPerClient){
+				return client;
+			}
+		}
+		
+		var iterator = clientsWithCapacity.iterator();
+		while(iterator.hasNext()){
+			var client = iterator.next();
+			if(!clients.contains(client) || client.isClosing() || client.isClosed() || client.getTopicCount() >= maxTopicPerClient){
+				iterator.remove();
+				continue;
+			}
 			return client;
 		}
-		catch(Exception e){
-			log.error("Failed to create new pubsub websocket");
-			throw new RuntimeException(e);
+		return createNewClient();
+	}
+	
+	private void updateCapacity(@NotNull TwitchPubSubWebSocketClient client){
+		if(clients.contains(client) && client.getTopicCount() < maxTopicPerClient){
+			clientsWithCapacity.add(client);
+		}
+		else{
+			clientsWithCapacity.remove(client);
+		}
+	}
+	
+	/**
+	 * Create a new client. It is connected in the background, topics can be given to it right away.
+	 *
+	 * @return The new client.
+	 */
+	@NotNull
+	private TwitchPubSubWebSocketClient createNewClient(){
+		var client = TwitchWebSocketClientFactory.createPubSubClient();
+		log.debug("Created pubsub websocket client with uuid {}", client.getUuid());
+		client.addListener(this);
+		clients.add(client);
+		clientsWithCapacity.add(client);
+		
+		waitingConnections.add(client);
+		startWaitingConnections();
+		return client;
+	}
+	
+	private void startWaitingConnections(){
+		while(!waitingConnections.isEmpty() && connectPermits.tryAcquire()){
+			var client = waitingConnections.poll();
+			if(Objects.isNull(client)){
+				connectPermits.release();
+				continue;
+			}
+			
+			connectingClients.put(client, TimeFactory.now());
+			try{
+				client.connect();
+			}
+			catch(RuntimeException e){
+				log.error("Failed to connect pubsub websocket {}", client.getUuid(), e);
+				onWebSocketClosed(client, ABNORMAL_CLOSE, "Failed to connect", false);
+			}
 		}
 	}
 	
 	@Override
 	public void close(){
+		closed = true;
+		waitingConnections.clear();
 		clients.forEach(WebSocketClient::close);
+		drainingClients.keySet().forEach(WebSocketClient::close);
 	}
 	
 	public int getClientCount(){
 		return clients.size();
 	}
+	
+	/**
+	 * Get how topics are currently spread over the sockets.
+	 *
+	 * @return Pool metrics.
+	 */
+	@NotNull
+	public PubSubPoolMetrics getPoolMetrics(){
+		var topicsPerSocket = clients.stream()
+				.map(TwitchPubSubWebSocketClient::getTopicCount)
+				.sorted(Comparator.reverseOrder())
+				.toList();
+		return PubSubPoolMetrics.builder()
+				.sockets(topicsPerSocket.size())
+				.topics(topicsPerSocket.stream().mapToInt(Integer::intValue).sum())
+				.maxTopicsPerSocket(maxTopicPerClient)
+				.drainingSockets(drainingClients.size())
+				.compactedSockets(compactedClients.get())
+				.duplicateMessages(deduplicator.getDuplicateCount())
+				.topicsPerSocket(topicsPerSocket)
+				.build();
+	}
+	
+	/**
+	 * Get the metrics of the last handovers, oldest first.
+	 *
+	 * @return Handover metrics.
+	 */
+	@NotNull
+	public List<PubSubHandoverMetrics> getHandoverMetrics(){
+		synchronized(handoverMetrics){
+			return List.copyOf(handoverMetrics);
+		}
+	}
+	
+	@NotNull
+	private static Set<Topic> getTopics(@NotNull TwitchPubSubWebSocketClient client){
+		var topics = new HashSet<Topic>();
+		client.getTopics().forEach(group -> topics.addAll(group.getTopics()));
+		return topics;
+	}
+	
+	/**
+	 * Topics of a socket being moved to other sockets.
+	 */
+	private static class Handover{
+		@Getter
+		private final TwitchPubSubWebSocketClient client;
+		@Getter
+		private final PubSubHandoverReason reason;
+		@Getter
+		private final int topicCount;
+		private final Instant startedAt;
+		private final Set<Topic> remaining;
+		private Instant stoppedAt;
+		private Instant lastConfirmedAt;
+		private boolean stopped;
+		private boolean completed;
+		
+		private Handover(@NotNull TwitchPubSubWebSocketClient client, @NotNull PubSubHandoverReason reason, @NotNull Instant startedAt, @NotNull Set<Topic> topics){
+			this.client = client;
+			this.reason = reason;
+			this.startedAt = startedAt;
+			remaining = new HashSet<>(topics);
+			topicCount = topics.size();
+			if(reason == PubSubHandoverReason.CONNECTION_LOST){
+				stoppedAt = startedAt;
+				stopped = true;
+			}
+		}
+		
+		@NotNull
+		private synchronized Set<Topic> getRemaining(){
+			return Set.copyOf(remaining);
+		}
+		
+		private synchronized boolean isDone(){
+			return remaining.isEmpty();
+		}
+		
+		/**
+		 * @return True if this was the last topic to be confirmed.
+		 */
+		private synchronized boolean confirm(@NotNull Topic topic, @NotNull Instant now){
+			if(remaining.remove(topic)){
+				lastConfirmedAt = now;
+				return remaining.isEmpty();
+			}
+			return false;
+		}
+		
+		/**
+		 * @return True if this was the last topic to be confirmed.
+		 */
+		private synchronized boolean abandon(@NotNull Topic topic){
+			return remaining.remove(topic) && remaining.isEmpty();
+		}
+		
+		/**
+		 * Mark the old socket as not delivering messages anymore.
+		 *
+		 * @return True if it wasn't stopped before.
+		 */
+		private synchronized boolean stop(@NotNull Instant now){
+			if(stopped){
+				return false;
+			}
+			stopped = true;
+			stoppedAt = now;
+			return true;
+		}
+		
+		@NotNull
+		private synchronized Optional<PubSubHandoverMetrics> complete(@NotNull Instant now){
+			if(completed || !remaining.isEmpty()){
+				return Optional.empty();
+			}
+			completed = true;
+			if(topicCount == 0){
+				return Optional.empty();
+			}
+			
+			var gap = Objects.isNull(lastConfirmedAt) || Objects.isNull(stoppedAt) ? Duration.ZERO : Duration.between(stoppedAt, lastConfirmedAt);
+			return Optional.of(PubSubHandoverMetrics.builder()
+					.socket(client.getUuid())
+					.reason(reason)
+					.topics(topicCount)
+					.gapMs(Math.max(0, gap.toMillis()))
+					.durationMs(Math.max(0, Duration.between(startedAt, now).toMillis()))
+					.build());
+		}
+	}
 }
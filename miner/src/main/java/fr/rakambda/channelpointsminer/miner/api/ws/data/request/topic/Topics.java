@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import java.util.Collection;
 import java.util.Set;
 
 @Getter
@@ -27,6 +28,11 @@ public class Topics{
 		this.authToken = authToken;
 	}
 	
+	public Topics(@NotNull Collection<Topic> topics, @Nullable String authToken){
+		this.topics = Set.copyOf(topics);
+		this.authToken = authToken;
+	}
+	
 	public static Topics buildFromName(@NotNull TopicName topicName, @NotNull String target, @Nullable String authToken){
 		var topic = Topic.builder()
 				.name(topicName)
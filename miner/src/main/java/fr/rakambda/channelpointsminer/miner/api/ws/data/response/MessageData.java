@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.type.TypeReference;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.util.HashUtils;
 import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 
 @Getter
@@ -26,9 +28,29 @@ public class MessageData{
 	
 	@JsonIgnore
 	private IPubSubMessage message;
+	/**
+	 * Hash of the message as received, 0 if unknown.
+	 */
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private long contentHash;
 	
 	@JsonProperty("message")
 	public void setMessage(String value) throws IOException{
 		message = JacksonUtils.read(value, new TypeReference<>(){});
+		contentHash = hashContent(value);
+	}
+	
+	/**
+	 * 64 bits FNV-1a hash of a message content.
+	 *
+	 * @param content The content to hash.
+	 *
+	 * @return The hash, never 0.
+	 */
+	public static long hashContent(@NotNull CharSequence content){
+		var hash = HashUtils.fnv1a64(content);
+		return hash == 0 ? 1 : hash;
 	}
 }
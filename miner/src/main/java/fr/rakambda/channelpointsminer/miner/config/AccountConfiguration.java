@@ -11,6 +11,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -65,9 +67,21 @@ public class AccountConfiguration{
 	@JsonPropertyDescription("Method used to join chat. Default: WS")
 	@Builder.Default
 	private ChatMode chatMode = ChatMode.WS;
+	@JsonProperty("ircShards")
+	@JsonPropertyDescription("Number of IRC connections channels are spread over when chatMode is IRC. A disconnect only drops the channels of one connection. Default: 1")
+	@Builder.Default
+	private int ircShards = 1;
 	@JsonProperty("versionProvider")
 	@NotNull
 	@JsonPropertyDescription("Method used to get twitch version. Default: WEBPAGE")
 	@Builder.Default
 	private VersionProvider versionProvider = VersionProvider.WEBPAGE;
+	@JsonProperty("liveTopicsOnly")
+	@JsonPropertyDescription("Only listen to the prediction, moment and raid topics of a streamer while it is live (and a few minutes after), reducing the number of PubSub connections when following many channels. Default: false")
+	@Builder.Default
+	private boolean liveTopicsOnly = false;
+	@JsonProperty("stateFolder")
+	@Nullable
+	@JsonPropertyDescription("Path to a folder where the state of the miner is saved, allowing it to resume faster and keep watch streaks after a restart. Disabled if not set.")
+	private Path stateFolder;
 }
@@ -0,0 +1,68 @@
+package fr.rakambda.channelpointsminer.miner.config;
+
+import com.fasterxml.jackson.annotation.JsonClassDescription;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@JsonClassDescription("Runtime settings shared by all the mined accounts.")
+public class RuntimeConfiguration{
+	@JsonProperty("schedulerThreads")
+	@JsonPropertyDescription("Number of threads used to trigger scheduled tasks of all accounts. Default: 2")
+	@Builder.Default
+	private int schedulerThreads = 2;
+	@JsonProperty("workerThreads")
+	@JsonPropertyDescription("Number of threads used to execute tasks (handlers, periodic updates, ...) of all accounts. Default: 32")
+	@Builder.Default
+	private int workerThreads = 32;
+	@JsonProperty("maxConcurrentTasksPerAccount")
+	@JsonPropertyDescription("Maximum number of tasks of a single account that can be executed at the same time. Default: 8, or 256 with virtual threads")
+	@Nullable
+	private Integer maxConcurrentTasksPerAccount;
+	@JsonProperty("virtualThreads")
+	@JsonPropertyDescription("Run tasks on virtual threads instead of the worker threads, requires Java 21 or later (falls back to worker threads otherwise). Mostly useful with many accounts as tasks are mostly waiting on network or database. Default: false")
+	@Builder.Default
+	private boolean virtualThreads = false;
+	@JsonProperty("maxConcurrentStartups")
+	@JsonPropertyDescription("Maximum number of accounts being started (login, integrity, first streamer list load) at the same time. Default: 4")
+	@Builder.Default
+	private int maxConcurrentStartups = 4;
+	@JsonProperty("startupInterval")
+	@JsonPropertyDescription("Minimum delay in milliseconds between two account starts, to not hit Twitch with all the logins at once. Default: 2000")
+	@Builder.Default
+	private long startupInterval = 2000;
+	@JsonProperty("startupJitter")
+	@JsonPropertyDescription("Maximum random delay in milliseconds added to each account start, on top of startupInterval. Default: 1000")
+	@Builder.Default
+	private long startupJitter = 1000;
+	@JsonProperty("pubSubMaxConcurrentConnections")
+	@JsonPropertyDescription("Maximum number of PubSub websockets of an account being connected at the same time. Default: 4")
+	@Builder.Default
+	private int pubSubMaxConcurrentConnections = 4;
+	@JsonProperty("pubSubSpareThreshold")
+	@JsonPropertyDescription("Ratio (between 0 and 1) of used topic slots of the PubSub websockets of an account above which a spare websocket is connected in advance, 0 to disable. Default: 0.8")
+	@Builder.Default
+	private double pubSubSpareThreshold = 0.8;
+	@JsonProperty("webSocketTransport")
+	@JsonPropertyDescription("Implementation of the PubSub and chat websockets. JAVA_WEBSOCKET uses 2 threads per socket, HTTP_CLIENT shares a few threads between all the sockets of all accounts. Default: JAVA_WEBSOCKET")
+	@Builder.Default
+	private WebSocketTransport webSocketTransport = WebSocketTransport.JAVA_WEBSOCKET;
+	@JsonProperty("webSocketThreads")
+	@JsonPropertyDescription("Number of threads handling the websocket messages when webSocketTransport is HTTP_CLIENT. Default: 2")
+	@Builder.Default
+	private int webSocketThreads = 2;
+	@JsonProperty("webSocketCompression")
+	@JsonPropertyDescription("Ask Twitch to compress PubSub and chat websocket messages (permessage-deflate), using less bandwidth for some CPU. Not supported by the HTTP_CLIENT transport. Default: false")
+	@Builder.Default
+	private boolean webSocketCompression = false;
+}
@@ -0,0 +1,15 @@
+package fr.rakambda.channelpointsminer.miner.config;
+
+import com.fasterxml.jackson.annotation.JsonClassDescription;
+
+@JsonClassDescription("Implementation used for PubSub and chat websockets.")
+public enum WebSocketTransport{
+	/**
+	 * Java-WebSocket, using a reader and a writer thread for each socket.
+	 */
+	JAVA_WEBSOCKET,
+	/**
+	 * The HTTP client of the JDK, multiplexing all the sockets on a single selector thread.
+	 */
+	HTTP_CLIENT
+}
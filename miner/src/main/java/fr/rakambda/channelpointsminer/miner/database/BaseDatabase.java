@@ -18,8 +18,13 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -27,6 +32,8 @@ import java.util.concurrent.locks.ReentrantLock;
 @RequiredArgsConstructor
 @Log4j2
 public abstract class BaseDatabase implements IDatabase{
+	private static final int USER_SELECT_CHUNK_SIZE = 500;
+	
 	private final HikariDataSource dataSource;
 	private final Lock[] getOrCreatePredictionUserIdLocks = new Lock[]{
 			new ReentrantLock(),
@@ -67,6 +74,64 @@ public abstract class BaseDatabase implements IDatabase{
 		return userId;
 	}
 	
+	@Override
+	public void addUserPredictions(@NotNull String channelId, @NotNull Map<String, String> badgeByUsername) throws SQLException{
+		var unknownUsers = new HashMap<String, String>();
+		badgeByUsername.forEach((username, badge) -> unknownUsers.putIfAbsent(username.toLowerCase(Locale.ROOT), badge));
+		var badgeByUserId = new HashMap<Integer, String>();
+		
+		selectPredictionUserIds(channelId, unknownUsers, badgeByUserId);
+		if(!unknownUsers.isEmpty()){
+			addPredictionUsers(channelId, unknownUsers.keySet());
+			log.debug("Added {} new prediction users for channel '{}'", unknownUsers.size(), channelId);
+			
+			selectPredictionUserIds(channelId, unknownUsers, badgeByUserId);
+			if(!unknownUsers.isEmpty()){
+				throw new SQLException("Failed to create %d new prediction users".formatted(unknownUsers.size()));
+			}
+		}
+		
+		if(!badgeByUserId.isEmpty()){
+			addUserPredictionBatch(channelId, badgeByUserId);
+		}
+	}
+	
+	/**
+	 * Select the ids of prediction users by chunks.
+	 *
+	 * @param channelId     The channel of the users.
+	 * @param unknownUsers  Badges by username of the users to look for, found ones are removed from it.
+	 * @param badgeByUserId Where to put the badges of the found users.
+	 *
+	 * @throws SQLException Failed to select the users.
+	 */
+	private void selectPredictionUserIds(@NotNull String channelId, @NotNull Map<String, String> unknownUsers, @NotNull Map<Integer, String> badgeByUserId) throws SQLException{
+		var usernames = List.copyOf(unknownUsers.keySet());
+		try(var conn = getConnection()){
+			for(var start = 0; start < usernames.size(); start += USER_SELECT_CHUNK_SIZE){
+				var chunk = usernames.subList(start, Math.min(usernames.size(), start + USER_SELECT_CHUNK_SIZE));
+				var placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+				
+				try(var selectUsersStatement = conn.prepareStatement("""
+						SELECT `ID`, `Username` FROM `PredictionUser` WHERE `ChannelID`=? AND `Username` IN (%s)""".formatted(placeholders))){
+					selectUsersStatement.setString(1, channelId);
+					for(var i = 0; i < chunk.size(); i++){
+						selectUsersStatement.setString(i + 2, chunk.get(i));
+					}
+					
+					try(var result = selectUsersStatement.executeQuery()){
+						while(result.next()){
+							var badge = unknownUsers.remove(result.getString("Username"));
+							if(Objects.nonNull(badge)){
+								badgeByUserId.put(result.getInt("ID"), badge);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+	
 	@Override
 	public void addBalance(@NotNull String channelId, int balance, @Nullable String reason, @NotNull Instant instant) throws SQLException{
 		try(var conn = getConnection();
@@ -145,6 +210,10 @@ public abstract class BaseDatabase implements IDatabase{
 	
 	protected abstract void addUserPrediction(@NotNull String channelId, int userId, @NotNull String badge) throws SQLException;
 	
+	protected abstract void addUserPredictionBatch(@NotNull String channelId, @NotNull Map<Integer, String> badgeByUserId) throws SQLException;
+	
+	protected abstract void addPredictionUsers(@NotNull String channelId, @NotNull Collection<String> usernames) throws SQLException;
+	
 	private int hashToIndex(int hash, int length){
 		if(hash == Integer.MIN_VALUE){
 			return 0;
@@ -0,0 +1,125 @@
+package fr.rakambda.channelpointsminer.miner.database;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects user predictions read from the chat and writes them to the database in bulk.
+ * <p>
+ * The same users talk many times during a prediction, and the database only keeps the first badge of each of them.
+ * Predictions are deduplicated by channel and user in memory, and written with one bulk insert per channel on {@link #flush()}.
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class ChatPredictionAggregator{
+	public static final Duration FLUSH_PERIOD = Duration.ofSeconds(10);
+	
+	@NotNull
+	private final IDatabase database;
+	private final Map<String, Map<String, String>> pending = new HashMap<>();
+	private final Map<String, Set<String>> recorded = new ConcurrentHashMap<>();
+	
+	/**
+	 * Add a user prediction read from the chat. Nothing is written until the channel is flushed.
+	 *
+	 * @param channel  The channel name.
+	 * @param username The user that made the prediction.
+	 * @param badge    The prediction badge of the user.
+	 */
+	public void add(@NotNull String channel, @NotNull String username, @NotNull String badge){
+		var channelKey = channel.toLowerCase(Locale.ROOT);
+		var user = username.toLowerCase(Locale.ROOT);
+		
+		if(recorded.getOrDefault(channelKey, Set.of()).contains(user)){
+			return;
+		}
+		
+		synchronized(pending){
+			pending.computeIfAbsent(channelKey, key -> new HashMap<>()).put(user, badge);
+		}
+	}
+	
+	/**
+	 * Write the pending predictions of every channel.
+	 */
+	public void flush(){
+		List<String> channels;
+		synchronized(pending){
+			channels = List.copyOf(pending.keySet());
+		}
+		
+		for(var channel : channels){
+			try{
+				flush(channel);
+			}
+			catch(Exception e){
+				log.error("Failed to flush user predictions for channel {}", channel, e);
+			}
+		}
+	}
+	
+	/**
+	 * Write the pending predictions of a channel. If the database fails they are kept for the next flush.
+	 *
+	 * @param channel The channel name.
+	 */
+	public synchronized void flush(@NotNull String channel){
+		var channelKey = channel.toLowerCase(Locale.ROOT);
+		
+		Map<String, String> predictions;
+		synchronized(pending){
+			predictions = pending.remove(channelKey);
+		}
+		if(Objects.isNull(predictions) || predictions.isEmpty()){
+			return;
+		}
+		
+		try{
+			var streamerId = database.getStreamerIdFromName(channelKey);
+			if(streamerId.isEmpty()){
+				log.warn("Failed to get streamer id from name: {}", channelKey);
+				return;
+			}
+			
+			log.debug("Writing {} user predictions read from chat for channel {}", predictions.size(), channelKey);
+			database.addUserPredictions(streamerId.get(), predictions);
+			recorded.computeIfAbsent(channelKey, key -> ConcurrentHashMap.newKeySet()).addAll(predictions.keySet());
+		}
+		catch(SQLException e){
+			log.error("SQL Exception while adding user predictions", e);
+			synchronized(pending){
+				var channelPending = pending.computeIfAbsent(channelKey, key -> new HashMap<>());
+				predictions.forEach(channelPending::putIfAbsent);
+			}
+		}
+	}
+	
+	/**
+	 * Forget everything about a channel, to be called once its prediction is over.
+	 *
+	 * @param channel The channel name.
+	 */
+	public synchronized void clear(@NotNull String channel){
+		var channelKey = channel.toLowerCase(Locale.ROOT);
+		synchronized(pending){
+			pending.remove(channelKey);
+		}
+		recorded.remove(channelKey);
+	}
+	
+	public int getPendingCount(){
+		synchronized(pending){
+			return pending.values().stream().mapToInt(Map::size).sum();
+		}
+	}
+}
@@ -20,21 +20,29 @@ import lombok.extern.log4j.Log4j2;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 @RequiredArgsConstructor
 @Log4j2
 public class DatabaseEventHandler extends EventHandlerAdapter{
 	
-	private static final Pattern CHAT_PREDICTION_BADGE_PATTERN = Pattern.compile("predictions/([^,]*)");
+	private static final String CHAT_PREDICTION_BADGE = "predictions/";
+	private static final Pattern CHAT_PREDICTION_BADGE_PATTERN = Pattern.compile(CHAT_PREDICTION_BADGE + "([^,]*)");
 	private static final double INFINITE_RETURN_RATIO = 100_000D;
 	
 	@NotNull
 	private IDatabase database;
+	@NotNull
+	private ChatPredictionAggregator chatPredictionAggregator;
+	private final Map<String, EventStatus> eventStatuses = new ConcurrentHashMap<>();
 	
 	@Override
 	public void onEventCreatedEvent(@NotNull EventCreatedEvent event) throws Exception{
-		database.deleteUserPredictionsForChannel(event.getStreamerUsername().orElseThrow());
+		var streamerUsername = event.getStreamerUsername().orElseThrow();
+		chatPredictionAggregator.clear(streamerUsername);
+		database.deleteUserPredictionsForChannel(streamerUsername);
 	}
 	
 	@Override
@@ -42,6 +50,11 @@ public class DatabaseEventHandler extends EventHandlerAdapter{
 		var streamerUsername = event.getStreamerUsername();
 		var predictionEvent = event.getEvent();
 		
+		var previousStatus = eventStatuses.put(predictionEvent.getId(), predictionEvent.getStatus());
+		if(previousStatus != predictionEvent.getStatus()){
+			chatPredictionAggregator.flush(streamerUsername);
+		}
+		
 		if(predictionEvent.getStatus() == EventStatus.ACTIVE){
 			log.debug("Prediction-Update: Event ACTIVE. Streamer: {}, Title: {}", streamerUsername, predictionEvent.getTitle());
 			for(var outcome : predictionEvent.getOutcomes()){
@@ -54,6 +67,7 @@ public class DatabaseEventHandler extends EventHandlerAdapter{
 		else if(predictionEvent.getStatus() == EventStatus.CANCELED){
 			log.info("Prediction-Update: Event CANCELED. Streamer: {}, Title: {}", streamerUsername, predictionEvent.getTitle());
 			database.cancelPrediction(predictionEvent);
+			endPrediction(streamerUsername, predictionEvent.getId());
 		}
 		else if(predictionEvent.getStatus() == EventStatus.RESOLVED){
 			var winningOutcomeId = predictionEvent.getWinningOutcomeId();
@@ -67,6 +81,7 @@ public class DatabaseEventHandler extends EventHandlerAdapter{
 			var totalPoints = predictionEvent.getOutcomes().stream().mapToDouble(Outcome::getTotalPoints).sum();
 			var returnRatio = winningOutcome.getTotalPoints() == 0L ? INFINITE_RETURN_RATIO : totalPoints / winningOutcome.getTotalPoints();
 			database.resolvePrediction(predictionEvent, winningOutcome.getTitle(), winningOutcomeBadge, returnRatio);
+			endPrediction(streamerUsername, predictionEvent.getId());
 		}
 	}
 	
@@ -122,23 +137,28 @@ public class DatabaseEventHandler extends EventHandlerAdapter{
 	public void onChatMessageEvent(@NotNull ChatMessageEvent event){
 		var matcher = CHAT_PREDICTION_BADGE_PATTERN.matcher(event.getBadges());
 		if(matcher.find()){
-			try{
-				var predictionBadge = matcher.group(1);
-				log.debug("Read user prediction from chat. User: {}, Badge: {}", event.getActor(), predictionBadge);
-				
-				var streamerId = database.getStreamerIdFromName(event.getStreamer());
-				if(streamerId.isEmpty()){
-					log.warn("Failed to get streamer id from name: {}", event.getStreamer());
-					return;
-				}
-				database.addUserPrediction(event.getActor(), streamerId.get(), predictionBadge);
-			}
-			catch(SQLException e){
-				log.error("SQL Exception while adding user prediction", e);
-			}
+			var predictionBadge = matcher.group(1);
+			log.debug("Read user prediction from chat. User: {}, Badge: {}", event.getActor(), predictionBadge);
+			chatPredictionAggregator.add(event.getStreamer(), event.getActor(), predictionBadge);
 		}
 	}
 	
+	/**
+	 * Tell if chat badges contain a prediction badge, only such messages are recorded by {@link #onChatMessageEvent(ChatMessageEvent)}.
+	 *
+	 * @param badges The badges of a chat message.
+	 *
+	 * @return True if there is a prediction badge.
+	 */
+	public static boolean hasPredictionBadge(@NotNull String badges){
+		return badges.contains(CHAT_PREDICTION_BADGE);
+	}
+	
+	private void endPrediction(@NotNull String streamerUsername, @NotNull String eventId){
+		chatPredictionAggregator.clear(streamerUsername);
+		eventStatuses.remove(eventId);
+	}
+	
 	private void updateStreamer(@NotNull IStreamerEvent event) throws SQLException{
 		database.updateChannelStatusTime(event.getStreamerId(), event.getInstant());
 	}
@@ -153,6 +173,7 @@ public class DatabaseEventHandler extends EventHandlerAdapter{
 	
 	@Override
 	public void close(){
+		chatPredictionAggregator.flush();
 		database.close();
 	}
 }
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IDatabase extends AutoCloseable{
@@ -28,6 +29,8 @@ public interface IDatabase extends AutoCloseable{
 	
 	int addUserPrediction(@NotNull String username, @NotNull String streamerId, @NotNull String badge) throws SQLException;
 	
+	void addUserPredictions(@NotNull String streamerId, @NotNull Map<String, String> badgeByUsername) throws SQLException;
+	
 	void cancelPrediction(@NotNull Event event) throws SQLException;
 	
 	void resolvePrediction(@NotNull Event event, @NotNull String outcome, @NotNull String badge, double returnOnInvestment) throws SQLException;
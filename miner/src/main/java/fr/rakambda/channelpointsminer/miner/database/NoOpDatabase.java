@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class NoOpDatabase implements IDatabase{
@@ -35,6 +36,10 @@ public class NoOpDatabase implements IDatabase{
 		return -1;
 	}
 	
+	@Override
+	public void addUserPredictions(@NotNull String streamerId, @NotNull Map<String, String> badgeByUsername){
+	}
+	
 	@Override
 	public void cancelPrediction(@NotNull Event event){
 	}
@@ -6,6 +6,8 @@ import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import org.jetbrains.annotations.NotNull;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Map;
 
 public class SQLiteDatabase extends BaseDatabase{
 	public SQLiteDatabase(HikariDataSource dataSource){
@@ -49,6 +51,43 @@ public class SQLiteDatabase extends BaseDatabase{
 		}
 	}
 	
+	@Override
+	protected void addUserPredictionBatch(@NotNull String channelId, @NotNull Map<Integer, String> badgeByUserId) throws SQLException{
+		try(var conn = getConnection();
+				var predictionStatement = conn.prepareStatement("""
+						INSERT OR IGNORE INTO `UserPrediction`(`ChannelID`, `UserID`, `Badge`)
+						VALUES(?,?,?)"""
+				)){
+			
+			for(var entry : badgeByUserId.entrySet()){
+				predictionStatement.setString(1, channelId);
+				predictionStatement.setInt(2, entry.getKey());
+				predictionStatement.setString(3, entry.getValue());
+				predictionStatement.addBatch();
+			}
+			
+			predictionStatement.executeBatch();
+		}
+	}
+	
+	@Override
+	protected void addPredictionUsers(@NotNull String channelId, @NotNull Collection<String> usernames) throws SQLException{
+		try(var conn = getConnection();
+				var addUserStatement = conn.prepareStatement("""
+						INSERT OR IGNORE INTO `PredictionUser`(`Username`, `ChannelID`)
+						VALUES(?,?)"""
+				)){
+			
+			for(var username : usernames){
+				addUserStatement.setString(1, username);
+				addUserStatement.setString(2, channelId);
+				addUserStatement.addBatch();
+			}
+			
+			addUserStatement.executeBatch();
+		}
+	}
+	
 	@Override
 	protected void resolveUserPredictions(double returnRatioForWin, @NotNull String channelId, @NotNull String badge) throws SQLException{
 		try(var conn = getConnection();
@@ -19,20 +19,40 @@ import fr.rakambda.channelpointsminer.miner.util.ClassWalker;
 import lombok.extern.log4j.Log4j2;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import java.lang.invoke.MethodHandle;
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.util.Collections;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 @SuppressWarnings("unused")
 @Log4j2
 public abstract class EventHandlerAdapter implements IEventHandler{
 	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
-	private static final ConcurrentMap<Class<?>, MethodHandle> methods = new ConcurrentHashMap<>();
-	private static final Set<Class<?>> unresolved;
+	private static final ClassValue<Optional<Invoker>> invokers = new ClassValue<>(){
+		@Override
+		protected Optional<Invoker> computeValue(Class<?> type){
+			return Optional.ofNullable(createInvoker(type));
+		}
+	};
+	private static final ClassValue<Invoker[]> dispatchTable = new ClassValue<>(){
+		@Override
+		protected Invoker[] computeValue(Class<?> type){
+			var result = new ArrayList<Invoker>();
+			for(var clazz : ClassWalker.range(type, IEvent.class)){
+				invokers.get(clazz).ifPresent(result::add);
+			}
+			return result.toArray(Invoker[]::new);
+		}
+	};
+	private static final ClassValue<Map<Class<?>, Boolean>> interests = new ClassValue<>(){
+		@Override
+		protected Map<Class<?>, Boolean> computeValue(Class<?> type){
+			return new ConcurrentHashMap<>();
+		}
+	};
 	
 	public void onClaimAvailableEvent(@NotNull ClaimAvailableEvent event) throws Exception{}
 	
@@ -68,18 +88,9 @@ public abstract class EventHandlerAdapter implements IEventHandler{
 	
 	@Override
 	public void onEvent(@NotNull IEvent event){
-		for(var clazz : ClassWalker.range(event.getClass(), IEvent.class)){
-			if(unresolved.contains(clazz)){
-				continue;
-			}
-			var methodHandle = methods.computeIfAbsent(clazz, EventHandlerAdapter::findMethod);
-			if(methodHandle == null){
-				unresolved.add(clazz);
-				continue;
-			}
-			
+		for(var invoker : dispatchTable.get(event.getClass())){
 			try{
-				methodHandle.invoke(this, event);
+				invoker.invoke(this, event);
 			}
 			catch(Throwable throwable){
 				log.error("EventHandler threw an exception", throwable);
@@ -87,23 +98,66 @@ public abstract class EventHandlerAdapter implements IEventHandler{
 		}
 	}
 	
+	/**
+	 * Tells if this handler does something with events of the given class, that is if it overrides one of the methods that would be called for it.
+	 * An event this handler isn't interested in would only reach empty default methods and can be skipped.
+	 *
+	 * @param clazz The class of the event.
+	 *
+	 * @return True if the event should be given to this handler.
+	 */
+	public boolean isInterestedIn(@NotNull Class<?> clazz){
+		var handlerClass = getClass();
+		return interests.get(handlerClass).computeIfAbsent(clazz, type -> computeInterest(handlerClass, type));
+	}
+	
+	private static boolean computeInterest(@NotNull Class<?> handlerClass, @NotNull Class<?> type){
+		try{
+			if(handlerClass.getMethod("onEvent", IEvent.class).getDeclaringClass() != EventHandlerAdapter.class){
+				return true;
+			}
+			for(var clazz : ClassWalker.range(type, IEvent.class)){
+				if(invokers.get(clazz).isPresent() && handlerClass.getMethod("on" + clazz.getSimpleName(), clazz).getDeclaringClass() != EventHandlerAdapter.class){
+					return true;
+				}
+			}
+			return false;
+		}
+		catch(NoSuchMethodException e){
+			return true;
+		}
+	}
+	
+	/**
+	 * Generate a direct call to the method handling the given class, this is done once per class.
+	 *
+	 * @param clazz The class of the event.
+	 *
+	 * @return The invoker, or null if no method handles this class.
+	 */
 	@Nullable
-	private static MethodHandle findMethod(@NotNull Class<?> clazz){
-		var name = clazz.getSimpleName();
-		var type = MethodType.methodType(Void.TYPE, clazz);
+	private static Invoker createInvoker(@NotNull Class<?> clazz){
+		var name = "on" + clazz.getSimpleName();
 		try{
-			name = "on" + name;
-			return lookup.findVirtual(EventHandlerAdapter.class, name, type);
+			var target = lookup.findVirtual(EventHandlerAdapter.class, name, MethodType.methodType(Void.TYPE, clazz));
+			var callSite = LambdaMetafactory.metafactory(lookup,
+					"invoke",
+					MethodType.methodType(Invoker.class),
+					MethodType.methodType(Void.TYPE, EventHandlerAdapter.class, IEvent.class),
+					target,
+					MethodType.methodType(Void.TYPE, EventHandlerAdapter.class, clazz));
+			return (Invoker) callSite.getTarget().invokeExact();
 		}
 		catch(NoSuchMethodException | IllegalAccessException ignored){
-		} // this means this is probably a custom event!
-		return null;
+			return null; // this means this is probably a custom event!
+		}
+		catch(Throwable throwable){
+			throw new IllegalStateException("Failed to create event invoker for " + clazz, throwable);
+		}
 	}
 	
-	static{
-		unresolved = ConcurrentHashMap.newKeySet();
-		Collections.addAll(unresolved,
-				Object.class // Objects aren't events
-		);
+	@FunctionalInterface
+	interface Invoker{
+		void invoke(@NotNull EventHandlerAdapter handler, @NotNull IEvent event) throws Exception;
 	}
 }
@@ -0,0 +1,308 @@
+package fr.rakambda.channelpointsminer.miner.event.bus;
+
+import fr.rakambda.channelpointsminer.miner.event.EventHandlerAdapter;
+import fr.rakambda.channelpointsminer.miner.event.IEvent;
+import fr.rakambda.channelpointsminer.miner.event.IEventHandler;
+import fr.rakambda.channelpointsminer.miner.log.LogContext;
+import fr.rakambda.channelpointsminer.miner.util.ClassWalker;
+import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.ThreadContext;
+import org.jetbrains.annotations.NotNull;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatches events to handlers through one bounded queue per handler.
+ * <p>
+ * Each queue is drained by at most one task at a time, so a handler receives its events one after the other in publication order and a slow handler only delays itself.
+ * What happens when a queue is full depends on the {@link EventPolicy} of the event type, which can be overridden for a handler type.
+ * Publishing never waits for space: events are published from HTTP completion threads and from the tasks of the executor draining the queues, neither of which may be parked.
+ */
+@Log4j2
+public class EventBus{
+	private static final int DRAIN_BATCH_SIZE = 32;
+	
+	private final Executor executor;
+	private final int queueCapacity;
+	private final Map<Class<?>, EventPolicy> policies;
+	private final Map<Class<?>, Map<Class<?>, EventPolicy>> handlerPolicies;
+	private final Queue<HandlerQueue> handlerQueues;
+	private volatile Map<Class<?>, List<HandlerQueue>> routes;
+	
+	public EventBus(@NotNull Executor executor, int queueCapacity){
+		if(queueCapacity <= 0){
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		}
+		this.executor = executor;
+		this.queueCapacity = queueCapacity;
+		
+		policies = new ConcurrentHashMap<>();
+		handlerPolicies = new ConcurrentHashMap<>();
+		handlerQueues = new ConcurrentLinkedQueue<>();
+		routes = new ConcurrentHashMap<>();
+	}
+	
+	public void setPolicy(@NotNull Class<? extends IEvent> eventClass, @NotNull EventPolicy policy){
+		policies.put(eventClass, policy);
+		handlerQueues.forEach(HandlerQueue::clearPolicies);
+	}
+	
+	/**
+	 * Set the policy of an event type for the handlers of a given type only, other handlers keep the policy of the event type.
+	 *
+	 * @param handlerClass The class of the handlers.
+	 * @param eventClass   The class of the events.
+	 * @param policy       The policy.
+	 */
+	public void setPolicy(@NotNull Class<? extends IEventHandler> handlerClass, @NotNull Class<? extends IEvent> eventClass, @NotNull EventPolicy policy){
+		handlerPolicies.computeIfAbsent(handlerClass, clazz -> new ConcurrentHashMap<>()).put(eventClass, policy);
+		handlerQueues.forEach(HandlerQueue::clearPolicies);
+	}
+	
+	/**
+	 * Get the policy of an event class for a handler, the most specific event class wins and a handler policy wins over the one of the event type.
+	 *
+	 * @param handlerClass The class of the handler.
+	 * @param eventClass   The class of the event.
+	 *
+	 * @return The policy.
+	 */
+	@NotNull
+	private EventPolicy resolvePolicy(@NotNull Class<?> handlerClass, @NotNull Class<?> eventClass){
+		for(var parent : ClassWalker.walk(eventClass)){
+			for(var handlerParent : ClassWalker.walk(handlerClass)){
+				var policy = handlerPolicies.getOrDefault(handlerParent, Map.of()).get(parent);
+				if(Objects.nonNull(policy)){
+					return policy;
+				}
+			}
+			var policy = policies.get(parent);
+			if(Objects.nonNull(policy)){
+				return policy;
+			}
+		}
+		return EventPolicy.dropNewest();
+	}
+	
+	public void register(@NotNull IEventHandler handler){
+		handlerQueues.add(new HandlerQueue(handler));
+		routes = new ConcurrentHashMap<>();
+	}
+	
+	/**
+	 * Get the queues of the handlers interested in an event class, computed once per class.
+	 * Handlers not extending {@link EventHandlerAdapter} receive all events.
+	 *
+	 * @param eventClass The class of the event.
+	 *
+	 * @return The queues to publish to.
+	 */
+	@NotNull
+	private List<HandlerQueue> getRoute(@NotNull Class<?> eventClass){
+		return routes.computeIfAbsent(eventClass, clazz -> handlerQueues.stream()
+				.filter(queue -> !(queue.handler instanceof EventHandlerAdapter adapter) || adapter.isInterestedIn(clazz))
+				.toList());
+	}
+	
+	/**
+	 * Queue an event for all the registered handlers.
+	 * The current log context is captured and restored when the event is handled.
+	 *
+	 * @param event The event.
+	 */
+	public void publish(@NotNull IEvent event){
+		var route = getRoute(event.getClass());
+		if(route.isEmpty()){
+			return;
+		}
+		
+		var envelope = new Envelope(event, ThreadContext.getImmutableContext(), ThreadContext.getImmutableStack().asList());
+		for(var handlerQueue : route){
+			handlerQueue.offer(envelope);
+		}
+	}
+	
+	@NotNull
+	public List<EventHandlerMetrics> getMetrics(){
+		return handlerQueues.stream().map(HandlerQueue::getMetrics).toList();
+	}
+	
+	private record Envelope(@NotNull IEvent event, @NotNull Map<String, String> values, @NotNull List<String> messages){
+	}
+	
+	private record CoalesceKey(@NotNull EventPolicy policy, Object key){
+	}
+	
+	/**
+	 * Queue entry, the envelope of a coalescing slot can be replaced as long as the slot hasn't been taken by the consumer.
+	 */
+	private static class Slot{
+		private final CoalesceKey key;
+		private volatile Envelope envelope;
+		
+		private Slot(CoalesceKey key, @NotNull Envelope envelope){
+			this.key = key;
+			this.envelope = envelope;
+		}
+	}
+	
+	private class HandlerQueue implements Runnable{
+		private final IEventHandler handler;
+		private final BlockingQueue<Slot> queue;
+		private final Map<Class<?>, EventPolicy> resolvedPolicies;
+		private final Map<CoalesceKey, Slot> pendingByKey;
+		private final AtomicBoolean scheduled;
+		private final LongAdder handled;
+		private final LongAdder dropped;
+		private final LongAdder coalesced;
+		private final LongAdder latencyNanos;
+		private final LongAccumulator maxLatencyNanos;
+		
+		private HandlerQueue(@NotNull IEventHandler handler){
+			this.handler = handler;
+			
+			queue = new ArrayBlockingQueue<>(queueCapacity);
+			resolvedPolicies = new ConcurrentHashMap<>();
+			pendingByKey = new ConcurrentHashMap<>();
+			scheduled = new AtomicBoolean(false);
+			handled = new LongAdder();
+			dropped = new LongAdder();
+			coalesced = new LongAdder();
+			latencyNanos = new LongAdder();
+			maxLatencyNanos = new LongAccumulator(Math::max, 0);
+		}
+		
+		private void clearPolicies(){
+			resolvedPolicies.clear();
+		}
+		
+		private void offer(@NotNull Envelope envelope){
+			var event = envelope.event();
+			var policy = resolvedPolicies.computeIfAbsent(event.getClass(), clazz -> resolvePolicy(handler.getClass(), clazz));
+			var queued = switch(policy.getType()){
+				case DROP_NEWEST -> queue.offer(new Slot(null, envelope));
+				case DROP_OLDEST -> offerDroppingOldest(new Slot(null, envelope));
+				case COALESCE -> offerCoalescing(envelope, new CoalesceKey(policy, Objects.requireNonNull(policy.getKeyExtractor()).apply(event)));
+			};
+			
+			if(queued){
+				schedule();
+			}
+			else{
+				dropped.increment();
+				log.warn("Dropped event {} for handler {} as its queue is full", event.getClass().getSimpleName(), handler.getClass().getSimpleName());
+			}
+		}
+		
+		private boolean offerDroppingOldest(@NotNull Slot slot){
+			while(!queue.offer(slot)){
+				var removed = queue.poll();
+				if(Objects.nonNull(removed)){
+					dropped.increment();
+					if(Objects.nonNull(removed.key)){
+						pendingByKey.remove(removed.key, removed);
+					}
+				}
+			}
+			return true;
+		}
+		
+		private boolean offerCoalescing(@NotNull Envelope envelope, @NotNull CoalesceKey key){
+			var replaced = new AtomicBoolean(false);
+			var slot = pendingByKey.compute(key, (k, existing) -> {
+				if(Objects.nonNull(existing)){
+					existing.envelope = envelope;
+					replaced.set(true);
+					return existing;
+				}
+				return new Slot(k, envelope);
+			});
+			
+			if(replaced.get()){
+				coalesced.increment();
+				return true;
+			}
+			if(queue.offer(slot)){
+				return true;
+			}
+			pendingByKey.remove(key, slot);
+			return false;
+		}
+		
+		private void schedule(){
+			if(!scheduled.compareAndSet(false, true)){
+				return;
+			}
+			try{
+				executor.execute(this);
+			}
+			catch(RejectedExecutionException e){
+				scheduled.set(false);
+				log.debug("Events rejected as the executor is shut down");
+			}
+		}
+		
+		@Override
+		public void run(){
+			try{
+				for(var i = 0; i < DRAIN_BATCH_SIZE; i++){
+					var slot = queue.poll();
+					if(Objects.isNull(slot)){
+						break;
+					}
+					if(Objects.nonNull(slot.key)){
+						pendingByKey.remove(slot.key, slot);
+					}
+					handle(slot.envelope);
+				}
+			}
+			finally{
+				scheduled.set(false);
+				if(!queue.isEmpty()){
+					schedule();
+				}
+			}
+		}
+		
+		private void handle(@NotNull Envelope envelope){
+			var start = System.nanoTime();
+			try(var ignored = LogContext.restore(envelope.values(), envelope.messages())){
+				handler.onEvent(envelope.event());
+			}
+			catch(RuntimeException e){
+				log.error("Failed to handle event with {}", handler.getClass().getSimpleName(), e);
+			}
+			finally{
+				var duration = System.nanoTime() - start;
+				handled.increment();
+				latencyNanos.add(duration);
+				maxLatencyNanos.accumulate(duration);
+			}
+		}
+		
+		@NotNull
+		private EventHandlerMetrics getMetrics(){
+			var handledCount = handled.sum();
+			return EventHandlerMetrics.builder()
+					.handler(handler.getClass().getSimpleName())
+					.queueDepth(queue.size())
+					.handled(handledCount)
+					.dropped(dropped.sum())
+					.coalesced(coalesced.sum())
+					.averageLatencyMs(handledCount == 0 ? 0 : latencyNanos.sum() / 1_000_000D / handledCount)
+					.maxLatencyMs(maxLatencyNanos.get() / 1_000_000D)
+					.build();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package fr.rakambda.channelpointsminer.miner.event.bus;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Snapshot of the state of the queue of a handler.
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class EventHandlerMetrics{
+	@NotNull
+	private final String handler;
+	private final int queueDepth;
+	private final long handled;
+	private final long dropped;
+	private final long coalesced;
+	private final double averageLatencyMs;
+	private final double maxLatencyMs;
+}
@@ -0,0 +1,65 @@
+package fr.rakambda.channelpointsminer.miner.event.bus;
+
+import fr.rakambda.channelpointsminer.miner.event.IEvent;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.function.Function;
+
+/**
+ * Defines what to do with an event when the queue of a handler is full or already contains a similar event.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class EventPolicy{
+	private static final EventPolicy DROP_NEWEST = new EventPolicy(Type.DROP_NEWEST, null);
+	private static final EventPolicy DROP_OLDEST = new EventPolicy(Type.DROP_OLDEST, null);
+	
+	@NotNull
+	private final Type type;
+	@Nullable
+	private final Function<IEvent, Object> keyExtractor;
+	
+	/**
+	 * Drop the new event if the queue is full, the queued events are kept.
+	 * This is the default policy.
+	 *
+	 * @return The policy.
+	 */
+	@NotNull
+	public static EventPolicy dropNewest(){
+		return DROP_NEWEST;
+	}
+	
+	/**
+	 * Drop the oldest queued event to make room for the new one.
+	 *
+	 * @return The policy.
+	 */
+	@NotNull
+	public static EventPolicy dropOldest(){
+		return DROP_OLDEST;
+	}
+	
+	/**
+	 * Replace a queued event having the same key with the new one, so that only the latest is handled.
+	 *
+	 * @param eventClass   The class of the events.
+	 * @param keyExtractor Function giving the key of an event.
+	 * @param <T>          The type of the events.
+	 *
+	 * @return The policy.
+	 */
+	@NotNull
+	public static <T extends IEvent> EventPolicy coalesce(@NotNull Class<T> eventClass, @NotNull Function<T, ?> keyExtractor){
+		return new EventPolicy(Type.COALESCE, event -> keyExtractor.apply(eventClass.cast(event)));
+	}
+	
+	public enum Type{
+		DROP_NEWEST,
+		DROP_OLDEST,
+		COALESCE
+	}
+}
@@ -27,6 +27,7 @@ import fr.rakambda.channelpointsminer.miner.config.login.IPassportApiLoginProvid
 import fr.rakambda.channelpointsminer.miner.config.login.MobileLoginMethod;
 import fr.rakambda.channelpointsminer.miner.config.login.TvLoginMethod;
 import fr.rakambda.channelpointsminer.miner.log.UnirestLogger;
+import fr.rakambda.channelpointsminer.miner.runtime.AsyncLimiter;
 import fr.rakambda.channelpointsminer.miner.util.CommonUtils;
 import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
 import kong.unirest.core.HeaderNames;
@@ -39,6 +40,7 @@ import org.jetbrains.annotations.Nullable;
 import java.net.URL;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import static kong.unirest.core.HeaderNames.USER_AGENT;
 import static lombok.AccessLevel.PRIVATE;
 
@@ -51,8 +53,12 @@ public class ApiFactory{
 	private static final String ACCEPT_MOBILE = "application/vnd.twitchtv.v3+json";
 	private static final String API_CONSUMER_TYPE = "mobile; Android/1304010";
 	private static final String X_APP_VERSION = "13.4.1";
+	private static final int GQL_MAX_IN_FLIGHT_REQUESTS = 8;
+	private static final int TWITCH_MAX_IN_FLIGHT_REQUESTS = 2;
 	
 	private static String xDeviceId = CommonUtils.randomAlphanumeric(32);
+	private static UnirestInstance sharedAnonymousUnirest;
+	private static UnirestInstance sharedDiscordUnirest;
 	
 	private static UnirestInstance createUnirestInstance(@Nullable TwitchClient twitchClient){
 		var unirest = Unirest.spawnInstance();
@@ -71,6 +77,23 @@ public class ApiFactory{
 		return unirest;
 	}
 	
+	@NotNull
+	private static synchronized UnirestInstance getSharedAnonymousUnirest(){
+		if(Objects.isNull(sharedAnonymousUnirest)){
+			sharedAnonymousUnirest = createUnirestInstance(null);
+		}
+		return sharedAnonymousUnirest;
+	}
+	
+	@NotNull
+	private static synchronized UnirestInstance getSharedDiscordUnirest(){
+		if(Objects.isNull(sharedDiscordUnirest)){
+			sharedDiscordUnirest = createUnirestInstance(null);
+			sharedDiscordUnirest.config().retryAfter(true);
+		}
+		return sharedDiscordUnirest;
+	}
+	
 	public static void addMobileHeaders(@NotNull UnirestInstance unirest){
 		unirest.config()
 				.setDefaultHeader(HeaderNames.ACCEPT, ACCEPT_MOBILE)
@@ -79,7 +102,7 @@ public class ApiFactory{
 	}
 	
 	@NotNull
-	public static GQLApi createGqlApi(@NotNull TwitchLogin twitchLogin, @NotNull IIntegrityProvider integrityProvider){
+	public static GQLApi createGqlApi(@NotNull TwitchLogin twitchLogin, @NotNull IIntegrityProvider integrityProvider, @NotNull Executor requestExecutor){
 		var unirest = createUnirestInstance(twitchLogin.getTwitchClient());
 		twitchLogin.getCookies().forEach(unirest.config()::addDefaultCookie);
 		
@@ -90,7 +113,7 @@ public class ApiFactory{
 			unirest.config().setDefaultHeader(DEVICE_ID, xDeviceId);
 		}
 		
-		return new GQLApi(twitchLogin, unirest, integrityProvider);
+		return new GQLApi(twitchLogin, unirest, integrityProvider, new AsyncLimiter(GQL_MAX_IN_FLIGHT_REQUESTS), requestExecutor);
 	}
 	
 	@NotNull
@@ -98,15 +121,12 @@ public class ApiFactory{
 		var unirest = createUnirestInstance(twitchLogin.getTwitchClient());
 		twitchLogin.getCookies().forEach(unirest.config()::addDefaultCookie);
 		
-		return new TwitchApi(unirest);
+		return new TwitchApi(unirest, new AsyncLimiter(TWITCH_MAX_IN_FLIGHT_REQUESTS));
 	}
 	
 	@NotNull
 	public static DiscordApi createdDiscordApi(@NotNull URL webhookUrl){
-		var unirestInstance = createUnirestInstance(null);
-		unirestInstance.config().retryAfter(true);
-		
-		return new DiscordApi(webhookUrl, unirestInstance);
+		return new DiscordApi(webhookUrl, getSharedDiscordUnirest());
 	}
 	
 	@NotNull
@@ -184,7 +204,7 @@ public class ApiFactory{
 	
 	@NotNull
 	public static IVersionProvider createVersionProvider(@NotNull VersionProvider versionProvider){
-		var unirest = createUnirestInstance(null);
+		var unirest = getSharedAnonymousUnirest();
 		return switch(versionProvider){
 			case WEBPAGE -> new WebpageVersionProvider(unirest);
 			case MANIFEST -> new ManifestVersionProvider(unirest);
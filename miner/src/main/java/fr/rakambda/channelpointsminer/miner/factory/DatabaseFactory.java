@@ -4,6 +4,7 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.pool.HikariPool;
 import fr.rakambda.channelpointsminer.miner.config.DatabaseConfiguration;
+import fr.rakambda.channelpointsminer.miner.database.ChatPredictionAggregator;
 import fr.rakambda.channelpointsminer.miner.database.DatabaseEventHandler;
 import fr.rakambda.channelpointsminer.miner.database.IDatabase;
 import fr.rakambda.channelpointsminer.miner.database.MariaDBDatabase;
@@ -14,6 +15,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.sql.SQLException;
 import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class DatabaseFactory{
     
@@ -88,7 +91,10 @@ public class DatabaseFactory{
     }
     
     @NotNull
-    public static DatabaseEventHandler createDatabaseHandler(@NotNull IDatabase database){
-        return new DatabaseEventHandler(database);
+    public static DatabaseEventHandler createDatabaseHandler(@NotNull IDatabase database, @NotNull ScheduledExecutorService scheduledExecutor){
+        var chatPredictionAggregator = new ChatPredictionAggregator(database);
+        var flushPeriod = ChatPredictionAggregator.FLUSH_PERIOD.toMillis();
+        scheduledExecutor.scheduleWithFixedDelay(chatPredictionAggregator::flush, flushPeriod, flushPeriod, TimeUnit.MILLISECONDS);
+        return new DatabaseEventHandler(database, chatPredictionAggregator);
     }
 }
@@ -4,29 +4,36 @@ import com.zaxxer.hikari.pool.HikariPool;
 import fr.rakambda.channelpointsminer.miner.api.ws.TwitchPubSubWebSocketPool;
 import fr.rakambda.channelpointsminer.miner.config.AccountConfiguration;
 import fr.rakambda.channelpointsminer.miner.miner.Miner;
+import fr.rakambda.channelpointsminer.miner.runtime.MinerRuntime;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshotStore;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.concurrent.Executors;
+import java.util.Optional;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class MinerFactory{
 	@NotNull
-	public static Miner create(@NotNull AccountConfiguration config){
+	public static Miner create(@NotNull AccountConfiguration config, @NotNull MinerRuntime runtime){
 		try{
 			var dbConfig = config.getAnalytics().getDatabase();
 			var database = DatabaseFactory.createDatabase(dbConfig);
+			var tenant = runtime.createTenant(config.getUsername());
+			var runtimeConfig = runtime.getConfiguration();
 			
 			var miner = new Miner(
 					config,
 					ApiFactory.createLoginProvider(config.getUsername(), config.getLoginMethod()),
 					new StreamerSettingsFactory(config),
-					new TwitchPubSubWebSocketPool(50),
-					Executors.newScheduledThreadPool(4),
-					Executors.newCachedThreadPool(),
-					database);
+					new TwitchPubSubWebSocketPool(50, tenant.getScheduledExecutor(), runtimeConfig.getPubSubMaxConcurrentConnections(), runtimeConfig.getPubSubSpareThreshold()),
+					tenant.getScheduledExecutor(),
+					tenant.getHandlerExecutor(),
+					database,
+					createSnapshotStore(config));
 			
 			miner.addPubSubHandler(PubSubMessageHandlerFactory.createClaimAvailableHandler(miner));
 			miner.addPubSubHandler(PubSubMessageHandlerFactory.createStreamStartEndHandler(miner));
@@ -47,7 +54,7 @@ public class MinerFactory{
 				}
 				
 				database.deleteAllUserPredictions();
-				miner.addEventHandler(DatabaseFactory.createDatabaseHandler(database));
+				miner.addEventHandler(DatabaseFactory.createDatabaseHandler(database, tenant.getScheduledExecutor()));
 			}
 			
 			return miner;
@@ -56,4 +63,12 @@ public class MinerFactory{
 			throw new IllegalStateException("Failed to set up database", e);
 		}
 	}
+	
+	@Nullable
+	private static MinerSnapshotStore createSnapshotStore(@NotNull AccountConfiguration config){
+		return Optional.ofNullable(config.getStateFolder())
+				.map(folder -> folder.resolve(config.getUsername().toLowerCase(Locale.ROOT) + ".json.gz"))
+				.map(MinerSnapshotStore::new)
+				.orElse(null);
+	}
 }
@@ -1,6 +1,7 @@
 package fr.rakambda.channelpointsminer.miner.factory;
 
 import fr.rakambda.channelpointsminer.miner.miner.IMiner;
+import fr.rakambda.channelpointsminer.miner.runnable.PubSubCompaction;
 import fr.rakambda.channelpointsminer.miner.runnable.SendMinutesWatched;
 import fr.rakambda.channelpointsminer.miner.runnable.StreamerConfigurationReload;
 import fr.rakambda.channelpointsminer.miner.runnable.SyncInventory;
@@ -27,6 +28,11 @@ public class MinerRunnableFactory{
 		return new WebSocketPing(miner);
 	}
 	
+	@NotNull
+	public static PubSubCompaction createPubSubCompaction(@NotNull IMiner miner){
+		return new PubSubCompaction(miner);
+	}
+	
 	@NotNull
 	public static SyncInventory createSyncInventory(@NotNull IMiner miner){
 		return new SyncInventory(miner);
@@ -7,27 +7,28 @@ import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.config.ChatMode;
 import fr.rakambda.channelpointsminer.miner.miner.IMiner;
 import org.jetbrains.annotations.NotNull;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class TwitchChatFactory{
 	@NotNull
-	public static ITwitchChatClient createChat(@NotNull IMiner miner, @NotNull ChatMode chatMode, boolean listenMessages){
+	public static ITwitchChatClient createChat(@NotNull IMiner miner, @NotNull ChatMode chatMode, int ircShards, boolean listenMessages, @NotNull ScheduledExecutorService scheduler){
 		var twitchLogin = miner.getTwitchLogin();
 		
 		var chatClient = switch(chatMode){
-			case IRC -> createIrcChat(twitchLogin, listenMessages);
-			case WS -> createWsChat(twitchLogin, listenMessages);
+			case IRC -> createIrcChat(twitchLogin, ircShards, listenMessages);
+			case WS -> createWsChat(twitchLogin, listenMessages, scheduler);
 		};
 		
 		return chatClient;
 	}
 	
 	@NotNull
-	private static ITwitchChatClient createIrcChat(@NotNull TwitchLogin twitchLogin, boolean listenMessages){
-		return new TwitchIrcChatClient(twitchLogin, listenMessages);
+	private static ITwitchChatClient createIrcChat(@NotNull TwitchLogin twitchLogin, int shards, boolean listenMessages){
+		return new TwitchIrcChatClient(twitchLogin, listenMessages, shards);
 	}
 	
 	@NotNull
-	private static ITwitchChatClient createWsChat(@NotNull TwitchLogin twitchLogin, boolean listenMessages){
-		return new TwitchChatWebSocketPool(Integer.MAX_VALUE, twitchLogin, listenMessages);
+	private static ITwitchChatClient createWsChat(@NotNull TwitchLogin twitchLogin, boolean listenMessages, @NotNull ScheduledExecutorService scheduler){
+		return new TwitchChatWebSocketPool(Integer.MAX_VALUE, twitchLogin, listenMessages, scheduler);
 	}
 }
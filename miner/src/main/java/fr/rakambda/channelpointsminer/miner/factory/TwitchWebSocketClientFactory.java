@@ -2,6 +2,7 @@ package fr.rakambda.channelpointsminer.miner.factory;
 
 import fr.rakambda.channelpointsminer.miner.api.chat.ws.TwitchChatWebSocketClient;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
+import fr.rakambda.channelpointsminer.miner.api.websocket.WebSocketOptions;
 import fr.rakambda.channelpointsminer.miner.api.ws.TwitchPubSubWebSocketClient;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -13,13 +14,24 @@ public class TwitchWebSocketClientFactory{
 	private static final URI PUB_SUB_URI = URI.create("wss://pubsub-edge.twitch.tv/v1");
 	private static final URI IRC_URI = URI.create("wss://irc-ws.chat.twitch.tv/");
 	
+	private static volatile WebSocketOptions options = WebSocketOptions.DEFAULT;
+	
+	/**
+	 * Set how the sockets created from now on are connected.
+	 *
+	 * @param options The options to use.
+	 */
+	public static void setOptions(@NotNull WebSocketOptions options){
+		TwitchWebSocketClientFactory.options = options;
+	}
+	
 	@NotNull
 	public static TwitchPubSubWebSocketClient createPubSubClient(){
-		return new TwitchPubSubWebSocketClient(PUB_SUB_URI);
+		return new TwitchPubSubWebSocketClient(PUB_SUB_URI, options);
 	}
 	
 	@NotNull
 	public static TwitchChatWebSocketClient createChatClient(@NotNull TwitchLogin twitchLogin, boolean listenMessages){
-		return new TwitchChatWebSocketClient(IRC_URI, twitchLogin, listenMessages);
+		return new TwitchChatWebSocketClient(IRC_URI, twitchLogin, listenMessages, options);
 	}
 }
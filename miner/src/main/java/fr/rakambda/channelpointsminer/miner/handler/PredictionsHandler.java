@@ -20,6 +20,10 @@ import fr.rakambda.channelpointsminer.miner.handler.data.PredictionState;
 import fr.rakambda.channelpointsminer.miner.log.LogContext;
 import fr.rakambda.channelpointsminer.miner.miner.IMiner;
 import fr.rakambda.channelpointsminer.miner.prediction.bet.BetPlacer;
+import fr.rakambda.channelpointsminer.miner.state.ISnapshotParticipant;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshot;
+import fr.rakambda.channelpointsminer.miner.state.PlacedPredictionSnapshot;
+import fr.rakambda.channelpointsminer.miner.state.PredictionSnapshot;
 import fr.rakambda.channelpointsminer.miner.streamer.Streamer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -37,7 +41,7 @@ import static lombok.AccessLevel.PROTECTED;
 
 @RequiredArgsConstructor
 @Log4j2
-public class PredictionsHandler extends PubSubMessageHandlerAdapter{
+public class PredictionsHandler extends PubSubMessageHandlerAdapter implements ISnapshotParticipant{
 	private static final int OFFSET = 5;
 	
 	private final IMiner miner;
@@ -131,6 +135,78 @@ public class PredictionsHandler extends PubSubMessageHandlerAdapter{
 		predictionPlaced(message.getData().getPrediction());
 	}
 	
+	@Override
+	public void writeSnapshot(@NotNull MinerSnapshot snapshot){
+		predictions.values().stream()
+				.map(prediction -> PredictionSnapshot.builder()
+						.streamerId(prediction.getStreamer().getId())
+						.event(prediction.getEvent())
+						.lastUpdate(prediction.getLastUpdate())
+						.state(prediction.getState())
+						.build())
+				.forEach(snapshot.getPredictions()::add);
+		placedPredictions.values().stream()
+				.map(placedPrediction -> PlacedPredictionSnapshot.builder()
+						.eventId(placedPrediction.getEventId())
+						.amount(placedPrediction.getAmount())
+						.outcomeId(placedPrediction.getOutcomeId())
+						.predictedAt(placedPrediction.getPredictedAt())
+						.build())
+				.forEach(snapshot.getPlacedPredictions()::add);
+	}
+	
+	@Override
+	public void restoreSnapshot(@NotNull MinerSnapshot snapshot){
+		for(var saved : snapshot.getPredictions()){
+			var streamer = miner.getStreamerById(saved.getStreamerId()).orElse(null);
+			var event = saved.getEvent();
+			try(var ignored = LogContext.with(miner).withStreamer(streamer).withEventId(event.getId())){
+				if(Objects.isNull(streamer)){
+					log.debug("Not restoring prediction of a streamer that isn't mined anymore");
+					continue;
+				}
+				
+				var prediction = BettingPrediction.builder()
+						.streamer(streamer)
+						.event(event)
+						.lastUpdate(saved.getLastUpdate())
+						.state(saved.getState())
+						.build();
+				if(Objects.nonNull(predictions.putIfAbsent(event.getId(), prediction))){
+					continue;
+				}
+				
+				if(prediction.getState() == PredictionState.SCHEDULING || prediction.getState() == PredictionState.SCHEDULED){
+					rescheduleRestoredPrediction(streamer, prediction);
+				}
+			}
+		}
+		
+		for(var saved : snapshot.getPlacedPredictions()){
+			placedPredictions.putIfAbsent(saved.getEventId(), PlacedPrediction.builder()
+					.eventId(saved.getEventId())
+					.bettingPrediction(predictions.get(saved.getEventId()))
+					.amount(saved.getAmount())
+					.outcomeId(saved.getOutcomeId())
+					.predictedAt(saved.getPredictedAt())
+					.build());
+		}
+	}
+	
+	private void rescheduleRestoredPrediction(@NotNull Streamer streamer, @NotNull BettingPrediction prediction){
+		var event = prediction.getEvent();
+		var windowEnd = event.getCreatedAt().plusSeconds(event.getPredictionWindowSeconds()).minusSeconds(OFFSET);
+		if(event.getStatus() != EventStatus.ACTIVE || !TimeFactory.nowZoned().isBefore(windowEnd)){
+			log.info("Bet scheduled before restart can't be placed anymore");
+			prediction.setState(PredictionState.BET_ERROR);
+			return;
+		}
+		
+		log.info("Rescheduling bet lost during restart");
+		prediction.setState(PredictionState.SCHEDULING);
+		schedulePrediction(streamer, prediction);
+	}
+	
 	private void predictionPlaced(@NotNull Prediction predictionData){
 		var streamerId = predictionData.getChannelId();
 		var streamer = miner.getStreamerById(streamerId).orElse(null);
@@ -27,19 +27,39 @@ import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
 import fr.rakambda.channelpointsminer.miner.util.ClassWalker;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import java.lang.invoke.MethodHandle;
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.util.Collections;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 @SuppressWarnings("unused")
 public abstract class PubSubMessageHandlerAdapter implements IPubSubMessageHandler{
 	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
-	private static final ConcurrentMap<Class<?>, MethodHandle> methods = new ConcurrentHashMap<>();
-	private static final Set<Class<?>> unresolved;
+	private static final ClassValue<Optional<Invoker>> invokers = new ClassValue<>(){
+		@Override
+		protected Optional<Invoker> computeValue(Class<?> type){
+			return Optional.ofNullable(createInvoker(type));
+		}
+	};
+	private static final ClassValue<Invoker[]> dispatchTable = new ClassValue<>(){
+		@Override
+		protected Invoker[] computeValue(Class<?> type){
+			var result = new ArrayList<Invoker>();
+			for(var clazz : ClassWalker.range(type, IPubSubMessage.class)){
+				invokers.get(clazz).ifPresent(result::add);
+			}
+			return result.toArray(Invoker[]::new);
+		}
+	};
+	private static final ClassValue<Map<Class<?>, Boolean>> interests = new ClassValue<>(){
+		@Override
+		protected Map<Class<?>, Boolean> computeValue(Class<?> type){
+			return new ConcurrentHashMap<>();
+		}
+	};
 	
 	public void onChannelLastViewedContentUpdated(@NotNull Topic topic, @NotNull ChannelLastViewedContentUpdated message){}
 	
@@ -87,48 +107,71 @@ public abstract class PubSubMessageHandlerAdapter implements IPubSubMessageHandl
 	
 	@Override
 	public void handle(@NotNull Topic topic, @NotNull IPubSubMessage message){
-		for(var clazz : ClassWalker.range(message.getClass(), IPubSubMessage.class)){
-			if(unresolved.contains(clazz)){
-				continue;
-			}
-			var methodHandle = methods.computeIfAbsent(clazz, PubSubMessageHandlerAdapter::findMethod);
-			if(methodHandle == null){
-				unresolved.add(clazz);
-				continue;
-			}
-			
-			try{
-				methodHandle.invoke(this, topic, message);
+		for(var invoker : dispatchTable.get(message.getClass())){
+			invoker.invoke(this, topic, message);
+		}
+	}
+	
+	/**
+	 * Tells if this handler does something with messages of the given class, that is if it overrides one of the methods that would be called for it.
+	 * A message this handler isn't interested in would only reach empty default methods and can be skipped.
+	 *
+	 * @param clazz The class of the message.
+	 *
+	 * @return True if the message should be given to this handler.
+	 */
+	public boolean isInterestedIn(@NotNull Class<?> clazz){
+		var handlerClass = getClass();
+		return interests.get(handlerClass).computeIfAbsent(clazz, type -> computeInterest(handlerClass, type));
+	}
+	
+	private static boolean computeInterest(@NotNull Class<?> handlerClass, @NotNull Class<?> type){
+		try{
+			if(handlerClass.getMethod("handle", Topic.class, IPubSubMessage.class).getDeclaringClass() != PubSubMessageHandlerAdapter.class){
+				return true;
 			}
-			catch(Throwable throwable){
-				if(throwable instanceof RuntimeException){
-					throw (RuntimeException) throwable;
+			for(var clazz : ClassWalker.range(type, IPubSubMessage.class)){
+				if(invokers.get(clazz).isPresent() && handlerClass.getMethod("on" + clazz.getSimpleName(), Topic.class, clazz).getDeclaringClass() != PubSubMessageHandlerAdapter.class){
+					return true;
 				}
-				if(throwable instanceof Error){
-					throw (Error) throwable;
-				}
-				throw new IllegalStateException(throwable);
 			}
+			return false;
+		}
+		catch(NoSuchMethodException e){
+			return true;
 		}
 	}
 	
+	/**
+	 * Generate a direct call to the method handling the given class, this is done once per class.
+	 *
+	 * @param clazz The class of the message.
+	 *
+	 * @return The invoker, or null if no method handles this class.
+	 */
 	@Nullable
-	private static MethodHandle findMethod(@NotNull Class<?> clazz){
-		var name = clazz.getSimpleName();
-		var type = MethodType.methodType(Void.TYPE, Topic.class, clazz);
+	private static Invoker createInvoker(@NotNull Class<?> clazz){
+		var name = "on" + clazz.getSimpleName();
 		try{
-			name = "on" + name;
-			return lookup.findVirtual(PubSubMessageHandlerAdapter.class, name, type);
+			var target = lookup.findVirtual(PubSubMessageHandlerAdapter.class, name, MethodType.methodType(Void.TYPE, Topic.class, clazz));
+			var callSite = LambdaMetafactory.metafactory(lookup,
+					"invoke",
+					MethodType.methodType(Invoker.class),
+					MethodType.methodType(Void.TYPE, PubSubMessageHandlerAdapter.class, Topic.class, IPubSubMessage.class),
+					target,
+					MethodType.methodType(Void.TYPE, PubSubMessageHandlerAdapter.class, Topic.class, clazz));
+			return (Invoker) callSite.getTarget().invokeExact();
 		}
 		catch(NoSuchMethodException | IllegalAccessException ignored){
-		} // this means this is probably a custom event!
-		return null;
+			return null; // this means this is probably a custom message!
+		}
+		catch(Throwable throwable){
+			throw new IllegalStateException("Failed to create message invoker for " + clazz, throwable);
+		}
 	}
 	
-	static{
-		unresolved = ConcurrentHashMap.newKeySet();
-		Collections.addAll(unresolved,
-				Object.class // Objects aren't events
-		);
+	@FunctionalInterface
+	interface Invoker{
+		void invoke(@NotNull PubSubMessageHandlerAdapter handler, @NotNull Topic topic, @NotNull IPubSubMessage message);
 	}
 }
@@ -27,6 +27,7 @@ public class StreamStartEndHandler extends PubSubMessageHandlerAdapter{
 		var streamer = miner.getStreamerById(streamerId).orElse(null);
 		var username = Objects.isNull(streamer) ? null : streamer.getUsername();
 		updateStream(topic, streamer);
+		Optional.ofNullable(streamer).ifPresent(miner::releaseLiveTopics);
 		Optional.ofNullable(streamer)
 				.map(Streamer::getUsername)
 				.ifPresent(miner.getChatClient()::leave);
@@ -39,6 +40,7 @@ public class StreamStartEndHandler extends PubSubMessageHandlerAdapter{
 		var streamer = miner.getStreamerById(streamerId).orElse(null);
 		var username = Objects.isNull(streamer) ? null : streamer.getUsername();
 		updateStream(topic, streamer);
+		Optional.ofNullable(streamer).ifPresent(miner::listenLiveTopics);
 		Optional.ofNullable(streamer)
 				.filter(s -> s.getSettings().isJoinIrc())
 				.map(Streamer::getUsername)
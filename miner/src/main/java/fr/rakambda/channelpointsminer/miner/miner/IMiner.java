@@ -30,6 +30,20 @@ public interface IMiner extends IEventHandler{
 	
 	boolean removeStreamer(@NotNull Streamer streamer);
 	
+	/**
+	 * Listen to the topics only needed while the streamer is live, if the account only listens to them while live.
+	 *
+	 * @param streamer The streamer that went live.
+	 */
+	void listenLiveTopics(@NotNull Streamer streamer);
+	
+	/**
+	 * Stop listening to the topics only needed while the streamer is live, after a delay, if the account only listens to them while live.
+	 *
+	 * @param streamer The streamer that went offline.
+	 */
+	void releaseLiveTopics(@NotNull Streamer streamer);
+	
 	void updateStreamerInfos(@NotNull Streamer streamer);
 	
 	void syncInventory();
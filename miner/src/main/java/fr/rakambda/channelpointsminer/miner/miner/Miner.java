@@ -3,20 +3,34 @@ package fr.rakambda.channelpointsminer.miner.miner;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatClient;
 import fr.rakambda.channelpointsminer.miner.api.chat.TwitchChatEventProducer;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.GQLApi;
+import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IIntegrityProvider;
+import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IntegrityException;
 import fr.rakambda.channelpointsminer.miner.api.passport.ILoginProvider;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.api.passport.exceptions.CaptchaSolveRequired;
 import fr.rakambda.channelpointsminer.miner.api.twitch.TwitchApi;
 import fr.rakambda.channelpointsminer.miner.api.ws.ITwitchPubSubMessageListener;
+import fr.rakambda.channelpointsminer.miner.api.ws.PubSubTopicReconciler;
 import fr.rakambda.channelpointsminer.miner.api.ws.TwitchPubSubWebSocketPool;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimAvailable;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimClaimed;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PointsEarned;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PointsSpent;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionMade;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionResult;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionUpdated;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName;
-import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
 import fr.rakambda.channelpointsminer.miner.config.AccountConfiguration;
+import fr.rakambda.channelpointsminer.miner.database.DatabaseEventHandler;
 import fr.rakambda.channelpointsminer.miner.database.IDatabase;
 import fr.rakambda.channelpointsminer.miner.event.IEvent;
 import fr.rakambda.channelpointsminer.miner.event.IEventHandler;
+import fr.rakambda.channelpointsminer.miner.event.bus.EventBus;
+import fr.rakambda.channelpointsminer.miner.event.bus.EventPolicy;
+import fr.rakambda.channelpointsminer.miner.event.impl.ChatMessageEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PointsEarnedEvent;
 import fr.rakambda.channelpointsminer.miner.event.impl.StreamerAddedEvent;
 import fr.rakambda.channelpointsminer.miner.event.impl.StreamerRemovedEvent;
 import fr.rakambda.channelpointsminer.miner.factory.ApiFactory;
@@ -25,27 +39,40 @@ import fr.rakambda.channelpointsminer.miner.factory.StreamerSettingsFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TwitchChatFactory;
 import fr.rakambda.channelpointsminer.miner.handler.IPubSubMessageHandler;
+import fr.rakambda.channelpointsminer.miner.handler.PubSubMessageHandlerAdapter;
 import fr.rakambda.channelpointsminer.miner.log.LogContext;
+import fr.rakambda.channelpointsminer.miner.log.discord.DiscordEventListener;
 import fr.rakambda.channelpointsminer.miner.runnable.SyncInventory;
 import fr.rakambda.channelpointsminer.miner.runnable.UpdateStreamInfo;
+import fr.rakambda.channelpointsminer.miner.runtime.StripedExecutor;
+import fr.rakambda.channelpointsminer.miner.state.ISnapshotParticipant;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshot;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshotStore;
 import fr.rakambda.channelpointsminer.miner.streamer.Streamer;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.apache.logging.log4j.ThreadContext;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.annotations.VisibleForTesting;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.COMMUNITY_MOMENTS_CHANNEL_V1;
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.COMMUNITY_POINTS_USER_V1;
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.ONSITE_NOTIFICATIONS;
@@ -58,15 +85,30 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Log4j2
 public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListener{
+	private static final int PUBSUB_STRIPES = 32;
+	private static final int PUBSUB_STRIPE_CAPACITY = 1024;
+	private static final int EVENT_QUEUE_CAPACITY = 1024;
+	private static final long SNAPSHOT_PERIOD_MINUTES = 5;
+	private static final long LIVE_TOPICS_RELEASE_DELAY_MINUTES = 15;
+	private static final long PUBSUB_COMPACTION_PERIOD_MINUTES = 10;
+	
 	private final AccountConfiguration accountConfiguration;
 	private final ILoginProvider passportApi;
 	
 	private final Map<String, Streamer> streamers;
 	@Getter
 	private final TwitchPubSubWebSocketPool pubSubWebSocketPool;
+	private final PubSubTopicReconciler topicReconciler;
+	private final AtomicBoolean topicSyncScheduled;
+	private final Set<String> liveTopicsStreamers;
+	private final Map<String, ScheduledFuture<?>> liveTopicsReleases;
 	private final ScheduledExecutorService scheduledExecutor;
 	private final ExecutorService handlerExecutor;
 	@Getter
+	private final StripedExecutor pubSubExecutor;
+	@Getter
+	private final EventBus eventBus;
+	@Getter
 	private final IDatabase database;
 	private final StreamerSettingsFactory streamerSettingsFactory;
 	@Getter(value = AccessLevel.PUBLIC, onMethod_ = {
@@ -74,6 +116,7 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			@VisibleForTesting
 	})
 	private final Collection<IPubSubMessageHandler> pubSubMessageHandlers;
+	private volatile Map<Class<?>, List<IPubSubMessageHandler>> pubSubRoutes;
 	@Getter(value = AccessLevel.PUBLIC, onMethod_ = {
 			@TestOnly,
 			@VisibleForTesting
@@ -81,6 +124,14 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 	private final Collection<IEventHandler> eventHandlers;
 	@Getter
 	private final MinerData minerData;
+	@Getter
+	private final StartupTimings startupTimings;
+	@Nullable
+	private final MinerSnapshotStore snapshotStore;
+	
+	private volatile boolean snapshotRestored;
+	@Nullable
+	private volatile ScheduledFuture<?> snapshotSaving;
 	
 	private UpdateStreamInfo updateStreamInfo;
 	private SyncInventory syncInventory;
@@ -100,7 +151,8 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			@NotNull TwitchPubSubWebSocketPool pubSubWebSocketPool,
 			@NotNull ScheduledExecutorService scheduledExecutor,
 			@NotNull ExecutorService handlerExecutor,
-			@NotNull IDatabase database){
+			@NotNull IDatabase database,
+			@Nullable MinerSnapshotStore snapshotStore){
 		this.accountConfiguration = accountConfiguration;
 		this.passportApi = passportApi;
 		this.streamerSettingsFactory = streamerSettingsFactory;
@@ -108,11 +160,22 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 		this.scheduledExecutor = scheduledExecutor;
 		this.handlerExecutor = handlerExecutor;
 		this.database = database;
+		this.snapshotStore = snapshotStore;
 		
 		streamers = new ConcurrentHashMap<>();
+		topicReconciler = new PubSubTopicReconciler(pubSubWebSocketPool);
+		topicSyncScheduled = new AtomicBoolean(false);
+		liveTopicsStreamers = ConcurrentHashMap.newKeySet();
+		liveTopicsReleases = new ConcurrentHashMap<>();
+		pubSubExecutor = new StripedExecutor(handlerExecutor, PUBSUB_STRIPES, PUBSUB_STRIPE_CAPACITY);
+		eventBus = new EventBus(handlerExecutor, EVENT_QUEUE_CAPACITY);
+		eventBus.setPolicy(ChatMessageEvent.class, EventPolicy.dropOldest());
+		eventBus.setPolicy(DiscordEventListener.class, PointsEarnedEvent.class, EventPolicy.coalesce(PointsEarnedEvent.class, PointsEarnedEvent::getStreamerId));
 		pubSubMessageHandlers = new ConcurrentLinkedQueue<>();
+		pubSubRoutes = new ConcurrentHashMap<>();
 		eventHandlers = new ConcurrentLinkedQueue<>();
 		minerData = new MinerData();
+		startupTimings = new StartupTimings();
 	}
 	
 	/**
@@ -126,22 +189,110 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			pubSubWebSocketPool.addListener(this);
 			
 			login();
+			restoreSnapshot();
 			
 			scheduledExecutor.scheduleWithFixedDelay(getUpdateStreamInfo(), 0, 2, MINUTES);
 			scheduledExecutor.scheduleWithFixedDelay(MinerRunnableFactory.createSendMinutesWatched(this), 0, 1, MINUTES);
 			scheduledExecutor.scheduleAtFixedRate(MinerRunnableFactory.createWebSocketPing(this), 25, 25, SECONDS);
 			scheduledExecutor.scheduleAtFixedRate(getSyncInventory(), 1, 15, MINUTES);
+			scheduledExecutor.scheduleAtFixedRate(MinerRunnableFactory.createPubSubCompaction(this), PUBSUB_COMPACTION_PERIOD_MINUTES, PUBSUB_COMPACTION_PERIOD_MINUTES, MINUTES);
 			
 			var streamerConfigurationReload = MinerRunnableFactory.createStreamerConfigurationReload(this, streamerSettingsFactory, accountConfiguration.isLoadFollows());
+			Runnable timedStreamerConfigurationReload = () -> {
+				streamerConfigurationReload.run();
+				onFirstStreamInfoRefreshed();
+			};
+			startupTimings.begin(StartupPhase.FIRST_STREAM_INFO);
 			if(accountConfiguration.getReloadEvery() > 0){
-				scheduledExecutor.scheduleWithFixedDelay(streamerConfigurationReload, 0, accountConfiguration.getReloadEvery(), MINUTES);
+				scheduledExecutor.scheduleWithFixedDelay(timedStreamerConfigurationReload, 0, accountConfiguration.getReloadEvery(), MINUTES);
 			}
 			else{
-				scheduledExecutor.schedule(streamerConfigurationReload, 0, MINUTES);
+				scheduledExecutor.schedule(timedStreamerConfigurationReload, 0, MINUTES);
+			}
+			
+			if(Objects.nonNull(snapshotStore)){
+				snapshotSaving = scheduledExecutor.scheduleWithFixedDelay(this::saveSnapshot, SNAPSHOT_PERIOD_MINUTES, SNAPSHOT_PERIOD_MINUTES, MINUTES);
 			}
 			
+			startupTimings.begin(StartupPhase.TOPIC_SUBSCRIPTION);
 			listenTopic(COMMUNITY_POINTS_USER_V1, getTwitchLogin().fetchUserId(gqlApi));
 			listenTopic(ONSITE_NOTIFICATIONS, getTwitchLogin().fetchUserId(gqlApi));
+			topicReconciler.flush();
+			startupTimings.end(StartupPhase.TOPIC_SUBSCRIPTION);
+		}
+	}
+	
+	/**
+	 * Called each time the streamer list has been reloaded, reports the startup timings the first time.
+	 */
+	private void onFirstStreamInfoRefreshed(){
+		if(startupTimings.end(StartupPhase.FIRST_STREAM_INFO)){
+			try(var ignored = LogContext.with(this)){
+				log.info("Startup completed with {} streamers ({})", streamers.size(), startupTimings);
+			}
+		}
+	}
+	
+	/**
+	 * Restore the state saved by a previous run, if any.
+	 * Streamers are added back with their cached data, without querying Twitch, and are then refreshed by the periodic updates once their data gets outdated.
+	 */
+	private void restoreSnapshot(){
+		if(Objects.isNull(snapshotStore)){
+			return;
+		}
+		
+		snapshotStore.load().ifPresent(snapshot -> {
+			log.info("Restoring state saved at {}", snapshot.getSavedAt());
+			for(var streamerSnapshot : snapshot.getStreamers()){
+				var settings = streamerSettingsFactory.createStreamerSettings(streamerSnapshot.getUsername());
+				if(!settings.isEnabled()){
+					continue;
+				}
+				
+				var streamer = new Streamer(streamerSnapshot.getId(), streamerSnapshot.getUsername(), settings);
+				streamer.restoreSnapshot(streamerSnapshot);
+				try(var ignored = LogContext.empty().withStreamer(streamer)){
+					log.info("Restoring to the mining list with settings {}", streamer.getSettings());
+					registerStreamer(streamer);
+				}
+			}
+			
+			pubSubMessageHandlers.stream()
+					.filter(ISnapshotParticipant.class::isInstance)
+					.map(ISnapshotParticipant.class::cast)
+					.forEach(participant -> participant.restoreSnapshot(snapshot));
+		});
+		snapshotRestored = true;
+	}
+	
+	/**
+	 * Save the current state so that it can be restored after a restart.
+	 * Nothing is saved until the previous state has been restored, to not overwrite it with an empty one.
+	 * Saves are serialized so that an older state never replaces a newer one.
+	 */
+	private synchronized void saveSnapshot(){
+		if(Objects.isNull(snapshotStore) || !snapshotRestored){
+			return;
+		}
+		
+		try(var ignored = LogContext.with(this)){
+			var snapshot = MinerSnapshot.builder()
+					.savedAt(TimeFactory.now())
+					.streamers(streamers.values().stream()
+							.map(Streamer::createSnapshot)
+							.collect(Collectors.toCollection(ArrayList::new)))
+					.build();
+			pubSubMessageHandlers.stream()
+					.filter(ISnapshotParticipant.class::isInstance)
+					.map(ISnapshotParticipant.class::cast)
+					.forEach(participant -> participant.writeSnapshot(snapshot));
+			
+			snapshotStore.save(snapshot);
+			log.debug("Saved state to {}", snapshotStore.getFile());
+		}
+		catch(Exception e){
+			log.error("Failed to save state", e);
 		}
 	}
 	
@@ -155,7 +306,9 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			var analyticsConfiguration = accountConfiguration.getAnalytics();
 			var listenMessages = analyticsConfiguration.isEnabled() && analyticsConfiguration.isRecordChatsPredictions();
 			
+			startupTimings.begin(StartupPhase.LOGIN);
 			twitchLogin = passportApi.login();
+			startupTimings.end(StartupPhase.LOGIN);
 			
 			if(!accountConfiguration.getUsername().equalsIgnoreCase(twitchLogin.getUsername())){
 				throw new IllegalStateException("Failed to log in, expected account %s but was %s".formatted(accountConfiguration.getUsername(), twitchLogin.getUsername()));
@@ -163,10 +316,11 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			
 			var versionProvider = ApiFactory.createVersionProvider(accountConfiguration.getVersionProvider());
 			var integrityProvider = ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, accountConfiguration.getLoginMethod());
-			gqlApi = ApiFactory.createGqlApi(twitchLogin, integrityProvider);
+			warmUpIntegrity(integrityProvider);
+			gqlApi = ApiFactory.createGqlApi(twitchLogin, integrityProvider, handlerExecutor);
 			twitchApi = ApiFactory.createTwitchApi(twitchLogin);
-			chatClient = TwitchChatFactory.createChat(this, accountConfiguration.getChatMode(), listenMessages);
-			chatClient.addChatMessageListener(new TwitchChatEventProducer(this));
+			chatClient = TwitchChatFactory.createChat(this, accountConfiguration.getChatMode(), accountConfiguration.getIrcShards(), listenMessages, scheduledExecutor);
+			chatClient.addChatMessageListener(new TwitchChatEventProducer(this), DatabaseEventHandler::hasPredictionBadge);
 		}
 		catch(CaptchaSolveRequired e){
 			throw new IllegalStateException("A captcha solve is required, please log in through your browser and solve it");
@@ -176,6 +330,23 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 		}
 	}
 	
+	/**
+	 * Fetch the integrity token right away instead of on the first GQL request, so that its cost shows up in the startup timings.
+	 * A failure isn't fatal, the token will be requested again when needed.
+	 *
+	 * @param integrityProvider The integrity provider.
+	 */
+	private void warmUpIntegrity(@NotNull IIntegrityProvider integrityProvider){
+		startupTimings.begin(StartupPhase.INTEGRITY);
+		try{
+			integrityProvider.getIntegrity();
+			startupTimings.end(StartupPhase.INTEGRITY);
+		}
+		catch(IntegrityException e){
+			log.warn("Failed to get integrity token during startup, it will be retried on the next request", e);
+		}
+	}
+	
 	@NotNull
 	private UpdateStreamInfo getUpdateStreamInfo(){
 		if(Objects.isNull(updateStreamInfo)){
@@ -193,7 +364,31 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 	}
 	
 	private void listenTopic(@NotNull TopicName name, @NotNull String target){
-		pubSubWebSocketPool.listenTopic(Topics.buildFromName(name, target, twitchLogin.getAccessToken()));
+		topicReconciler.want(Topic.builder().name(name).target(target).build(), twitchLogin.getAccessToken());
+	}
+	
+	/**
+	 * Apply the topic changes in the background. Several streamer updates happening in a row are then sent together.
+	 */
+	private void syncTopics(){
+		if(!topicReconciler.hasPendingChanges() || !topicSyncScheduled.compareAndSet(false, true)){
+			return;
+		}
+		try{
+			handlerExecutor.execute(() -> {
+				topicSyncScheduled.set(false);
+				try(var ignored = LogContext.with(this)){
+					topicReconciler.flush();
+				}
+				catch(RuntimeException e){
+					log.error("Failed to update listened topics", e);
+				}
+			});
+		}
+		catch(RejectedExecutionException e){
+			topicSyncScheduled.set(false);
+			log.debug("Topics not updated as the miner is shutting down");
+		}
 	}
 	
 	@Override
@@ -211,13 +406,16 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			}
 			log.info("Adding to the mining list with settings {}", streamer.getSettings());
 			updateStreamerInfos(streamer);
-			
-			streamers.put(streamer.getId(), streamer);
-			onEvent(new StreamerAddedEvent(this, streamer, TimeFactory.now()));
-			updateStreamer(streamer);
+			registerStreamer(streamer);
 		}
 	}
 	
+	private void registerStreamer(@NotNull Streamer streamer){
+		streamers.put(streamer.getId(), streamer);
+		onEvent(new StreamerAddedEvent(this, streamer, TimeFactory.now()));
+		updateStreamer(streamer);
+	}
+	
 	@Override
 	public void updateStreamer(@NotNull Streamer streamer){
 		try(var ignored = LogContext.empty().withStreamer(streamer)){
@@ -228,27 +426,31 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			
 			listenTopic(VIDEO_PLAYBACK_BY_ID, streamer.getId());
 			
+			var channelTopics = needsChannelTopics(streamer);
 			if(streamer.getSettings().isMakePredictions()){
 				listenTopic(PREDICTIONS_USER_V1, getTwitchLogin().fetchUserId(gqlApi));
+			}
+			if(streamer.getSettings().isMakePredictions() && channelTopics){
 				listenTopic(PREDICTIONS_CHANNEL_V1, streamer.getId());
 			}
 			else{
 				removeTopic(PREDICTIONS_CHANNEL_V1, streamer.getId());
 			}
 			
-			if(streamer.getSettings().isClaimMoments()){
+			if(streamer.getSettings().isClaimMoments() && channelTopics){
 				listenTopic(COMMUNITY_MOMENTS_CHANNEL_V1, streamer.getId());
 			}
 			else{
 				removeTopic(COMMUNITY_MOMENTS_CHANNEL_V1, streamer.getId());
 			}
 			
-			if(streamer.getSettings().isFollowRaid()){
+			if(streamer.getSettings().isFollowRaid() && channelTopics){
 				listenTopic(RAID, streamer.getId());
 			}
 			else{
 				removeTopic(RAID, streamer.getId());
 			}
+			syncTopics();
 			
 			if(streamer.isStreaming() && streamer.getSettings().isJoinIrc()){
 				getChatClient().join(streamer.getUsername());
@@ -259,6 +461,46 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 		}
 	}
 	
+	/**
+	 * Channel topics (predictions, moments, raid) are only useful while the streamer is live.
+	 * When {@link AccountConfiguration#isLiveTopicsOnly()} is set, offline streamers only keep {@link TopicName#VIDEO_PLAYBACK_BY_ID} to know when they go live.
+	 *
+	 * @param streamer The streamer.
+	 *
+	 * @return True if the channel topics should be listened.
+	 */
+	private boolean needsChannelTopics(@NotNull Streamer streamer){
+		return !accountConfiguration.isLiveTopicsOnly() || streamer.isStreaming() || liveTopicsStreamers.contains(streamer.getId());
+	}
+	
+	@Override
+	public void listenLiveTopics(@NotNull Streamer streamer){
+		if(!accountConfiguration.isLiveTopicsOnly()){
+			return;
+		}
+		
+		Optional.ofNullable(liveTopicsReleases.remove(streamer.getId())).ifPresent(release -> release.cancel(false));
+		if(liveTopicsStreamers.add(streamer.getId())){
+			updateStreamer(streamer);
+		}
+	}
+	
+	@Override
+	public void releaseLiveTopics(@NotNull Streamer streamer){
+		if(!accountConfiguration.isLiveTopicsOnly()){
+			return;
+		}
+		
+		// Raids and prediction results come after the stream ended, keep the topics for a while
+		var release = schedule(() -> {
+			if(Objects.nonNull(liveTopicsReleases.remove(streamer.getId()))){
+				liveTopicsStreamers.remove(streamer.getId());
+				updateStreamer(streamer);
+			}
+		}, LIVE_TOPICS_RELEASE_DELAY_MINUTES, MINUTES);
+		Optional.ofNullable(liveTopicsReleases.put(streamer.getId(), release)).ifPresent(previous -> previous.cancel(false));
+	}
+	
 	@Override
 	public boolean removeStreamer(@NotNull Streamer streamer){
 		try(var ignored = LogContext.empty().withStreamer(streamer)){
@@ -271,7 +513,10 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 			removeTopic(PREDICTIONS_CHANNEL_V1, streamer.getId());
 			removeTopic(COMMUNITY_MOMENTS_CHANNEL_V1, streamer.getId());
 			removeTopic(RAID, streamer.getId());
+			syncTopics();
 			chatClient.leave(streamer.getUsername());
+			liveTopicsStreamers.remove(streamer.getId());
+			Optional.ofNullable(liveTopicsReleases.remove(streamer.getId())).ifPresent(release -> release.cancel(false));
 			
 			onEvent(new StreamerRemovedEvent(this, streamer, TimeFactory.now()));
 			return streamers.remove(streamer.getId()) != null;
@@ -324,42 +569,122 @@ public class Miner implements AutoCloseable, IMiner, ITwitchPubSubMessageListene
 	
 	@Override
 	public void onEvent(IEvent event){
-		var values = ThreadContext.getImmutableContext();
-		var messages = ThreadContext.getImmutableStack().asList();
-		
-		eventHandlers.forEach(listener -> handlerExecutor.submit(() -> {
-			try(var ignored = LogContext.restore(values, messages)){
-				listener.onEvent(event);
-			}
-		}));
+		eventBus.publish(event);
 	}
 	
 	private void removeTopic(@NotNull TopicName name, @NotNull String target){
-		pubSubWebSocketPool.removeTopic(Topic.builder().name(name).target(target).build());
+		topicReconciler.unwant(Topic.builder().name(name).target(target).build());
 	}
 	
+	/**
+	 * Forward a message to all the handlers.
+	 * <p>
+	 * Messages about the same channel are handled one after the other in reception order, while different channels are handled in parallel.
+	 *
+	 * @param topic   The topic the message was received on.
+	 * @param message The message.
+	 */
 	@Override
 	public void onTwitchMessage(@NotNull Topic topic, @NotNull IPubSubMessage message){
+		var handlers = getPubSubRoute(message.getClass());
+		if(handlers.isEmpty()){
+			return;
+		}
+		
 		var values = ThreadContext.getImmutableContext();
 		var messages = ThreadContext.getImmutableStack().asList();
 		
-		pubSubMessageHandlers.forEach(handler -> handlerExecutor.submit(() -> {
+		pubSubExecutor.execute(getOrderingKey(topic, message), () -> {
 			try(var ignored = LogContext.restore(values, messages)){
-				handler.handle(topic, message);
+				for(var handler : handlers){
+					handleMessage(handler, topic, message);
+				}
 			}
-		}));
+		});
+	}
+	
+	/**
+	 * Get the key ordering the handling of a message.
+	 * <p>
+	 * Messages received on a user topic are keyed by the channel they carry, so that the messages of different channels aren't serialized behind each other.
+	 * Channel topics are keyed by their target, which already is the channel.
+	 *
+	 * @param topic   The topic the message was received on.
+	 * @param message The message.
+	 *
+	 * @return The ordering key.
+	 */
+	@NotNull
+	static String getOrderingKey(@NotNull Topic topic, @NotNull IPubSubMessage message){
+		if(!topic.getName().isOwnUserTopic()){
+			return topic.getTarget();
+		}
+		
+		String channelId = null;
+		if(message instanceof PointsEarned pointsEarned){
+			channelId = pointsEarned.getData().getChannelId();
+		}
+		else if(message instanceof PointsSpent pointsSpent){
+			channelId = pointsSpent.getData().getBalance().getChannelId();
+		}
+		else if(message instanceof ClaimAvailable claimAvailable){
+			channelId = claimAvailable.getData().getClaim().getChannelId();
+		}
+		else if(message instanceof ClaimClaimed claimClaimed){
+			channelId = claimClaimed.getData().getClaim().getChannelId();
+		}
+		else if(message instanceof PredictionMade predictionMade){
+			channelId = predictionMade.getData().getPrediction().getChannelId();
+		}
+		else if(message instanceof PredictionResult predictionResult){
+			channelId = predictionResult.getData().getPrediction().getChannelId();
+		}
+		else if(message instanceof PredictionUpdated predictionUpdated){
+			channelId = predictionUpdated.getData().getPrediction().getChannelId();
+		}
+		return Objects.isNull(channelId) ? topic.getTarget() : channelId;
+	}
+	
+	/**
+	 * Get the handlers interested in a message class, computed once per class.
+	 *
+	 * @param messageClass The class of the message.
+	 *
+	 * @return The handlers to call.
+	 */
+	@NotNull
+	private List<IPubSubMessageHandler> getPubSubRoute(@NotNull Class<?> messageClass){
+		return pubSubRoutes.computeIfAbsent(messageClass, clazz -> pubSubMessageHandlers.stream()
+				.filter(handler -> !(handler instanceof PubSubMessageHandlerAdapter adapter) || adapter.isInterestedIn(clazz))
+				.toList());
+	}
+	
+	private void handleMessage(@NotNull IPubSubMessageHandler handler, @NotNull Topic topic, @NotNull IPubSubMessage message){
+		try{
+			handler.handle(topic, message);
+		}
+		catch(Exception e){
+			log.error("Failed to handle message with {}", handler.getClass().getSimpleName(), e);
+		}
 	}
 	
 	public void addPubSubHandler(@NotNull IPubSubMessageHandler handler){
 		pubSubMessageHandlers.add(handler);
+		pubSubRoutes = new ConcurrentHashMap<>();
 	}
 	
 	public void addEventHandler(@NotNull IEventHandler handler){
 		eventHandlers.add(handler);
+		eventBus.register(handler);
 	}
 	
 	@Override
 	public void close(){
+		var periodicSave = snapshotSaving;
+		if(Objects.nonNull(periodicSave)){
+			periodicSave.cancel(false);
+		}
+		saveSnapshot();
 		scheduledExecutor.shutdown();
 		handlerExecutor.shutdown();
 		pubSubWebSocketPool.close();
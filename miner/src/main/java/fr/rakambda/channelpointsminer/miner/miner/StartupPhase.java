@@ -0,0 +1,17 @@
+package fr.rakambda.channelpointsminer.miner.miner;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+@Getter
+@RequiredArgsConstructor
+public enum StartupPhase{
+	LOGIN("login"),
+	INTEGRITY("integrity"),
+	TOPIC_SUBSCRIPTION("topic subscription"),
+	FIRST_STREAM_INFO("first stream info refresh");
+	
+	@NotNull
+	private final String label;
+}
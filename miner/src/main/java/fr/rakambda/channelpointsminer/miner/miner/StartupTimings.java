@@ -0,0 +1,63 @@
+package fr.rakambda.channelpointsminer.miner.miner;
+
+import org.jetbrains.annotations.NotNull;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Durations of the different phases of a miner startup.
+ * <p>
+ * Phases may end on other threads than the one that started them (the first stream info refresh is done by a scheduled task).
+ */
+public class StartupTimings{
+	private final Map<StartupPhase, Long> startNanos = new ConcurrentHashMap<>();
+	private final Map<StartupPhase, Duration> durations = new ConcurrentHashMap<>();
+	
+	/**
+	 * Mark the beginning of a phase.
+	 *
+	 * @param phase The phase.
+	 */
+	public void begin(@NotNull StartupPhase phase){
+		startNanos.putIfAbsent(phase, System.nanoTime());
+	}
+	
+	/**
+	 * Mark the end of a phase. Only the first end of a phase is recorded.
+	 *
+	 * @param phase The phase.
+	 *
+	 * @return True if this is the first time the phase ended.
+	 */
+	public boolean end(@NotNull StartupPhase phase){
+		var start = startNanos.get(phase);
+		if(Objects.isNull(start)){
+			return false;
+		}
+		return Objects.isNull(durations.putIfAbsent(phase, Duration.ofNanos(System.nanoTime() - start)));
+	}
+	
+	@NotNull
+	public Optional<Duration> getDuration(@NotNull StartupPhase phase){
+		return Optional.ofNullable(durations.get(phase));
+	}
+	
+	/**
+	 * @return True if all the phases ended.
+	 */
+	public boolean isComplete(){
+		return durations.size() == StartupPhase.values().length;
+	}
+	
+	@Override
+	public String toString(){
+		return Arrays.stream(StartupPhase.values())
+				.map(phase -> phase.getLabel() + "=" + getDuration(phase).map(duration -> duration.toMillis() + "ms").orElse("n/a"))
+				.collect(Collectors.joining(", "));
+	}
+}
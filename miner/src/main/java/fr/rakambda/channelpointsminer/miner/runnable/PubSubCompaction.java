@@ -0,0 +1,31 @@
+package fr.rakambda.channelpointsminer.miner.runnable;
+
+import fr.rakambda.channelpointsminer.miner.log.LogContext;
+import fr.rakambda.channelpointsminer.miner.miner.IMiner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+
+@Log4j2
+@RequiredArgsConstructor
+public class PubSubCompaction implements Runnable{
+	@NotNull
+	private final IMiner miner;
+	
+	@Override
+	public void run(){
+		try(var ignored = LogContext.with(miner)){
+			var pool = miner.getPubSubWebSocketPool();
+			var drained = pool.compact();
+			
+			var metrics = pool.getPoolMetrics();
+			if(drained > 0){
+				log.info("Compacting PubSub sockets, closing {} of them, {} topics on {} sockets left", drained, metrics.getTopics(), metrics.getSockets());
+			}
+			log.debug("PubSub sockets are {}% full, topics per socket: {}", Math.round(metrics.getFillRatio() * 100), metrics.getTopicsPerSocket());
+		}
+		catch(Exception e){
+			log.error("Failed to compact PubSub sockets", e);
+		}
+	}
+}
@@ -21,6 +21,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -68,7 +69,7 @@ public class StreamerConfigurationReload implements Runnable{
 		if(settings.isEnabled()){
 			return Optional.empty();
 		}
-		return streamerResult.getStreamerSupplier().apply(settings);
+		return streamerResult.getStreamerSupplier().apply(settings).join();
 	}
 	
 	private void updateStreamers(@NotNull Map<String, StreamerResult> newStreamers){
@@ -77,24 +78,15 @@ public class StreamerConfigurationReload implements Runnable{
 						.filter(entry -> Objects.equals(entry.getKey(), oldStreamer.getUsername().toLowerCase(Locale.ROOT)))
 						.findAny()
 						.map(Map.Entry::getValue)
-						.map(result -> {
-							var settings = result.getStreamerSettingsSupplier().get();
-							if(!settings.isEnabled()){
-								return null;
-							}
-							var streamer = result.getStreamerSupplier().apply(settings);
-							if(streamer.isEmpty()){
-								return null;
-							}
-							return Map.entry(oldStreamer, streamer.get());
-						})
+						.map(result -> result.getStreamerSettingsSupplier().get())
+						.filter(StreamerSettings::isEnabled)
+						.map(settings -> Map.entry(oldStreamer, settings))
 				)
 				.flatMap(Optional::stream)
 				.forEach(entry -> {
 					var old = entry.getKey();
-					var update = entry.getValue();
 					
-					old.setSettings(update.getSettings());
+					old.setSettings(entry.getValue());
 					miner.updateStreamer(old);
 				});
 	}
@@ -104,16 +96,20 @@ public class StreamerConfigurationReload implements Runnable{
 				.map(Streamer::getUsername)
 				.map(String::toLowerCase)
 				.toList();
-		newStreamers.entrySet().stream()
+		var streamers = newStreamers.entrySet().stream()
 				.filter(entry -> !currentMinerNames.contains(entry.getKey()))
 				.map(Map.Entry::getValue)
 				.map(result -> {
 					var settings = result.getStreamerSettingsSupplier().get();
 					if(!settings.isEnabled()){
-						return Optional.<Streamer> empty();
+						return CompletableFuture.completedFuture(Optional.<Streamer> empty());
 					}
 					return result.getStreamerSupplier().apply(settings);
 				})
+				.toList();
+		
+		streamers.stream()
+				.map(CompletableFuture::join)
 				.flatMap(Optional::stream)
 				.forEach(miner::addStreamer);
 	}
@@ -134,7 +130,7 @@ public class StreamerConfigurationReload implements Runnable{
 					return new StreamerResult(
 							streamerName,
 							() -> settingsFunction.apply(streamerName),
-							settings -> Optional.of(new Streamer(user.getId(), streamerName, settings)));
+							settings -> CompletableFuture.completedFuture(Optional.of(new Streamer(user.getId(), streamerName, settings))));
 				}));
 	}
 	
@@ -149,18 +145,28 @@ public class StreamerConfigurationReload implements Runnable{
 				.collect(Collectors.toMap(name -> name.toLowerCase(Locale.ROOT), name -> new StreamerResult(
 						name,
 						() -> streamerSettingsFactory.createStreamerSettings(name),
-						settings -> getStreamerId(name).map(id -> new Streamer(id, name, settings)))));
+						settings -> getStreamerId(name).thenApply(id -> id.map(value -> new Streamer(value, name, settings))))));
 	}
 	
+	/**
+	 * Look up the id of a streamer. Lookups of all the new streamers are started before waiting for any of them, so that they are sent in parallel.
+	 *
+	 * @param username The streamer name.
+	 *
+	 * @return A future of the id, empty if the streamer is unknown.
+	 */
 	@NotNull
-	private Optional<String> getStreamerId(@NotNull String username){
-		var id = miner.getGqlApi().reportMenuItem(username)
-				.map(GQLResponse::getData)
-				.map(ReportMenuItemData::getUser)
-				.map(User::getId);
-		if(id.isEmpty()){
-			miner.onEvent(new StreamerUnknownEvent(miner, username, TimeFactory.now()));
-		}
-		return id;
+	private CompletableFuture<Optional<String>> getStreamerId(@NotNull String username){
+		return miner.getGqlApi().reportMenuItemAsync(username)
+				.thenApply(response -> {
+					var id = response
+							.map(GQLResponse::getData)
+							.map(ReportMenuItemData::getUser)
+							.map(User::getId);
+					if(id.isEmpty()){
+						miner.onEvent(new StreamerUnknownEvent(miner, username, TimeFactory.now()));
+					}
+					return id;
+				});
 	}
 }
@@ -17,6 +17,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import static java.util.Optional.ofNullable;
 
 @Log4j2
@@ -67,27 +68,32 @@ public class SyncInventory implements Runnable{
 		}
 		
 		log.debug("Claiming drops {}", dropsToClaim);
-		dropsToClaim.forEach(this::claimDrop);
+		var claims = dropsToClaim.stream()
+				.map(this::claimDrop)
+				.toArray(CompletableFuture[]::new);
+		CompletableFuture.allOf(claims).join();
 	}
 	
-	private void claimDrop(@NotNull TimeBasedDrop timeBasedDrop){
+	@NotNull
+	private CompletableFuture<Void> claimDrop(@NotNull TimeBasedDrop timeBasedDrop){
 		miner.onEvent(new DropClaimEvent(miner, timeBasedDrop, TimeFactory.now()));
 		
 		var dropInstanceId = Optional.ofNullable(timeBasedDrop.getSelf()).map(TimeBasedDropSelfEdge::getDropInstanceId);
 		if(dropInstanceId.isEmpty()){
 			log.error("Failed to claim drop, value is null");
-			return;
+			return CompletableFuture.completedFuture(null);
 		}
 		
-		miner.getGqlApi().dropsPageClaimDropRewards(dropInstanceId.get())
-				.filter(r -> {
-					if(!r.isError()){
-						return true;
-					}
-					log.error("Failed to claim drop due to `{}` | {}", r.getError(), r.getErrors());
-					return false;
-				})
-				.map(r -> new DropClaimedEvent(miner, timeBasedDrop, TimeFactory.now()))
-				.ifPresent(miner::onEvent);
+		return miner.getGqlApi().dropsPageClaimDropRewardsAsync(dropInstanceId.get())
+				.thenAccept(response -> response
+						.filter(r -> {
+							if(!r.isError()){
+								return true;
+							}
+							log.error("Failed to claim drop due to `{}` | {}", r.getError(), r.getErrors());
+							return false;
+						})
+						.map(r -> new DropClaimedEvent(miner, timeBasedDrop, TimeFactory.now()))
+						.ifPresent(miner::onEvent));
 	}
 }
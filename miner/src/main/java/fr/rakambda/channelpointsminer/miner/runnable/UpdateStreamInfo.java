@@ -1,21 +1,39 @@
 package fr.rakambda.channelpointsminer.miner.runnable;
 
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.GQLBatchResponse;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLResponse;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.IGQLOperation;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.channelpointscontext.ChannelPointsContextOperation;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.chatroombanstatus.ChatRoomBanStatusData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.chatroombanstatus.ChatRoomBanStatusOperation;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.dropshighlightserviceavailabledrops.DropsHighlightServiceAvailableDropsOperation;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.videoplayerstreaminfooverlaychannel.VideoPlayerStreamInfoOverlayChannelOperation;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.log.LogContext;
 import fr.rakambda.channelpointsminer.miner.miner.IMiner;
 import fr.rakambda.channelpointsminer.miner.streamer.Streamer;
-import fr.rakambda.channelpointsminer.miner.util.CommonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Update the stream info of streamers.
+ * <p>
+ * Streamers are updated by groups, with all their GQL operations sent as batches: a first one for the stream and channel points info, and a second one for what depends on the stream being online.
+ * Groups are updated in parallel, the number of requests in flight being limited by the GQL and Twitch apis.
+ * Continuations run on the threads completing the requests, so they never make a blocking call.
+ */
 @Log4j2
 @RequiredArgsConstructor
 public class UpdateStreamInfo implements Runnable{
+	private static final int STREAMERS_PER_UPDATE = 50;
+	
 	@NotNull
 	private final IMiner miner;
 	
@@ -24,12 +42,15 @@ public class UpdateStreamInfo implements Runnable{
 		try(var ignored = LogContext.with(miner)){
 			log.debug("Updating all stream info");
 			try{
-				miner.getStreamers().stream()
+				var streamers = miner.getStreamers().stream()
 						.filter(Streamer::needUpdate)
-						.forEach(streamer -> {
-							run(streamer);
-							CommonUtils.randomSleep(500, 100);
-						});
+						.toList();
+				
+				var updates = new ArrayList<CompletableFuture<Void>>();
+				for(var start = 0; start < streamers.size(); start += STREAMERS_PER_UPDATE){
+					updates.add(update(streamers.subList(start, Math.min(streamers.size(), start + STREAMERS_PER_UPDATE))));
+				}
+				CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).join();
 				log.debug("Done updating all stream info");
 			}
 			catch(Exception e){
@@ -39,41 +60,89 @@ public class UpdateStreamInfo implements Runnable{
 	}
 	
 	public void run(@NotNull Streamer streamer){
-		try(var ignored = LogContext.empty().withStreamer(streamer)){
-			var wasStreaming = streamer.isStreaming();
-			
-			updateVideoInfo(streamer);
-			updateSpadeUrl(streamer);
-			updateBanStatus(streamer);
-			updatePointsContext(streamer);
-			updateCampaigns(streamer);
-			
-			var now = TimeFactory.now();
-			streamer.setLastUpdated(now);
-			if(wasStreaming && !streamer.isStreaming()){
-				streamer.setLastOffline(now);
-				streamer.resetWatchedDuration();
+		update(List.of(streamer)).join();
+	}
+	
+	@NotNull
+	private CompletableFuture<Void> update(@NotNull List<Streamer> streamers){
+		var accountId = miner.getTwitchLogin().fetchUserId(miner.getGqlApi());
+		var updates = streamers.stream()
+				.map(StreamerUpdate::new)
+				.toList();
+		
+		var infoOperations = new ArrayList<IGQLOperation<?>>();
+		for(var update : updates){
+			infoOperations.add(update.videoInfoOperation);
+			infoOperations.add(update.pointsContextOperation);
+		}
+		
+		return miner.getGqlApi().batchAsync(infoOperations)
+				.thenCompose(infoResponses -> miner.getGqlApi().batchAsync(applyInfo(updates, infoResponses, accountId)))
+				.thenAccept(onlineResponses -> applyOnline(updates, onlineResponses))
+				.thenCompose(ignored -> CompletableFuture.allOf(updates.stream()
+						.flatMap(update -> update.otherCalls.stream())
+						.toArray(CompletableFuture[]::new)));
+	}
+	
+	@NotNull
+	private List<IGQLOperation<?>> applyInfo(@NotNull List<StreamerUpdate> updates, @NotNull GQLBatchResponse infoResponses, @NotNull String accountId){
+		var onlineOperations = new ArrayList<IGQLOperation<?>>();
+		for(var update : updates){
+			try(var ignored = LogContext.with(miner).withStreamer(update.streamer)){
+				updateVideoInfo(update, infoResponses);
+				updateSpadeUrl(update);
+				updatePointsContext(update, infoResponses);
+				
+				if(update.streamer.isStreaming()){
+					update.banStatusOperation = new ChatRoomBanStatusOperation(update.streamer.getId(), accountId);
+					onlineOperations.add(update.banStatusOperation);
+				}
+				if(isCampaignsUpdated(update.streamer)){
+					update.campaignsOperation = new DropsHighlightServiceAvailableDropsOperation(update.streamer.getId());
+					onlineOperations.add(update.campaignsOperation);
+				}
 			}
 		}
+		return onlineOperations;
 	}
 	
-	private void updateVideoInfo(@NotNull Streamer streamer){
+	private void applyOnline(@NotNull List<StreamerUpdate> updates, @NotNull GQLBatchResponse onlineResponses){
+		for(var update : updates){
+			try(var ignored = LogContext.with(miner).withStreamer(update.streamer)){
+				updateBanStatus(update, onlineResponses);
+				updateCampaigns(update, onlineResponses);
+				
+				var now = TimeFactory.now();
+				update.streamer.setLastUpdated(now);
+				if(update.wasStreaming && !update.streamer.isStreaming()){
+					update.streamer.setLastOffline(now);
+					update.streamer.resetWatchedDuration();
+				}
+			}
+		}
+	}
+	
+	private void updateVideoInfo(@NotNull StreamerUpdate update, @NotNull GQLBatchResponse responses){
 		log.trace("Updating video info");
 		
-		miner.getGqlApi().videoPlayerStreamInfoOverlayChannel(streamer.getUsername())
+		responses.get(update.videoInfoOperation)
 				.map(GQLResponse::getData)
 				.ifPresentOrElse(
-						streamer::setVideoPlayerStreamInfoOverlayChannel,
-						() -> streamer.setVideoPlayerStreamInfoOverlayChannel(null));
+						update.streamer::setVideoPlayerStreamInfoOverlayChannel,
+						() -> update.streamer.setVideoPlayerStreamInfoOverlayChannel(null));
 	}
 	
-	private void updateSpadeUrl(@NotNull Streamer streamer){
+	private void updateSpadeUrl(@NotNull StreamerUpdate update){
 		log.trace("Updating spade url");
+		var streamer = update.streamer;
 		if(streamer.isStreaming()){
-			if(Objects.isNull(streamer.getSpadeUrl())){
-				Optional.ofNullable(streamer.getChannelUrl())
-						.flatMap(miner.getTwitchApi()::getSpadeUrl)
-						.ifPresent(streamer::setSpadeUrl);
+			if(Objects.isNull(streamer.getSpadeUrl()) && Objects.nonNull(streamer.getChannelUrl())){
+				update.otherCalls.add(miner.getTwitchApi().getSpadeUrlAsync(streamer.getChannelUrl())
+						.thenAccept(spadeUrl -> spadeUrl.ifPresent(streamer::setSpadeUrl))
+						.exceptionally(e -> {
+							log.error("Failed to update spade url of {}", streamer.getUsername(), e);
+							return null;
+						}));
 			}
 		}
 		else{
@@ -81,40 +150,71 @@ public class UpdateStreamInfo implements Runnable{
 		}
 	}
 	
-	private void updateBanStatus(@NotNull Streamer streamer){
-		log.trace("Updating ban status");
-		if(streamer.isStreaming()){
-			var banned = miner.getGqlApi().chatRoomBanStatus(streamer.getId(), miner.getTwitchLogin().fetchUserId(miner.getGqlApi()))
+	private void updateBanStatus(@NotNull StreamerUpdate update, @NotNull GQLBatchResponse responses){
+		if(Objects.nonNull(update.banStatusOperation)){
+			log.trace("Updating ban status");
+			var banned = responses.get(update.banStatusOperation)
 					.map(GQLResponse::getData)
 					.map(ChatRoomBanStatusData::getChatRoomBanStatus)
 					.isPresent();
-			streamer.setChatBanned(banned);
+			update.streamer.setChatBanned(banned);
 		}
 	}
 	
-	private void updatePointsContext(@NotNull Streamer streamer){
+	private void updatePointsContext(@NotNull StreamerUpdate update, @NotNull GQLBatchResponse responses){
 		log.trace("Updating channel points context");
+		var streamer = update.streamer;
 		
-		miner.getGqlApi().channelPointsContext(streamer.getUsername())
+		responses.get(update.pointsContextOperation)
 				.map(GQLResponse::getData)
 				.ifPresentOrElse(
 						streamer::setChannelPointsContext,
 						() -> streamer.setChannelPointsContext(null));
 		
-		streamer.getClaimId().ifPresent(claimId -> miner.getGqlApi().claimCommunityPoints(streamer.getId(), claimId));
+		streamer.getClaimId().ifPresent(claimId -> update.otherCalls.add(miner.getGqlApi().claimCommunityPointsAsync(streamer.getId(), claimId)
+				.exceptionally(e -> {
+					log.error("Failed to claim community points of {}", streamer.getUsername(), e);
+					return Optional.empty();
+				})));
+	}
+	
+	private boolean isCampaignsUpdated(@NotNull Streamer streamer){
+		return streamer.isParticipateCampaigns() && streamer.isStreaming() && streamer.isStreamingGame();
 	}
 	
-	private void updateCampaigns(@NotNull Streamer streamer){
+	private void updateCampaigns(@NotNull StreamerUpdate update, @NotNull GQLBatchResponse responses){
 		log.trace("Updating campaigns");
-		if(streamer.isParticipateCampaigns() && streamer.isStreaming() && streamer.isStreamingGame()){
-			miner.getGqlApi().dropsHighlightServiceAvailableDrops(streamer.getId())
+		if(Objects.nonNull(update.campaignsOperation)){
+			responses.get(update.campaignsOperation)
 					.map(GQLResponse::getData)
 					.ifPresentOrElse(
-							streamer::setDropsHighlightServiceAvailableDrops,
-							() -> streamer.setDropsHighlightServiceAvailableDrops(null));
+							update.streamer::setDropsHighlightServiceAvailableDrops,
+							() -> update.streamer.setDropsHighlightServiceAvailableDrops(null));
 		}
 		else{
-			streamer.setDropsHighlightServiceAvailableDrops(null);
+			update.streamer.setDropsHighlightServiceAvailableDrops(null);
+		}
+	}
+	
+	/**
+	 * Operations sent for one streamer during an update.
+	 */
+	private static class StreamerUpdate{
+		private final Streamer streamer;
+		private final boolean wasStreaming;
+		private final VideoPlayerStreamInfoOverlayChannelOperation videoInfoOperation;
+		private final ChannelPointsContextOperation pointsContextOperation;
+		private final List<CompletableFuture<?>> otherCalls = new ArrayList<>();
+		@Nullable
+		private ChatRoomBanStatusOperation banStatusOperation;
+		@Nullable
+		private DropsHighlightServiceAvailableDropsOperation campaignsOperation;
+		
+		private StreamerUpdate(@NotNull Streamer streamer){
+			this.streamer = streamer;
+			wasStreaming = streamer.isStreaming();
+			videoInfoOperation = new VideoPlayerStreamInfoOverlayChannelOperation(streamer.getUsername());
+			pointsContextOperation = new ChannelPointsContextOperation(streamer.getUsername());
 		}
 	}
 }
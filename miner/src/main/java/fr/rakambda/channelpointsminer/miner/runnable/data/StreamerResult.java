@@ -5,6 +5,7 @@ import fr.rakambda.channelpointsminer.miner.streamer.StreamerSettings;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -13,5 +14,5 @@ import java.util.function.Supplier;
 public class StreamerResult{
 	private final String username;
 	private final Supplier<StreamerSettings> streamerSettingsSupplier;
-	private final Function<StreamerSettings, Optional<Streamer>> streamerSupplier;
+	private final Function<StreamerSettings, CompletableFuture<Optional<Streamer>>> streamerSupplier;
 }
@@ -0,0 +1,110 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import org.jetbrains.annotations.NotNull;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous calls in flight at the same time.
+ * <p>
+ * Calls over the limit wait in a queue without holding any thread, and are started as soon as a running call completes.
+ * Queued calls are started from a single loop: a call completing while that loop runs only asks it for another pass, so calls that complete right away don't nest.
+ */
+public class AsyncLimiter{
+	private final int maxInFlight;
+	private final Queue<Runnable> pending;
+	private final AtomicInteger inFlight;
+	private final AtomicInteger drainRequests;
+	
+	public AsyncLimiter(int maxInFlight){
+		if(maxInFlight <= 0){
+			throw new IllegalArgumentException("Max in flight calls must be positive");
+		}
+		this.maxInFlight = maxInFlight;
+		pending = new ConcurrentLinkedQueue<>();
+		inFlight = new AtomicInteger(0);
+		drainRequests = new AtomicInteger(0);
+	}
+	
+	/**
+	 * Start a call now if the limit allows it, or once enough of the running ones completed.
+	 *
+	 * @param call The call to start, giving the future of its result.
+	 * @param <T>  Type of the result.
+	 *
+	 * @return A future completed with the result of the call.
+	 */
+	@NotNull
+	public <T> CompletableFuture<T> submit(@NotNull Supplier<CompletableFuture<T>> call){
+		var result = new CompletableFuture<T>();
+		pending.add(() -> start(call, result));
+		drain();
+		return result;
+	}
+	
+	private <T> void start(@NotNull Supplier<CompletableFuture<T>> call, @NotNull CompletableFuture<T> result){
+		CompletableFuture<T> future;
+		try{
+			future = Objects.requireNonNull(call.get());
+		}
+		catch(Throwable e){
+			future = CompletableFuture.failedFuture(e);
+		}
+		
+		future.whenComplete((value, error) -> {
+			inFlight.decrementAndGet();
+			drain();
+			
+			if(Objects.nonNull(error)){
+				result.completeExceptionally(error);
+			}
+			else{
+				result.complete(value);
+			}
+		});
+	}
+	
+	private void drain(){
+		if(drainRequests.getAndIncrement() != 0){
+			return;
+		}
+		
+		var requests = 1;
+		do{
+			startPending();
+			requests = drainRequests.addAndGet(-requests);
+		}
+		while(requests != 0);
+	}
+	
+	private void startPending(){
+		while(!pending.isEmpty()){
+			var current = inFlight.get();
+			if(current >= maxInFlight){
+				return;
+			}
+			if(!inFlight.compareAndSet(current, current + 1)){
+				continue;
+			}
+			
+			var task = pending.poll();
+			if(Objects.isNull(task)){
+				inFlight.decrementAndGet();
+				continue;
+			}
+			task.run();
+		}
+	}
+	
+	public int getInFlightCount(){
+		return inFlight.get();
+	}
+	
+	public int getPendingCount(){
+		return pending.size();
+	}
+}
@@ -0,0 +1,129 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.api.websocket.WebSocketOptions;
+import fr.rakambda.channelpointsminer.miner.config.RuntimeConfiguration;
+import fr.rakambda.channelpointsminer.miner.config.WebSocketTransport;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.jetbrains.annotations.NotNull;
+import java.net.http.HttpClient;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resources shared by all the miners running in the same JVM.
+ * <p>
+ * Instead of having each account creating its own thread pools, a small timer pool and a bounded worker pool are created once and each account gets a {@link RuntimeTenant} view of them.
+ * The timer threads never run tasks themselves, so the worker can be made of virtual threads while keeping platform threads only to track delays.
+ * <p>
+ * With the {@link WebSocketTransport#HTTP_CLIENT} transport, a single {@link HttpClient} is also shared to multiplex the websockets of all the accounts.
+ */
+@Log4j2
+public class MinerRuntime implements AutoCloseable{
+	private static final int DEFAULT_MAX_CONCURRENT_TASKS_PER_ACCOUNT = 8;
+	private static final int VIRTUAL_THREADS_MAX_CONCURRENT_TASKS_PER_ACCOUNT = 256;
+	
+	private final ScheduledThreadPoolExecutor timer;
+	@Getter
+	private final ExecutorService worker;
+	@Getter
+	private final boolean virtualThreads;
+	@Getter
+	private final int maxConcurrentTasksPerAccount;
+	@Getter
+	private final RuntimeConfiguration configuration;
+	private final ExecutorService webSocketExecutor;
+	@Getter
+	private final WebSocketOptions webSocketOptions;
+	
+	public MinerRuntime(@NotNull RuntimeConfiguration configuration){
+		this.configuration = configuration;
+		
+		timer = new ScheduledThreadPoolExecutor(configuration.getSchedulerThreads(), new BasicThreadFactory.Builder()
+				.namingPattern("miner-timer-%d")
+				.daemon(true)
+				.build());
+		timer.setRemoveOnCancelPolicy(true);
+		
+		var virtualWorker = configuration.isVirtualThreads() ? createVirtualThreadWorker() : Optional.<ExecutorService>empty();
+		virtualThreads = virtualWorker.isPresent();
+		worker = virtualWorker.orElseGet(() -> Executors.newFixedThreadPool(configuration.getWorkerThreads(), new BasicThreadFactory.Builder()
+				.namingPattern("miner-worker-%d")
+				.build()));
+		
+		maxConcurrentTasksPerAccount = Optional.ofNullable(configuration.getMaxConcurrentTasksPerAccount())
+				.orElse(virtualThreads ? VIRTUAL_THREADS_MAX_CONCURRENT_TASKS_PER_ACCOUNT : DEFAULT_MAX_CONCURRENT_TASKS_PER_ACCOUNT);
+		
+		var webSocketOptionsBuilder = WebSocketOptions.builder();
+		if(configuration.getWebSocketTransport() == WebSocketTransport.HTTP_CLIENT){
+			webSocketExecutor = Executors.newFixedThreadPool(Math.max(1, configuration.getWebSocketThreads()), new BasicThreadFactory.Builder()
+					.namingPattern("miner-websocket-%d")
+					.daemon(true)
+					.build());
+			webSocketOptionsBuilder.httpClient(HttpClient.newBuilder()
+					.executor(webSocketExecutor)
+					.build());
+			log.info("Using a shared HTTP client for websockets");
+			if(configuration.isWebSocketCompression()){
+				log.warn("Websocket compression is not supported by the {} transport and will be ignored", WebSocketTransport.HTTP_CLIENT);
+			}
+		}
+		else{
+			webSocketExecutor = null;
+			webSocketOptionsBuilder.compression(configuration.isWebSocketCompression());
+		}
+		webSocketOptions = webSocketOptionsBuilder.build();
+	}
+	
+	/**
+	 * Create an executor starting a new virtual thread for each task.
+	 * <p>
+	 * Done by reflection as the project still targets Java 17 where virtual threads aren't available.
+	 *
+	 * @return The executor, or empty if the JVM doesn't support virtual threads.
+	 */
+	@NotNull
+	private static Optional<ExecutorService> createVirtualThreadWorker(){
+		try{
+			var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			var executor = (ExecutorService) factory.invoke(null);
+			log.info("Using virtual threads to run tasks");
+			return Optional.of(executor);
+		}
+		catch(ReflectiveOperationException | UnsupportedOperationException e){
+			log.warn("Virtual threads are not available on this JVM ({}), falling back to worker threads", Runtime.version());
+			return Optional.empty();
+		}
+	}
+	
+	@NotNull
+	public RuntimeTenant createTenant(@NotNull String name){
+		var handlerExecutor = new TenantExecutorService(name, worker, maxConcurrentTasksPerAccount);
+		var scheduledExecutor = new TenantScheduledExecutorService(timer, handlerExecutor);
+		return new RuntimeTenant(name, scheduledExecutor, handlerExecutor);
+	}
+	
+	@Override
+	public void close(){
+		timer.shutdownNow();
+		if(Objects.nonNull(webSocketExecutor)){
+			webSocketExecutor.shutdownNow();
+		}
+		worker.shutdown();
+		try{
+			if(!worker.awaitTermination(10, TimeUnit.SECONDS)){
+				worker.shutdownNow();
+			}
+		}
+		catch(InterruptedException e){
+			log.warn("Interrupted while waiting for the runtime to stop");
+			worker.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Executors given to a single account, backed by the resources of a {@link MinerRuntime}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RuntimeTenant{
+	@NotNull
+	private final String name;
+	@NotNull
+	private final ScheduledExecutorService scheduledExecutor;
+	@NotNull
+	private final ExecutorService handlerExecutor;
+}
@@ -0,0 +1,123 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.config.RuntimeConfiguration;
+import fr.rakambda.channelpointsminer.miner.util.SleepHandler;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.jetbrains.annotations.NotNull;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Starts several accounts concurrently.
+ * <p>
+ * At most {@code maxConcurrentStartups} accounts are being started at the same time, and two starts are at least {@code startupInterval} apart (plus a random jitter) so that all the logins and integrity requests don't reach Twitch in the same second.
+ */
+@Log4j2
+public class StartupOrchestrator{
+	private final int maxConcurrentStartups;
+	private final long intervalMillis;
+	private final long jitterMillis;
+	private final Object rampUpLock;
+	private long nextSlotMillis;
+	
+	public StartupOrchestrator(@NotNull RuntimeConfiguration configuration){
+		if(configuration.getMaxConcurrentStartups() <= 0){
+			throw new IllegalArgumentException("Max concurrent startups must be positive");
+		}
+		maxConcurrentStartups = configuration.getMaxConcurrentStartups();
+		intervalMillis = Math.max(0, configuration.getStartupInterval());
+		jitterMillis = Math.max(0, configuration.getStartupJitter());
+		rampUpLock = new Object();
+	}
+	
+	/**
+	 * Start all the accounts and wait for them to be started.
+	 * An account failing to start doesn't prevent the others from starting.
+	 *
+	 * @param accounts The accounts to start.
+	 * @param namer    Gives the name of an account, used in logs.
+	 * @param starter  Starts an account.
+	 * @param <T>      The type of account.
+	 *
+	 * @throws IllegalStateException If some accounts failed to start.
+	 */
+	public <T> void startAll(@NotNull Collection<T> accounts, @NotNull Function<T, String> namer, @NotNull Consumer<T> starter){
+		if(accounts.isEmpty()){
+			return;
+		}
+		
+		var failures = new ConcurrentLinkedQueue<String>();
+		var executor = Executors.newFixedThreadPool(Math.min(maxConcurrentStartups, accounts.size()), new BasicThreadFactory.Builder()
+				.namingPattern("miner-startup-%d")
+				.daemon(true)
+				.build());
+		try{
+			var startups = accounts.stream()
+					.map(account -> CompletableFuture.runAsync(() -> {
+						var name = namer.apply(account);
+						if(!start(name, () -> starter.accept(account))){
+							failures.add(name);
+						}
+					}, executor))
+					.toArray(CompletableFuture[]::new);
+			CompletableFuture.allOf(startups).join();
+		}
+		finally{
+			executor.shutdown();
+		}
+		
+		if(!failures.isEmpty()){
+			throw new IllegalStateException("Failed to start accounts " + List.copyOf(failures));
+		}
+	}
+	
+	private boolean start(@NotNull String name, @NotNull Runnable startup){
+		try{
+			var delay = reserveStartDelay();
+			if(delay > 0){
+				log.debug("Waiting {}ms before starting account {}", delay, name);
+				SleepHandler.sleep(delay);
+			}
+		}
+		catch(InterruptedException e){
+			log.warn("Interrupted while waiting to start account {}", name);
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		
+		var start = System.nanoTime();
+		try{
+			log.info("Starting account {}", name);
+			startup.run();
+			log.info("Account {} started in {}ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			return true;
+		}
+		catch(Exception e){
+			log.error("Failed to start account {} after {}ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), e);
+			return false;
+		}
+	}
+	
+	/**
+	 * Reserve the next start slot.
+	 *
+	 * @return The delay in milliseconds to wait before starting.
+	 */
+	long reserveStartDelay(){
+		synchronized(rampUpLock){
+			var now = System.currentTimeMillis();
+			var slot = Math.max(now, nextSlotMillis);
+			nextSlotMillis = slot + intervalMillis;
+			var jitter = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0;
+			return slot - now + jitter;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor running tasks sharing the same key one after the other, in submission order, while tasks of different keys run in parallel.
+ * <p>
+ * Keys are hashed into a fixed number of stripes, each having its own bounded queue.
+ * A stripe is drained by at most one task of the delegate executor at a time, so no lock is shared between stripes.
+ * Submitting never blocks: when the queue of a stripe is full, its oldest task is dropped to make room, logged and counted in the metrics of the stripe.
+ */
+@Log4j2
+public class StripedExecutor{
+	private static final int DRAIN_BATCH_SIZE = 32;
+	
+	private final Executor delegate;
+	private final Stripe[] stripes;
+	private final int mask;
+	
+	public StripedExecutor(@NotNull Executor delegate, int stripeCount, int queueCapacity){
+		if(stripeCount <= 0 || queueCapacity <= 0){
+			throw new IllegalArgumentException("Stripe count and queue capacity must be positive");
+		}
+		this.delegate = delegate;
+		
+		var size = Integer.highestOneBit(stripeCount);
+		if(size < stripeCount){
+			size <<= 1;
+		}
+		mask = size - 1;
+		stripes = new Stripe[size];
+		for(var i = 0; i < size; i++){
+			stripes[i] = new Stripe(i, queueCapacity);
+		}
+	}
+	
+	/**
+	 * Queue a task to be executed after all the tasks previously submitted with the same key.
+	 * If the queue of the stripe is full, its oldest task is dropped.
+	 *
+	 * @param key  The ordering key.
+	 * @param task The task to run.
+	 */
+	public void execute(@Nullable Object key, @NotNull Runnable task){
+		var stripe = stripes[indexFor(key)];
+		while(!stripe.queue.offer(task)){
+			if(Objects.nonNull(stripe.queue.poll())){
+				stripe.dropped.increment();
+				log.warn("Dropped the oldest task of stripe {} as its queue is full", stripe.index);
+			}
+		}
+		stripe.schedule();
+	}
+	
+	private int indexFor(@Nullable Object key){
+		var hash = Objects.hashCode(key);
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+	
+	public int getStripeCount(){
+		return stripes.length;
+	}
+	
+	/**
+	 * @return The number of tasks waiting in each stripe.
+	 */
+	@NotNull
+	public int[] getQueueDepths(){
+		var depths = new int[stripes.length];
+		for(var i = 0; i < stripes.length; i++){
+			depths[i] = stripes[i].queue.size();
+		}
+		return depths;
+	}
+	
+	public int getMaxQueueDepth(){
+		var max = 0;
+		for(var stripe : stripes){
+			max = Math.max(max, stripe.queue.size());
+		}
+		return max;
+	}
+	
+	/**
+	 * @return The number of tasks dropped by each stripe as its queue was full.
+	 */
+	@NotNull
+	public long[] getDroppedCounts(){
+		var dropped = new long[stripes.length];
+		for(var i = 0; i < stripes.length; i++){
+			dropped[i] = stripes[i].dropped.sum();
+		}
+		return dropped;
+	}
+	
+	public long getDroppedCount(){
+		var total = 0L;
+		for(var stripe : stripes){
+			total += stripe.dropped.sum();
+		}
+		return total;
+	}
+	
+	private final class Stripe implements Runnable{
+		private final int index;
+		private final BlockingQueue<Runnable> queue;
+		private final AtomicBoolean scheduled;
+		private final LongAdder dropped;
+		
+		private Stripe(int index, int capacity){
+			this.index = index;
+			
+			queue = new ArrayBlockingQueue<>(capacity);
+			scheduled = new AtomicBoolean(false);
+			dropped = new LongAdder();
+		}
+		
+		private void schedule(){
+			if(!scheduled.compareAndSet(false, true)){
+				return;
+			}
+			try{
+				delegate.execute(this);
+			}
+			catch(RejectedExecutionException e){
+				scheduled.set(false);
+				log.debug("Striped tasks rejected as the executor is shut down");
+			}
+		}
+		
+		@Override
+		public void run(){
+			try{
+				for(var i = 0; i < DRAIN_BATCH_SIZE; i++){
+					var task = queue.poll();
+					if(Objects.isNull(task)){
+						break;
+					}
+					runTask(task);
+				}
+			}
+			finally{
+				scheduled.set(false);
+				if(!queue.isEmpty()){
+					schedule();
+				}
+			}
+		}
+		
+		private void runTask(@NotNull Runnable task){
+			try{
+				task.run();
+			}
+			catch(RuntimeException e){
+				log.error("Uncaught exception in striped task", e);
+			}
+		}
+	}
+}
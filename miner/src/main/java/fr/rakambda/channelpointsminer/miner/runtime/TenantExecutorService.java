@@ -0,0 +1,157 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * View of a shared executor dedicated to a single tenant (account).
+ * <p>
+ * Tasks are queued locally and at most {@code maxConcurrentTasks} of them are handed to the shared executor at the same time.
+ * This prevents a busy account from using all the shared threads and starving the others.
+ * Shutting down this view only affects the tasks of its tenant, the shared executor is left untouched.
+ */
+@Log4j2
+public class TenantExecutorService extends AbstractExecutorService{
+	@Getter
+	private final String name;
+	private final Executor delegate;
+	private final int maxConcurrentTasks;
+	private final Queue<Runnable> queue;
+	private final AtomicInteger running;
+	private final Object terminationLock;
+	
+	private volatile boolean shutdown;
+	
+	public TenantExecutorService(@NotNull String name, @NotNull Executor delegate, int maxConcurrentTasks){
+		if(maxConcurrentTasks <= 0){
+			throw new IllegalArgumentException("Max concurrent tasks must be positive");
+		}
+		this.name = name;
+		this.delegate = delegate;
+		this.maxConcurrentTasks = maxConcurrentTasks;
+		
+		queue = new ConcurrentLinkedQueue<>();
+		running = new AtomicInteger(0);
+		terminationLock = new Object();
+	}
+	
+	@Override
+	public void execute(@NotNull Runnable command){
+		Objects.requireNonNull(command);
+		if(shutdown){
+			throw new RejectedExecutionException("Executor of %s has been shut down".formatted(name));
+		}
+		queue.add(command);
+		drain();
+	}
+	
+	private void drain(){
+		while(!queue.isEmpty()){
+			var current = running.get();
+			if(current >= maxConcurrentTasks){
+				return;
+			}
+			if(!running.compareAndSet(current, current + 1)){
+				continue;
+			}
+			
+			var task = queue.poll();
+			if(Objects.isNull(task)){
+				running.decrementAndGet();
+				continue;
+			}
+			
+			try{
+				delegate.execute(() -> runTask(task));
+			}
+			catch(RejectedExecutionException e){
+				running.decrementAndGet();
+				log.error("Shared executor rejected a task of {}", name, e);
+				signalIfTerminated();
+				return;
+			}
+		}
+	}
+	
+	private void runTask(@NotNull Runnable task){
+		try{
+			task.run();
+		}
+		finally{
+			running.decrementAndGet();
+			drain();
+			signalIfTerminated();
+		}
+	}
+	
+	private void signalIfTerminated(){
+		if(isTerminated()){
+			synchronized(terminationLock){
+				terminationLock.notifyAll();
+			}
+		}
+	}
+	
+	@Override
+	public void shutdown(){
+		shutdown = true;
+		signalIfTerminated();
+	}
+	
+	@NotNull
+	@Override
+	public List<Runnable> shutdownNow(){
+		shutdown = true;
+		var pending = new ArrayList<Runnable>();
+		Runnable task;
+		while(Objects.nonNull(task = queue.poll())){
+			pending.add(task);
+		}
+		signalIfTerminated();
+		return pending;
+	}
+	
+	@Override
+	public boolean isShutdown(){
+		return shutdown;
+	}
+	
+	@Override
+	public boolean isTerminated(){
+		return shutdown && queue.isEmpty() && running.get() == 0;
+	}
+	
+	@Override
+	public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException{
+		var deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized(terminationLock){
+			while(!isTerminated()){
+				var remaining = deadline - System.nanoTime();
+				if(remaining <= 0){
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+			}
+			return true;
+		}
+	}
+	
+	public int getQueueSize(){
+		return queue.size();
+	}
+	
+	public int getRunningCount(){
+		return running.get();
+	}
+}
@@ -0,0 +1,335 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Scheduled executor of a tenant (account) built on top of a shared timer.
+ * <p>
+ * The shared timer is only used to know when a task has to run, the task itself is executed on the tenant's worker executor.
+ * This way long-running periodic tasks of one account never hold the timer threads and delay the tasks of other accounts.
+ * <p>
+ * Periodic tasks never overlap: a fixed-rate tick happening while the previous execution is still running is skipped, and a fixed-delay task is re-armed only once its execution ended.
+ * <p>
+ * Shutting down cancels the scheduled tasks, the executor is terminated once the ones already handed to the worker have ended.
+ */
+@Log4j2
+public class TenantScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService{
+	private final ScheduledExecutorService timer;
+	private final ExecutorService worker;
+	private final Set<Future<?>> futures;
+	private final AtomicInteger activeTasks;
+	private final Object terminationLock;
+	
+	private volatile boolean shutdown;
+	
+	public TenantScheduledExecutorService(@NotNull ScheduledExecutorService timer, @NotNull ExecutorService worker){
+		this.timer = timer;
+		this.worker = worker;
+		
+		futures = ConcurrentHashMap.newKeySet();
+		activeTasks = new AtomicInteger(0);
+		terminationLock = new Object();
+	}
+	
+	@NotNull
+	@Override
+	public ScheduledFuture<?> schedule(@NotNull Runnable command, long delay, @NotNull TimeUnit unit){
+		return schedule(Executors.callable(command), delay, unit);
+	}
+	
+	@NotNull
+	@Override
+	public <V> ScheduledFuture<V> schedule(@NotNull Callable<V> callable, long delay, @NotNull TimeUnit unit){
+		checkNotShutdown();
+		var task = new FutureTask<>(callable);
+		var timerFuture = timer.schedule(() -> offload(task), delay, unit);
+		return track(new OneShotFuture<>(timerFuture, task));
+	}
+	
+	@NotNull
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable command, long initialDelay, long period, @NotNull TimeUnit unit){
+		checkNotShutdown();
+		var task = new PeriodicTask(command, false, 0);
+		task.setTimerFuture(timer.scheduleAtFixedRate(task::fire, initialDelay, period, unit));
+		return track(task);
+	}
+	
+	@NotNull
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(@NotNull Runnable command, long initialDelay, long delay, @NotNull TimeUnit unit){
+		checkNotShutdown();
+		var task = new PeriodicTask(command, true, unit.toNanos(delay));
+		task.setTimerFuture(timer.schedule(task::fire, initialDelay, unit));
+		return track(task);
+	}
+	
+	@Override
+	public void execute(@NotNull Runnable command){
+		checkNotShutdown();
+		executeOnWorker(command);
+	}
+	
+	private void offload(@NotNull Runnable runnable){
+		try{
+			executeOnWorker(runnable);
+		}
+		catch(RejectedExecutionException e){
+			log.debug("Scheduled task rejected as the worker is shut down");
+		}
+	}
+	
+	/**
+	 * Hand a task to the worker, keeping track of it until it ended so that termination can be awaited.
+	 *
+	 * @param runnable The task to run.
+	 */
+	private void executeOnWorker(@NotNull Runnable runnable){
+		activeTasks.incrementAndGet();
+		try{
+			worker.execute(() -> {
+				try{
+					runnable.run();
+				}
+				finally{
+					taskEnded();
+				}
+			});
+		}
+		catch(RejectedExecutionException e){
+			taskEnded();
+			throw e;
+		}
+	}
+	
+	private void taskEnded(){
+		activeTasks.decrementAndGet();
+		signalIfTerminated();
+	}
+	
+	private void signalIfTerminated(){
+		if(isTerminated()){
+			synchronized(terminationLock){
+				terminationLock.notifyAll();
+			}
+		}
+	}
+	
+	private void checkNotShutdown(){
+		if(shutdown){
+			throw new RejectedExecutionException("Scheduled executor has been shut down");
+		}
+	}
+	
+	@NotNull
+	private <T extends Future<?>> T track(@NotNull T future){
+		futures.removeIf(Future::isDone);
+		futures.add(future);
+		return future;
+	}
+	
+	@Override
+	public void shutdown(){
+		shutdown = true;
+		futures.forEach(future -> future.cancel(false));
+		futures.clear();
+		signalIfTerminated();
+	}
+	
+	@NotNull
+	@Override
+	public List<Runnable> shutdownNow(){
+		shutdown();
+		return List.of();
+	}
+	
+	@Override
+	public boolean isShutdown(){
+		return shutdown;
+	}
+	
+	@Override
+	public boolean isTerminated(){
+		return shutdown && activeTasks.get() == 0;
+	}
+	
+	@Override
+	public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException{
+		var deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized(terminationLock){
+			while(!isTerminated()){
+				var remaining = deadline - System.nanoTime();
+				if(remaining <= 0){
+					return false;
+				}
+				NANOSECONDS.timedWait(terminationLock, remaining);
+			}
+			return true;
+		}
+	}
+	
+	private static int compareDelays(@NotNull Delayed first, @NotNull Delayed second){
+		return Long.compare(first.getDelay(NANOSECONDS), second.getDelay(NANOSECONDS));
+	}
+	
+	private record OneShotFuture<V>(@NotNull ScheduledFuture<?> timerFuture, @NotNull FutureTask<V> task) implements ScheduledFuture<V>{
+		@Override
+		public long getDelay(@NotNull TimeUnit unit){
+			return timerFuture.getDelay(unit);
+		}
+		
+		@Override
+		public int compareTo(@NotNull Delayed other){
+			return compareDelays(this, other);
+		}
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning){
+			timerFuture.cancel(false);
+			return task.cancel(mayInterruptIfRunning);
+		}
+		
+		@Override
+		public boolean isCancelled(){
+			return task.isCancelled();
+		}
+		
+		@Override
+		public boolean isDone(){
+			return task.isDone();
+		}
+		
+		@Override
+		public V get() throws InterruptedException, ExecutionException{
+			return task.get();
+		}
+		
+		@Override
+		public V get(long timeout, @NotNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException{
+			return task.get(timeout, unit);
+		}
+	}
+	
+	private class PeriodicTask implements ScheduledFuture<Void>{
+		private final Runnable command;
+		private final boolean fixedDelay;
+		private final long delayNanos;
+		private final AtomicBoolean running;
+		private final CountDownLatch cancelLatch;
+		
+		private volatile ScheduledFuture<?> timerFuture;
+		private volatile boolean cancelled;
+		
+		private PeriodicTask(@NotNull Runnable command, boolean fixedDelay, long delayNanos){
+			this.command = command;
+			this.fixedDelay = fixedDelay;
+			this.delayNanos = delayNanos;
+			
+			running = new AtomicBoolean(false);
+			cancelLatch = new CountDownLatch(1);
+		}
+		
+		private void setTimerFuture(@NotNull ScheduledFuture<?> timerFuture){
+			this.timerFuture = timerFuture;
+			if(cancelled){
+				timerFuture.cancel(false);
+			}
+		}
+		
+		private void fire(){
+			if(cancelled || !running.compareAndSet(false, true)){
+				return;
+			}
+			try{
+				executeOnWorker(this::runCommand);
+			}
+			catch(RejectedExecutionException e){
+				running.set(false);
+				log.debug("Periodic task rejected as the worker is shut down");
+			}
+		}
+		
+		private void runCommand(){
+			try{
+				command.run();
+			}
+			catch(RuntimeException e){
+				log.error("Periodic task failed", e);
+			}
+			finally{
+				running.set(false);
+				if(fixedDelay && !cancelled && !shutdown){
+					setTimerFuture(timer.schedule(this::fire, delayNanos, NANOSECONDS));
+				}
+			}
+		}
+		
+		@Override
+		public long getDelay(@NotNull TimeUnit unit){
+			return timerFuture.getDelay(unit);
+		}
+		
+		@Override
+		public int compareTo(@NotNull Delayed other){
+			return compareDelays(this, other);
+		}
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning){
+			if(cancelled){
+				return false;
+			}
+			cancelled = true;
+			Objects.requireNonNull(timerFuture).cancel(false);
+			cancelLatch.countDown();
+			return true;
+		}
+		
+		@Override
+		public boolean isCancelled(){
+			return cancelled;
+		}
+		
+		@Override
+		public boolean isDone(){
+			return cancelled;
+		}
+		
+		@Override
+		public Void get() throws InterruptedException{
+			cancelLatch.await();
+			throw new CancellationException();
+		}
+		
+		@Override
+		public Void get(long timeout, @NotNull TimeUnit unit) throws InterruptedException, TimeoutException{
+			if(cancelLatch.await(timeout, unit)){
+				throw new CancellationException();
+			}
+			throw new TimeoutException();
+		}
+	}
+}
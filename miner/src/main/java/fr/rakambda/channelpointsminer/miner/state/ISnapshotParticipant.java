@@ -0,0 +1,23 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Component keeping some state that should survive a restart of the miner.
+ */
+public interface ISnapshotParticipant{
+	/**
+	 * Add the state of this component to the snapshot being saved.
+	 *
+	 * @param snapshot The snapshot being built.
+	 */
+	void writeSnapshot(@NotNull MinerSnapshot snapshot);
+	
+	/**
+	 * Restore the state of this component from a previously saved snapshot.
+	 * Streamers of the snapshot are already restored when this is called.
+	 *
+	 * @param snapshot The snapshot loaded.
+	 */
+	void restoreSnapshot(@NotNull MinerSnapshot snapshot);
+}
@@ -0,0 +1,45 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of a miner saved to be able to resume quickly after a restart.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class MinerSnapshot{
+	public static final int CURRENT_VERSION = 1;
+	
+	@JsonProperty("version")
+	@Builder.Default
+	private int version = CURRENT_VERSION;
+	@JsonProperty("savedAt")
+	@NotNull
+	private Instant savedAt;
+	@JsonProperty("streamers")
+	@NotNull
+	@Builder.Default
+	private List<StreamerSnapshot> streamers = new ArrayList<>();
+	@JsonProperty("predictions")
+	@NotNull
+	@Builder.Default
+	private List<PredictionSnapshot> predictions = new ArrayList<>();
+	@JsonProperty("placedPredictions")
+	@NotNull
+	@Builder.Default
+	private List<PlacedPredictionSnapshot> placedPredictions = new ArrayList<>();
+}
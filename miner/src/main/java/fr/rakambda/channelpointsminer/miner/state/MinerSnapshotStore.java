@@ -0,0 +1,113 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import fr.rakambda.channelpointsminer.miner.util.json.ColorSerializer;
+import fr.rakambda.channelpointsminer.miner.util.json.ISO8601ZonedDateTimeDeserializer;
+import fr.rakambda.channelpointsminer.miner.util.json.ISO8601ZonedDateTimeSerializer;
+import fr.rakambda.channelpointsminer.miner.util.json.InstantDeserializer;
+import fr.rakambda.channelpointsminer.miner.util.json.InstantSerializer;
+import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Reads and writes {@link MinerSnapshot} as gzipped JSON.
+ * <p>
+ * The file is first written to a unique temporary file next to its final location and then moved, so a crash while saving never leaves a truncated snapshot behind.
+ */
+@Log4j2
+public class MinerSnapshotStore{
+	private static JsonMapper mapper;
+	
+	@Getter
+	private final Path file;
+	
+	public MinerSnapshotStore(@NotNull Path file){
+		this.file = file;
+	}
+	
+	/**
+	 * Load the snapshot from the file.
+	 *
+	 * @return The snapshot, empty if there is none or if it couldn't be read.
+	 */
+	@NotNull
+	public Optional<MinerSnapshot> load(){
+		if(!Files.exists(file)){
+			return Optional.empty();
+		}
+		
+		try(var is = new GZIPInputStream(Files.newInputStream(file))){
+			var snapshot = getMapper().readValue(is, MinerSnapshot.class);
+			if(snapshot.getVersion() != MinerSnapshot.CURRENT_VERSION){
+				log.warn("Ignoring miner state {} saved with version {}", file, snapshot.getVersion());
+				return Optional.empty();
+			}
+			return Optional.of(snapshot);
+		}
+		catch(IOException e){
+			log.warn("Failed to read miner state {}, starting from scratch", file, e);
+			return Optional.empty();
+		}
+	}
+	
+	/**
+	 * Save a snapshot to the file, replacing the previous one.
+	 *
+	 * @param snapshot The snapshot to save.
+	 *
+	 * @throws IOException File failed to write.
+	 */
+	public synchronized void save(@NotNull MinerSnapshot snapshot) throws IOException{
+		var parent = file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		
+		var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try{
+			try(var os = new GZIPOutputStream(Files.newOutputStream(temp))){
+				getMapper().writeValue(os, snapshot);
+			}
+			
+			try{
+				Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+			}
+			catch(AtomicMoveNotSupportedException e){
+				Files.move(temp, file, REPLACE_EXISTING);
+			}
+		}
+		finally{
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	@NotNull
+	private static JsonMapper getMapper(){
+		if(Objects.isNull(mapper)){
+			var module = new SimpleModule()
+					.addSerializer(Instant.class, new InstantSerializer())
+					.addDeserializer(Instant.class, new InstantDeserializer())
+					.addSerializer(ZonedDateTime.class, new ISO8601ZonedDateTimeSerializer())
+					.addDeserializer(ZonedDateTime.class, new ISO8601ZonedDateTimeDeserializer())
+					.addSerializer(Color.class, new ColorSerializer());
+			mapper = JacksonUtils.getMapper().rebuild()
+					.addModule(module)
+					.build();
+		}
+		return mapper;
+	}
+}
@@ -0,0 +1,31 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import java.time.Instant;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PlacedPredictionSnapshot{
+	@JsonProperty("eventId")
+	@NotNull
+	private String eventId;
+	@JsonProperty("amount")
+	private int amount;
+	@JsonProperty("outcomeId")
+	@NotNull
+	private String outcomeId;
+	@JsonProperty("predictedAt")
+	@NotNull
+	private Instant predictedAt;
+}
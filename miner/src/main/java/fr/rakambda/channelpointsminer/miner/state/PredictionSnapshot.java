@@ -0,0 +1,34 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Event;
+import fr.rakambda.channelpointsminer.miner.handler.data.PredictionState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import java.time.ZonedDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PredictionSnapshot{
+	@JsonProperty("streamerId")
+	@NotNull
+	private String streamerId;
+	@JsonProperty("event")
+	@NotNull
+	private Event event;
+	@JsonProperty("lastUpdate")
+	@NotNull
+	private ZonedDateTime lastUpdate;
+	@JsonProperty("state")
+	@NotNull
+	private PredictionState state;
+}
@@ -0,0 +1,47 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.channelpointscontext.ChannelPointsContextData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.videoplayerstreaminfooverlaychannel.VideoPlayerStreamInfoOverlayChannelData;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.net.URL;
+import java.time.Instant;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class StreamerSnapshot{
+	@JsonProperty("id")
+	@NotNull
+	private String id;
+	@JsonProperty("username")
+	@NotNull
+	private String username;
+	@JsonProperty("lastUpdated")
+	@NotNull
+	private Instant lastUpdated;
+	@JsonProperty("lastOffline")
+	@NotNull
+	private Instant lastOffline;
+	@JsonProperty("watchedMillis")
+	private long watchedMillis;
+	@JsonProperty("spadeUrl")
+	@Nullable
+	private URL spadeUrl;
+	@JsonProperty("channelPointsContext")
+	@Nullable
+	private ChannelPointsContextData channelPointsContext;
+	@JsonProperty("videoPlayerStreamInfoOverlayChannel")
+	@Nullable
+	private VideoPlayerStreamInfoOverlayChannelData videoPlayerStreamInfoOverlayChannel;
+}
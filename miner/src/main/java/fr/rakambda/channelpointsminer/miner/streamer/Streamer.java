@@ -16,6 +16,7 @@ import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.videoplayerstreamin
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.log.LogContext;
 import fr.rakambda.channelpointsminer.miner.miner.IMiner;
+import fr.rakambda.channelpointsminer.miner.state.StreamerSnapshot;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -94,6 +95,39 @@ public class Streamer{
 				&& getWatchedDuration().compareTo(SEVEN_MINUTES) < 0;
 	}
 	
+	/**
+	 * Capture the state of this streamer to be able to restore it after a restart.
+	 *
+	 * @return The snapshot.
+	 */
+	@NotNull
+	public StreamerSnapshot createSnapshot(){
+		return StreamerSnapshot.builder()
+				.id(id)
+				.username(username)
+				.lastUpdated(lastUpdated)
+				.lastOffline(lastOffline)
+				.watchedMillis(watchedDuration.toMillis())
+				.spadeUrl(spadeUrl)
+				.channelPointsContext(channelPointsContext)
+				.videoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannel)
+				.build();
+	}
+	
+	/**
+	 * Restore the state of this streamer from a previous snapshot.
+	 *
+	 * @param snapshot The snapshot to restore.
+	 */
+	public void restoreSnapshot(@NotNull StreamerSnapshot snapshot){
+		lastUpdated = snapshot.getLastUpdated();
+		lastOffline = snapshot.getLastOffline();
+		watchedDuration = Duration.ofMillis(snapshot.getWatchedMillis());
+		spadeUrl = snapshot.getSpadeUrl();
+		channelPointsContext = snapshot.getChannelPointsContext();
+		videoPlayerStreamInfoOverlayChannel = snapshot.getVideoPlayerStreamInfoOverlayChannel();
+	}
+	
 	public boolean followRaids(){
 		return settings.isFollowRaid();
 	}
@@ -0,0 +1,56 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import org.jetbrains.annotations.NotNull;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Assigns keys to a fixed list of nodes with consistent hashing.
+ * <p>
+ * Each node is placed several times on a ring of 64-bit hashes, and a key belongs to the first node found after its own hash. Adding or removing a node only moves the keys of the ring parts it owns, about 1/n of them.
+ * The hash doesn't depend on the JVM, so the same keys go to the same nodes across restarts.
+ *
+ * @param <T> Type of the nodes.
+ */
+public class ConsistentHashRing<T>{
+	private final TreeMap<Long, T> ring;
+	
+	/**
+	 * @param nodes        The nodes, identified by their position in the list.
+	 * @param virtualNodes The number of places of each node on the ring. The more, the more even the spread of keys.
+	 */
+	public ConsistentHashRing(@NotNull List<T> nodes, int virtualNodes){
+		if(nodes.isEmpty() || virtualNodes <= 0){
+			throw new IllegalArgumentException("At least one node and one virtual node are required");
+		}
+		
+		ring = new TreeMap<>();
+		for(var i = 0; i < nodes.size(); i++){
+			for(var v = 0; v < virtualNodes; v++){
+				ring.putIfAbsent(hash("node-%d-%d".formatted(i, v)), nodes.get(i));
+			}
+		}
+	}
+	
+	/**
+	 * @param key The key to look for.
+	 *
+	 * @return The node owning the key.
+	 */
+	@NotNull
+	public T get(@NotNull String key){
+		var entry = ring.ceilingEntry(hash(key));
+		return (Objects.isNull(entry) ? ring.firstEntry() : entry).getValue();
+	}
+	
+	/**
+	 * 64-bit FNV-1a followed by the SplitMix64 finalizer, as FNV alone spreads short and similar strings poorly.
+	 */
+	static long hash(@NotNull String value){
+		var hash = HashUtils.fnv1a64(value);
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+}
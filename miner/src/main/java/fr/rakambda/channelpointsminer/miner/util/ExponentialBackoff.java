@@ -0,0 +1,36 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delays growing exponentially with the number of attempts, up to a maximum.
+ * <p>
+ * Each delay is picked randomly between half and the whole of the exponential value, so that connections lost at the same time don't all retry at the same time.
+ */
+@Getter
+public class ExponentialBackoff{
+	private final long initialMillis;
+	private final long maxMillis;
+	
+	public ExponentialBackoff(@NotNull Duration initial, @NotNull Duration max){
+		initialMillis = Math.max(1, initial.toMillis());
+		maxMillis = Math.max(initialMillis, max.toMillis());
+	}
+	
+	/**
+	 * Get the delay to wait before an attempt.
+	 *
+	 * @param attempt The number of attempts that failed before this one.
+	 *
+	 * @return The delay in milliseconds.
+	 */
+	public long getDelay(int attempt){
+		var shift = Math.min(Math.max(0, attempt), Long.numberOfLeadingZeros(initialMillis) - 1);
+		var delay = Math.min(maxMillis, initialMillis << shift);
+		var half = delay / 2;
+		return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+	}
+}
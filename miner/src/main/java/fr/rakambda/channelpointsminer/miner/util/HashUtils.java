@@ -0,0 +1,27 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+public class HashUtils{
+	private static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_64_PRIME = 0x100000001b3L;
+	
+	/**
+	 * 64-bit FNV-1a hash of the chars of a value.
+	 *
+	 * @param value The value to hash.
+	 *
+	 * @return The hash.
+	 */
+	public static long fnv1a64(@NotNull CharSequence value){
+		var hash = FNV_64_OFFSET_BASIS;
+		for(var i = 0; i < value.length(); i++){
+			hash ^= value.charAt(i);
+			hash *= FNV_64_PRIME;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,155 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import lombok.Getter;
+
+/**
+ * Set of long values keeping only the most recently used ones.
+ * <p>
+ * Everything is allocated up front: values are stored in slots linked from the most to the least recently used, and found back with an open addressing table of slot indexes.
+ * Not thread safe.
+ */
+public class LongLruSet{
+	private static final int NONE = -1;
+	
+	@Getter
+	private final int capacity;
+	private final long[] values;
+	private final int[] previous;
+	private final int[] next;
+	/**
+	 * Slot index + 1 for each position, 0 when the position is free.
+	 */
+	private final int[] table;
+	private final int mask;
+	
+	@Getter
+	private int size;
+	private int head;
+	private int tail;
+	
+	public LongLruSet(int capacity){
+		if(capacity <= 0){
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+		values = new long[capacity];
+		previous = new int[capacity];
+		next = new int[capacity];
+		table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+		mask = table.length - 1;
+		
+		head = NONE;
+		tail = NONE;
+	}
+	
+	/**
+	 * Add a value, evicting the least recently used one if the set is full.
+	 *
+	 * @param value The value to add.
+	 *
+	 * @return True if the value wasn't in the set, false if it was (it is then marked as the most recently used).
+	 */
+	public boolean add(long value){
+		var position = find(value);
+		if(table[position] != 0){
+			moveToHead(table[position] - 1);
+			return false;
+		}
+		
+		int slot;
+		if(size == capacity){
+			slot = tail;
+			removeFromTable(find(values[slot]));
+			unlink(slot);
+			position = find(value);
+		}
+		else{
+			slot = size++;
+		}
+		
+		values[slot] = value;
+		table[position] = slot + 1;
+		linkHead(slot);
+		return true;
+	}
+	
+	public boolean contains(long value){
+		return table[find(value)] != 0;
+	}
+	
+	/**
+	 * @param value The value to look for.
+	 *
+	 * @return The position of the value in the table, or the free position where it would be inserted.
+	 */
+	private int find(long value){
+		var position = home(value);
+		while(table[position] != 0 && values[table[position] - 1] != value){
+			position = (position + 1) & mask;
+		}
+		return position;
+	}
+	
+	private int home(long value){
+		var hash = value * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+	
+	/**
+	 * Free a position, moving back the following values of the same cluster so that they can still be found.
+	 *
+	 * @param position The position to free.
+	 */
+	private void removeFromTable(int position){
+		table[position] = 0;
+		var current = position;
+		while(true){
+			current = (current + 1) & mask;
+			if(table[current] == 0){
+				return;
+			}
+			var home = home(values[table[current] - 1]);
+			if(((current - home) & mask) >= ((current - position) & mask)){
+				table[position] = table[current];
+				table[current] = 0;
+				position = current;
+			}
+		}
+	}
+	
+	private void moveToHead(int slot){
+		if(slot != head){
+			unlink(slot);
+			linkHead(slot);
+		}
+	}
+	
+	private void linkHead(int slot){
+		previous[slot] = NONE;
+		next[slot] = head;
+		if(head != NONE){
+			previous[head] = slot;
+		}
+		head = slot;
+		if(tail == NONE){
+			tail = slot;
+		}
+	}
+	
+	private void unlink(int slot){
+		var before = previous[slot];
+		var after = next[slot];
+		if(before == NONE){
+			head = after;
+		}
+		else{
+			next[before] = after;
+		}
+		if(after == NONE){
+			tail = before;
+		}
+		else{
+			previous[after] = before;
+		}
+	}
+}
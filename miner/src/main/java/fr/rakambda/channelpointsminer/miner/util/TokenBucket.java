@@ -0,0 +1,90 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.TestOnly;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter allowing bursts of up to {@code capacity} permits, refilled continuously so that at most {@code capacity} permits are handed out per period.
+ */
+public class TokenBucket{
+	@Getter
+	private final int capacity;
+	private final long nanosPerPermit;
+	private final LongSupplier nanoClock;
+	
+	private long available;
+	private long lastRefill;
+	
+	public TokenBucket(int capacity, @NotNull Duration period){
+		this(capacity, period, System::nanoTime);
+	}
+	
+	@TestOnly
+	TokenBucket(int capacity, @NotNull Duration period, @NotNull LongSupplier nanoClock){
+		if(capacity <= 0){
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.nanoClock = nanoClock;
+		nanosPerPermit = Math.max(1, period.toNanos() / capacity);
+		available = capacity;
+		lastRefill = nanoClock.getAsLong();
+	}
+	
+	/**
+	 * Take as many permits as possible, up to a maximum.
+	 *
+	 * @param max The maximum number of permits wanted.
+	 *
+	 * @return The number of permits granted, between 0 and {@code max}.
+	 */
+	public synchronized int tryAcquire(int max){
+		refill();
+		var granted = (int) Math.min(available, Math.max(0, max));
+		available -= granted;
+		return granted;
+	}
+	
+	/**
+	 * @return The number of permits that can be taken right now.
+	 */
+	public synchronized int getAvailable(){
+		refill();
+		return (int) available;
+	}
+	
+	/**
+	 * @return The time to wait before at least one permit is available, zero if one already is.
+	 */
+	@NotNull
+	public synchronized Duration getDelayUntilAvailable(){
+		refill();
+		if(available > 0){
+			return Duration.ZERO;
+		}
+		return Duration.ofNanos(nanosPerPermit - (nanoClock.getAsLong() - lastRefill));
+	}
+	
+	/**
+	 * Credit the permits earned since the last refill. Only whole permits are credited, the remainder is kept by moving the refill time by the credited amount only.
+	 */
+	private void refill(){
+		var now = nanoClock.getAsLong();
+		var earned = (now - lastRefill) / nanosPerPermit;
+		if(earned <= 0){
+			return;
+		}
+		
+		if(available + earned >= capacity){
+			available = capacity;
+			lastRefill = now;
+		}
+		else{
+			available += earned;
+			lastRefill += earned * nanosPerPermit;
+		}
+	}
+}
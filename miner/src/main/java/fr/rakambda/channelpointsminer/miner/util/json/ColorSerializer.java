@@ -0,0 +1,23 @@
+package fr.rakambda.channelpointsminer.miner.util.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.jetbrains.annotations.NotNull;
+import java.awt.Color;
+import java.io.IOException;
+
+public class ColorSerializer extends StdSerializer<Color>{
+	public ColorSerializer(){
+		this(null);
+	}
+	
+	protected ColorSerializer(Class<Color> t){
+		super(t);
+	}
+	
+	@Override
+	public void serialize(@NotNull Color value, @NotNull JsonGenerator jsonGenerator, @NotNull SerializerProvider serializerProvider) throws IOException{
+		jsonGenerator.writeString("#%06X".formatted(value.getRGB() & 0xFFFFFF));
+	}
+}
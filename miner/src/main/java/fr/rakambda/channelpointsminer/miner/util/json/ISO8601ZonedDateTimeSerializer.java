@@ -0,0 +1,24 @@
+package fr.rakambda.channelpointsminer.miner.util.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+public class ISO8601ZonedDateTimeSerializer extends StdSerializer<ZonedDateTime>{
+	public ISO8601ZonedDateTimeSerializer(){
+		this(null);
+	}
+	
+	protected ISO8601ZonedDateTimeSerializer(Class<ZonedDateTime> t){
+		super(t);
+	}
+	
+	@Override
+	public void serialize(@NotNull ZonedDateTime value, @NotNull JsonGenerator jsonGenerator, @NotNull SerializerProvider serializerProvider) throws IOException{
+		jsonGenerator.writeString(ISO_OFFSET_DATE_TIME.format(value));
+	}
+}
@@ -0,0 +1,29 @@
+package fr.rakambda.channelpointsminer.miner.util.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.IOException;
+import java.time.Instant;
+
+public class InstantDeserializer extends StdDeserializer<Instant>{
+	public InstantDeserializer(){
+		this(null);
+	}
+	
+	protected InstantDeserializer(Class<?> vc){
+		super(vc);
+	}
+	
+	@Override
+	@Nullable
+	public Instant deserialize(@NotNull JsonParser jsonParser, @NotNull DeserializationContext context) throws IOException{
+		var value = jsonParser.getValueAsString();
+		if(value.isBlank()){
+			return null;
+		}
+		return Instant.parse(value);
+	}
+}
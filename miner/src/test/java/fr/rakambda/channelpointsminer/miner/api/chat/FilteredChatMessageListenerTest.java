@@ -0,0 +1,47 @@
+package fr.rakambda.channelpointsminer.miner.api.chat;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ParallelizableTest
+@ExtendWith(MockitoExtension.class)
+class FilteredChatMessageListenerTest{
+	private static final String STREAMER = "streamer";
+	private static final String ACTOR = "actor";
+	private static final String MESSAGE = "message";
+	private static final String BADGES = "predictions/blue-1,sub/1";
+	
+	@Mock
+	private ITwitchChatMessageListener delegate;
+	
+	@Test
+	void accepts(){
+		var tested = new FilteredChatMessageListener(delegate, badges -> badges.contains("predictions/"));
+		
+		assertThat(FilteredChatMessageListener.accepts(tested, BADGES)).isTrue();
+		assertThat(FilteredChatMessageListener.accepts(tested, "sub/1")).isFalse();
+		assertThat(FilteredChatMessageListener.accepts(tested, "")).isFalse();
+	}
+	
+	@Test
+	void unfilteredListenerAcceptsEverything(){
+		assertThat(FilteredChatMessageListener.accepts(delegate, BADGES)).isTrue();
+		assertThat(FilteredChatMessageListener.accepts(delegate, "")).isTrue();
+	}
+	
+	@Test
+	void delegates(){
+		var tested = new FilteredChatMessageListener(delegate, badges -> true);
+		
+		tested.onChatMessage(STREAMER, ACTOR, MESSAGE);
+		tested.onChatMessage(STREAMER, ACTOR, MESSAGE, BADGES);
+		
+		verify(delegate).onChatMessage(STREAMER, ACTOR, MESSAGE);
+		verify(delegate).onChatMessage(STREAMER, ACTOR, MESSAGE, BADGES);
+	}
+}
@@ -9,14 +9,20 @@ import org.kitteh.irc.client.library.defaults.element.messagetag.DefaultMessageT
 import org.kitteh.irc.client.library.element.Channel;
 import org.kitteh.irc.client.library.feature.EventManager;
 import org.kitteh.irc.client.library.feature.MessageTagManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -55,6 +61,10 @@ class TwitchIrcChatClientTest{
 	private CapabilityRequestCommand capabilityRequestCommand;
 	@Mock
 	private ITwitchChatMessageListener chatMessageListener;
+	@Mock
+	private Client client2;
+	@Captor
+	private ArgumentCaptor<Consumer<String>> inputListenerCaptor;
 	
 	@BeforeEach
 	void setUp(){
@@ -63,6 +73,7 @@ class TwitchIrcChatClientTest{
 		lenient().when(client.getEventManager()).thenReturn(eventManager);
 		lenient().when(client.commands()).thenReturn(commands);
 		lenient().when(client.getMessageTagManager()).thenReturn(tagManager);
+		lenient().when(client2.getEventManager()).thenReturn(eventManager);
 		lenient().when(commands.capabilityRequest()).thenReturn(capabilityRequestCommand);
 		
 		lenient().when(twitchLogin.getUsername()).thenReturn(USERNAME);
@@ -223,4 +234,77 @@ class TwitchIrcChatClientTest{
 	void closeNotOpened(){
 		assertDoesNotThrow(() -> tested.close());
 	}
+	
+	@Test
+	void shardsSpreadChannels(){
+		tested = new TwitchIrcChatClient(twitchLogin, false, 2);
+		
+		try(var factory = mockStatic(TwitchIrcFactory.class)){
+			factory.when(() -> TwitchIrcFactory.createIrcClient(twitchLogin)).thenReturn(client, client2);
+			factory.when(() -> TwitchIrcFactory.createIrcConnectionHandler(USERNAME)).thenReturn(twitchIrcConnectionHandler);
+			
+			IntStream.range(0, 20).forEach(i -> tested.join(STREAMER + i));
+			
+			factory.verify(() -> TwitchIrcFactory.createIrcClient(twitchLogin), times(2));
+			verify(client).connect();
+			verify(client2).connect();
+			verify(client, atLeastOnce()).addChannel(any());
+			verify(client2, atLeastOnce()).addChannel(any());
+			
+			var metrics = tested.getShardMetrics();
+			assertThat(metrics).hasSize(2)
+					.allSatisfy(m -> assertThat(m.getChannels()).isPositive());
+			assertThat(metrics.get(0).getChannels() + metrics.get(1).getChannels()).isEqualTo(20);
+		}
+	}
+	
+	@Test
+	void sameChannelGoesToSameShard(){
+		tested = new TwitchIrcChatClient(twitchLogin, false, 4);
+		
+		try(var factory = mockStatic(TwitchIrcFactory.class)){
+			factory.when(() -> TwitchIrcFactory.createIrcClient(twitchLogin)).thenReturn(client, client2);
+			factory.when(() -> TwitchIrcFactory.createIrcConnectionHandler(USERNAME)).thenReturn(twitchIrcConnectionHandler);
+			
+			var channel = mock(Channel.class);
+			when(client.getChannel(STREAMER_CHANNEL)).thenReturn(Optional.empty(), Optional.of(channel));
+			
+			assertDoesNotThrow(() -> tested.join(STREAMER));
+			assertDoesNotThrow(() -> tested.join("STREAMER"));
+			assertDoesNotThrow(() -> tested.leave(STREAMER));
+			
+			factory.verify(() -> TwitchIrcFactory.createIrcClient(twitchLogin));
+			verify(client).addChannel(STREAMER_CHANNEL);
+			verify(client).removeChannel(STREAMER_CHANNEL);
+		}
+	}
+	
+	@Test
+	void receivedLinesAreCounted(){
+		try(var factory = mockStatic(TwitchIrcFactory.class)){
+			factory.when(() -> TwitchIrcFactory.createIrcClient(twitchLogin)).thenReturn(client);
+			factory.when(() -> TwitchIrcFactory.createIrcConnectionHandler(USERNAME)).thenReturn(twitchIrcConnectionHandler);
+			
+			assertDoesNotThrow(() -> tested.join(STREAMER));
+			
+			verify(client).setInputListener(inputListenerCaptor.capture());
+			inputListenerCaptor.getValue().accept("PING :tmi.twitch.tv");
+			inputListenerCaptor.getValue().accept(":tmi.twitch.tv 001 username :Welcome");
+			
+			assertThat(tested.getShardMetrics()).singleElement().satisfies(metrics -> {
+				assertThat(metrics.getShard()).isEqualTo(0);
+				assertThat(metrics.getChannels()).isEqualTo(1);
+				assertThat(metrics.getReceivedLines()).isEqualTo(2);
+				assertThat(metrics.getReceivedLinesPerSecond()).isNotNegative();
+			});
+			assertDoesNotThrow(() -> tested.ping());
+		}
+	}
+	
+	@Test
+	void shardCountIsAtLeastOne(){
+		assertThat(new TwitchIrcChatClient(twitchLogin, false, 0).getShardCount()).isEqualTo(1);
+		assertThat(new TwitchIrcChatClient(twitchLogin, false, 3).getShardCount()).isEqualTo(3);
+		assertThat(tested.getShardCount()).isEqualTo(1);
+	}
 }
\ No newline at end of file
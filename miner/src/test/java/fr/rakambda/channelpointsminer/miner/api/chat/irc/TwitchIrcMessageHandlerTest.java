@@ -1,5 +1,6 @@
 package fr.rakambda.channelpointsminer.miner.api.chat.irc;
 
+import fr.rakambda.channelpointsminer.miner.api.chat.FilteredChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
 import org.kitteh.irc.client.library.element.Channel;
@@ -13,7 +14,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -69,4 +72,33 @@ class TwitchIrcMessageHandlerTest{
 		
 		verify(chatMessageListener).onChatMessage(STREAMER, USERNAME, MESSAGE);
 	}
-}
\ No newline at end of file
+	
+	@Test
+	void filteredListenerCalledWithMatchingBadge(){
+		var filteredListener = new FilteredChatMessageListener(chatMessageListener, badges -> badges.equals(BADGE_INFO));
+		tested = new TwitchIrcMessageHandler(USERNAME);
+		tested.addListener(filteredListener);
+		
+		when(channelMessageEvent.getTag("badges")).thenReturn(Optional.of(messageTag));
+		when(messageTag.getAsString()).thenReturn(BADGE_INFO);
+		
+		assertDoesNotThrow(() -> tested.onMessageEvent(channelMessageEvent));
+		
+		verify(chatMessageListener).onChatMessage(STREAMER, USERNAME, MESSAGE, BADGE_INFO);
+	}
+	
+	@Test
+	void filteredListenerNotCalledWithoutMatchingBadge(){
+		var filteredListener = new FilteredChatMessageListener(chatMessageListener, badges -> badges.equals(BADGE_INFO));
+		tested = new TwitchIrcMessageHandler(USERNAME);
+		tested.addListener(filteredListener);
+		
+		when(channelMessageEvent.getTag("badges")).thenReturn(Optional.empty());
+		
+		assertDoesNotThrow(() -> tested.onMessageEvent(channelMessageEvent));
+		
+		verify(chatMessageListener, never()).onChatMessage(any(), any(), any());
+		verify(chatMessageListener, never()).onChatMessage(any(), any(), any(), any());
+		verify(channelMessageEvent, never()).getMessage();
+	}
+}
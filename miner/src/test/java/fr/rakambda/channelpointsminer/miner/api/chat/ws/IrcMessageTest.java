@@ -0,0 +1,115 @@
+package fr.rakambda.channelpointsminer.miner.api.chat.ws;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class IrcMessageTest{
+	private static final String PRIVMSG = "@badge-info=subscriber/12;badges=subscriber/12,premium/1;color=#FF0000;display-name=Some\\sUser;emotes=;id=abc;mod=0;user-type= :someuser!someuser@someuser.tmi.twitch.tv PRIVMSG #streamer :hello : world";
+	
+	@Test
+	void privmsg(){
+		var tested = IrcMessage.parse(PRIVMSG);
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getCommand()).isEqualTo("PRIVMSG");
+		assertThat(tested.isCommand("PRIVMSG")).isTrue();
+		assertThat(tested.isCommand("PRIV")).isFalse();
+		assertThat(tested.getPrefix()).isEqualTo("someuser!someuser@someuser.tmi.twitch.tv");
+		assertThat(tested.getParameter(0)).isEqualTo("#streamer");
+		assertThat(tested.getParameter(1)).isEqualTo("hello : world");
+		assertThat(tested.getParameter(2)).isNull();
+		assertThat(tested.getTrailing()).isEqualTo("hello : world");
+	}
+	
+	@Test
+	void tags(){
+		var tested = IrcMessage.parse(PRIVMSG);
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getTag("badges")).isEqualTo("subscriber/12,premium/1");
+		assertThat(tested.getTag("badge-info")).isEqualTo("subscriber/12");
+		assertThat(tested.getTag("display-name")).isEqualTo("Some User");
+		assertThat(tested.getTag("emotes")).isEmpty();
+		assertThat(tested.getTag("user-type")).isEmpty();
+		assertThat(tested.getTag("badge")).isNull();
+		assertThat(tested.getTag("unknown")).isNull();
+	}
+	
+	@Test
+	void escapedTagValue(){
+		var tested = IrcMessage.parse("@key=a\\:b\\sc\\\\d\\ee\\ :prefix COMMAND");
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getTag("key")).isEqualTo("a;b c\\dee");
+	}
+	
+	@Test
+	void tagWithoutValue(){
+		var tested = IrcMessage.parse("@flag;key=value COMMAND");
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getTag("flag")).isEmpty();
+		assertThat(tested.getTag("key")).isEqualTo("value");
+		assertThat(tested.getPrefix()).isNull();
+	}
+	
+	@Test
+	void withoutTags(){
+		var tested = IrcMessage.parse(":tmi.twitch.tv CAP * ACK :twitch.tv/tags twitch.tv/commands");
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getTag("badges")).isNull();
+		assertThat(tested.getPrefix()).isEqualTo("tmi.twitch.tv");
+		assertThat(tested.getCommand()).isEqualTo("CAP");
+		assertThat(tested.getParameter(0)).isEqualTo("*");
+		assertThat(tested.getParameter(1)).isEqualTo("ACK");
+		assertThat(tested.getTrailing()).isEqualTo("twitch.tv/tags twitch.tv/commands");
+	}
+	
+	@Test
+	void withoutTrailing(){
+		var tested = IrcMessage.parse(":user!user@user.tmi.twitch.tv JOIN #streamer");
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getCommand()).isEqualTo("JOIN");
+		assertThat(tested.getParameter(0)).isEqualTo("#streamer");
+		assertThat(tested.getTrailing()).isEqualTo("#streamer");
+	}
+	
+	@Test
+	void withoutParameters(){
+		var tested = IrcMessage.parse("RECONNECT");
+		
+		assertThat(tested).isNotNull();
+		assertThat(tested.getCommand()).isEqualTo("RECONNECT");
+		assertThat(tested.getParameter(0)).isNull();
+		assertThat(tested.getTrailing()).isNull();
+	}
+	
+	@Test
+	void invalidLines(){
+		assertThat(IrcMessage.parse("")).isNull();
+		assertThat(IrcMessage.parse("   ")).isNull();
+		assertThat(IrcMessage.parse("@tags=only")).isNull();
+		assertThat(IrcMessage.parse("@tags=only :prefix")).isNull();
+	}
+	
+	@Test
+	void multipleLines(){
+		var messages = new ArrayList<IrcMessage>();
+		
+		IrcMessage.forEachLine("PING :tmi.twitch.tv\r\n\r\n" + PRIVMSG + "\r\n:tmi.twitch.tv 001 user :Welcome, GLHF!\r\n", messages::add);
+		
+		assertThat(messages).hasSize(3);
+		assertThat(messages.get(0).getCommand()).isEqualTo("PING");
+		assertThat(messages.get(0).getTrailing()).isEqualTo("tmi.twitch.tv");
+		assertThat(messages.get(1).getTrailing()).isEqualTo("hello : world");
+		assertThat(messages.get(1).getTag("display-name")).isEqualTo("Some User");
+		assertThat(messages.get(1)).hasToString(PRIVMSG);
+		assertThat(messages.get(2).getCommand()).isEqualTo("001");
+		assertThat(messages.get(2).getTrailing()).isEqualTo("Welcome, GLHF!");
+	}
+}
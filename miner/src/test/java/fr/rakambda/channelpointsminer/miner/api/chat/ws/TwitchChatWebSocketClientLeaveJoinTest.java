@@ -10,6 +10,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.net.URI;
+import java.util.List;
+import java.util.stream.IntStream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -71,6 +73,33 @@ class TwitchChatWebSocketClientLeaveJoinTest{
 		server.reset();
 	}
 	
+	@Test
+	void joinSeveralChannels(WebsocketMockServer server){
+		tested.join("streamer1");
+		server.awaitMessage();
+		server.reset();
+		
+		tested.joinAll(List.of("streamer1", "streamer2", "streamer3"));
+		server.awaitMessage();
+		assertThat(server.getReceivedMessages()).containsExactly("JOIN #streamer2,#streamer3");
+		assertThat(tested.getChannels()).containsExactlyInAnyOrder("streamer1", "streamer2", "streamer3");
+		server.reset();
+		
+		tested.joinAll(List.of("streamer1", "streamer3"));
+		server.awaitNothing();
+	}
+	
+	@Test
+	void joinManyChannelsIsSplit(WebsocketMockServer server){
+		var channels = IntStream.range(0, 60).mapToObj("streamer_with_name_%02d"::formatted).toList();
+		
+		tested.joinAll(channels);
+		server.awaitMessage(3);
+		assertThat(server.getReceivedMessages()).hasSize(3)
+				.allSatisfy(message -> assertThat(message).startsWith("JOIN #").hasSizeLessThanOrEqualTo(510));
+		assertThat(tested.getChannelCount()).isEqualTo(60L);
+	}
+	
 	@BeforeEach
 	void setUp(WebsocketMockServer server) throws InterruptedException{
 		when(twitchLogin.getUsername()).thenReturn(USERNAME);
@@ -1,5 +1,6 @@
 package fr.rakambda.channelpointsminer.miner.api.chat.ws;
 
+import fr.rakambda.channelpointsminer.miner.api.chat.FilteredChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServer;
@@ -156,6 +157,39 @@ class TwitchChatWebSocketClientTest{
 		verify(chatMessageListener).onChatMessage(STREAMER, USERNAME, MESSAGE, BADGE_INFO);
 	}
 	
+	@Test
+	void onMessageMultipleLinesCallsListenerForEach(){
+		tested.setListenMessages(true);
+		tested.addChatMessageListener(chatMessageListener);
+		
+		tested.onMessage(MESSAGE_PAYLOAD + "\r\n:tmi.twitch.tv 001 user :Welcome, GLHF!\r\n" + MESSAGE_PAYLOAD + "2\r\n");
+		
+		verify(chatMessageListener).onChatMessage(STREAMER, USERNAME, MESSAGE, BADGE_INFO);
+		verify(chatMessageListener).onChatMessage(STREAMER, USERNAME, MESSAGE + "2", BADGE_INFO);
+	}
+	
+	@Test
+	void onMessageWithoutTagsIgnored(){
+		tested.setListenMessages(true);
+		tested.addChatMessageListener(chatMessageListener);
+		
+		tested.onMessage(":user!user@user.tmi.twitch.tv PRIVMSG " + STREAMER_CHANNEL + " :" + MESSAGE);
+		
+		verify(chatMessageListener, never()).onChatMessage(any(), any(), any(), any());
+	}
+	
+	@Test
+	void onMessageFilteredListener(){
+		tested.setListenMessages(true);
+		tested.addChatMessageListener(new FilteredChatMessageListener(chatMessageListener, badges -> badges.startsWith("predictions/")));
+		
+		tested.onMessage(MESSAGE_PAYLOAD);
+		verify(chatMessageListener, never()).onChatMessage(any(), any(), any(), any());
+		
+		tested.onMessage(MESSAGE_PAYLOAD.replace(BADGE_INFO, "predictions/blue-1"));
+		verify(chatMessageListener).onChatMessage(STREAMER, USERNAME, MESSAGE, "predictions/blue-1");
+	}
+	
 	@Test
 	void onMessageException(){
 		assertDoesNotThrow(() -> tested.onMessage((String) null)); //This is theoretically impossible
@@ -4,6 +4,7 @@ import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatMessageListener;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TwitchWebSocketClientFactory;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -11,15 +12,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.time.Instant;
+import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.IntStream;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.java_websocket.framing.CloseFrame.ABNORMAL_CLOSE;
 import static org.java_websocket.framing.CloseFrame.NORMAL;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Answers.RETURNS_DEFAULTS;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -44,10 +51,12 @@ class TwitchChatWebSocketPoolTest{
     private ITwitchChatMessageListener chatMessageListener;
 	@Mock
 	private TwitchChatWebSocketClient client;
+	@Mock
+	private ScheduledExecutorService scheduler;
 	
 	@BeforeEach
 	void setUp(){
-		tested = new TwitchChatWebSocketPool(50, twitchLogin, false);
+		tested = new TwitchChatWebSocketPool(50, twitchLogin, false, scheduler);
 	}
 	
 	@Test
@@ -61,13 +70,13 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 		}
 	}
 	
 	@Test
 	void addChannelCreatesNewClientWithMessageListening() throws InterruptedException{
-		tested = new TwitchChatWebSocketPool(50, twitchLogin, true);
+		tested = new TwitchChatWebSocketPool(50, twitchLogin, true, scheduler);
 		
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, true)).thenReturn(client);
@@ -78,7 +87,7 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 		}
 	}
 	
@@ -87,16 +96,15 @@ class TwitchChatWebSocketPoolTest{
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
 			
-			when(client.isChannelJoined(STREAMER_LOWER)).thenReturn(false);
-			
-			assertDoesNotThrow(() -> tested.join(STREAMER));
 			assertDoesNotThrow(() -> tested.join(STREAMER));
+			assertDoesNotThrow(() -> tested.join("other"));
 			
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client, times(2)).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
+			verify(client).joinAll(List.of("other"));
 		}
 	}
 	
@@ -113,7 +121,7 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 			verify(client).addChatMessageListener(chatMessageListener);
 		}
 	}
@@ -131,7 +139,7 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 			verify(client).addChatMessageListener(chatMessageListener);
 		}
 	}
@@ -141,16 +149,14 @@ class TwitchChatWebSocketPoolTest{
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
 			
-			when(client.isChannelJoined(STREAMER_LOWER)).thenReturn(true);
-			
-			assertDoesNotThrow(() -> tested.join(STREAMER));
 			assertDoesNotThrow(() -> tested.join(STREAMER));
+			assertDoesNotThrow(() -> tested.join(STREAMER_LOWER));
 			
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 		}
 	}
 	
@@ -167,7 +173,7 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 			verify(client).addChatMessageListener(chatMessageListener);
 		}
 	}
@@ -183,7 +189,7 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client).addWebSocketClosedListener(tested);
 			verify(client).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 			verify(client, never()).addChatMessageListener(chatMessageListener);
 			
 			tested.addChatMessageListener(chatMessageListener);
@@ -222,7 +228,7 @@ class TwitchChatWebSocketPoolTest{
 			
 			verify(client, times(2)).addWebSocketClosedListener(tested);
 			verify(client, times(2)).connectBlocking();
-			verify(client).join(STREAMER_LOWER);
+			verify(client).joinAll(List.of(STREAMER_LOWER));
 		}
 	}
 	
@@ -236,6 +242,8 @@ class TwitchChatWebSocketPoolTest{
 			
 			assertDoesNotThrow(() -> tested.onWebSocketClosed(client, NORMAL, "test", false));
 			assertThat(tested.getClientCount()).isEqualTo(0);
+			assertThat(tested.getPendingJoinCount()).isEqualTo(0);
+			verify(scheduler, never()).execute(any());
 		}
 	}
 	
@@ -245,16 +253,62 @@ class TwitchChatWebSocketPoolTest{
 			var client2 = mock(TwitchChatWebSocketClient.class);
 			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client).thenReturn(client2);
 			
-			when(client.getChannels()).thenReturn(Set.of(STREAMER));
-			
 			assertDoesNotThrow(() -> tested.join(STREAMER));
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			assertDoesNotThrow(() -> tested.onWebSocketClosed(client, ABNORMAL_CLOSE, "test", true));
-			tested.joinPending();
+			assertThat(tested.getClientCount()).isEqualTo(0);
+			assertThat(tested.getPendingJoinCount()).isEqualTo(1);
+			
+			var rejoin = ArgumentCaptor.forClass(Runnable.class);
+			verify(scheduler).execute(rejoin.capture());
+			rejoin.getValue().run();
+			
 			assertThat(tested.getClientCount()).isEqualTo(1);
+			assertThat(tested.getPendingJoinCount()).isEqualTo(0);
+			verify(client2).joinAll(List.of(STREAMER_LOWER));
+		}
+	}
+	
+	@Test
+	void abnormalClientCloseAfterPoolCloseDoesNotRejoin(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
 			
-			verify(client2).join(STREAMER_LOWER);
+			assertDoesNotThrow(() -> tested.join(STREAMER));
+			tested.close();
+			
+			assertDoesNotThrow(() -> tested.onWebSocketClosed(client, ABNORMAL_CLOSE, "test", true));
+			verify(scheduler, never()).execute(any());
+		}
+	}
+	
+	@Test
+	void joinsAreRateLimited(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
+			
+			IntStream.range(0, 25).forEach(i -> tested.join("channel" + i));
+			
+			assertThat(tested.getClientCount()).isEqualTo(1);
+			assertThat(tested.getPendingJoinCount()).isEqualTo(5);
+			verify(client, times(20)).joinAll(anyList());
+			
+			var flush = ArgumentCaptor.forClass(Runnable.class);
+			verify(scheduler).schedule(flush.capture(), anyLong(), eq(MILLISECONDS));
+			
+			assertDoesNotThrow(flush.getValue()::run);
+			assertThat(tested.getPendingJoinCount()).isBetween(0, 5);
+		}
+	}
+	
+	@Test
+	void joinPendingWithoutPendingChannelsDoesNothing(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			assertDoesNotThrow(() -> tested.joinPending());
+			
+			assertThat(tested.getClientCount()).isEqualTo(0);
+			twitchClientFactory.verifyNoInteractions();
 		}
 	}
 	
@@ -319,11 +373,13 @@ class TwitchChatWebSocketPoolTest{
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
 			
-			when(client.isChannelJoined(STREAMER_LOWER)).thenReturn(true);
 			tested.join(STREAMER);
 			
 			tested.leave(STREAMER);
 			verify(client).leave(STREAMER_LOWER);
+			
+			tested.join(STREAMER);
+			verify(client, times(2)).joinAll(List.of(STREAMER_LOWER));
 		}
 	}
 	
@@ -332,11 +388,25 @@ class TwitchChatWebSocketPoolTest{
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
 			
-			when(client.isChannelJoined(STREAMER_LOWER)).thenReturn(false);
 			tested.join(STREAMER);
 			
+			tested.leave("other");
+			verify(client, never()).leave(anyString());
+		}
+	}
+	
+	@Test
+	void removePendingChannel(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(() -> TwitchWebSocketClientFactory.createChatClient(twitchLogin, false)).thenReturn(client);
+			
+			IntStream.range(0, 20).forEach(i -> tested.join("channel" + i));
+			tested.join(STREAMER);
+			assertThat(tested.getPendingJoinCount()).isEqualTo(1);
+			
 			tested.leave(STREAMER);
-			verify(client, never()).leave(STREAMER_LOWER);
+			assertThat(tested.getPendingJoinCount()).isEqualTo(0);
+			verify(client, never()).leave(anyString());
 		}
 	}
 	
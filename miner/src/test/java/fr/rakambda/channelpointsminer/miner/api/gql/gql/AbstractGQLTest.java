@@ -5,6 +5,7 @@ import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IntegrityData;
 import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IntegrityException;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchClient;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
+import fr.rakambda.channelpointsminer.miner.runtime.AsyncLimiter;
 import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
 import fr.rakambda.channelpointsminer.miner.tests.TestUtils;
 import fr.rakambda.channelpointsminer.miner.tests.UnirestMock;
@@ -14,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import static kong.unirest.core.HttpMethod.POST;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
@@ -40,6 +42,7 @@ public abstract class AbstractGQLTest{
 	private UnirestMock unirest;
 	private String currentIntegrityToken;
 	private String currentClientVersion;
+	protected Executor requestExecutor;
 	
 	protected void setupIntegrityOk(){
 		currentIntegrityToken = "integrity-token";
@@ -69,6 +72,11 @@ public abstract class AbstractGQLTest{
 		expectGqlRequest(requestBody, 200, responseBody);
 	}
 	
+	protected void expectBodyRequestWithIntegrityOk(String requestBody, int responseStatus, String responseBody){
+		setupIntegrityOk();
+		expectGqlRequest(requestBody, responseStatus, responseBody);
+	}
+	
 	private void expectGqlRequest(String requestBody, int responseStatus, String responseBody){
 		unirest.expect(POST, "https://gql.twitch.tv/gql")
 				.header("Authorization", "OAuth " + ACCESS_TOKEN)
@@ -101,6 +109,7 @@ public abstract class AbstractGQLTest{
 		this.unirest = unirest;
 		
 		currentClientVersion = DEFAULT_CLIENT_VERSION;
+		requestExecutor = Runnable::run;
 		
 		lenient().when(twitchLogin.getAccessToken()).thenReturn(ACCESS_TOKEN);
 		lenient().when(twitchLogin.getTwitchClient()).thenReturn(TwitchClient.WEB);
@@ -109,6 +118,6 @@ public abstract class AbstractGQLTest{
 		lenient().when(integrityData.getXDeviceId()).thenReturn(X_DEVICE_ID);
 		lenient().when(integrityData.getClientVersion()).thenReturn(DEFAULT_CLIENT_VERSION);
 		
-		tested = new GQLApi(twitchLogin, unirest.getUnirestInstance(), integrityProvider);
+		tested = new GQLApi(twitchLogin, unirest.getUnirestInstance(), integrityProvider, new AsyncLimiter(2), task -> requestExecutor.execute(task));
 	}
 }
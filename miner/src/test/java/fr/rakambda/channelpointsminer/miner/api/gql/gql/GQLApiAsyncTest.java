@@ -0,0 +1,159 @@
+package fr.rakambda.channelpointsminer.miner.api.gql.gql;
+
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLResponse;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.joinraid.JoinRaidData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.joinraid.JoinRaidOperation;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.JoinRaidPayload;
+import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IntegrityException;
+import fr.rakambda.channelpointsminer.miner.api.passport.exceptions.InvalidCredentials;
+import fr.rakambda.channelpointsminer.miner.tests.UnirestMockExtension;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(UnirestMockExtension.class)
+class GQLApiAsyncTest extends AbstractGQLTest{
+	private static final String RAID_ID = "raid-id";
+	private static final String RAID_ID_2 = "raid-id-2";
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+	
+	@Test
+	void nominal(){
+		var expected = GQLResponse.<JoinRaidData> builder()
+				.extensions(Map.of(
+						"durationMilliseconds", 4,
+						"operationName", "JoinRaid",
+						"requestID", "request-id"
+				))
+				.data(JoinRaidData.builder()
+						.joinRaid(JoinRaidPayload.builder()
+								.raidId("raid-id")
+								.build())
+						.build())
+				.build();
+		
+		expectValidRequestOkWithIntegrityOk("api/gql/gql/joinRaid.json");
+		
+		assertThat(tested.joinRaidAsync(RAID_ID)).succeedsWithin(TIMEOUT)
+				.isEqualTo(Optional.of(expected));
+		
+		verifyAll();
+	}
+	
+	@Test
+	void invalidCredentials(){
+		expectValidRequestWithIntegrityOk(401, "api/gql/gql/error_invalidAuth.json");
+		
+		assertThat(tested.joinRaidAsync(RAID_ID)).failsWithin(TIMEOUT)
+				.withThrowableThat()
+				.havingRootCause()
+				.isInstanceOf(InvalidCredentials.class);
+		
+		verifyAll();
+	}
+	
+	@Test
+	void invalidResponse(){
+		expectValidRequestWithIntegrityOk(500, null);
+		
+		assertThat(tested.joinRaidAsync(RAID_ID)).succeedsWithin(TIMEOUT)
+				.isEqualTo(Optional.empty());
+		
+		verifyAll();
+	}
+	
+	@Test
+	void integrityIsInvalidatedOnError(){
+		setupIntegrityOk();
+		expectValidRequestFailedIntegrity();
+		
+		assertThat(tested.joinRaidAsync(RAID_ID)).succeedsWithin(TIMEOUT)
+				.isEqualTo(Optional.empty());
+		verifyAll();
+		reset();
+		verify(integrityProvider).invalidate();
+	}
+	
+	@Test
+	void integrityException() throws IntegrityException{
+		setupIntegrityException();
+		
+		assertThat(tested.joinRaidAsync(RAID_ID)).failsWithin(TIMEOUT)
+				.withThrowableThat()
+				.havingRootCause()
+				.isInstanceOf(IntegrityException.class);
+	}
+	
+	@Test
+	void integrityIsFetchedOnRequestExecutor() throws IntegrityException{
+		var tasks = new LinkedList<Runnable>();
+		requestExecutor = tasks::add;
+		expectValidRequestOkWithIntegrityOk("api/gql/gql/joinRaid.json");
+		
+		var future = tested.joinRaidAsync(RAID_ID);
+		verify(integrityProvider, never()).getIntegrity();
+		
+		assertThat(tasks).hasSize(1);
+		tasks.poll().run();
+		assertThat(future).succeedsWithin(TIMEOUT);
+		verify(integrityProvider).getIntegrity();
+		verifyAll();
+	}
+	
+	@Test
+	void batch(){
+		expectBodyRequestOkWithIntegrityOk(getBatchRequest(), "api/gql/gql/batch_joinRaid.json");
+		
+		var operation1 = new JoinRaidOperation(RAID_ID);
+		var operation2 = new JoinRaidOperation(RAID_ID_2);
+		var actual = tested.batchAsync(List.of(operation1, operation2)).join();
+		
+		assertThat(actual.get(operation1)).isPresent();
+		assertThat(actual.get(operation2)).isEmpty();
+		
+		verifyAll();
+	}
+	
+	@Test
+	void batchInvalidCredentials(){
+		expectBodyRequestWithIntegrityOk(getBatchRequest(), 401, "api/gql/gql/error_invalidAuth.json");
+		
+		assertThat(tested.batchAsync(List.of(new JoinRaidOperation(RAID_ID), new JoinRaidOperation(RAID_ID_2)))).failsWithin(TIMEOUT)
+				.withThrowableThat()
+				.havingRootCause()
+				.isInstanceOf(InvalidCredentials.class);
+		
+		verifyAll();
+	}
+	
+	@Test
+	void emptyBatch(){
+		assertThat(tested.batchAsync(List.of())).succeedsWithin(TIMEOUT)
+				.extracting(GQLBatchResponse::size)
+				.isEqualTo(0);
+		
+		verifyAll();
+	}
+	
+	@Override
+	protected String getValidRequest(){
+		return getOperation(RAID_ID);
+	}
+	
+	private static String getBatchRequest(){
+		return "[%s,%s]".formatted(getOperation(RAID_ID), getOperation(RAID_ID_2));
+	}
+	
+	private static String getOperation(String raidId){
+		return "{\"extensions\":{\"persistedQuery\":{\"sha256Hash\":\"c6a332a86d1087fbbb1a8623aa01bd1313d2386e7c63be60fdb2d1901f01a4ae\",\"version\":1}},\"operationName\":\"JoinRaid\",\"variables\":{\"input\":{\"raidID\":\"%s\"}}}".formatted(raidId);
+	}
+}
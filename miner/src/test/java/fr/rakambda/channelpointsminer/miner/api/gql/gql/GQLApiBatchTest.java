@@ -0,0 +1,132 @@
+package fr.rakambda.channelpointsminer.miner.api.gql.gql;
+
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLResponse;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.joinraid.JoinRaidData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.joinraid.JoinRaidOperation;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.JoinRaidPayload;
+import fr.rakambda.channelpointsminer.miner.tests.UnirestMockExtension;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(UnirestMockExtension.class)
+class GQLApiBatchTest extends AbstractGQLTest{
+	private static final String RAID_ID_1 = "raid-id-1";
+	private static final String RAID_ID_2 = "raid-id-2";
+	
+	@Test
+	void responsesAreMatchedToOperations(){
+		var expected = GQLResponse.<JoinRaidData> builder()
+				.extensions(Map.of(
+						"durationMilliseconds", 4,
+						"operationName", "JoinRaid",
+						"requestID", "request-id"
+				))
+				.data(JoinRaidData.builder()
+						.joinRaid(JoinRaidPayload.builder()
+								.raidId("raid-id")
+								.build())
+						.build())
+				.build();
+		
+		expectValidRequestOkWithIntegrityOk("api/gql/gql/batch_joinRaid.json");
+		
+		var operation1 = new JoinRaidOperation(RAID_ID_1);
+		var operation2 = new JoinRaidOperation(RAID_ID_2);
+		var actual = tested.batch(List.of(operation1, operation2));
+		
+		assertThat(actual.size()).isEqualTo(1);
+		assertThat(actual.get(operation1)).isPresent().get().isEqualTo(expected);
+		assertThat(actual.get(operation2)).isEmpty();
+		
+		verifyAll();
+	}
+	
+	@Test
+	void missingResponses(){
+		expectValidRequestOkWithIntegrityOk("api/gql/gql/batch_joinRaidMissingResponse.json");
+		
+		var operation1 = new JoinRaidOperation(RAID_ID_1);
+		var operation2 = new JoinRaidOperation(RAID_ID_2);
+		var actual = tested.batch(List.of(operation1, operation2));
+		
+		assertThat(actual.get(operation1)).isEmpty();
+		assertThat(actual.get(operation2)).isEmpty();
+		
+		verifyAll();
+	}
+	
+	@Test
+	void integrityIsInvalidatedOnError(){
+		expectValidRequestOkWithIntegrityOk("api/gql/gql/batch_joinRaidFailedIntegrity.json");
+		
+		var operation1 = new JoinRaidOperation(RAID_ID_1);
+		var operation2 = new JoinRaidOperation(RAID_ID_2);
+		var actual = tested.batch(List.of(operation1, operation2));
+		
+		assertThat(actual.get(operation1)).isPresent();
+		assertThat(actual.get(operation2)).isEmpty();
+		
+		verifyAll();
+		reset();
+		verify(integrityProvider).invalidate();
+	}
+	
+	@Test
+	void invalidCredentials(){
+		expectValidRequestWithIntegrityOk(401, "api/gql/gql/error_invalidAuth.json");
+		
+		assertThrows(RuntimeException.class, () -> tested.batch(List.of(new JoinRaidOperation(RAID_ID_1), new JoinRaidOperation(RAID_ID_2))));
+		
+		verifyAll();
+	}
+	
+	@Test
+	void invalidResponse(){
+		expectValidRequestWithIntegrityOk(500, null);
+		
+		var actual = tested.batch(List.of(new JoinRaidOperation(RAID_ID_1), new JoinRaidOperation(RAID_ID_2)));
+		assertThat(actual.size()).isZero();
+		
+		verifyAll();
+	}
+	
+	@Test
+	void largeBatchIsSplit(){
+		var raidIds = IntStream.range(0, 36).mapToObj("raid-%d"::formatted).toList();
+		
+		expectBodyRequestWithIntegrityOk(getRequest(raidIds.subList(0, 35)), 500, null);
+		expectBodyRequestWithIntegrityOk(getRequest(raidIds.subList(35, 36)), 500, null);
+		
+		var actual = tested.batch(raidIds.stream().map(JoinRaidOperation::new).toList());
+		assertThat(actual.size()).isZero();
+		
+		verifyAll();
+	}
+	
+	@Test
+	void emptyBatch(){
+		assertThat(tested.batch(List.of()).size()).isZero();
+		
+		verifyAll();
+	}
+	
+	@Override
+	protected String getValidRequest(){
+		return getRequest(List.of(RAID_ID_1, RAID_ID_2));
+	}
+	
+	private static String getRequest(List<String> raidIds){
+		return raidIds.stream()
+				.map("{\"extensions\":{\"persistedQuery\":{\"sha256Hash\":\"c6a332a86d1087fbbb1a8623aa01bd1313d2386e7c63be60fdb2d1901f01a4ae\",\"version\":1}},\"operationName\":\"JoinRaid\",\"variables\":{\"input\":{\"raidID\":\"%s\"}}}"::formatted)
+				.collect(Collectors.joining(",", "[", "]"));
+	}
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import fr.rakambda.channelpointsminer.miner.api.twitch.data.MinuteWatchedEvent;
 import fr.rakambda.channelpointsminer.miner.api.twitch.data.MinuteWatchedProperties;
 import fr.rakambda.channelpointsminer.miner.api.twitch.data.PlayerEvent;
+import fr.rakambda.channelpointsminer.miner.runtime.AsyncLimiter;
 import fr.rakambda.channelpointsminer.miner.tests.UnirestMock;
 import fr.rakambda.channelpointsminer.miner.tests.UnirestMockExtension;
 import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.Optional;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static kong.unirest.core.HttpMethod.GET;
 import static kong.unirest.core.HttpMethod.POST;
@@ -50,7 +53,7 @@ class TwitchApiTest{
 		streamerUrl = new URL(STREAMER_URL);
 		spadeUrl = new URL(SPADE_URL);
 		
-		tested = new TwitchApi(unirestMock.getUnirestInstance());
+		tested = new TwitchApi(unirestMock.getUnirestInstance(), new AsyncLimiter(2));
 	}
 	
 	@Test
@@ -159,6 +162,20 @@ class TwitchApiTest{
 				.get().isEqualTo(spadeUrl);
 	}
 	
+	@Test
+	void getSpadeUrlAsync(UnirestMock unirest){
+		unirest.expect(GET, STREAMER_URL)
+				.thenReturn(CONFIG_BODY)
+				.withStatus(200);
+		
+		unirest.expect(GET, CONFIG_URL)
+				.thenReturn(SPADE_BODY)
+				.withStatus(200);
+		
+		assertThat(tested.getSpadeUrlAsync(streamerUrl)).succeedsWithin(Duration.ofSeconds(10))
+				.isEqualTo(Optional.of(spadeUrl));
+	}
+	
 	@Test
 	void getSpadeUrlFromStreamerPage(UnirestMock unirest){
 		unirest.expect(GET, STREAMER_URL)
@@ -0,0 +1,67 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.framing.PingFrame;
+import org.java_websocket.framing.TextFrame;
+import org.java_websocket.util.Charsetfunctions;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class MeteredPerMessageDeflateExtensionTest{
+	private static final String MESSAGE = "{\"type\":\"MESSAGE\",\"data\":{\"topic\":\"predictions-channel-v1.123456\"}}".repeat(100);
+	
+	@Test
+	void countsCompressedFrames() throws InvalidDataException{
+		var senderMetrics = new WebSocketCompressionMetrics();
+		var receiverMetrics = new WebSocketCompressionMetrics();
+		var sender = new MeteredPerMessageDeflateExtension(senderMetrics);
+		var receiver = new MeteredPerMessageDeflateExtension(receiverMetrics);
+		
+		var frame = new TextFrame();
+		frame.setPayload(ByteBuffer.wrap(Charsetfunctions.utf8Bytes(MESSAGE)));
+		
+		sender.encodeFrame(frame);
+		var wireBytes = frame.getPayloadData().remaining();
+		receiver.decodeFrame(frame);
+		
+		assertThat(Charsetfunctions.stringUtf8(frame.getPayloadData())).isEqualTo(MESSAGE);
+		
+		assertThat(senderMetrics.getSentMessageBytes()).isEqualTo(MESSAGE.length());
+		assertThat(senderMetrics.getSentWireBytes()).isEqualTo(wireBytes);
+		assertThat(senderMetrics.getSentCompressionRatio()).isLessThan(0.5);
+		assertThat(senderMetrics.getReceivedCompressionRatio()).isEqualTo(1);
+		
+		assertThat(receiverMetrics.getReceivedWireBytes()).isEqualTo(wireBytes);
+		assertThat(receiverMetrics.getReceivedMessageBytes()).isEqualTo(MESSAGE.length());
+		assertThat(receiverMetrics.getReceivedCompressionRatio()).isLessThan(0.5);
+		assertThat(receiverMetrics.getCpuNanos()).isNotNegative();
+	}
+	
+	@Test
+	void controlFramesAreNotCounted() throws InvalidDataException{
+		var metrics = new WebSocketCompressionMetrics();
+		var tested = new MeteredPerMessageDeflateExtension(metrics);
+		
+		tested.encodeFrame(new PingFrame());
+		tested.decodeFrame(new PingFrame());
+		
+		assertThat(metrics.getSentMessageBytes()).isZero();
+		assertThat(metrics.getReceivedWireBytes()).isZero();
+	}
+	
+	@Test
+	void copiesShareMetrics() throws InvalidDataException{
+		var metrics = new WebSocketCompressionMetrics();
+		var copy = new MeteredPerMessageDeflateExtension(metrics).copyInstance();
+		
+		var frame = new TextFrame();
+		frame.setPayload(ByteBuffer.wrap(Charsetfunctions.utf8Bytes(MESSAGE)));
+		copy.encodeFrame(frame);
+		
+		assertThat(copy).isInstanceOf(MeteredPerMessageDeflateExtension.class);
+		assertThat(metrics.getSentMessageBytes()).isEqualTo(MESSAGE.length());
+	}
+}
@@ -0,0 +1,208 @@
+package fr.rakambda.channelpointsminer.miner.api.websocket;
+
+import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServer;
+import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServerExtension;
+import org.java_websocket.WebSocket;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.java_websocket.framing.CloseFrame.NEVER_CONNECTED;
+import static org.java_websocket.framing.CloseFrame.NORMAL;
+
+@ExtendWith(WebsocketMockServerExtension.class)
+class MultiplexedWebSocketClientTest{
+	private static final WebSocketOptions MULTIPLEXED = WebSocketOptions.builder()
+			.httpClient(HttpClient.newHttpClient())
+			.build();
+	
+	private TestClient tested;
+	
+	@BeforeEach
+	void setUp(WebsocketMockServer server){
+		tested = new TestClient(URI.create("ws://127.0.0.1:" + server.getPort()), MULTIPLEXED);
+	}
+	
+	@AfterEach
+	void tearDown(WebsocketMockServer server){
+		tested.close();
+		server.removeClients();
+	}
+	
+	@Test
+	void connectAndSend(WebsocketMockServer server) throws InterruptedException{
+		assertThat(tested.isMultiplexed()).isTrue();
+		assertThat(tested.connectBlocking()).isTrue();
+		assertThat(tested.isOpen()).isTrue();
+		assertThat(tested.opened).hasValue(1);
+		
+		tested.send("message1");
+		tested.send("message2");
+		server.awaitMessage(2);
+		
+		assertThat(server.getReceivedMessages()).containsExactly("message1", "message2");
+	}
+	
+	@Test
+	void receiveMessage(WebsocketMockServer server) throws InterruptedException{
+		tested.connectBlocking();
+		
+		server.send("message");
+		
+		await().atMost(Duration.ofSeconds(10)).until(() -> !tested.messages.isEmpty());
+		assertThat(tested.messages).containsExactly("message");
+	}
+	
+	@Test
+	void pings(WebsocketMockServer server) throws InterruptedException{
+		tested.connectBlocking();
+		
+		tested.sendPing();
+		server.awaitMessage();
+		assertThat(server.getReceivedMessages()).contains("PING");
+		await().atMost(Duration.ofSeconds(10)).until(() -> tested.pongs.get() == 1);
+		
+		server.reset();
+		server.sendPing();
+		await().atMost(Duration.ofSeconds(10)).until(() -> tested.pings.get() == 1);
+		server.awaitMessage();
+		assertThat(server.getReceivedMessages()).contains("PONG");
+	}
+	
+	@Test
+	void sendBeforeOpen(){
+		assertThat(tested.isOpen()).isFalse();
+		assertThatThrownBy(() -> tested.send("message")).isInstanceOf(WebsocketNotConnectedException.class);
+	}
+	
+	@Test
+	void close(WebsocketMockServer server) throws InterruptedException{
+		tested.connectBlocking();
+		tested.closeBlocking();
+		
+		assertThat(tested.isClosed()).isTrue();
+		assertThat(tested.closeCode).hasValue(NORMAL);
+		assertThat(tested.remoteClose).hasValue(0);
+		await().atMost(Duration.ofSeconds(10)).until(server::isReceivedClose);
+	}
+	
+	@Test
+	void closedByServer(WebsocketMockServer server) throws InterruptedException{
+		tested.connectBlocking();
+		server.removeClients();
+		
+		await().atMost(Duration.ofSeconds(10)).until(tested::isClosed);
+		assertThat(tested.closeCode).hasValue(NORMAL);
+		assertThat(tested.remoteClose).hasValue(1);
+	}
+	
+	@Test
+	void connectFailure() throws InterruptedException{
+		tested = new TestClient(URI.create("ws://127.0.0.1:1"), MULTIPLEXED);
+		
+		assertThat(tested.connectBlocking()).isFalse();
+		assertThat(tested.isClosed()).isTrue();
+		assertThat(tested.closeCode).hasValue(NEVER_CONNECTED);
+		assertThat(tested.errors).hasValue(1);
+	}
+	
+	@Test
+	void cannotReconnect() throws InterruptedException{
+		tested.connectBlocking();
+		
+		assertThatThrownBy(() -> tested.connect()).isInstanceOf(IllegalStateException.class);
+	}
+	
+	@Test
+	void notMultiplexedWithoutHttpClient(WebsocketMockServer server) throws InterruptedException{
+		tested = new TestClient(URI.create("ws://127.0.0.1:" + server.getPort()), WebSocketOptions.DEFAULT);
+		
+		assertThat(tested.isMultiplexed()).isFalse();
+		assertThat(tested.getCompressionMetrics()).isEmpty();
+		assertThat(tested.connectBlocking()).isTrue();
+		
+		tested.send("message");
+		server.awaitMessage();
+		assertThat(server.getReceivedMessages()).containsExactly("message");
+	}
+	
+	@Test
+	void compression(WebsocketMockServer server) throws InterruptedException{
+		tested = new TestClient(URI.create("ws://127.0.0.1:" + server.getPort()), WebSocketOptions.builder().compression(true).build());
+		
+		assertThat(tested.getCompressionMetrics()).isPresent();
+		assertThat(tested.connectBlocking()).isTrue();
+		
+		tested.send("message");
+		server.awaitMessage();
+		assertThat(server.getReceivedMessages()).containsExactly("message");
+	}
+	
+	@Test
+	void compressionIgnoredWhenMultiplexed(){
+		tested = new TestClient(URI.create("ws://127.0.0.1:1"), WebSocketOptions.builder()
+				.httpClient(MULTIPLEXED.getHttpClient())
+				.compression(true)
+				.build());
+		
+		assertThat(tested.getCompressionMetrics()).isEmpty();
+	}
+	
+	private static class TestClient extends MultiplexedWebSocketClient{
+		private final AtomicInteger opened = new AtomicInteger();
+		private final Collection<String> messages = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger pings = new AtomicInteger();
+		private final AtomicInteger pongs = new AtomicInteger();
+		private final AtomicInteger errors = new AtomicInteger();
+		private final AtomicInteger closeCode = new AtomicInteger(-1);
+		private final AtomicInteger remoteClose = new AtomicInteger(-1);
+		
+		private TestClient(URI uri, WebSocketOptions options){
+			super(uri, options);
+		}
+		
+		@Override
+		public void onOpen(ServerHandshake handshake){
+			opened.incrementAndGet();
+		}
+		
+		@Override
+		public void onMessage(String message){
+			messages.add(message);
+		}
+		
+		@Override
+		public void onClose(int code, String reason, boolean remote){
+			closeCode.set(code);
+			remoteClose.set(remote ? 1 : 0);
+		}
+		
+		@Override
+		public void onError(Exception e){
+			errors.incrementAndGet();
+		}
+		
+		@Override
+		public void onWebsocketPing(WebSocket conn, Framedata f){
+			pings.incrementAndGet();
+			super.onWebsocketPing(conn, f);
+		}
+		
+		@Override
+		public void onWebsocketPong(WebSocket conn, Framedata f){
+			pongs.incrementAndGet();
+		}
+	}
+}
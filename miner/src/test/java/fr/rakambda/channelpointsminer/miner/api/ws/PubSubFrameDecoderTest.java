@@ -0,0 +1,193 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.Commercial;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PointsEarned;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ViewCount;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.WatchPartyVod;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.watchpartyvod.Vod;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageData;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageResponse;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.PongResponse;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ResponseResponse;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import fr.rakambda.channelpointsminer.miner.tests.TestUtils;
+import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.IOException;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Set;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.COMMUNITY_POINTS_USER_V1;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.ONSITE_NOTIFICATIONS;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.VIDEO_PLAYBACK_BY_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ParallelizableTest
+class PubSubFrameDecoderTest{
+	private final PubSubFrameDecoder tested = PubSubFrameDecoder.getInstance();
+	private final PubSubFrameDecoder decodeAll = new PubSubFrameDecoder(JacksonUtils.getMapper(), Set.of());
+	
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"activeMultipliersUpdated.json",
+			"claimAvailable.json",
+			"claimClaimed.json",
+			"communityMomentStart.json",
+			"createNotification.json",
+			"createNotification2.json",
+			"deleteNotification.json",
+			"pointsEarned.json",
+			"pointsSpent.json",
+			"predictionMade.json",
+			"predictionResult.json",
+			"predictionUpdated.json",
+			"raidCancelV2.json",
+			"raidGoV2.json",
+			"raidUpdateV2.json",
+			"readNotifications.json",
+			"updateSummary.json",
+			"updateSummary_2.json",
+			"pong.json",
+			"reconnect.json",
+			"response_badAuth.json",
+			"response_ok.json"
+	})
+	void sameAsRegularDeserialization(String resource) throws IOException{
+		var frame = TestUtils.getAllResourceContent("api/ws/" + resource);
+		
+		assertThat(tested.decode(frame)).isEqualTo(JacksonUtils.getMapper().readValue(frame, ITwitchWebSocketResponse.class));
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"commercial.json",
+			"viewCount.json",
+			"watchPartyVod.json"
+	})
+	void unusedMessagesAreSkipped(String resource) throws IOException{
+		assertThat(tested.decode(TestUtils.getAllResourceContent("api/ws/" + resource))).isNull();
+	}
+	
+	@Test
+	void commercial() throws IOException{
+		var expected = MessageResponse.builder()
+				.data(MessageData.builder()
+						.topic(Topic.builder()
+								.name(VIDEO_PLAYBACK_BY_ID)
+								.target("123456789")
+								.build())
+						.message(Commercial.builder()
+								.serverTime(Instant.parse("2021-10-11T17:04:57.287128000Z"))
+								.length(180)
+								.scheduled(false)
+								.build())
+						.build())
+				.build();
+		
+		assertThat(decodeAll.decode(TestUtils.getAllResourceContent("api/ws/commercial.json"))).isEqualTo(expected);
+	}
+	
+	@Test
+	void viewCount() throws IOException{
+		var expected = MessageResponse.builder()
+				.data(MessageData.builder()
+						.topic(Topic.builder()
+								.name(VIDEO_PLAYBACK_BY_ID)
+								.target("123456789")
+								.build())
+						.message(ViewCount.builder()
+								.serverTime(Instant.parse("2021-10-24T08:12:29.894667000Z"))
+								.viewers(150)
+								.build())
+						.build())
+				.build();
+		
+		assertThat(decodeAll.decode(TestUtils.getAllResourceContent("api/ws/viewCount.json"))).isEqualTo(expected);
+	}
+	
+	@Test
+	void watchPartyVod() throws IOException{
+		var expected = MessageResponse.builder()
+				.data(MessageData.builder()
+						.topic(Topic.builder()
+								.name(ONSITE_NOTIFICATIONS)
+								.target("123456789")
+								.build())
+						.message(WatchPartyVod.builder()
+								.vod(Vod.builder()
+										.wpId("")
+										.wpType("rerun")
+										.incrementUrl(new URL("https://increment_url"))
+										.vodId("123456")
+										.title("the title")
+										.broadcastType("highlight")
+										.viewable("public")
+										.build())
+								.build())
+						.build())
+				.build();
+		
+		assertThat(decodeAll.decode(TestUtils.getAllResourceContent("api/ws/watchPartyVod.json"))).isEqualTo(expected);
+	}
+	
+	@Test
+	void typeNotFirst() throws IOException{
+		var frame = """
+				{
+				  "data": {
+				    "message": "{\\"data\\":{\\"timestamp\\":\\"2021-10-11T16:44:35.52748514Z\\",\\"channel_id\\":\\"987654321\\"},\\"type\\":\\"points-earned\\"}",
+				    "topic": "community-points-user-v1.123456789"
+				  },
+				  "type": "MESSAGE"
+				}""";
+		
+		var response = tested.decode(frame);
+		
+		assertThat(response).isInstanceOf(MessageResponse.class);
+		var data = ((MessageResponse) response).getData();
+		assertThat(data.getTopic()).isEqualTo(Topic.builder().name(COMMUNITY_POINTS_USER_V1).target("123456789").build());
+		assertThat(data.getMessage()).isInstanceOf(PointsEarned.class);
+		assertThat(((PointsEarned) data.getMessage()).getData().getChannelId()).isEqualTo("987654321");
+	}
+	
+	@Test
+	void contentHashSameAsRegularDeserialization() throws IOException{
+		var frame = TestUtils.getAllResourceContent("api/ws/pointsEarned.json");
+		
+		var decoded = (MessageResponse) tested.decode(frame);
+		var expected = (MessageResponse) JacksonUtils.getMapper().readValue(frame, ITwitchWebSocketResponse.class);
+		
+		assertThat(decoded).isNotNull();
+		assertThat(decoded.getData().getContentHash()).isNotZero().isEqualTo(expected.getData().getContentHash());
+	}
+	
+	@Test
+	void pong() throws IOException{
+		assertThat(tested.decode("{\"type\":\"PONG\"}")).isInstanceOf(PongResponse.class);
+	}
+	
+	@Test
+	void response() throws IOException{
+		assertThat(tested.decode("{\"type\":\"RESPONSE\",\"error\":\"ERR_BADAUTH\",\"nonce\":\"\"}"))
+				.isInstanceOf(ResponseResponse.class)
+				.extracting(response -> ((ResponseResponse) response).getError())
+				.isEqualTo("ERR_BADAUTH");
+	}
+	
+	@Test
+	void unknownMessageType(){
+		var frame = "{\"type\":\"MESSAGE\",\"data\":{\"topic\":\"community-points-user-v1.123456789\",\"message\":\"{\\\"type\\\":\\\"unknown\\\"}\"}}";
+		
+		assertThatThrownBy(() -> tested.decode(frame)).isInstanceOf(IOException.class);
+	}
+	
+	@Test
+	void invalidFrame(){
+		assertThatThrownBy(() -> tested.decode("not json")).isInstanceOf(IOException.class);
+	}
+}
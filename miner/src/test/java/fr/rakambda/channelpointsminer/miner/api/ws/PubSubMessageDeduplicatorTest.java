@@ -0,0 +1,127 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.EventUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionUpdated;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.predictionupdated.PredictionUpdatedData;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Event;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.EventStatus;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Prediction;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageData;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.PREDICTIONS_CHANNEL_V1;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.PREDICTIONS_USER_V1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ParallelizableTest
+class PubSubMessageDeduplicatorTest{
+	private static final Topic TOPIC_1 = Topic.builder().name(PREDICTIONS_CHANNEL_V1).target("1").build();
+	private static final Topic TOPIC_2 = Topic.builder().name(PREDICTIONS_CHANNEL_V1).target("2").build();
+	private static final Topic USER_TOPIC = Topic.builder().name(PREDICTIONS_USER_V1).target("user").build();
+	private static final String EVENT_ID = "event-id";
+	
+	private final PubSubMessageDeduplicator tested = new PubSubMessageDeduplicator(2);
+	
+	@Test
+	void sameMessageOnSameTopic(){
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message"))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message"))).isTrue();
+		assertThat(tested.getDuplicateCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void sameMessageOnOtherTopic(){
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message"))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_2, "message"))).isFalse();
+		assertThat(tested.getDuplicateCount()).isEqualTo(0);
+	}
+	
+	@Test
+	void otherMessageOnSameTopic(){
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message1"))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message2"))).isFalse();
+	}
+	
+	@Test
+	void oldMessagesAreForgotten(){
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message1"))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message2"))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message3"))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message1"))).isFalse();
+	}
+	
+	@Test
+	void unknownContentIsNeverDuplicate(){
+		var data = MessageData.builder().topic(TOPIC_1).build();
+		
+		assertThat(tested.isDuplicate(data)).isFalse();
+		assertThat(tested.isDuplicate(data)).isFalse();
+	}
+	
+	@Test
+	void samePredictionOnOtherTopic(){
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message1", predictionUpdated(100)))).isFalse();
+		assertThat(tested.isDuplicate(data(USER_TOPIC, "message2", predictionUpdated(100)))).isTrue();
+		assertThat(tested.getDuplicateCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void otherPredictionState(){
+		assertThat(tested.isDuplicate(data(USER_TOPIC, "message1", predictionUpdated(100)))).isFalse();
+		assertThat(tested.isDuplicate(data(USER_TOPIC, "message2", predictionUpdated(200)))).isFalse();
+	}
+	
+	@Test
+	void sameEventStateWithOtherContent(){
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message1", eventUpdated(EventStatus.ACTIVE)))).isFalse();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message2", eventUpdated(EventStatus.ACTIVE)))).isTrue();
+		assertThat(tested.isDuplicate(data(TOPIC_1, "message3", eventUpdated(EventStatus.LOCKED)))).isFalse();
+	}
+	
+	@Test
+	void unknownContentWithPredictionIsChecked(){
+		var data = MessageData.builder().topic(TOPIC_1).message(predictionUpdated(100)).build();
+		
+		assertThat(tested.isDuplicate(data)).isFalse();
+		assertThat(tested.isDuplicate(data)).isTrue();
+	}
+	
+	private static MessageData data(Topic topic, String content){
+		return data(topic, content, null);
+	}
+	
+	private static MessageData data(Topic topic, String content, IPubSubMessage message){
+		return MessageData.builder()
+				.topic(topic)
+				.message(message)
+				.contentHash(MessageData.hashContent(content))
+				.build();
+	}
+	
+	private static PredictionUpdated predictionUpdated(int points){
+		return PredictionUpdated.builder()
+				.data(PredictionUpdatedData.builder()
+						.prediction(Prediction.builder()
+								.id("prediction-id")
+								.eventId(EVENT_ID)
+								.outcomeId("outcome-id")
+								.points(points)
+								.build())
+						.build())
+				.build();
+	}
+	
+	private static EventUpdated eventUpdated(EventStatus status){
+		var message = mock(EventUpdated.class, RETURNS_DEEP_STUBS);
+		when(message.getData().getEvent()).thenReturn(Event.builder()
+				.id(EVENT_ID)
+				.status(status)
+				.build());
+		return message;
+	}
+}
@@ -0,0 +1,132 @@
+package fr.rakambda.channelpointsminer.miner.api.ws;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.RAID;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.VIDEO_PLAYBACK_BY_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ParallelizableTest
+@ExtendWith(MockitoExtension.class)
+class PubSubTopicReconcilerTest{
+	private static final String TOKEN = "token";
+	private static final Topic TOPIC_1 = Topic.builder().name(VIDEO_PLAYBACK_BY_ID).target("target1").build();
+	private static final Topic TOPIC_2 = Topic.builder().name(VIDEO_PLAYBACK_BY_ID).target("target2").build();
+	private static final Topic TOPIC_3 = Topic.builder().name(RAID).target("target1").build();
+	
+	private PubSubTopicReconciler tested;
+	
+	@Mock
+	private TwitchPubSubWebSocketPool pool;
+	
+	@BeforeEach
+	void setUp(){
+		tested = new PubSubTopicReconciler(pool);
+	}
+	
+	@Test
+	void nothingToFlush(){
+		assertThat(tested.hasPendingChanges()).isFalse();
+		
+		tested.flush();
+		
+		verifyNoInteractions(pool);
+	}
+	
+	@Test
+	void wantedTopicsAreListenedTogether(){
+		tested.want(TOPIC_1, TOKEN);
+		tested.want(TOPIC_2, TOKEN);
+		tested.want(TOPIC_3, TOKEN);
+		assertThat(tested.hasPendingChanges()).isTrue();
+		
+		tested.flush();
+		
+		verify(pool).listenTopic(new Topics(List.of(TOPIC_1, TOPIC_2, TOPIC_3), TOKEN));
+		verify(pool, never()).removeTopics(any());
+		assertThat(tested.hasPendingChanges()).isFalse();
+	}
+	
+	@Test
+	void wantingAgainDoesNothing(){
+		tested.want(TOPIC_1, TOKEN);
+		tested.flush();
+		clearInvocations(pool);
+		
+		tested.want(TOPIC_1, TOKEN);
+		
+		assertThat(tested.hasPendingChanges()).isFalse();
+		tested.flush();
+		verifyNoInteractions(pool);
+	}
+	
+	@Test
+	void unwantingUnknownDoesNothing(){
+		tested.unwant(TOPIC_1);
+		
+		assertThat(tested.hasPendingChanges()).isFalse();
+		tested.flush();
+		verifyNoInteractions(pool);
+	}
+	
+	@Test
+	void unwantedTopicsAreRemovedTogether(){
+		tested.want(TOPIC_1, TOKEN);
+		tested.want(TOPIC_2, TOKEN);
+		tested.want(TOPIC_3, TOKEN);
+		tested.flush();
+		clearInvocations(pool);
+		
+		tested.unwant(TOPIC_1);
+		tested.unwant(TOPIC_3);
+		tested.flush();
+		
+		verify(pool).removeTopics(List.of(TOPIC_1, TOPIC_3));
+		verify(pool, never()).listenTopic(any());
+		assertThat(tested.isWanted(TOPIC_1)).isFalse();
+		assertThat(tested.isWanted(TOPIC_2)).isTrue();
+	}
+	
+	@Test
+	void changesCancellingEachOther(){
+		tested.want(TOPIC_1, TOKEN);
+		tested.unwant(TOPIC_1);
+		
+		assertThat(tested.hasPendingChanges()).isFalse();
+		
+		tested.want(TOPIC_2, TOKEN);
+		tested.flush();
+		clearInvocations(pool);
+		
+		tested.unwant(TOPIC_2);
+		tested.want(TOPIC_2, TOKEN);
+		
+		assertThat(tested.hasPendingChanges()).isFalse();
+		tested.flush();
+		verifyNoInteractions(pool);
+	}
+	
+	@Test
+	void listenFailureIsNotPropagated(){
+		doThrow(new RuntimeException("For tests")).when(pool).listenTopic(any());
+		
+		tested.want(TOPIC_1, TOKEN);
+		
+		assertDoesNotThrow(() -> tested.flush());
+		assertThat(tested.hasPendingChanges()).isFalse();
+	}
+}
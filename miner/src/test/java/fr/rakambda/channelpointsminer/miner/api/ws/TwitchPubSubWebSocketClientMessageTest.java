@@ -4,7 +4,6 @@ import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.MultiplierRea
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ActiveMultipliersUpdated;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimAvailable;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimClaimed;
-import fr.rakambda.channelpointsminer.miner.api.ws.data.message.Commercial;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.CommunityMomentStart;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.CreateNotification;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.DeleteNotification;
@@ -18,8 +17,6 @@ import fr.rakambda.channelpointsminer.miner.api.ws.data.message.RaidGoV2;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.RaidUpdateV2;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ReadNotifications;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.UpdateSummary;
-import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ViewCount;
-import fr.rakambda.channelpointsminer.miner.api.ws.data.message.WatchPartyVod;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.activemultipliersupdated.ActiveMultipliersUpdatedData;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.claimavailable.ClaimAvailableData;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.claimclaimed.ClaimClaimedData;
@@ -54,10 +51,10 @@ import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Predicti
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Raid;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Summary;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.updatesummary.UpdateSummaryData;
-import fr.rakambda.channelpointsminer.miner.api.ws.data.message.watchpartyvod.Vod;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageData;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageResponse;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.PongResponse;
 import fr.rakambda.channelpointsminer.miner.tests.TestUtils;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServer;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServerExtension;
@@ -70,7 +67,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
@@ -80,8 +76,9 @@ import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Top
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.ONSITE_NOTIFICATIONS;
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.PREDICTIONS_USER_V1;
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.RAID;
-import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.VIDEO_PLAYBACK_BY_ID;
 import static java.time.ZoneOffset.UTC;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
@@ -102,23 +99,12 @@ class TwitchPubSubWebSocketClientMessageTest{
 	}
 	
 	@Test
-	void onCommercial(WebsocketMockServer server){
+	void commercialIsSkipped(WebsocketMockServer server){
 		server.send(TestUtils.getAllResourceContent("api/ws/commercial.json"));
+		server.send(TestUtils.getAllResourceContent("api/ws/pong.json"));
 		
-		var expected = MessageResponse.builder()
-				.data(MessageData.builder()
-						.topic(Topic.builder()
-								.name(VIDEO_PLAYBACK_BY_ID)
-								.target("123456789")
-								.build())
-						.message(Commercial.builder()
-								.serverTime(Instant.parse("2021-10-11T17:04:57.287128000Z"))
-								.length(180)
-								.scheduled(false)
-								.build())
-						.build())
-				.build();
-		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketMessage(expected);
+		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketMessage(any(PongResponse.class));
+		verify(listener, never()).onWebSocketMessage(any(MessageResponse.class));
 	}
 	
 	@Test
@@ -268,22 +254,12 @@ class TwitchPubSubWebSocketClientMessageTest{
 	}
 	
 	@Test
-	void onViewCount(WebsocketMockServer server){
+	void viewCountIsSkipped(WebsocketMockServer server){
 		server.send(TestUtils.getAllResourceContent("api/ws/viewCount.json"));
+		server.send(TestUtils.getAllResourceContent("api/ws/pong.json"));
 		
-		var expected = MessageResponse.builder()
-				.data(MessageData.builder()
-						.topic(Topic.builder()
-								.name(VIDEO_PLAYBACK_BY_ID)
-								.target("123456789")
-								.build())
-						.message(ViewCount.builder()
-								.serverTime(Instant.parse("2021-10-24T08:12:29.894667000Z"))
-								.viewers(150)
-								.build())
-						.build())
-				.build();
-		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketMessage(expected);
+		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketMessage(any(PongResponse.class));
+		verify(listener, never()).onWebSocketMessage(any(MessageResponse.class));
 	}
 	
 	@Test
@@ -688,29 +664,12 @@ class TwitchPubSubWebSocketClientMessageTest{
 	}
 	
 	@Test
-	void onWatchPartyVod(WebsocketMockServer server) throws MalformedURLException{
+	void watchPartyVodIsSkipped(WebsocketMockServer server){
 		server.send(TestUtils.getAllResourceContent("api/ws/watchPartyVod.json"));
+		server.send(TestUtils.getAllResourceContent("api/ws/pong.json"));
 		
-		var expected = MessageResponse.builder()
-				.data(MessageData.builder()
-						.topic(Topic.builder()
-								.name(ONSITE_NOTIFICATIONS)
-								.target("123456789")
-								.build())
-						.message(WatchPartyVod.builder()
-								.vod(Vod.builder()
-										.wpId("")
-										.wpType("rerun")
-										.incrementUrl(new URL("https://increment_url"))
-										.vodId("123456")
-										.title("the title")
-										.broadcastType("highlight")
-										.viewable("public")
-										.build())
-								.build())
-						.build())
-				.build();
-		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketMessage(expected);
+		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketMessage(any(PongResponse.class));
+		verify(listener, never()).onWebSocketMessage(any(MessageResponse.class));
 	}
 	
 	@Test
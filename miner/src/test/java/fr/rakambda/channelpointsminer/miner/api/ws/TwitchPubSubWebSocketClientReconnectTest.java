@@ -1,8 +1,11 @@
 package fr.rakambda.channelpointsminer.miner.api.ws;
 
+import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
 import fr.rakambda.channelpointsminer.miner.tests.TestUtils;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServer;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServerExtension;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.AfterEach;
@@ -10,9 +13,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.net.URI;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
@@ -33,7 +39,27 @@ class TwitchPubSubWebSocketClientReconnectTest{
 	}
 	
 	@Test
-	void onReconnectClosesClient() throws InterruptedException{
+	void onReconnectNotifiesListener() throws InterruptedException{
+		tested.connectBlocking();
+		
+		tested.onMessage(TestUtils.getAllResourceContent("api/ws/reconnect.json"));
+		
+		verify(listener, timeout(MESSAGE_TIMEOUT)).onWebSocketReconnectRequested(tested);
+		verify(listener, never()).onWebSocketClosed(any(), anyInt(), any(), anyBoolean());
+	}
+	
+	@Test
+	void onReconnectClosesClientByDefault() throws InterruptedException{
+		var defaultListener = new ITwitchPubSubWebSocketListener(){
+			@Override
+			public void onWebSocketMessage(@NotNull ITwitchWebSocketResponse message){
+			}
+			
+			@Override
+			public void onWebSocketClosed(@NotNull TwitchPubSubWebSocketClient client, int code, @Nullable String reason, boolean remote){
+			}
+		};
+		tested.addListener(defaultListener);
 		tested.connectBlocking();
 		
 		tested.onMessage(TestUtils.getAllResourceContent("api/ws/reconnect.json"));
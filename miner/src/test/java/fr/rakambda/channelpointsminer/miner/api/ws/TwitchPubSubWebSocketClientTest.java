@@ -5,6 +5,7 @@ import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServer;
 import fr.rakambda.channelpointsminer.miner.tests.WebsocketMockServerExtension;
+import fr.rakambda.channelpointsminer.miner.util.json.JacksonUtils;
 import org.java_websocket.framing.Framedata;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -12,8 +13,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import java.io.IOException;
 import java.net.URI;
 import java.time.Instant;
+import java.util.List;
 import static fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName.VIDEO_PLAYBACK_BY_ID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -50,6 +53,25 @@ class TwitchPubSubWebSocketClientTest{
 		assertThat(server.getReceivedMessages()).contains("{\"type\":\"PING\"}");
 	}
 	
+	@Test
+	void requestsBeforeOpenAreSentOnOpen(WebsocketMockServer server) throws InterruptedException{
+		var topic = Topic.builder()
+				.name(VIDEO_PLAYBACK_BY_ID)
+				.target("target1")
+				.build();
+		
+		tested.listenTopic(new Topics(topic, null));
+		assertThat(tested.isTopicListened(topic)).isTrue();
+		
+		tested.connectBlocking();
+		server.awaitMessage(2);
+		
+		assertThat(server.getReceivedMessages()).hasSize(2);
+		assertThat(server.getReceivedMessages().iterator().next()).isEqualTo("{\"type\":\"PING\"}");
+		assertThat(server.getReceivedMessages()).anyMatch(message -> message.contains("LISTEN") && message.contains("target1"));
+		verify(listener).onWebSocketOpened(tested);
+	}
+	
 	@Test
 	void pingSendsPing(WebsocketMockServer server) throws InterruptedException{
 		tested.connectBlocking();
@@ -103,6 +125,44 @@ class TwitchPubSubWebSocketClientTest{
 		assertThat(server.getReceivedMessages()).isEmpty();
 	}
 	
+	@Test
+	void listenConfirmedByResponse(WebsocketMockServer server) throws InterruptedException, IOException{
+		tested.connectBlocking();
+		server.awaitMessage();
+		server.reset();
+		
+		var topics = new Topics(Topic.builder()
+				.name(VIDEO_PLAYBACK_BY_ID)
+				.target("target1")
+				.build(), null);
+		tested.listenTopic(topics);
+		server.awaitMessage();
+		
+		var nonce = JacksonUtils.getMapper().readTree(server.getReceivedMessages().iterator().next()).get("nonce").asText();
+		tested.onMessage("{\"type\":\"RESPONSE\",\"error\":\"\",\"nonce\":\"other\"}");
+		verify(listener, never()).onTopicsListened(any(), any());
+		
+		tested.onMessage("{\"type\":\"RESPONSE\",\"error\":\"\",\"nonce\":\"" + nonce + "\"}");
+		verify(listener).onTopicsListened(tested, topics);
+	}
+	
+	@Test
+	void listenRejectedByResponse(WebsocketMockServer server) throws InterruptedException, IOException{
+		tested.connectBlocking();
+		server.awaitMessage();
+		server.reset();
+		
+		tested.listenTopic(new Topics(Topic.builder()
+				.name(VIDEO_PLAYBACK_BY_ID)
+				.target("target1")
+				.build(), null));
+		server.awaitMessage();
+		
+		var nonce = JacksonUtils.getMapper().readTree(server.getReceivedMessages().iterator().next()).get("nonce").asText();
+		tested.onMessage("{\"type\":\"RESPONSE\",\"error\":\"ERR_BADTOPIC\",\"nonce\":\"" + nonce + "\"}");
+		verify(listener, never()).onTopicsListened(any(), any());
+	}
+	
 	@Test
 	void onBadMessage(){
 		assertDoesNotThrow(() -> tested.onMessage("invalid"));
@@ -174,6 +234,41 @@ class TwitchPubSubWebSocketClientTest{
 		assertThat(server.getReceivedMessages()).isEmpty();
 	}
 	
+	@Test
+	void removeTopicsFromGroup(WebsocketMockServer server) throws InterruptedException{
+		tested.connectBlocking();
+		server.awaitMessage();
+		server.reset();
+		
+		var topic1 = Topic.builder()
+				.name(VIDEO_PLAYBACK_BY_ID)
+				.target("target1")
+				.build();
+		var topic2 = Topic.builder()
+				.name(VIDEO_PLAYBACK_BY_ID)
+				.target("target2")
+				.build();
+		var topic3 = Topic.builder()
+				.name(VIDEO_PLAYBACK_BY_ID)
+				.target("target3")
+				.build();
+		
+		tested.listenTopic(new Topics(List.of(topic1, topic2, topic3), null));
+		server.awaitMessage();
+		assertThat(tested.getTopicCount()).isEqualTo(3);
+		assertThat(server.getReceivedMessages()).hasSize(1);
+		
+		server.reset();
+		tested.removeTopics(List.of(topic1, topic3));
+		server.awaitMessage();
+		assertThat(tested.getTopicCount()).isEqualTo(1);
+		assertThat(tested.isTopicListened(topic1)).isFalse();
+		assertThat(tested.isTopicListened(topic2)).isTrue();
+		assertThat(tested.isTopicListened(topic3)).isFalse();
+		assertThat(server.getReceivedMessages()).hasSize(1);
+		assertThat(server.getReceivedMessages().iterator().next()).contains("UNLISTEN", "target1", "target3").doesNotContain("target2");
+	}
+	
 	@BeforeEach
 	void setUp(WebsocketMockServer server){
 		var uri = URI.create("ws://127.0.0.1:" + server.getPort());
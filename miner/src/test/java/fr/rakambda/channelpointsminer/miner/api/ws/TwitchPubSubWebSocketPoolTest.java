@@ -2,12 +2,14 @@ package fr.rakambda.channelpointsminer.miner.api.ws;
 
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.ITwitchWebSocketResponse;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageData;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.response.MessageResponse;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TwitchWebSocketClientFactory;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,13 +17,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.IntStream;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.java_websocket.framing.CloseFrame.ABNORMAL_CLOSE;
 import static org.java_websocket.framing.CloseFrame.NORMAL;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
@@ -30,19 +37,26 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TwitchPubSubWebSocketPoolTest{
 	private static final Instant NOW = Instant.parse("2021-10-10T10:10:10Z");
 	
-	private final TwitchPubSubWebSocketPool tested = new TwitchPubSubWebSocketPool(50);
+	private TwitchPubSubWebSocketPool tested;
 	
+	@Mock
+	private ScheduledExecutorService scheduler;
 	@Mock
 	private Topics topics;
 	@Mock
+	private Topics topics2;
+	@Mock
 	private Topic topic;
 	@Mock
+	private Topic topic2;
+	@Mock
 	private TwitchPubSubWebSocketClient client;
 	@Mock
 	private ITwitchWebSocketResponse twitchWebSocketResponse;
@@ -51,11 +65,14 @@ class TwitchPubSubWebSocketPoolTest{
 	
 	@BeforeEach
 	void setUp(){
+		tested = new TwitchPubSubWebSocketPool(50, scheduler);
+		
 		lenient().when(topics.getTopics()).thenReturn(Set.of(topic));
+		lenient().when(topics2.getTopics()).thenReturn(Set.of(topic2));
 	}
 	
 	@Test
-	void addTopicCreatesNewClient() throws InterruptedException{
+	void addTopicCreatesNewClient(){
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
 			
@@ -64,43 +81,42 @@ class TwitchPubSubWebSocketPoolTest{
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			verify(client).addListener(tested);
-			verify(client).connectBlocking();
+			verify(client).connect();
 			verify(client).listenTopic(topics);
 		}
 	}
 	
 	@Test
-	void addNewTopicToExistingClient() throws InterruptedException{
+	void addNewTopicToExistingClient(){
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
 			
-			when(client.isTopicListened(topic)).thenReturn(false);
-			
-			assertDoesNotThrow(() -> tested.listenTopic(topics));
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			assertDoesNotThrow(() -> tested.listenTopic(topics2));
 			
 			assertThat(tested.getClientCount()).isEqualTo(1);
+			assertThat(tested.isTopicListened(topic)).isTrue();
+			assertThat(tested.isTopicListened(topic2)).isTrue();
 			
 			verify(client).addListener(tested);
-			verify(client).connectBlocking();
-			verify(client, times(2)).listenTopic(topics);
+			verify(client).connect();
+			verify(client).listenTopic(topics);
+			verify(client).listenTopic(topics2);
 		}
 	}
 	
 	@Test
-	void addExistingTopicToExistingClient() throws InterruptedException{
+	void addExistingTopicToExistingClient(){
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
 			
-			when(client.isTopicListened(topic)).thenReturn(true);
-			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
 			
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			verify(client).addListener(tested);
-			verify(client).connectBlocking();
+			verify(client).connect();
 			verify(client).listenTopic(topics);
 		}
 	}
@@ -111,7 +127,6 @@ class TwitchPubSubWebSocketPoolTest{
 			var client2 = mock(TwitchPubSubWebSocketClient.class);
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
 			
-			when(client.isTopicListened(any())).thenReturn(false);
 			when(client.getTopicCount()).thenReturn(0);
 			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
@@ -119,22 +134,163 @@ class TwitchPubSubWebSocketPoolTest{
 			
 			when(client.getTopicCount()).thenReturn(50);
 			
+			assertDoesNotThrow(() -> tested.listenTopic(topics2));
+			
+			assertThat(tested.getClientCount()).isEqualTo(2);
+			verify(client2).listenTopic(topics2);
+		}
+	}
+	
+	@Test
+	void onlyNotListenedTopicsAreSent(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			
+			assertDoesNotThrow(() -> tested.listenTopic(new Topics(List.of(topic, topic2), "token")));
+			
+			verify(client).listenTopic(new Topics(List.of(topic2), "token"));
+		}
+	}
+	
+	@Test
+	void batchIsSplitOnClientsCapacity(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			when(client.getTopicCount()).thenReturn(48, 48, 50);
+			
+			var batch = IntStream.range(0, 5)
+					.mapToObj(i -> Topic.builder().name(TopicName.VIDEO_PLAYBACK_BY_ID).target("target" + i).build())
+					.toList();
+			assertDoesNotThrow(() -> tested.listenTopic(new Topics(batch, "token")));
+			
+			var captor1 = ArgumentCaptor.forClass(Topics.class);
+			var captor2 = ArgumentCaptor.forClass(Topics.class);
+			verify(client, times(2)).listenTopic(captor1.capture());
+			verify(client2).listenTopic(captor2.capture());
+			
+			assertThat(captor1.getAllValues().get(1).getTopics()).hasSize(2);
+			assertThat(captor2.getValue().getTopics()).hasSize(3);
+			assertThat(captor2.getValue().getAuthToken()).isEqualTo("token");
+			assertThat(captor1.getAllValues().get(1).getTopics()).doesNotContainAnyElementsOf(captor2.getValue().getTopics());
+		}
+	}
+	
+	@Test
+	void removeTopicsIsBatchedPerClient(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
+			
+			var topic3 = mock(Topic.class);
+			tested.listenTopic(new Topics(List.of(topic, topic2), "token"));
+			
+			tested.removeTopics(List.of(topic, topic2, topic3));
+			
+			verify(client).removeTopics(List.of(topic, topic2));
+		}
+	}
+	
+	@Test
+	void closedClientIsNotReused(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			when(client.isClosing()).thenReturn(true);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(topics2));
 			
 			assertThat(tested.getClientCount()).isEqualTo(2);
+			verify(client, never()).listenTopic(topics2);
+			verify(client2).listenTopic(topics2);
 		}
 	}
 	
 	@Test
-	void clientError() throws InterruptedException{
+	void clientError(){
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
 			
-			doThrow(new RuntimeException("For tests")).when(client).connectBlocking();
+			doThrow(new RuntimeException("For tests")).when(client).connect();
 			
-			assertThrows(RuntimeException.class, () -> tested.listenTopic(topics));
+			assertDoesNotThrow(() -> tested.listenTopic(topics));
 			
 			assertThat(tested.getClientCount()).isEqualTo(0);
+			assertThat(tested.isTopicListened(topic)).isFalse();
+			verify(scheduler).schedule(any(Runnable.class), anyLong(), eq(MILLISECONDS));
+		}
+	}
+	
+	@Test
+	void connectionsAreLimited(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			tested = new TwitchPubSubWebSocketPool(1, scheduler, 1, 0);
+			
+			when(client.getTopicCount()).thenReturn(0, 1);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			assertDoesNotThrow(() -> tested.listenTopic(topics2));
+			
+			assertThat(tested.getClientCount()).isEqualTo(2);
+			verify(client).connect();
+			verify(client2, never()).connect();
+			verify(client2).listenTopic(topics2);
+			
+			tested.onWebSocketOpened(client);
+			verify(client2).connect();
+		}
+	}
+	
+	@Test
+	void failedConnectionReleasesSlot(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			tested = new TwitchPubSubWebSocketPool(1, scheduler, 1, 0);
+			
+			when(client.getTopicCount()).thenReturn(0, 1);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			assertDoesNotThrow(() -> tested.listenTopic(topics2));
+			verify(client2, never()).connect();
+			
+			tested.onWebSocketClosed(client, ABNORMAL_CLOSE, "test", true);
+			verify(client2).connect();
+		}
+	}
+	
+	@Test
+	void spareIsOpenedAboveThreshold(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			tested = new TwitchPubSubWebSocketPool(10, scheduler, 4, 0.8);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(createTopics(0, 7)));
+			assertThat(tested.getClientCount()).isEqualTo(1);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(createTopics(7, 8)));
+			assertThat(tested.getClientCount()).isEqualTo(2);
+			verify(client2).connect();
+			verify(client2, never()).listenTopic(any());
+		}
+	}
+	
+	@Test
+	void spareIsNotOpenedWhenDisabled(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
+			tested = new TwitchPubSubWebSocketPool(10, scheduler, 4, 0);
+			
+			assertDoesNotThrow(() -> tested.listenTopic(createTopics(0, 10)));
+			assertThat(tested.getClientCount()).isEqualTo(1);
 		}
 	}
 	
@@ -144,13 +300,12 @@ class TwitchPubSubWebSocketPoolTest{
 			var client2 = mock(TwitchPubSubWebSocketClient.class);
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
 			
-			when(client.isTopicListened(any())).thenReturn(false);
 			when(client.getTopicCount()).thenReturn(0);
 			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
 			when(client.getTopicCount()).thenReturn(50);
 			
-			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			assertDoesNotThrow(() -> tested.listenTopic(topics2));
 			
 			assertDoesNotThrow(tested::close);
 			
@@ -206,14 +361,145 @@ class TwitchPubSubWebSocketPoolTest{
 			
 			assertDoesNotThrow(() -> tested.onWebSocketClosed(client, ABNORMAL_CLOSE, "test", true));
 			assertThat(tested.getClientCount()).isEqualTo(0);
+			assertThat(tested.isTopicListened(topic)).isFalse();
 			verify(client2, never()).listenTopic(topics);
 			
 			tested.listenPendingTopics();
+			assertThat(tested.isTopicListened(topic)).isTrue();
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			verify(client2).listenTopic(topics);
 		}
 	}
 	
+	@Test
+	void abnormalClientCloseReconnectsWithBackoff(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			var client3 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2).thenReturn(client3);
+			
+			var topics = new Topics(topic);
+			when(client.getTopics()).thenReturn(Set.of(topics));
+			doThrow(new RuntimeException("For tests")).when(client2).connect();
+			
+			tested.listenTopic(topics);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketClosed(client, ABNORMAL_CLOSE, "test", true);
+			
+			var attempts = ArgumentCaptor.forClass(Runnable.class);
+			var delays = ArgumentCaptor.forClass(Long.class);
+			verify(scheduler).schedule(attempts.capture(), delays.capture(), eq(MILLISECONDS));
+			attempts.getValue().run();
+			
+			assertThat(tested.isTopicListened(topic)).isFalse();
+			verify(scheduler, times(2)).schedule(attempts.capture(), delays.capture(), eq(MILLISECONDS));
+			assertThat(delays.getAllValues().get(0)).isBetween(250L, 500L);
+			assertThat(delays.getAllValues().get(2)).isBetween(500L, 1000L);
+			attempts.getAllValues().get(2).run();
+			
+			assertThat(tested.isTopicListened(topic)).isTrue();
+			verify(client3).listenTopic(topics);
+		}
+	}
+	
+	@Test
+	void normalClientCloseDoesNotReconnect(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
+			
+			tested.listenTopic(topics);
+			tested.onWebSocketClosed(client, NORMAL, "test", false);
+			
+			verifyNoInteractions(scheduler);
+		}
+	}
+	
+	@Test
+	void reconnectRequestedMovesTopicsBeforeClosing(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class);
+				var timeFactory = Mockito.mockStatic(TimeFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			timeFactory.when(TimeFactory::now).thenReturn(NOW).thenReturn(NOW).thenReturn(NOW.plusSeconds(1));
+			
+			var topics = new Topics(topic);
+			when(client.getTopics()).thenReturn(Set.of(topics));
+			when(client.getUuid()).thenReturn("old");
+			
+			tested.listenTopic(topics);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketReconnectRequested(client);
+			
+			var migration = ArgumentCaptor.forClass(Runnable.class);
+			verify(scheduler).execute(migration.capture());
+			migration.getValue().run();
+			
+			verify(client2).listenTopic(topics);
+			verify(client, never()).close(anyInt(), anyString());
+			assertThat(tested.isTopicListened(topic)).isTrue();
+			assertThat(tested.getClientCount()).isEqualTo(1);
+			
+			tested.onTopicsListened(client2, topics);
+			verify(client).close(eq(NORMAL), anyString());
+			
+			tested.onWebSocketClosed(client, NORMAL, "test", false);
+			verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), eq(MILLISECONDS));
+			assertThat(tested.getHandoverMetrics()).containsExactly(PubSubHandoverMetrics.builder()
+					.socket("old")
+					.reason(PubSubHandoverReason.RECONNECT_REQUESTED)
+					.topics(1)
+					.gapMs(0)
+					.durationMs(1000)
+					.build());
+		}
+	}
+	
+	@Test
+	void reconnectRequestedOnClosedClient(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
+			
+			tested.listenTopic(topics);
+			tested.onWebSocketClosed(client, NORMAL, "test", false);
+			tested.onWebSocketReconnectRequested(client);
+			
+			var migration = ArgumentCaptor.forClass(Runnable.class);
+			verify(scheduler).execute(migration.capture());
+			migration.getValue().run();
+			
+			assertThat(tested.getClientCount()).isEqualTo(0);
+			assertThat(tested.getHandoverMetrics()).isEmpty();
+		}
+	}
+	
+	@Test
+	void connectionLostGapIsMeasured(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class);
+				var timeFactory = Mockito.mockStatic(TimeFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			timeFactory.when(TimeFactory::now).thenReturn(NOW).thenReturn(NOW).thenReturn(NOW.plusSeconds(2));
+			
+			var topics = new Topics(topic);
+			when(client.getTopics()).thenReturn(Set.of(topics));
+			when(client.getUuid()).thenReturn("lost");
+			
+			tested.listenTopic(topics);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketClosed(client, ABNORMAL_CLOSE, "test", true);
+			tested.listenPendingTopics();
+			tested.onTopicsListened(client2, topics);
+			
+			assertThat(tested.getHandoverMetrics()).containsExactly(PubSubHandoverMetrics.builder()
+					.socket("lost")
+					.reason(PubSubHandoverReason.CONNECTION_LOST)
+					.topics(1)
+					.gapMs(2000)
+					.durationMs(2000)
+					.build());
+		}
+	}
+	
 	@Test
 	void messagesAreRedirected(){
 		var response = mock(MessageResponse.class);
@@ -231,6 +517,25 @@ class TwitchPubSubWebSocketPoolTest{
 		verify(twitchMessageListener).onTwitchMessage(topic, message);
 	}
 	
+	@Test
+	void duplicateMessagesAreDropped(){
+		var response = mock(MessageResponse.class);
+		var data = mock(MessageData.class);
+		var message = mock(IPubSubMessage.class);
+		
+		when(response.getData()).thenReturn(data);
+		when(data.getMessage()).thenReturn(message);
+		when(data.getTopic()).thenReturn(topic);
+		when(data.getContentHash()).thenReturn(123L);
+		
+		tested.addListener(twitchMessageListener);
+		tested.onWebSocketMessage(response);
+		tested.onWebSocketMessage(response);
+		
+		verify(twitchMessageListener).onTwitchMessage(topic, message);
+		assertThat(tested.getPoolMetrics().getDuplicateMessages()).isEqualTo(1);
+	}
+	
 	@Test
 	void pingSendsPing(){
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class);
@@ -243,6 +548,7 @@ class TwitchPubSubWebSocketPoolTest{
 			when(client.isClosing()).thenReturn(false);
 			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			tested.onWebSocketOpened(client);
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			assertDoesNotThrow(tested::ping);
@@ -263,6 +569,7 @@ class TwitchPubSubWebSocketPoolTest{
 			when(client.isClosing()).thenReturn(true);
 			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			tested.onWebSocketOpened(client);
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			assertDoesNotThrow(tested::ping);
@@ -282,6 +589,7 @@ class TwitchPubSubWebSocketPoolTest{
 			when(client.isOpen()).thenReturn(false);
 			
 			assertDoesNotThrow(() -> tested.listenTopic(topics));
+			tested.onWebSocketOpened(client);
 			assertThat(tested.getClientCount()).isEqualTo(1);
 			
 			assertDoesNotThrow(tested::ping);
@@ -295,11 +603,11 @@ class TwitchPubSubWebSocketPoolTest{
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
 			
-			when(client.isTopicListened(topic)).thenReturn(true);
 			tested.listenTopic(topics);
 			
 			tested.removeTopic(topic);
-			verify(client).removeTopic(topic);
+			verify(client).removeTopics(List.of(topic));
+			assertThat(tested.isTopicListened(topic)).isFalse();
 		}
 	}
 	
@@ -308,11 +616,215 @@ class TwitchPubSubWebSocketPoolTest{
 		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
 			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client);
 			
-			when(client.isTopicListened(topic)).thenReturn(false);
 			tested.listenTopic(topics);
 			
-			tested.removeTopic(topic);
-			verify(client, never()).removeTopic(topic);
+			tested.removeTopic(topic2);
+			verify(client, never()).removeTopics(any());
+		}
+	}
+	
+	@Test
+	void compactionMovesSparseClientToFullerOne(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			var client3 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2).thenReturn(client3);
+			
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketOpened(client2);
+			when(client.getTopicCount()).thenReturn(30);
+			when(client2.getTopicCount()).thenReturn(1);
+			when(client2.getTopics()).thenReturn(Set.of(topics2));
+			when(client2.getUuid()).thenReturn("sparse");
+			
+			assertThat(tested.compact()).isEqualTo(1);
+			
+			verify(client).listenTopic(topics2);
+			verify(client2, never()).close(anyInt(), anyString());
+			assertThat(tested.getClientCount()).isEqualTo(1);
+			assertThat(tested.isTopicListened(topic2)).isTrue();
+			
+			tested.onTopicsListened(client, topics2);
+			verify(client2).close(eq(NORMAL), anyString());
+			assertThat(tested.getHandoverMetrics()).singleElement()
+					.satisfies(metrics -> assertThat(metrics.getReason()).isEqualTo(PubSubHandoverReason.COMPACTION));
+			verifyNoInteractions(client3);
+		}
+	}
+	
+	@Test
+	void compactionKeepsWellFilledClients(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketOpened(client2);
+			when(client.getTopicCount()).thenReturn(40);
+			when(client2.getTopicCount()).thenReturn(30);
+			
+			assertThat(tested.compact()).isEqualTo(0);
+			assertThat(tested.getClientCount()).isEqualTo(2);
 		}
 	}
-}
\ No newline at end of file
+	
+	@Test
+	void compactionNeedsRoomInOtherClients(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketOpened(client2);
+			when(client.getTopicCount()).thenReturn(40);
+			when(client2.getTopicCount()).thenReturn(20);
+			
+			assertThat(tested.compact()).isEqualTo(0);
+			assertThat(tested.getClientCount()).isEqualTo(2);
+			verify(client, never()).listenTopic(topics2);
+		}
+	}
+	
+	@Test
+	void compactionKeepsOneEmptySpare(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketOpened(client2);
+			when(client.getTopicCount()).thenReturn(45);
+			when(client2.getTopicCount()).thenReturn(0);
+			
+			assertThat(tested.compact()).isEqualTo(0);
+			assertThat(tested.getClientCount()).isEqualTo(2);
+		}
+	}
+	
+	@Test
+	void compactionIgnoresConnectingClients(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			tested = new TwitchPubSubWebSocketPool(50, scheduler, 4, 0);
+			
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			tested.onWebSocketOpened(client);
+			when(client.getTopicCount()).thenReturn(30);
+			when(client2.getTopicCount()).thenReturn(1);
+			
+			assertThat(tested.compact()).isEqualTo(0);
+			assertThat(tested.getClientCount()).isEqualTo(2);
+		}
+	}
+	
+	@Test
+	void compactionNeverDrainsTargets(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			var client3 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2).thenReturn(client3);
+			tested = new TwitchPubSubWebSocketPool(50, scheduler, 4, 0);
+			
+			var sparseTopics = createTopics(10, 15);
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			when(client2.getTopicCount()).thenReturn(50);
+			tested.listenTopic(sparseTopics);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketOpened(client2);
+			tested.onWebSocketOpened(client3);
+			when(client.getTopicCount()).thenReturn(46);
+			when(client2.getTopicCount()).thenReturn(24);
+			when(client3.getTopicCount()).thenReturn(5);
+			when(client3.getTopics()).thenReturn(Set.of(sparseTopics));
+			
+			assertThat(tested.compact()).isEqualTo(1);
+			
+			assertThat(tested.getClientCount()).isEqualTo(2);
+			assertThat(tested.isTopicListened(sparseTopics.getTopics().iterator().next())).isTrue();
+			verify(client2, never()).close(anyInt(), anyString());
+		}
+	}
+	
+	@Test
+	void compactionCountsTopicsMovedInTheSamePass(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			var client3 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2).thenReturn(client3);
+			tested = new TwitchPubSubWebSocketPool(50, scheduler, 4, 0);
+			
+			var sparseTopics = createTopics(10, 20);
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			when(client2.getTopicCount()).thenReturn(50);
+			tested.listenTopic(sparseTopics);
+			tested.onWebSocketOpened(client);
+			tested.onWebSocketOpened(client2);
+			tested.onWebSocketOpened(client3);
+			when(client.getTopicCount()).thenReturn(40);
+			lenient().when(client2.getTopicCount()).thenReturn(10);
+			lenient().when(client3.getTopicCount()).thenReturn(10);
+			lenient().when(client2.getTopics()).thenReturn(Set.of(topics2));
+			lenient().when(client3.getTopics()).thenReturn(Set.of(sparseTopics));
+			
+			assertThat(tested.compact()).isEqualTo(1);
+			assertThat(tested.getClientCount()).isEqualTo(2);
+		}
+	}
+	
+	@Test
+	void poolMetrics(){
+		try(var twitchClientFactory = Mockito.mockStatic(TwitchWebSocketClientFactory.class)){
+			var client2 = mock(TwitchPubSubWebSocketClient.class);
+			twitchClientFactory.when(TwitchWebSocketClientFactory::createPubSubClient).thenReturn(client).thenReturn(client2);
+			
+			when(client.getTopicCount()).thenReturn(0);
+			tested.listenTopic(topics);
+			when(client.getTopicCount()).thenReturn(50);
+			tested.listenTopic(topics2);
+			when(client.getTopicCount()).thenReturn(20);
+			when(client2.getTopicCount()).thenReturn(30);
+			
+			var metrics = tested.getPoolMetrics();
+			assertThat(metrics.getSockets()).isEqualTo(2);
+			assertThat(metrics.getTopics()).isEqualTo(50);
+			assertThat(metrics.getTopicsPerSocket()).containsExactly(30, 20);
+			assertThat(metrics.getFillRatio()).isEqualTo(0.5);
+			assertThat(metrics.getDrainingSockets()).isEqualTo(0);
+			assertThat(metrics.getCompactedSockets()).isEqualTo(0);
+			assertThat(metrics.getDuplicateMessages()).isEqualTo(0);
+		}
+	}
+	
+	private static Topics createTopics(int from, int to){
+		var topics = IntStream.range(from, to)
+				.mapToObj(i -> Topic.builder().name(TopicName.VIDEO_PLAYBACK_BY_ID).target("target" + i).build())
+				.toList();
+		return new Topics(topics, "token");
+	}
+}
@@ -28,8 +28,16 @@ class MessageDataTest{
 			
 			assertDoesNotThrow(() -> tested.setMessage(JSON_CONTENT));
 			assertThat(tested.getMessage()).isEqualTo(message);
+			assertThat(tested.getContentHash()).isEqualTo(MessageData.hashContent(JSON_CONTENT));
 			
 			jacksonUtils.verify(() -> JacksonUtils.read(eq(JSON_CONTENT), any()));
 		}
 	}
-}
\ No newline at end of file
+	
+	@Test
+	void hashContent(){
+		assertThat(MessageData.hashContent("")).isNotZero();
+		assertThat(MessageData.hashContent(JSON_CONTENT)).isEqualTo(MessageData.hashContent(new StringBuilder(JSON_CONTENT)));
+		assertThat(MessageData.hashContent(JSON_CONTENT)).isNotEqualTo(MessageData.hashContent("other-content"));
+	}
+}
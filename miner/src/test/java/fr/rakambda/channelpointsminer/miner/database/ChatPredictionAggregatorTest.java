@@ -0,0 +1,158 @@
+package fr.rakambda.channelpointsminer.miner.database;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ParallelizableTest
+@ExtendWith(MockitoExtension.class)
+class ChatPredictionAggregatorTest{
+	private static final String CHANNEL_ID = "channel-id";
+	private static final String CHANNEL_NAME = "channel-name";
+	private static final String CHANNEL_ID_2 = "channel-id-2";
+	private static final String CHANNEL_NAME_2 = "channel-name-2";
+	private static final String USERNAME_1 = "username1";
+	private static final String USERNAME_2 = "username2";
+	private static final String BADGE_1 = "blue-1";
+	private static final String BADGE_2 = "pink-2";
+	
+	@Mock
+	private IDatabase database;
+	
+	private ChatPredictionAggregator tested;
+	
+	@BeforeEach
+	void setUp() throws SQLException{
+		tested = new ChatPredictionAggregator(database);
+		
+		lenient().when(database.getStreamerIdFromName(CHANNEL_NAME)).thenReturn(Optional.of(CHANNEL_ID));
+		lenient().when(database.getStreamerIdFromName(CHANNEL_NAME_2)).thenReturn(Optional.of(CHANNEL_ID_2));
+	}
+	
+	@Test
+	void addDoesNotWrite(){
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		
+		assertThat(tested.getPendingCount()).isEqualTo(1);
+		verifyNoInteractions(database);
+	}
+	
+	@Test
+	void flushWritesDeduplicatedPredictions() throws SQLException{
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.add(CHANNEL_NAME, "UserName1", BADGE_1);
+		tested.add(CHANNEL_NAME, USERNAME_2, BADGE_1);
+		tested.add(CHANNEL_NAME, USERNAME_2, BADGE_2);
+		tested.add(CHANNEL_NAME_2, USERNAME_1, BADGE_2);
+		
+		assertThat(tested.getPendingCount()).isEqualTo(3);
+		
+		tested.flush();
+		
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_1, USERNAME_2, BADGE_2));
+		verify(database).addUserPredictions(CHANNEL_ID_2, Map.of(USERNAME_1, BADGE_2));
+		assertThat(tested.getPendingCount()).isZero();
+	}
+	
+	@Test
+	void flushOnlyOneChannel() throws SQLException{
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.add(CHANNEL_NAME_2, USERNAME_1, BADGE_2);
+		
+		tested.flush(CHANNEL_NAME);
+		
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_1));
+		verify(database, never()).addUserPredictions(CHANNEL_ID_2, Map.of(USERNAME_1, BADGE_2));
+		assertThat(tested.getPendingCount()).isEqualTo(1);
+	}
+	
+	@Test
+	void recordedUsersAreNotWrittenAgain() throws SQLException{
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.flush();
+		
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.add(CHANNEL_NAME, USERNAME_2, BADGE_2);
+		tested.flush();
+		
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_1));
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_2, BADGE_2));
+	}
+	
+	@Test
+	void clearForgetsChannel() throws SQLException{
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.flush();
+		
+		tested.add(CHANNEL_NAME, USERNAME_2, BADGE_2);
+		tested.clear(CHANNEL_NAME);
+		assertThat(tested.getPendingCount()).isZero();
+		
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_2);
+		tested.flush();
+		
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_1));
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_2));
+		verify(database, never()).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_2, BADGE_2));
+	}
+	
+	@Test
+	void flushNothingPending(){
+		tested.flush();
+		tested.flush(CHANNEL_NAME);
+		
+		verifyNoInteractions(database);
+	}
+	
+	@Test
+	void unknownChannelIsDropped() throws SQLException{
+		when(database.getStreamerIdFromName(CHANNEL_NAME)).thenReturn(Optional.empty());
+		
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.flush();
+		
+		verify(database, never()).addUserPredictions(anyString(), any());
+		assertThat(tested.getPendingCount()).isZero();
+	}
+	
+	@Test
+	void failedFlushIsRetried() throws SQLException{
+		lenient().doThrow(new SQLException("For tests")).when(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_1));
+		
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.flush();
+		assertThat(tested.getPendingCount()).isEqualTo(1);
+		
+		tested.add(CHANNEL_NAME, USERNAME_2, BADGE_2);
+		tested.flush();
+		
+		verify(database).addUserPredictions(CHANNEL_ID, Map.of(USERNAME_1, BADGE_1, USERNAME_2, BADGE_2));
+		assertThat(tested.getPendingCount()).isZero();
+	}
+	
+	@Test
+	void unexpectedErrorDoesNotStopOtherChannels() throws SQLException{
+		when(database.getStreamerIdFromName(CHANNEL_NAME)).thenThrow(new IllegalStateException("For tests"));
+		
+		tested.add(CHANNEL_NAME, USERNAME_1, BADGE_1);
+		tested.add(CHANNEL_NAME_2, USERNAME_1, BADGE_2);
+		tested.flush();
+		
+		verify(database).addUserPredictions(CHANNEL_ID_2, Map.of(USERNAME_1, BADGE_2));
+	}
+}
@@ -13,6 +13,7 @@ import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.PointRea
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Prediction;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Predictor;
 import fr.rakambda.channelpointsminer.miner.event.impl.ChatMessageEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.EventCreatedEvent;
 import fr.rakambda.channelpointsminer.miner.event.impl.EventUpdatedEvent;
 import fr.rakambda.channelpointsminer.miner.event.impl.PointsEarnedEvent;
 import fr.rakambda.channelpointsminer.miner.event.impl.PointsSpentEvent;
@@ -35,15 +36,19 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ParallelizableTest
@@ -75,6 +80,8 @@ class DatabaseEventHandlerTest{
 	@Mock
 	private IDatabase database;
 	@Mock
+	private ChatPredictionAggregator chatPredictionAggregator;
+	@Mock
 	private Event eventData;
 	@Mock
 	private Outcome blueOutcome;
@@ -366,7 +373,38 @@ class DatabaseEventHandlerTest{
 	void closeClosesDatabase(){
 		tested.close();
 		
-		verify(database).close();
+		var inOrder = inOrder(chatPredictionAggregator, database);
+		inOrder.verify(chatPredictionAggregator).flush();
+		inOrder.verify(database).close();
+	}
+	
+	@Test
+	void onEventCreated() throws SQLException{
+		var event = mock(EventCreatedEvent.class);
+		when(event.getStreamerUsername()).thenReturn(Optional.of(CHANNEL_NAME));
+		
+		assertDoesNotThrow(() -> tested.onEvent(event));
+		
+		verify(chatPredictionAggregator).clear(CHANNEL_NAME);
+		verify(database).deleteUserPredictionsForChannel(CHANNEL_NAME);
+	}
+	
+	@Test
+	void onPredictionUpdateFlushesChatOnStatusChange(){
+		var event = mock(EventUpdatedEvent.class);
+		
+		when(event.getEvent()).thenReturn(eventData);
+		when(event.getStreamerUsername()).thenReturn(CHANNEL_NAME);
+		
+		when(eventData.getStatus()).thenReturn(EventStatus.ACTIVE);
+		assertDoesNotThrow(() -> tested.onEvent(event));
+		assertDoesNotThrow(() -> tested.onEvent(event));
+		verify(chatPredictionAggregator).flush(CHANNEL_NAME);
+		
+		when(eventData.getStatus()).thenReturn(EventStatus.LOCKED);
+		assertDoesNotThrow(() -> tested.onEvent(event));
+		verify(chatPredictionAggregator, times(2)).flush(CHANNEL_NAME);
+		verify(chatPredictionAggregator, never()).clear(anyString());
 	}
 	
 	@Test
@@ -397,7 +435,10 @@ class DatabaseEventHandlerTest{
 		
 		assertDoesNotThrow(() -> tested.onEvent(event));
 		
-		verify(database).cancelPrediction(eventData);
+		var inOrder = inOrder(chatPredictionAggregator, database);
+		inOrder.verify(chatPredictionAggregator).flush(CHANNEL_NAME);
+		inOrder.verify(database).cancelPrediction(eventData);
+		inOrder.verify(chatPredictionAggregator).clear(CHANNEL_NAME);
 	}
 	
 	@Test
@@ -413,7 +454,10 @@ class DatabaseEventHandlerTest{
 		
 		var returnRatio = (double) (BLUE_POINTS + PINK_POINTS) / BLUE_POINTS;
 		
-		verify(database).resolvePrediction(eventData, BLUE_TITLE, BADGE_1, returnRatio);
+		var inOrder = inOrder(chatPredictionAggregator, database);
+		inOrder.verify(chatPredictionAggregator).flush(CHANNEL_NAME);
+		inOrder.verify(database).resolvePrediction(eventData, BLUE_TITLE, BADGE_1, returnRatio);
+		inOrder.verify(chatPredictionAggregator).clear(CHANNEL_NAME);
 	}
 	
 	@Test
@@ -433,33 +477,17 @@ class DatabaseEventHandlerTest{
 	}
 	
 	@Test
-	void onChatMessagePredictionRecorded() throws SQLException{
-		var event = mock(ChatMessageEvent.class);
-		
-		when(event.getStreamer()).thenReturn(CHANNEL_NAME);
-		when(event.getActor()).thenReturn(ACTOR);
-		when(event.getBadges()).thenReturn(BADGE_PREDICTION_INFO);
-		
-		when(database.getStreamerIdFromName(CHANNEL_NAME)).thenReturn(Optional.of(CHANNEL_ID));
-		
-		assertDoesNotThrow(() -> tested.onEvent(event));
-		
-		verify(database).addUserPrediction(ACTOR, CHANNEL_ID, PREDICTION);
-	}
-	
-	@Test
-	void onChatMessagePredictionChannelUnknown() throws SQLException{
+	void onChatMessagePredictionRecorded(){
 		var event = mock(ChatMessageEvent.class);
 		
 		when(event.getStreamer()).thenReturn(CHANNEL_NAME);
 		when(event.getActor()).thenReturn(ACTOR);
 		when(event.getBadges()).thenReturn(BADGE_PREDICTION_INFO);
 		
-		when(database.getStreamerIdFromName(CHANNEL_NAME)).thenReturn(Optional.empty());
-		
 		assertDoesNotThrow(() -> tested.onEvent(event));
 		
-		verify(database, never()).addUserPrediction(ACTOR, CHANNEL_ID, PREDICTION);
+		verify(chatPredictionAggregator).add(CHANNEL_NAME, ACTOR, PREDICTION);
+		verifyNoInteractions(database);
 	}
 	
 	@ParameterizedTest
@@ -475,5 +503,13 @@ class DatabaseEventHandlerTest{
 		assertDoesNotThrow(() -> tested.onEvent(event));
 		
 		verify(database, never()).addUserPrediction(any(), any(), any());
+		verify(chatPredictionAggregator, never()).add(any(), any(), any());
+	}
+	
+	@Test
+	void hasPredictionBadge(){
+		assertThat(DatabaseEventHandler.hasPredictionBadge(BADGE_PREDICTION_INFO)).isTrue();
+		assertThat(DatabaseEventHandler.hasPredictionBadge(BADGE_NO_PREDICTION_INFO)).isFalse();
+		assertThat(DatabaseEventHandler.hasPredictionBadge("")).isFalse();
 	}
-}
\ No newline at end of file
+}
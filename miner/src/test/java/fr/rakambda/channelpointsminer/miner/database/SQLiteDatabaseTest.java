@@ -23,6 +23,8 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
 import java.util.function.Supplier;
 import static org.assertj.db.api.Assertions.assertThat;
 import static org.mockito.Mockito.lenient;
@@ -295,6 +297,48 @@ class SQLiteDatabaseTest{
 		assertThat(changesUserPrediction).hasNumberOfChanges(0);
 	}
 	
+	@Test
+	void addPredictionsInBulk() throws SQLException{
+		var changesUserPrediction = this.changesUserPrediction.get();
+		var changesPredictionUser = this.changesPredictionUser.get();
+		
+		var existingUserId = tested.addUserPrediction(USER_USERNAME, CHANNEL_ID, "B1");
+		
+		changesUserPrediction.setStartPointNow();
+		changesPredictionUser.setStartPointNow();
+		tested.addUserPredictions(CHANNEL_ID, Map.of(USER_USERNAME.toUpperCase(Locale.ROOT), "B2", "user2", "B2"));
+		changesUserPrediction.setEndPointNow();
+		changesPredictionUser.setEndPointNow();
+		
+		assertThat(changesPredictionUser).hasNumberOfChanges(1)
+				.changeOfCreation()
+				.column(ID_COL).valueAtEndPoint().isNotEqualTo(existingUserId)
+				.column(USERNAME_COL).valueAtEndPoint().isEqualTo("user2")
+				.column(CHANNEL_ID_COL).valueAtEndPoint().isEqualTo(CHANNEL_ID);
+		
+		assertThat(changesUserPrediction).hasNumberOfChanges(1)
+				.changeOfCreation()
+				.column(CHANNEL_ID_COL).valueAtEndPoint().isEqualTo(CHANNEL_ID)
+				.column(BADGE_COL).valueAtEndPoint().isEqualTo("B2");
+	}
+	
+	@Test
+	void addPredictionsInBulkWithOnlyNewUsers() throws SQLException{
+		var changesUserPrediction = this.changesUserPrediction.get();
+		var changesPredictionUser = this.changesPredictionUser.get();
+		
+		changesUserPrediction.setStartPointNow();
+		changesPredictionUser.setStartPointNow();
+		tested.addUserPredictions(CHANNEL_ID, Map.of("user2", "B1", "User3", "B2", "user4", "B2"));
+		changesUserPrediction.setEndPointNow();
+		changesPredictionUser.setEndPointNow();
+		
+		assertThat(changesPredictionUser).hasNumberOfChanges(3)
+				.ofCreation().hasNumberOfChanges(3);
+		assertThat(changesUserPrediction).hasNumberOfChanges(3)
+				.ofCreation().hasNumberOfChanges(3);
+	}
+	
 	@Test
 	void cancelPrediction() throws SQLException{
 		var changes = changesResolvedPrediction.get();
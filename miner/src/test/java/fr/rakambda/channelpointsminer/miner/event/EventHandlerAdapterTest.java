@@ -0,0 +1,110 @@
+package fr.rakambda.channelpointsminer.miner.event;
+
+import fr.rakambda.channelpointsminer.miner.event.impl.ChatMessageEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PointsEarnedEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.StreamUpEvent;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+
+@ParallelizableTest
+class EventHandlerAdapterTest{
+	@Test
+	void dispatchesToConcreteAndInterfaceMethods(){
+		var tested = new RecordingHandler();
+		var event = mock(PointsEarnedEvent.class);
+		
+		tested.onEvent(event);
+		
+		assertThat(tested.calls).containsExactly("PointsEarnedEvent", "ILoggableEvent");
+	}
+	
+	@Test
+	void dispatchesNonLoggableEvent(){
+		var tested = new RecordingHandler();
+		var event = mock(ChatMessageEvent.class);
+		
+		tested.onEvent(event);
+		tested.onEvent(event);
+		
+		assertThat(tested.calls).containsExactly("ChatMessageEvent", "ChatMessageEvent");
+	}
+	
+	@Test
+	void unknownEvent(){
+		var tested = new RecordingHandler();
+		
+		assertDoesNotThrow(() -> tested.onEvent(mock(IEvent.class)));
+		assertThat(tested.calls).isEmpty();
+	}
+	
+	@Test
+	void exceptionIsCaught(){
+		var tested = new EventHandlerAdapter(){
+			@Override
+			public void onChatMessageEvent(@NotNull ChatMessageEvent event) throws Exception{
+				throw new Exception("For tests");
+			}
+		};
+		
+		assertDoesNotThrow(() -> tested.onEvent(mock(ChatMessageEvent.class)));
+	}
+	
+	@Test
+	void interestedInOverriddenMethods(){
+		var tested = new RecordingHandler();
+		
+		assertThat(tested.isInterestedIn(PointsEarnedEvent.class)).isTrue();
+		assertThat(tested.isInterestedIn(ChatMessageEvent.class)).isTrue();
+		assertThat(tested.isInterestedIn(StreamUpEvent.class)).isTrue();
+	}
+	
+	@Test
+	void notInterestedInOtherEvents(){
+		var tested = new EventHandlerAdapter(){
+			@Override
+			public void onChatMessageEvent(@NotNull ChatMessageEvent event){
+			}
+		};
+		
+		assertThat(tested.isInterestedIn(ChatMessageEvent.class)).isTrue();
+		assertThat(tested.isInterestedIn(PointsEarnedEvent.class)).isFalse();
+		assertThat(tested.isInterestedIn(IEvent.class)).isFalse();
+	}
+	
+	@Test
+	void interestedInEverythingIfDispatchOverridden(){
+		var tested = new EventHandlerAdapter(){
+			@Override
+			public void onEvent(@NotNull IEvent event){
+			}
+		};
+		
+		assertThat(tested.isInterestedIn(PointsEarnedEvent.class)).isTrue();
+		assertThat(tested.isInterestedIn(IEvent.class)).isTrue();
+	}
+	
+	private static class RecordingHandler extends EventHandlerAdapter{
+		private final List<String> calls = new ArrayList<>();
+		
+		@Override
+		public void onPointsEarnedEvent(@NotNull PointsEarnedEvent event){
+			calls.add("PointsEarnedEvent");
+		}
+		
+		@Override
+		public void onChatMessageEvent(@NotNull ChatMessageEvent event){
+			calls.add("ChatMessageEvent");
+		}
+		
+		@Override
+		public void onILoggableEvent(@NotNull ILoggableEvent event){
+			calls.add("ILoggableEvent");
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package fr.rakambda.channelpointsminer.miner.event.bus;
+
+import fr.rakambda.channelpointsminer.miner.event.EventHandlerAdapter;
+import fr.rakambda.channelpointsminer.miner.event.IEvent;
+import fr.rakambda.channelpointsminer.miner.event.IEventHandler;
+import fr.rakambda.channelpointsminer.miner.event.impl.ChatMessageEvent;
+import fr.rakambda.channelpointsminer.miner.event.impl.PointsEarnedEvent;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.LinkedList;
+import java.util.Queue;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ParallelizableTest
+@ExtendWith(MockitoExtension.class)
+class EventBusTest{
+	private static final int CAPACITY = 2;
+	private static final String STREAMER_ID_1 = "streamer-id-1";
+	private static final String STREAMER_ID_2 = "streamer-id-2";
+	
+	private final Queue<Runnable> tasks = new LinkedList<>();
+	
+	private EventBus tested;
+	
+	@Mock
+	private IEventHandler handler;
+	@Mock
+	private IEventHandler handler2;
+	@Mock
+	private CoalescingHandler coalescingHandler;
+	
+	@BeforeEach
+	void setUp(){
+		tested = new EventBus(tasks::add, CAPACITY);
+		tested.setPolicy(ChatMessageEvent.class, EventPolicy.dropOldest());
+		tested.setPolicy(CoalescingHandler.class, PointsEarnedEvent.class, EventPolicy.coalesce(PointsEarnedEvent.class, PointsEarnedEvent::getStreamerId));
+	}
+	
+	private void runTasks(){
+		Runnable task;
+		while((task = tasks.poll()) != null){
+			task.run();
+		}
+	}
+	
+	@Test
+	void noHandlers(){
+		assertDoesNotThrow(() -> tested.publish(mock(IEvent.class)));
+		assertThat(tasks).isEmpty();
+	}
+	
+	@Test
+	void eventsAreDispatchedInOrder(){
+		tested.register(handler);
+		tested.register(handler2);
+		
+		var event1 = mock(IEvent.class);
+		var event2 = mock(IEvent.class);
+		tested.publish(event1);
+		tested.publish(event2);
+		
+		assertThat(tasks).hasSize(2);
+		runTasks();
+		
+		var order = inOrder(handler);
+		order.verify(handler).onEvent(event1);
+		order.verify(handler).onEvent(event2);
+		verify(handler2).onEvent(event1);
+		verify(handler2).onEvent(event2);
+	}
+	
+	@Test
+	void dropNewestPolicy(){
+		tested.register(handler);
+		
+		var event1 = mock(IEvent.class);
+		var event2 = mock(IEvent.class);
+		var event3 = mock(IEvent.class);
+		tested.publish(event1);
+		tested.publish(event2);
+		tested.publish(event3);
+		
+		assertThat(tested.getMetrics()).singleElement().satisfies(metrics -> {
+			assertThat(metrics.getQueueDepth()).isEqualTo(2);
+			assertThat(metrics.getDropped()).isEqualTo(1);
+		});
+		
+		runTasks();
+		verify(handler).onEvent(event1);
+		verify(handler).onEvent(event2);
+		verify(handler, never()).onEvent(event3);
+	}
+	
+	@Test
+	void dropOldestPolicy(){
+		tested.register(handler);
+		
+		var event1 = mock(ChatMessageEvent.class);
+		var event2 = mock(ChatMessageEvent.class);
+		var event3 = mock(ChatMessageEvent.class);
+		tested.publish(event1);
+		tested.publish(event2);
+		tested.publish(event3);
+		
+		runTasks();
+		verify(handler, never()).onEvent(event1);
+		verify(handler).onEvent(event2);
+		verify(handler).onEvent(event3);
+		
+		assertThat(tested.getMetrics()).singleElement().satisfies(metrics -> {
+			assertThat(metrics.getQueueDepth()).isZero();
+			assertThat(metrics.getDropped()).isEqualTo(1);
+			assertThat(metrics.getHandled()).isEqualTo(2);
+		});
+	}
+	
+	@Test
+	void coalescePolicy(){
+		tested.register(coalescingHandler);
+		
+		var event1 = mockPointsEarned(STREAMER_ID_1);
+		var event2 = mockPointsEarned(STREAMER_ID_2);
+		var event3 = mockPointsEarned(STREAMER_ID_1);
+		var event4 = mockPointsEarned(STREAMER_ID_1);
+		tested.publish(event1);
+		tested.publish(event2);
+		tested.publish(event3);
+		tested.publish(event4);
+		
+		runTasks();
+		var order = inOrder(coalescingHandler);
+		order.verify(coalescingHandler).onEvent(event4);
+		order.verify(coalescingHandler).onEvent(event2);
+		verify(coalescingHandler, never()).onEvent(event1);
+		verify(coalescingHandler, never()).onEvent(event3);
+		
+		assertThat(tested.getMetrics()).singleElement().satisfies(metrics -> {
+			assertThat(metrics.getCoalesced()).isEqualTo(2);
+			assertThat(metrics.getDropped()).isZero();
+			assertThat(metrics.getHandled()).isEqualTo(2);
+		});
+	}
+	
+	@Test
+	void coalesceAfterHandled(){
+		tested.register(coalescingHandler);
+		
+		var event1 = mockPointsEarned(STREAMER_ID_1);
+		var event2 = mockPointsEarned(STREAMER_ID_1);
+		tested.publish(event1);
+		runTasks();
+		tested.publish(event2);
+		runTasks();
+		
+		verify(coalescingHandler).onEvent(event1);
+		verify(coalescingHandler).onEvent(event2);
+	}
+	
+	@Test
+	void handlerPolicyOnlyAppliesToItsHandler(){
+		tested.register(handler);
+		tested.register(coalescingHandler);
+		
+		var event1 = mockPointsEarned(STREAMER_ID_1);
+		var event2 = mockPointsEarned(STREAMER_ID_1);
+		tested.publish(event1);
+		tested.publish(event2);
+		runTasks();
+		
+		var order = inOrder(handler);
+		order.verify(handler).onEvent(event1);
+		order.verify(handler).onEvent(event2);
+		verify(coalescingHandler, never()).onEvent(event1);
+		verify(coalescingHandler).onEvent(event2);
+	}
+	
+	@Test
+	void failingHandlerDoesNotStopQueue(){
+		tested.register(handler);
+		
+		var event1 = mock(IEvent.class);
+		var event2 = mock(IEvent.class);
+		doThrow(new IllegalStateException("For tests")).when(handler).onEvent(event1);
+		
+		tested.publish(event1);
+		tested.publish(event2);
+		runTasks();
+		
+		verify(handler).onEvent(event2);
+		assertThat(tested.getMetrics()).singleElement().satisfies(metrics -> assertThat(metrics.getHandled()).isEqualTo(2));
+	}
+	
+	@Test
+	void adapterOnlyReceivesHandledEvents(){
+		var adapter = new EventHandlerAdapter(){
+			@Override
+			public void onChatMessageEvent(@NotNull ChatMessageEvent event){
+			}
+		};
+		tested.register(adapter);
+		tested.register(handler);
+		
+		var pointsEvent = mockPointsEarned(STREAMER_ID_1);
+		tested.publish(pointsEvent);
+		assertThat(tasks).hasSize(1);
+		runTasks();
+		verify(handler).onEvent(pointsEvent);
+		
+		tested.publish(mock(ChatMessageEvent.class));
+		assertThat(tasks).hasSize(2);
+	}
+	
+	@Test
+	void noInterestedHandler(){
+		tested.register(new EventHandlerAdapter(){
+			@Override
+			public void onChatMessageEvent(@NotNull ChatMessageEvent event){
+			}
+		});
+		
+		tested.publish(mock(IEvent.class));
+		assertThat(tasks).isEmpty();
+	}
+	
+	@Test
+	void invalidCapacity(){
+		assertThrows(IllegalArgumentException.class, () -> new EventBus(tasks::add, 0));
+	}
+	
+	private PointsEarnedEvent mockPointsEarned(String streamerId){
+		var event = mock(PointsEarnedEvent.class);
+		lenient().when(event.getStreamerId()).thenReturn(streamerId);
+		return event;
+	}
+	
+	private interface CoalescingHandler extends IEventHandler{
+	}
+}
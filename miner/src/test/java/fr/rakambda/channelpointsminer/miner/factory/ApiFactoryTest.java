@@ -67,17 +67,17 @@ class ApiFactoryTest{
 	
 	@Test
 	void createGqlApi(){
-		assertThat(ApiFactory.createGqlApi(twitchLogin, integrityProvider)).isNotNull().isInstanceOf(GQLApi.class);
+		assertThat(ApiFactory.createGqlApi(twitchLogin, integrityProvider, Runnable::run)).isNotNull().isInstanceOf(GQLApi.class);
 	}
 	
 	@Test
 	void createMobileGqlApi(){
-		assertThat(ApiFactory.createGqlApi(mobileTwitchLogin, integrityProvider)).isNotNull().isInstanceOf(GQLApi.class);
+		assertThat(ApiFactory.createGqlApi(mobileTwitchLogin, integrityProvider, Runnable::run)).isNotNull().isInstanceOf(GQLApi.class);
 	}
 	
 	@Test
 	void createTvGqlApi(){
-		assertThat(ApiFactory.createGqlApi(tvTwitchLogin, integrityProvider)).isNotNull().isInstanceOf(GQLApi.class);
+		assertThat(ApiFactory.createGqlApi(tvTwitchLogin, integrityProvider, Runnable::run)).isNotNull().isInstanceOf(GQLApi.class);
 	}
 	
 	@Test
@@ -10,10 +10,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.sql.SQLException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ParallelizableTest
@@ -62,8 +67,11 @@ class DatabaseFactoryTest{
 	@Test
 	void createDatabaseHandler(){
 		var database = mock(IDatabase.class);
+		var scheduledExecutor = mock(ScheduledExecutorService.class);
 		
-		var handler = DatabaseFactory.createDatabaseHandler(database);
+		var handler = DatabaseFactory.createDatabaseHandler(database, scheduledExecutor);
 		assertThat(handler).isNotNull();
+		
+		verify(scheduledExecutor).scheduleWithFixedDelay(any(Runnable.class), eq(10_000L), eq(10_000L), eq(TimeUnit.MILLISECONDS));
 	}
 }
\ No newline at end of file
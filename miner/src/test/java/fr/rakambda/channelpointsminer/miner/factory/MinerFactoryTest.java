@@ -6,6 +6,7 @@ import fr.rakambda.channelpointsminer.miner.config.AccountConfiguration;
 import fr.rakambda.channelpointsminer.miner.config.AnalyticsConfiguration;
 import fr.rakambda.channelpointsminer.miner.config.DatabaseConfiguration;
 import fr.rakambda.channelpointsminer.miner.config.DiscordConfiguration;
+import fr.rakambda.channelpointsminer.miner.config.RuntimeConfiguration;
 import fr.rakambda.channelpointsminer.miner.config.login.ILoginMethod;
 import fr.rakambda.channelpointsminer.miner.database.DatabaseEventHandler;
 import fr.rakambda.channelpointsminer.miner.database.IDatabase;
@@ -17,6 +18,8 @@ import fr.rakambda.channelpointsminer.miner.handler.PredictionsHandler;
 import fr.rakambda.channelpointsminer.miner.handler.StreamStartEndHandler;
 import fr.rakambda.channelpointsminer.miner.log.LoggerEventListener;
 import fr.rakambda.channelpointsminer.miner.log.discord.DiscordEventListener;
+import fr.rakambda.channelpointsminer.miner.runtime.MinerRuntime;
+import fr.rakambda.channelpointsminer.miner.runtime.RuntimeTenant;
 import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
 import org.assertj.core.api.Assertions;
 import org.mockito.Mock;
@@ -27,6 +30,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mockStatic;
@@ -56,6 +61,12 @@ class MinerFactoryTest{
 	private DatabaseEventHandler databaseEventHandler;
 	@Mock
 	private ILoginMethod loginMethod;
+	@Mock
+	private MinerRuntime runtime;
+	@Mock
+	private ScheduledExecutorService scheduledExecutorService;
+	@Mock
+	private ExecutorService executorService;
 	
 	@BeforeEach
 	void setUp(){
@@ -63,6 +74,9 @@ class MinerFactoryTest{
 		lenient().when(accountConfiguration.getLoginMethod()).thenReturn(loginMethod);
 		lenient().when(accountConfiguration.getDiscord()).thenReturn(discordConfiguration);
 		lenient().when(accountConfiguration.getAnalytics()).thenReturn(analyticsConfiguration);
+		
+		lenient().when(runtime.createTenant(USERNAME)).thenReturn(new RuntimeTenant(USERNAME, scheduledExecutorService, executorService));
+		lenient().when(runtime.getConfiguration()).thenReturn(RuntimeConfiguration.builder().build());
 	}
 	
 	@Test
@@ -70,7 +84,7 @@ class MinerFactoryTest{
 		try(var apiFactory = mockStatic(ApiFactory.class)){
 			apiFactory.when(() -> ApiFactory.createLoginProvider(USERNAME, loginMethod)).thenReturn(passportApi);
 			
-			var miner = MinerFactory.create(accountConfiguration);
+			var miner = MinerFactory.create(accountConfiguration, runtime);
 			
 			Assertions.assertThat(miner.getPubSubMessageHandlers())
 					.hasSize(6)
@@ -85,6 +99,8 @@ class MinerFactoryTest{
 					.hasSize(1)
 					.hasAtLeastOneElementOfType(LoggerEventListener.class);
 			
+			verify(runtime).createTenant(USERNAME);
+			
 			miner.close();
 		}
 	}
@@ -99,7 +115,7 @@ class MinerFactoryTest{
 			
 			when(discordConfiguration.getUrl()).thenReturn(discordWebhook);
 			
-			var miner = MinerFactory.create(accountConfiguration);
+			var miner = MinerFactory.create(accountConfiguration, runtime);
 			
 			Assertions.assertThat(miner.getPubSubMessageHandlers())
 					.hasSize(6)
@@ -125,12 +141,12 @@ class MinerFactoryTest{
 				var databaseFactory = mockStatic(DatabaseFactory.class)){
 			apiFactory.when(() -> ApiFactory.createLoginProvider(USERNAME, loginMethod)).thenReturn(passportApi);
 			databaseFactory.when(() -> DatabaseFactory.createDatabase(databaseConfiguration)).thenReturn(database);
-			databaseFactory.when(() -> DatabaseFactory.createDatabaseHandler(database)).thenReturn(databaseEventHandler);
+			databaseFactory.when(() -> DatabaseFactory.createDatabaseHandler(database, scheduledExecutorService)).thenReturn(databaseEventHandler);
 			
 			when(analyticsConfiguration.isEnabled()).thenReturn(true);
 			when(analyticsConfiguration.getDatabase()).thenReturn(databaseConfiguration);
 			
-			var miner = MinerFactory.create(accountConfiguration);
+			var miner = MinerFactory.create(accountConfiguration, runtime);
 			
 			Assertions.assertThat(miner.getPubSubMessageHandlers())
 					.hasSize(6)
@@ -159,7 +175,7 @@ class MinerFactoryTest{
 			apiFactory.when(() -> ApiFactory.createLoginProvider(USERNAME, loginMethod)).thenReturn(passportApi);
 			databaseFactory.when(() -> DatabaseFactory.createDatabase(null)).thenThrow(new SQLException("For tests"));
 			
-			assertThrows(IllegalStateException.class, () -> MinerFactory.create(accountConfiguration));
+			assertThrows(IllegalStateException.class, () -> MinerFactory.create(accountConfiguration, runtime));
 		}
 	}
 	
@@ -171,7 +187,7 @@ class MinerFactoryTest{
 			when(analyticsConfiguration.isEnabled()).thenReturn(true);
 			when(analyticsConfiguration.getDatabase()).thenReturn(null);
 			
-			assertThrows(IllegalStateException.class, () -> MinerFactory.create(accountConfiguration));
+			assertThrows(IllegalStateException.class, () -> MinerFactory.create(accountConfiguration, runtime));
 		}
 	}
 }
\ No newline at end of file
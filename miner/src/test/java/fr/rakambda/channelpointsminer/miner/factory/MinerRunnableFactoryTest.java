@@ -1,6 +1,7 @@
 package fr.rakambda.channelpointsminer.miner.factory;
 
 import fr.rakambda.channelpointsminer.miner.miner.IMiner;
+import fr.rakambda.channelpointsminer.miner.runnable.PubSubCompaction;
 import fr.rakambda.channelpointsminer.miner.runnable.SendMinutesWatched;
 import fr.rakambda.channelpointsminer.miner.runnable.StreamerConfigurationReload;
 import fr.rakambda.channelpointsminer.miner.runnable.SyncInventory;
@@ -39,6 +40,12 @@ class MinerRunnableFactoryTest{
 				.isInstanceOf(WebSocketPing.class);
 	}
 	
+	@Test
+	void createPubSubCompaction(){
+		Assertions.assertThat(MinerRunnableFactory.createPubSubCompaction(miner)).isNotNull()
+				.isInstanceOf(PubSubCompaction.class);
+	}
+	
 	@Test
 	void createSyncInventory(){
 		Assertions.assertThat(MinerRunnableFactory.createSyncInventory(miner)).isNotNull()
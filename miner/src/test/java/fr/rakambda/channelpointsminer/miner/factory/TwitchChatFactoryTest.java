@@ -11,6 +11,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import java.util.concurrent.ScheduledExecutorService;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -22,6 +23,8 @@ class TwitchChatFactoryTest{
 	private IMiner miner;
 	@Mock
 	private TwitchLogin twitchLogin;
+	@Mock
+	private ScheduledExecutorService scheduler;
 	
 	@BeforeEach
 	void setUp(){
@@ -30,12 +33,14 @@ class TwitchChatFactoryTest{
 	
 	@Test
 	void createIrcChat(){
-		assertThat(TwitchChatFactory.createChat(miner, ChatMode.IRC, false)).isNotNull()
-				.isInstanceOf(TwitchIrcChatClient.class);
+		assertThat(TwitchChatFactory.createChat(miner, ChatMode.IRC, 2, false, scheduler)).isNotNull()
+				.isInstanceOf(TwitchIrcChatClient.class)
+				.extracting(client -> ((TwitchIrcChatClient) client).getShardCount())
+				.isEqualTo(2);
 	}
 	
 	@Test
 	void createWsChat(){
-		assertThat(TwitchChatFactory.createChat(miner, ChatMode.WS, false)).isNotNull().isInstanceOf(TwitchChatWebSocketPool.class);
+		assertThat(TwitchChatFactory.createChat(miner, ChatMode.WS, 1, false, scheduler)).isNotNull().isInstanceOf(TwitchChatWebSocketPool.class);
 	}
 }
\ No newline at end of file
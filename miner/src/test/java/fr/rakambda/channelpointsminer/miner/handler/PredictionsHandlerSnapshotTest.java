@@ -0,0 +1,193 @@
+package fr.rakambda.channelpointsminer.miner.handler;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Event;
+import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
+import fr.rakambda.channelpointsminer.miner.handler.data.BettingPrediction;
+import fr.rakambda.channelpointsminer.miner.handler.data.PlacedPrediction;
+import fr.rakambda.channelpointsminer.miner.handler.data.PredictionState;
+import fr.rakambda.channelpointsminer.miner.miner.IMiner;
+import fr.rakambda.channelpointsminer.miner.prediction.bet.BetPlacer;
+import fr.rakambda.channelpointsminer.miner.prediction.delay.IDelayCalculator;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshot;
+import fr.rakambda.channelpointsminer.miner.state.PlacedPredictionSnapshot;
+import fr.rakambda.channelpointsminer.miner.state.PredictionSnapshot;
+import fr.rakambda.channelpointsminer.miner.streamer.PredictionSettings;
+import fr.rakambda.channelpointsminer.miner.streamer.Streamer;
+import fr.rakambda.channelpointsminer.miner.streamer.StreamerSettings;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.EventStatus.ACTIVE;
+import static java.time.ZoneOffset.UTC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ParallelizableTest
+@ExtendWith(MockitoExtension.class)
+class PredictionsHandlerSnapshotTest{
+	private static final String STREAMER_ID = "streamer-id";
+	private static final String EVENT_ID = "event-id";
+	private static final String OUTCOME_ID = "outcome-id";
+	private static final int WINDOW_SECONDS = 300;
+	private static final ZonedDateTime EVENT_DATE = ZonedDateTime.of(2021, 10, 10, 11, 59, 0, 0, UTC);
+	private static final ZonedDateTime NOW = ZonedDateTime.of(2021, 10, 10, 12, 0, 0, 0, UTC);
+	private static final Instant PREDICTED_AT = NOW.toInstant();
+	
+	@InjectMocks
+	private PredictionsHandler tested;
+	
+	@Mock
+	private IMiner miner;
+	@Mock
+	private BetPlacer betPlacer;
+	@Mock
+	private Event event;
+	@Mock
+	private Streamer streamer;
+	@Mock
+	private StreamerSettings streamerSettings;
+	@Mock
+	private PredictionSettings predictionSettings;
+	@Mock
+	private IDelayCalculator delayCalculator;
+	
+	@BeforeEach
+	void setUp(){
+		lenient().when(miner.getStreamerById(STREAMER_ID)).thenReturn(Optional.of(streamer));
+		
+		lenient().when(event.getId()).thenReturn(EVENT_ID);
+		lenient().when(event.getStatus()).thenReturn(ACTIVE);
+		lenient().when(event.getCreatedAt()).thenReturn(EVENT_DATE);
+		lenient().when(event.getPredictionWindowSeconds()).thenReturn(WINDOW_SECONDS);
+		
+		lenient().when(streamer.getId()).thenReturn(STREAMER_ID);
+		lenient().when(streamer.getSettings()).thenReturn(streamerSettings);
+		lenient().when(streamerSettings.getPredictions()).thenReturn(predictionSettings);
+		lenient().when(predictionSettings.getDelayCalculator()).thenReturn(delayCalculator);
+		lenient().when(delayCalculator.calculate(event)).thenReturn(NOW.plusMinutes(1));
+	}
+	
+	@Test
+	void write(){
+		var prediction = BettingPrediction.builder()
+				.streamer(streamer)
+				.event(event)
+				.lastUpdate(EVENT_DATE)
+				.state(PredictionState.PLACED)
+				.build();
+		tested.getPredictions().put(EVENT_ID, prediction);
+		tested.getPlacedPredictions().put(EVENT_ID, PlacedPrediction.builder()
+				.eventId(EVENT_ID)
+				.bettingPrediction(prediction)
+				.amount(50)
+				.outcomeId(OUTCOME_ID)
+				.predictedAt(PREDICTED_AT)
+				.build());
+		
+		var snapshot = MinerSnapshot.builder().savedAt(PREDICTED_AT).build();
+		tested.writeSnapshot(snapshot);
+		
+		assertThat(snapshot.getPredictions()).containsExactly(PredictionSnapshot.builder()
+				.streamerId(STREAMER_ID)
+				.event(event)
+				.lastUpdate(EVENT_DATE)
+				.state(PredictionState.PLACED)
+				.build());
+		assertThat(snapshot.getPlacedPredictions()).containsExactly(PlacedPredictionSnapshot.builder()
+				.eventId(EVENT_ID)
+				.amount(50)
+				.outcomeId(OUTCOME_ID)
+				.predictedAt(PREDICTED_AT)
+				.build());
+	}
+	
+	@Test
+	void restorePlaced(){
+		tested.restoreSnapshot(snapshot(PredictionState.PLACED));
+		
+		var expectedPrediction = BettingPrediction.builder()
+				.streamer(streamer)
+				.event(event)
+				.lastUpdate(EVENT_DATE)
+				.state(PredictionState.PLACED)
+				.build();
+		assertThat(tested.getPredictions()).isEqualTo(Map.of(EVENT_ID, expectedPrediction));
+		assertThat(tested.getPlacedPredictions()).isEqualTo(Map.of(EVENT_ID, PlacedPrediction.builder()
+				.eventId(EVENT_ID)
+				.bettingPrediction(expectedPrediction)
+				.amount(50)
+				.outcomeId(OUTCOME_ID)
+				.predictedAt(PREDICTED_AT)
+				.build()));
+		verify(miner, never()).schedule(any(), anyLong(), any());
+	}
+	
+	@Test
+	void restoreScheduledIsRescheduled(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::nowZoned).thenReturn(NOW);
+			
+			tested.restoreSnapshot(snapshot(PredictionState.SCHEDULED));
+			
+			assertThat(tested.getPredictions().get(EVENT_ID).getState()).isEqualTo(PredictionState.SCHEDULED);
+			verify(miner).schedule(any(), eq(60L), any());
+		}
+	}
+	
+	@Test
+	void restoreScheduledAfterWindow(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::nowZoned).thenReturn(EVENT_DATE.plusSeconds(WINDOW_SECONDS));
+			
+			tested.restoreSnapshot(snapshot(PredictionState.SCHEDULED));
+			
+			assertThat(tested.getPredictions().get(EVENT_ID).getState()).isEqualTo(PredictionState.BET_ERROR);
+			verify(miner, never()).schedule(any(), anyLong(), any());
+		}
+	}
+	
+	@Test
+	void restoreUnknownStreamer(){
+		when(miner.getStreamerById(STREAMER_ID)).thenReturn(Optional.empty());
+		
+		tested.restoreSnapshot(snapshot(PredictionState.SCHEDULED));
+		
+		assertThat(tested.getPredictions()).isEmpty();
+		assertThat(tested.getPlacedPredictions().get(EVENT_ID).getBettingPrediction()).isNull();
+		verify(miner, never()).schedule(any(), anyLong(), any());
+	}
+	
+	private MinerSnapshot snapshot(PredictionState state){
+		return MinerSnapshot.builder()
+				.savedAt(PREDICTED_AT)
+				.predictions(List.of(PredictionSnapshot.builder()
+						.streamerId(STREAMER_ID)
+						.event(event)
+						.lastUpdate(EVENT_DATE)
+						.state(state)
+						.build()))
+				.placedPredictions(List.of(PlacedPredictionSnapshot.builder()
+						.eventId(EVENT_ID)
+						.amount(50)
+						.outcomeId(OUTCOME_ID)
+						.predictedAt(PREDICTED_AT)
+						.build()))
+				.build();
+	}
+}
@@ -0,0 +1,67 @@
+package fr.rakambda.channelpointsminer.miner.handler;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.StreamDown;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.StreamUp;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ViewCount;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@ParallelizableTest
+class PubSubMessageHandlerAdapterTest{
+	@Test
+	void messagesAreDispatchedToMatchingMethod(){
+		var tested = new StreamStateHandler();
+		var topic = mock(Topic.class);
+		var streamUp = mock(StreamUp.class);
+		var streamDown = mock(StreamDown.class);
+		
+		tested.handle(topic, streamUp);
+		tested.handle(topic, streamDown);
+		tested.handle(topic, mock(ViewCount.class));
+		
+		assertThat(tested.received).containsExactly(streamUp, streamDown);
+	}
+	
+	@Test
+	void interestedInOverriddenMethods(){
+		var tested = new StreamStateHandler();
+		
+		assertThat(tested.isInterestedIn(StreamUp.class)).isTrue();
+		assertThat(tested.isInterestedIn(StreamDown.class)).isTrue();
+		assertThat(tested.isInterestedIn(ViewCount.class)).isFalse();
+		assertThat(tested.isInterestedIn(IPubSubMessage.class)).isFalse();
+	}
+	
+	@Test
+	void interestedInEverythingIfDispatchOverridden(){
+		var tested = new PubSubMessageHandlerAdapter(){
+			@Override
+			public void handle(@NotNull Topic topic, @NotNull IPubSubMessage message){
+			}
+		};
+		
+		assertThat(tested.isInterestedIn(ViewCount.class)).isTrue();
+		assertThat(tested.isInterestedIn(IPubSubMessage.class)).isTrue();
+	}
+	
+	private static class StreamStateHandler extends PubSubMessageHandlerAdapter{
+		private final List<IPubSubMessage> received = new ArrayList<>();
+		
+		@Override
+		public void onStreamUp(@NotNull Topic topic, @NotNull StreamUp message){
+			received.add(message);
+		}
+		
+		@Override
+		public void onStreamDown(@NotNull Topic topic, @NotNull StreamDown message){
+			received.add(message);
+		}
+	}
+}
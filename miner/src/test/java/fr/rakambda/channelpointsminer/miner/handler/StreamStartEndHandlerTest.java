@@ -75,6 +75,7 @@ class StreamStartEndHandlerTest{
 		assertDoesNotThrow(() -> tested.handle(topic, streamUpMessage));
 		
 		verify(miner).updateStreamerInfos(streamer);
+		verify(miner).listenLiveTopics(streamer);
 		verify(miner).onEvent(new StreamUpEvent(miner, STREAMER_ID, STREAMER_NAME, streamer, NOW));
 		verify(chatClient, never()).join(any());
 	}
@@ -104,6 +105,7 @@ class StreamStartEndHandlerTest{
 		assertDoesNotThrow(() -> tested.handle(topic, streamUpMessage));
 		
 		verify(miner, never()).schedule(any(Runnable.class), anyLong(), any());
+		verify(miner, never()).listenLiveTopics(any());
 		verify(miner).onEvent(new StreamUpEvent(miner, STREAMER_ID, null, null, NOW));
 		verify(chatClient, never()).join(any());
 	}
@@ -121,6 +123,7 @@ class StreamStartEndHandlerTest{
 		assertDoesNotThrow(() -> tested.handle(topic, streamDownMessage));
 		
 		verify(miner).updateStreamerInfos(streamer);
+		verify(miner).releaseLiveTopics(streamer);
 		verify(miner).onEvent(new StreamDownEvent(miner, STREAMER_ID, STREAMER_NAME, streamer, NOW));
 		verify(chatClient).leave(STREAMER_NAME);
 	}
@@ -132,6 +135,7 @@ class StreamStartEndHandlerTest{
 		assertDoesNotThrow(() -> tested.handle(topic, streamDownMessage));
 		
 		verify(miner, never()).schedule(any(Runnable.class), anyLong(), any());
+		verify(miner, never()).releaseLiveTopics(any());
 		verify(miner).onEvent(new StreamDownEvent(miner, STREAMER_ID, null, null, NOW));
 		verify(chatClient, never()).leave(any());
 	}
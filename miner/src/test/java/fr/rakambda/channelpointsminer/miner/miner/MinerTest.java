@@ -3,6 +3,7 @@ package fr.rakambda.channelpointsminer.miner.miner;
 import fr.rakambda.channelpointsminer.miner.api.chat.ITwitchChatClient;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.GQLApi;
 import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IIntegrityProvider;
+import fr.rakambda.channelpointsminer.miner.api.gql.integrity.IntegrityException;
 import fr.rakambda.channelpointsminer.miner.api.gql.version.IVersionProvider;
 import fr.rakambda.channelpointsminer.miner.api.passport.ILoginProvider;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
@@ -10,8 +11,13 @@ import fr.rakambda.channelpointsminer.miner.api.passport.exceptions.CaptchaSolve
 import fr.rakambda.channelpointsminer.miner.api.passport.exceptions.LoginException;
 import fr.rakambda.channelpointsminer.miner.api.twitch.TwitchApi;
 import fr.rakambda.channelpointsminer.miner.api.ws.TwitchPubSubWebSocketPool;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ClaimAvailable;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.message.IPubSubMessage;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.PredictionMade;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.StreamUp;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.ViewCount;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topic;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.TopicName;
 import fr.rakambda.channelpointsminer.miner.api.ws.data.request.topic.Topics;
 import fr.rakambda.channelpointsminer.miner.config.AccountConfiguration;
 import fr.rakambda.channelpointsminer.miner.config.AnalyticsConfiguration;
@@ -29,20 +35,30 @@ import fr.rakambda.channelpointsminer.miner.factory.StreamerSettingsFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
 import fr.rakambda.channelpointsminer.miner.factory.TwitchChatFactory;
 import fr.rakambda.channelpointsminer.miner.handler.IPubSubMessageHandler;
+import fr.rakambda.channelpointsminer.miner.handler.PubSubMessageHandlerAdapter;
 import fr.rakambda.channelpointsminer.miner.runnable.StreamerConfigurationReload;
 import fr.rakambda.channelpointsminer.miner.runnable.SyncInventory;
 import fr.rakambda.channelpointsminer.miner.runnable.UpdateStreamInfo;
+import fr.rakambda.channelpointsminer.miner.state.ISnapshotParticipant;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshot;
+import fr.rakambda.channelpointsminer.miner.state.MinerSnapshotStore;
+import fr.rakambda.channelpointsminer.miner.state.StreamerSnapshot;
 import fr.rakambda.channelpointsminer.miner.streamer.Streamer;
 import fr.rakambda.channelpointsminer.miner.streamer.StreamerSettings;
 import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.jetbrains.annotations.NotNull;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.CompletableFuture;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -59,9 +75,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -79,6 +102,7 @@ class MinerTest{
 	private static final String USER_ID = "user-id";
 	private static final String ACCESS_TOKEN = "access-token";
 	private static final ChatMode CHAT_MODE = ChatMode.WS;
+	private static final int IRC_SHARDS = 1;
 	private static final VersionProvider VERSION_PROVIDER = VersionProvider.WEBPAGE;
 	private static final Instant NOW = Instant.parse("2020-05-17T12:14:20.000Z");
 	
@@ -100,6 +124,8 @@ class MinerTest{
 	private ExecutorService executorService;
 	@Mock
 	private IDatabase database;
+	@Mock
+	private MinerSnapshotStore snapshotStore;
 	
 	@Mock
 	private TwitchLogin twitchLogin;
@@ -130,12 +156,13 @@ class MinerTest{
 	
 	@BeforeEach
 	void setUp() throws LoginException, IOException{
-		tested = new Miner(accountConfiguration, passportApi, streamerSettingsFactory, webSocketPool, scheduledExecutorService, executorService, database);
+		tested = new Miner(accountConfiguration, passportApi, streamerSettingsFactory, webSocketPool, scheduledExecutorService, executorService, database, snapshotStore);
 		
 		lenient().when(accountConfiguration.getUsername()).thenReturn(USERNAME);
 		lenient().when(accountConfiguration.getReloadEvery()).thenReturn(0);
 		lenient().when(accountConfiguration.isLoadFollows()).thenReturn(false);
 		lenient().when(accountConfiguration.getChatMode()).thenReturn(CHAT_MODE);
+		lenient().when(accountConfiguration.getIrcShards()).thenReturn(IRC_SHARDS);
 		lenient().when(accountConfiguration.getAnalytics()).thenReturn(analyticsConfiguration);
 		lenient().when(accountConfiguration.getVersionProvider()).thenReturn(VERSION_PROVIDER);
 		lenient().when(accountConfiguration.getLoginMethod()).thenReturn(loginMethod);
@@ -150,11 +177,11 @@ class MinerTest{
 		lenient().when(twitchLogin.fetchUserId(gqlApi)).thenReturn(USER_ID);
 		lenient().when(twitchLogin.getAccessToken()).thenReturn(ACCESS_TOKEN);
 		
-		lenient().when(executorService.submit(any(Runnable.class))).thenAnswer(invocation -> {
+		lenient().doAnswer(invocation -> {
 			var runnable = invocation.getArgument(0, Runnable.class);
 			runnable.run();
-			return CompletableFuture.completedFuture(null);
-		});
+			return null;
+		}).when(executorService).execute(any(Runnable.class));
 	}
 	
 	@Test
@@ -165,8 +192,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
@@ -179,10 +206,63 @@ class MinerTest{
 			assertThat(tested.getStreamers()).isEmpty();
 			
 			verify(passportApi).login();
-			verify(webSocketPool).listenTopic(Topics.buildFromName(COMMUNITY_POINTS_USER_V1, USER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID));
 			verify(twitchChatClient, never()).join(any());
-			verify(scheduledExecutorService).schedule(eq(streamerConfigurationReload), anyLong(), any());
-			verify(twitchChatClient).addChatMessageListener(any());
+			verifyStreamerConfigurationReloadScheduled();
+			verify(twitchChatClient).addChatMessageListener(any(), any());
+		}
+	}
+	
+	@Test
+	void startupPhasesAreTimed() throws IntegrityException{
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
+			
+			tested.start();
+			
+			verify(integrityProvider).getIntegrity();
+			assertThat(tested.getStartupTimings().getDuration(StartupPhase.LOGIN)).isPresent();
+			assertThat(tested.getStartupTimings().getDuration(StartupPhase.INTEGRITY)).isPresent();
+			assertThat(tested.getStartupTimings().getDuration(StartupPhase.TOPIC_SUBSCRIPTION)).isPresent();
+			assertThat(tested.getStartupTimings().getDuration(StartupPhase.FIRST_STREAM_INFO)).isEmpty();
+			assertThat(tested.getStartupTimings().isComplete()).isFalse();
+			
+			verifyStreamerConfigurationReloadScheduled();
+			
+			assertThat(tested.getStartupTimings().getDuration(StartupPhase.FIRST_STREAM_INFO)).isPresent();
+			assertThat(tested.getStartupTimings().isComplete()).isTrue();
+		}
+	}
+	
+	@Test
+	void integrityFailureDoesNotPreventStartup() throws IntegrityException{
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
+			
+			when(integrityProvider.getIntegrity()).thenThrow(new IntegrityException("error"));
+			
+			assertDoesNotThrow(() -> tested.start());
+			
+			assertThat(tested.getGqlApi()).isEqualTo(gqlApi);
+			assertThat(tested.getStartupTimings().getDuration(StartupPhase.INTEGRITY)).isEmpty();
 		}
 	}
 	
@@ -193,7 +273,7 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, true)).thenReturn(streamerConfigurationReload);
@@ -208,8 +288,8 @@ class MinerTest{
 			assertThat(tested.getStreamers()).isEmpty();
 			
 			verify(passportApi).login();
-			verify(webSocketPool).listenTopic(Topics.buildFromName(COMMUNITY_POINTS_USER_V1, USER_ID, ACCESS_TOKEN));
-			verify(scheduledExecutorService).scheduleWithFixedDelay(eq(streamerConfigurationReload), anyLong(), eq(15L), eq(MINUTES));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID));
+			verifyStreamerConfigurationReloadScheduledEvery(15L);
 		}
 	}
 	
@@ -220,7 +300,7 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
@@ -234,8 +314,8 @@ class MinerTest{
 			assertThat(tested.getStreamers()).isEmpty();
 			
 			verify(passportApi).login();
-			verify(webSocketPool).listenTopic(Topics.buildFromName(COMMUNITY_POINTS_USER_V1, USER_ID, ACCESS_TOKEN));
-			verify(scheduledExecutorService).scheduleWithFixedDelay(eq(streamerConfigurationReload), anyLong(), eq(15L), eq(MINUTES));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID));
+			verifyStreamerConfigurationReloadScheduledEvery(15L);
 		}
 	}
 	
@@ -247,8 +327,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
@@ -263,10 +343,10 @@ class MinerTest{
 			assertThat(tested.getStreamers()).isEmpty();
 			
 			verify(passportApi).login();
-			verify(webSocketPool).listenTopic(Topics.buildFromName(COMMUNITY_POINTS_USER_V1, USER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID));
 			verify(twitchChatClient, never()).join(any());
-			verify(scheduledExecutorService).schedule(eq(streamerConfigurationReload), anyLong(), any());
-			verify(twitchChatClient).addChatMessageListener(any());
+			verifyStreamerConfigurationReloadScheduled();
+			verify(twitchChatClient).addChatMessageListener(any(), any());
 		}
 	}
 	
@@ -278,8 +358,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, true)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, true, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
@@ -295,10 +375,10 @@ class MinerTest{
 			assertThat(tested.getStreamers()).isEmpty();
 			
 			verify(passportApi).login();
-			verify(webSocketPool).listenTopic(Topics.buildFromName(COMMUNITY_POINTS_USER_V1, USER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID));
 			verify(twitchChatClient, never()).join(any());
-			verify(scheduledExecutorService).schedule(eq(streamerConfigurationReload), anyLong(), any());
-			verify(twitchChatClient).addChatMessageListener(any());
+			verifyStreamerConfigurationReloadScheduled();
+			verify(twitchChatClient).addChatMessageListener(any(), any());
 		}
 	}
 	
@@ -336,8 +416,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			tested.addEventHandler(eventHandler);
 			tested.start();
@@ -352,12 +432,122 @@ class MinerTest{
 		}
 	}
 	
+	@Test
+	void snapshotIsRestoredOnStart() throws LoginException, IOException{
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			runnableFactory.when(() -> MinerRunnableFactory.createStreamerConfigurationReload(tested, streamerSettingsFactory, false)).thenReturn(streamerConfigurationReload);
+			
+			var participant = mock(SnapshotParticipantHandler.class);
+			tested.addPubSubHandler(participant);
+			
+			var snapshot = MinerSnapshot.builder()
+					.savedAt(NOW)
+					.streamers(List.of(StreamerSnapshot.builder()
+							.id(STREAMER_ID)
+							.username(STREAMER_USERNAME)
+							.lastUpdated(NOW)
+							.lastOffline(NOW)
+							.watchedMillis(60000)
+							.build()))
+					.build();
+			when(snapshotStore.load()).thenReturn(Optional.of(snapshot));
+			when(streamerSettingsFactory.createStreamerSettings(STREAMER_USERNAME)).thenReturn(streamerSettings);
+			when(streamerSettings.isEnabled()).thenReturn(true);
+			
+			assertDoesNotThrow(() -> tested.start());
+			
+			assertThat(tested.getStreamerById(STREAMER_ID)).get()
+					.extracting(Streamer::getWatchedDuration)
+					.isEqualTo(Duration.ofMinutes(1));
+			verify(updateStreamInfo, never()).run(any(Streamer.class));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			verify(participant).restoreSnapshot(snapshot);
+			verify(scheduledExecutorService).scheduleWithFixedDelay(any(), eq(5L), eq(5L), eq(MINUTES));
+		}
+	}
+	
+	@Test
+	void disabledStreamerIsNotRestored() throws LoginException, IOException{
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			var snapshot = MinerSnapshot.builder()
+					.savedAt(NOW)
+					.streamers(List.of(StreamerSnapshot.builder()
+							.id(STREAMER_ID)
+							.username(STREAMER_USERNAME)
+							.lastUpdated(NOW)
+							.lastOffline(NOW)
+							.build()))
+					.build();
+			when(snapshotStore.load()).thenReturn(Optional.of(snapshot));
+			when(streamerSettingsFactory.createStreamerSettings(STREAMER_USERNAME)).thenReturn(streamerSettings);
+			when(streamerSettings.isEnabled()).thenReturn(false);
+			
+			assertDoesNotThrow(() -> tested.start());
+			
+			assertThat(tested.getStreamers()).isEmpty();
+		}
+	}
+	
+	@Test
+	void snapshotIsSavedOnClose() throws IOException{
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			var snapshotSaving = mock(ScheduledFuture.class);
+			lenient().when(scheduledExecutorService.scheduleWithFixedDelay(any(), eq(5L), eq(5L), eq(MINUTES))).thenAnswer(invocation -> snapshotSaving);
+			
+			var participant = mock(SnapshotParticipantHandler.class);
+			tested.addPubSubHandler(participant);
+			tested.start();
+			
+			var streamer = new Streamer(STREAMER_ID, STREAMER_USERNAME, streamerSettings);
+			tested.getStreamerMap().put(STREAMER_ID, streamer);
+			
+			assertDoesNotThrow(() -> tested.close());
+			
+			var captor = ArgumentCaptor.forClass(MinerSnapshot.class);
+			var order = inOrder(snapshotSaving, snapshotStore);
+			order.verify(snapshotSaving).cancel(false);
+			order.verify(snapshotStore).save(captor.capture());
+			assertThat(captor.getValue().getStreamers()).containsExactly(streamer.createSnapshot());
+			verify(participant).writeSnapshot(captor.getValue());
+		}
+	}
+	
+	@Test
+	void snapshotIsNotSavedBeforeBeingRestored() throws IOException{
+		assertDoesNotThrow(() -> tested.close());
+		
+		verify(snapshotStore, never()).save(any());
+	}
+	
 	@Test
 	void unknownMessageIsNotForwarded(){
 		var message = mock(IPubSubMessage.class);
 		assertDoesNotThrow(() -> tested.onTwitchMessage(topic, message));
 		
-		verify(executorService, never()).submit(any(Runnable.class));
+		verify(executorService, never()).execute(any(Runnable.class));
 	}
 	
 	@Test
@@ -371,11 +561,78 @@ class MinerTest{
 		var message = mock(IPubSubMessage.class);
 		assertDoesNotThrow(() -> tested.onTwitchMessage(topic, message));
 		
-		verify(executorService, times(2)).submit(any(Runnable.class));
+		verify(executorService).execute(any(Runnable.class));
 		verify(handler1).handle(topic, message);
 		verify(handler2).handle(topic, message);
 	}
 	
+	@Test
+	void messageNotHandledByAdapterIsNotScheduled(){
+		var handler = mock(IPubSubMessageHandler.class);
+		var adapter = new PubSubMessageHandlerAdapter(){
+			@Override
+			public void onStreamUp(@NotNull Topic topic, @NotNull StreamUp message){
+			}
+		};
+		
+		tested.addPubSubHandler(adapter);
+		var message = mock(ViewCount.class);
+		assertDoesNotThrow(() -> tested.onTwitchMessage(topic, message));
+		verify(executorService, never()).execute(any(Runnable.class));
+		
+		tested.addPubSubHandler(handler);
+		assertDoesNotThrow(() -> tested.onTwitchMessage(topic, message));
+		verify(executorService).execute(any(Runnable.class));
+		verify(handler).handle(topic, message);
+	}
+	
+	@Test
+	void messageHandlersAreCalledInOrderEvenIfOneFails(){
+		var handler1 = mock(IPubSubMessageHandler.class);
+		var handler2 = mock(IPubSubMessageHandler.class);
+		
+		tested.addPubSubHandler(handler1);
+		tested.addPubSubHandler(handler2);
+		
+		var message1 = mock(IPubSubMessage.class);
+		var message2 = mock(IPubSubMessage.class);
+		doThrow(new IllegalStateException("For tests")).when(handler1).handle(topic, message1);
+		
+		assertDoesNotThrow(() -> tested.onTwitchMessage(topic, message1));
+		assertDoesNotThrow(() -> tested.onTwitchMessage(topic, message2));
+		
+		var order = inOrder(handler1, handler2);
+		order.verify(handler1).handle(topic, message1);
+		order.verify(handler2).handle(topic, message1);
+		order.verify(handler1).handle(topic, message2);
+		order.verify(handler2).handle(topic, message2);
+	}
+	
+	@Test
+	void orderingKeyOfUserTopicIsMessageChannel(){
+		var claimAvailable = mock(ClaimAvailable.class, RETURNS_DEEP_STUBS);
+		when(claimAvailable.getData().getClaim().getChannelId()).thenReturn("channel-claim");
+		var predictionMade = mock(PredictionMade.class, RETURNS_DEEP_STUBS);
+		when(predictionMade.getData().getPrediction().getChannelId()).thenReturn("channel-prediction");
+		
+		assertThat(Miner.getOrderingKey(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID), claimAvailable)).isEqualTo("channel-claim");
+		assertThat(Miner.getOrderingKey(buildTopic(PREDICTIONS_USER_V1, USER_ID), predictionMade)).isEqualTo("channel-prediction");
+	}
+	
+	@Test
+	void orderingKeyOfUserTopicWithoutChannelIsTarget(){
+		var message = mock(IPubSubMessage.class);
+		
+		assertThat(Miner.getOrderingKey(buildTopic(COMMUNITY_POINTS_USER_V1, USER_ID), message)).isEqualTo(USER_ID);
+	}
+	
+	@Test
+	void orderingKeyOfChannelTopicIsTarget(){
+		var message = mock(IPubSubMessage.class);
+		
+		assertThat(Miner.getOrderingKey(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID), message)).isEqualTo(STREAMER_ID);
+	}
+	
 	@Test
 	void addStreamerWithPredictions(){
 		try(var apiFactory = mockStatic(ApiFactory.class);
@@ -384,7 +641,7 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -407,9 +664,9 @@ class MinerTest{
 					.first().usingRecursiveComparison().isEqualTo(streamer);
 			
 			verify(updateStreamInfo).run(streamer);
-			verify(webSocketPool).listenTopic(Topics.buildFromName(PREDICTIONS_USER_V1, USER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(PREDICTIONS_CHANNEL_V1, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_USER_V1, USER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID));
 			verify(eventHandler).onEvent(new StreamerAddedEvent(tested, streamer, NOW));
 		}
 	}
@@ -422,7 +679,7 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -445,8 +702,8 @@ class MinerTest{
 					.first().usingRecursiveComparison().isEqualTo(streamer);
 			
 			verify(updateStreamInfo).run(streamer);
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(COMMUNITY_MOMENTS_CHANNEL_V1, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_MOMENTS_CHANNEL_V1, STREAMER_ID));
 			verify(eventHandler).onEvent(new StreamerAddedEvent(tested, streamer, NOW));
 		}
 	}
@@ -459,7 +716,7 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -482,8 +739,8 @@ class MinerTest{
 					.first().usingRecursiveComparison().isEqualTo(streamer);
 			
 			verify(updateStreamInfo).run(streamer);
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(RAID, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(RAID, STREAMER_ID));
 			verify(eventHandler).onEvent(new StreamerAddedEvent(tested, streamer, NOW));
 		}
 	}
@@ -497,8 +754,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -520,7 +777,7 @@ class MinerTest{
 					.first().usingRecursiveComparison().isEqualTo(streamer);
 			
 			verify(updateStreamInfo).run(streamer);
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
 			verify(eventHandler).onEvent(new StreamerAddedEvent(tested, streamer, NOW));
 			verify(twitchChatClient, never()).join(any());
 		}
@@ -535,8 +792,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -559,7 +816,7 @@ class MinerTest{
 					.first().usingRecursiveComparison().isEqualTo(streamer);
 			
 			verify(updateStreamInfo).run(streamer);
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
 			verify(eventHandler).onEvent(new StreamerAddedEvent(tested, streamer, NOW));
 			verify(twitchChatClient).join(STREAMER_USERNAME);
 		}
@@ -573,7 +830,7 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -595,7 +852,7 @@ class MinerTest{
 					.first().usingRecursiveComparison().isEqualTo(streamer);
 			
 			verify(updateStreamInfo).run(streamer);
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
 			verify(eventHandler).onEvent(new StreamerAddedEvent(tested, streamer, NOW));
 		}
 	}
@@ -629,8 +886,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -664,27 +921,33 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
+			when(streamerSettings.isMakePredictions()).thenReturn(true);
+			when(streamerSettings.isClaimMoments()).thenReturn(true);
+			when(streamerSettings.isFollowRaid()).thenReturn(true);
+			
 			var streamer = mock(Streamer.class);
 			when(streamer.getId()).thenReturn(STREAMER_ID);
 			when(streamer.getUsername()).thenReturn(STREAMER_USERNAME);
+			when(streamer.getSettings()).thenReturn(streamerSettings);
 			tested.getStreamerMap().put(STREAMER_ID, streamer);
 			tested.addEventHandler(eventHandler);
 			
 			tested.start();
+			tested.updateStreamer(streamer);
 			tested.removeStreamer(streamer);
 			
-			verify(webSocketPool).removeTopic(Topic.builder().name(VIDEO_PLAYBACK_BY_ID).target(STREAMER_ID).build());
-			verify(webSocketPool).removeTopic(Topic.builder().name(PREDICTIONS_CHANNEL_V1).target(STREAMER_ID).build());
-			verify(webSocketPool).removeTopic(Topic.builder().name(COMMUNITY_MOMENTS_CHANNEL_V1).target(STREAMER_ID).build());
-			verify(webSocketPool).removeTopic(Topic.builder().name(RAID).target(STREAMER_ID).build());
-			verify(twitchChatClient).leave(STREAMER_USERNAME);
+			assertThat(getRemovedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getRemovedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID));
+			assertThat(getRemovedTopics()).containsOnlyOnce(buildTopic(COMMUNITY_MOMENTS_CHANNEL_V1, STREAMER_ID));
+			assertThat(getRemovedTopics()).containsOnlyOnce(buildTopic(RAID, STREAMER_ID));
+			verify(twitchChatClient, times(2)).leave(STREAMER_USERNAME);
 			verify(eventHandler).onEvent(new StreamerRemovedEvent(tested, streamer, NOW));
 		}
 	}
@@ -697,8 +960,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -711,7 +974,7 @@ class MinerTest{
 			tested.start();
 			tested.removeStreamer(streamer);
 			
-			verify(webSocketPool, never()).removeTopic(any());
+			verify(webSocketPool, never()).removeTopics(any());
 			verify(twitchChatClient, never()).leave(any());
 			verify(eventHandler, never()).onEvent(any());
 		}
@@ -726,7 +989,81 @@ class MinerTest{
 		assertDoesNotThrow(() -> tested.updateStreamer(streamer));
 		
 		verify(webSocketPool, never()).listenTopic(any());
-		verify(webSocketPool, never()).removeTopic(any());
+		verify(webSocketPool, never()).removeTopics(any());
+	}
+	
+	@Test
+	void updateUnchangedStreamerSendsNothing(){
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			
+			tested.start();
+			
+			when(streamerSettings.isMakePredictions()).thenReturn(true);
+			when(streamerSettings.isFollowRaid()).thenReturn(true);
+			
+			var streamer = mock(Streamer.class);
+			when(streamer.getId()).thenReturn(STREAMER_ID);
+			when(streamer.getUsername()).thenReturn(STREAMER_USERNAME);
+			when(streamer.getSettings()).thenReturn(streamerSettings);
+			
+			tested.getStreamerMap().put(STREAMER_ID, streamer);
+			
+			tested.updateStreamer(streamer);
+			clearInvocations(webSocketPool, executorService);
+			tested.updateStreamer(streamer);
+			
+			verify(webSocketPool, never()).listenTopic(any());
+			verify(webSocketPool, never()).removeTopics(any());
+			verify(executorService, never()).execute(any());
+		}
+	}
+	
+	@Test
+	void updateStreamerOnlyRemovesDisabledTopics(){
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			
+			tested.start();
+			
+			when(streamerSettings.isMakePredictions()).thenReturn(true);
+			when(streamerSettings.isClaimMoments()).thenReturn(true);
+			when(streamerSettings.isFollowRaid()).thenReturn(true);
+			
+			var streamer = mock(Streamer.class);
+			when(streamer.getId()).thenReturn(STREAMER_ID);
+			when(streamer.getUsername()).thenReturn(STREAMER_USERNAME);
+			when(streamer.getSettings()).thenReturn(streamerSettings);
+			
+			tested.getStreamerMap().put(STREAMER_ID, streamer);
+			tested.updateStreamer(streamer);
+			
+			when(streamerSettings.isMakePredictions()).thenReturn(false);
+			when(streamerSettings.isFollowRaid()).thenReturn(false);
+			clearInvocations(webSocketPool);
+			tested.updateStreamer(streamer);
+			
+			verify(webSocketPool, never()).listenTopic(any());
+			assertThat(getRemovedTopics()).containsExactlyInAnyOrder(
+					buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID),
+					buildTopic(RAID, STREAMER_ID));
+		}
 	}
 	
 	@Test
@@ -737,8 +1074,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -758,10 +1095,10 @@ class MinerTest{
 			
 			assertDoesNotThrow(() -> tested.updateStreamer(streamer));
 			
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(PREDICTIONS_USER_V1, USER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(PREDICTIONS_CHANNEL_V1, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(RAID, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_USER_V1, USER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(RAID, STREAMER_ID));
 			verify(twitchChatClient).join(STREAMER_USERNAME);
 		}
 	}
@@ -774,8 +1111,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -795,10 +1132,10 @@ class MinerTest{
 			
 			assertDoesNotThrow(() -> tested.updateStreamer(streamer));
 			
-			verify(webSocketPool).listenTopic(Topics.buildFromName(VIDEO_PLAYBACK_BY_ID, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(PREDICTIONS_USER_V1, USER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(PREDICTIONS_CHANNEL_V1, STREAMER_ID, ACCESS_TOKEN));
-			verify(webSocketPool).listenTopic(Topics.buildFromName(RAID, STREAMER_ID, ACCESS_TOKEN));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_USER_V1, USER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(RAID, STREAMER_ID));
 			verify(twitchChatClient, never()).join(any());
 		}
 	}
@@ -811,8 +1148,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -832,8 +1169,9 @@ class MinerTest{
 			
 			assertDoesNotThrow(() -> tested.updateStreamer(streamer));
 			
-			verify(webSocketPool).removeTopic(Topic.builder().name(PREDICTIONS_CHANNEL_V1).target(STREAMER_ID).build());
-			verify(webSocketPool).removeTopic(Topic.builder().name(RAID).target(STREAMER_ID).build());
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).doesNotContain(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID), buildTopic(RAID, STREAMER_ID));
+			verify(webSocketPool, never()).removeTopics(any());
 			verify(twitchChatClient, never()).join(any());
 		}
 	}
@@ -846,8 +1184,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			
@@ -867,12 +1205,148 @@ class MinerTest{
 			
 			assertDoesNotThrow(() -> tested.updateStreamer(streamer));
 			
-			verify(webSocketPool).removeTopic(Topic.builder().name(PREDICTIONS_CHANNEL_V1).target(STREAMER_ID).build());
-			verify(webSocketPool).removeTopic(Topic.builder().name(RAID).target(STREAMER_ID).build());
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).doesNotContain(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID), buildTopic(RAID, STREAMER_ID));
+			verify(webSocketPool, never()).removeTopics(any());
 			verify(twitchChatClient, never()).join(any());
 		}
 	}
 	
+	@Test
+	void updateStreamerLiveTopicsOnlyOffline(){
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			
+			tested.start();
+			
+			when(accountConfiguration.isLiveTopicsOnly()).thenReturn(true);
+			when(streamerSettings.isMakePredictions()).thenReturn(true);
+			when(streamerSettings.isFollowRaid()).thenReturn(true);
+			
+			var streamer = mock(Streamer.class);
+			when(streamer.getId()).thenReturn(STREAMER_ID);
+			when(streamer.getUsername()).thenReturn(STREAMER_USERNAME);
+			when(streamer.getSettings()).thenReturn(streamerSettings);
+			when(streamer.isStreaming()).thenReturn(false);
+			
+			tested.getStreamerMap().put(STREAMER_ID, streamer);
+			
+			assertDoesNotThrow(() -> tested.updateStreamer(streamer));
+			
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(VIDEO_PLAYBACK_BY_ID, STREAMER_ID));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_USER_V1, USER_ID));
+			assertThat(getListenedTopics()).doesNotContain(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID), buildTopic(RAID, STREAMER_ID));
+		}
+	}
+	
+	@Test
+	void liveTopicsAreListenedWhenLiveAndReleasedLater(){
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			
+			tested.start();
+			
+			when(accountConfiguration.isLiveTopicsOnly()).thenReturn(true);
+			when(streamerSettings.isMakePredictions()).thenReturn(true);
+			when(streamerSettings.isFollowRaid()).thenReturn(true);
+			
+			var streamer = mock(Streamer.class);
+			when(streamer.getId()).thenReturn(STREAMER_ID);
+			when(streamer.getUsername()).thenReturn(STREAMER_USERNAME);
+			when(streamer.getSettings()).thenReturn(streamerSettings);
+			when(streamer.isStreaming()).thenReturn(false);
+			
+			tested.getStreamerMap().put(STREAMER_ID, streamer);
+			tested.updateStreamer(streamer);
+			
+			var future = mock(ScheduledFuture.class);
+			doReturn(future).when(scheduledExecutorService).schedule(any(Runnable.class), anyLong(), any());
+			
+			assertDoesNotThrow(() -> tested.listenLiveTopics(streamer));
+			assertThat(getListenedTopics()).containsOnlyOnce(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID), buildTopic(RAID, STREAMER_ID));
+			
+			assertDoesNotThrow(() -> tested.releaseLiveTopics(streamer));
+			assertThat(getRemovedTopics()).isEmpty();
+			
+			var captor = ArgumentCaptor.forClass(Runnable.class);
+			verify(scheduledExecutorService).schedule(captor.capture(), eq(15L), eq(MINUTES));
+			captor.getValue().run();
+			
+			assertThat(getRemovedTopics()).containsExactlyInAnyOrder(buildTopic(PREDICTIONS_CHANNEL_V1, STREAMER_ID), buildTopic(RAID, STREAMER_ID));
+		}
+	}
+	
+	@Test
+	void liveTopicsReleaseIsCancelledWhenLiveAgain(){
+		try(var apiFactory = mockStatic(ApiFactory.class);
+				var runnableFactory = mockStatic(MinerRunnableFactory.class);
+				var ircFactory = mockStatic(TwitchChatFactory.class)){
+			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
+			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
+			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
+			
+			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
+			
+			tested.start();
+			
+			when(accountConfiguration.isLiveTopicsOnly()).thenReturn(true);
+			when(streamerSettings.isMakePredictions()).thenReturn(true);
+			when(streamerSettings.isFollowRaid()).thenReturn(true);
+			
+			var streamer = mock(Streamer.class);
+			when(streamer.getId()).thenReturn(STREAMER_ID);
+			when(streamer.getUsername()).thenReturn(STREAMER_USERNAME);
+			when(streamer.getSettings()).thenReturn(streamerSettings);
+			when(streamer.isStreaming()).thenReturn(false);
+			
+			tested.getStreamerMap().put(STREAMER_ID, streamer);
+			tested.updateStreamer(streamer);
+			
+			var future = mock(ScheduledFuture.class);
+			doReturn(future).when(scheduledExecutorService).schedule(any(Runnable.class), anyLong(), any());
+			
+			tested.listenLiveTopics(streamer);
+			tested.releaseLiveTopics(streamer);
+			tested.listenLiveTopics(streamer);
+			verify(future).cancel(false);
+			
+			var captor = ArgumentCaptor.forClass(Runnable.class);
+			verify(scheduledExecutorService).schedule(captor.capture(), eq(15L), eq(MINUTES));
+			captor.getValue().run();
+			
+			assertThat(getRemovedTopics()).isEmpty();
+		}
+	}
+	
+	@Test
+	void liveTopicsAreIgnoredWhenNotEnabled(){
+		var streamer = mock(Streamer.class);
+		
+		assertDoesNotThrow(() -> tested.listenLiveTopics(streamer));
+		assertDoesNotThrow(() -> tested.releaseLiveTopics(streamer));
+		
+		verify(webSocketPool, never()).listenTopic(any());
+		verify(scheduledExecutorService, never()).schedule(any(Runnable.class), anyLong(), any());
+	}
+	
 	@Test
 	void getUsername(){
 		var username = "username";
@@ -892,7 +1366,7 @@ class MinerTest{
 		var event = mock(IEvent.class);
 		assertDoesNotThrow(() -> tested.onEvent(event));
 		
-		verify(executorService, times(2)).submit(any(Runnable.class));
+		verify(executorService, times(2)).execute(any(Runnable.class));
 		verify(handler1).onEvent(event);
 		verify(handler2).onEvent(event);
 	}
@@ -905,8 +1379,8 @@ class MinerTest{
 			apiFactory.when(() -> ApiFactory.createTwitchApi(twitchLogin)).thenReturn(twitchApi);
 			apiFactory.when(() -> ApiFactory.createVersionProvider(VERSION_PROVIDER)).thenReturn(versionProvider);
 			apiFactory.when(() -> ApiFactory.createIntegrityProvider(twitchLogin, versionProvider, loginMethod)).thenReturn(integrityProvider);
-			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider)).thenReturn(gqlApi);
-			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, false)).thenReturn(twitchChatClient);
+			apiFactory.when(() -> ApiFactory.createGqlApi(twitchLogin, integrityProvider, executorService)).thenReturn(gqlApi);
+			ircFactory.when(() -> TwitchChatFactory.createChat(tested, CHAT_MODE, IRC_SHARDS, false, scheduledExecutorService)).thenReturn(twitchChatClient);
 			
 			runnableFactory.when(() -> MinerRunnableFactory.createUpdateStreamInfo(tested)).thenReturn(updateStreamInfo);
 			runnableFactory.when(() -> MinerRunnableFactory.createSyncInventory(tested)).thenReturn(syncInventory);
@@ -916,4 +1390,46 @@ class MinerTest{
 			verify(syncInventory).run();
 		}
 	}
-}
\ No newline at end of file
+	
+	@NotNull
+	private List<Topic> getListenedTopics(){
+		var captor = ArgumentCaptor.forClass(Topics.class);
+		verify(webSocketPool, atLeast(0)).listenTopic(captor.capture());
+		assertThat(captor.getAllValues()).allSatisfy(topics -> assertThat(topics.getAuthToken()).isEqualTo(ACCESS_TOKEN));
+		return captor.getAllValues().stream()
+				.flatMap(topics -> topics.getTopics().stream())
+				.toList();
+	}
+	
+	@NotNull
+	@SuppressWarnings("unchecked")
+	private List<Topic> getRemovedTopics(){
+		ArgumentCaptor<Collection<Topic>> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(webSocketPool, atLeast(0)).removeTopics(captor.capture());
+		return captor.getAllValues().stream()
+				.flatMap(Collection::stream)
+				.toList();
+	}
+	
+	@NotNull
+	private static Topic buildTopic(@NotNull TopicName name, @NotNull String target){
+		return Topic.builder().name(name).target(target).build();
+	}
+	
+	private void verifyStreamerConfigurationReloadScheduled(){
+		var captor = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduledExecutorService).schedule(captor.capture(), anyLong(), any());
+		captor.getValue().run();
+		verify(streamerConfigurationReload).run();
+	}
+	
+	private void verifyStreamerConfigurationReloadScheduledEvery(long minutes){
+		var captor = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduledExecutorService).scheduleWithFixedDelay(captor.capture(), anyLong(), eq(minutes), eq(MINUTES));
+		captor.getValue().run();
+		verify(streamerConfigurationReload).run();
+	}
+	
+	private interface SnapshotParticipantHandler extends IPubSubMessageHandler, ISnapshotParticipant{
+	}
+}
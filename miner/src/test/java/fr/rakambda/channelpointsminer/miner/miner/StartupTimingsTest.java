@@ -0,0 +1,63 @@
+package fr.rakambda.channelpointsminer.miner.miner;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class StartupTimingsTest{
+	@Test
+	void phaseIsTimed(){
+		var tested = new StartupTimings();
+		
+		tested.begin(StartupPhase.LOGIN);
+		assertThat(tested.getDuration(StartupPhase.LOGIN)).isEmpty();
+		
+		assertThat(tested.end(StartupPhase.LOGIN)).isTrue();
+		assertThat(tested.getDuration(StartupPhase.LOGIN)).hasValueSatisfying(duration -> assertThat(duration).isNotNegative());
+	}
+	
+	@Test
+	void onlyFirstEndIsRecorded(){
+		var tested = new StartupTimings();
+		
+		tested.begin(StartupPhase.LOGIN);
+		assertThat(tested.end(StartupPhase.LOGIN)).isTrue();
+		var duration = tested.getDuration(StartupPhase.LOGIN);
+		
+		assertThat(tested.end(StartupPhase.LOGIN)).isFalse();
+		assertThat(tested.getDuration(StartupPhase.LOGIN)).isEqualTo(duration);
+	}
+	
+	@Test
+	void endWithoutBegin(){
+		var tested = new StartupTimings();
+		
+		assertThat(tested.end(StartupPhase.LOGIN)).isFalse();
+		assertThat(tested.getDuration(StartupPhase.LOGIN)).isEmpty();
+	}
+	
+	@Test
+	void complete(){
+		var tested = new StartupTimings();
+		
+		for(var phase : StartupPhase.values()){
+			assertThat(tested.isComplete()).isFalse();
+			tested.begin(phase);
+			tested.end(phase);
+		}
+		
+		assertThat(tested.isComplete()).isTrue();
+	}
+	
+	@Test
+	void string(){
+		var tested = new StartupTimings();
+		tested.begin(StartupPhase.LOGIN);
+		tested.end(StartupPhase.LOGIN);
+		
+		assertThat(tested.toString())
+				.startsWith("login=")
+				.contains("integrity=n/a", "topic subscription=n/a", "first stream info refresh=n/a");
+	}
+}
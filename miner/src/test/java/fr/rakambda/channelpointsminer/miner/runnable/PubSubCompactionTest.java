@@ -0,0 +1,56 @@
+package fr.rakambda.channelpointsminer.miner.runnable;
+
+import fr.rakambda.channelpointsminer.miner.api.ws.PubSubPoolMetrics;
+import fr.rakambda.channelpointsminer.miner.api.ws.TwitchPubSubWebSocketPool;
+import fr.rakambda.channelpointsminer.miner.miner.IMiner;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ParallelizableTest
+@ExtendWith(MockitoExtension.class)
+class PubSubCompactionTest{
+	@InjectMocks
+	private PubSubCompaction tested;
+	
+	@Mock
+	private IMiner miner;
+	@Mock
+	private TwitchPubSubWebSocketPool pool;
+	
+	@BeforeEach
+	void setUp(){
+		lenient().when(miner.getPubSubWebSocketPool()).thenReturn(pool);
+		lenient().when(pool.getPoolMetrics()).thenReturn(PubSubPoolMetrics.builder()
+				.sockets(1)
+				.topics(20)
+				.maxTopicsPerSocket(50)
+				.topicsPerSocket(List.of(20))
+				.build());
+	}
+	
+	@Test
+	void compactIsCalled(){
+		when(pool.compact()).thenReturn(1);
+		
+		assertDoesNotThrow(() -> tested.run());
+		
+		verify(pool).compact();
+	}
+	
+	@Test
+	void exceptionIsCaught(){
+		when(pool.compact()).thenThrow(new RuntimeException("For tests"));
+		
+		assertDoesNotThrow(() -> tested.run());
+	}
+}
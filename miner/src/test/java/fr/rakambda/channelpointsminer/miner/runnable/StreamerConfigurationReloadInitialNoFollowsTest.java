@@ -23,6 +23,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.any;
@@ -78,7 +79,7 @@ class StreamerConfigurationReloadInitialNoFollowsTest{
 	
 	@Test
 	void loadFromConfig(){
-		when(gqlApi.reportMenuItem(STREAMER_USERNAME)).thenReturn(Optional.of(reportMenuItemResponse));
+		when(gqlApi.reportMenuItemAsync(STREAMER_USERNAME)).thenReturn(CompletableFuture.completedFuture(Optional.of(reportMenuItemResponse)));
 		
 		setupStreamerConfig(STREAMER_USERNAME);
 		
@@ -105,7 +106,7 @@ class StreamerConfigurationReloadInitialNoFollowsTest{
 		try(var timeFactory = mockStatic(TimeFactory.class)){
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
-			when(gqlApi.reportMenuItem(STREAMER_USERNAME)).thenReturn(Optional.empty());
+			when(gqlApi.reportMenuItemAsync(STREAMER_USERNAME)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 			
 			setupStreamerConfig(STREAMER_USERNAME);
 			
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.any;
@@ -62,7 +63,7 @@ class StreamerConfigurationReloadInitialWithFollowsTest{
 		lenient().when(miner.getGqlApi()).thenReturn(gqlApi);
 		lenient().when(miner.getStreamers()).thenReturn(List.of());
 		
-		lenient().when(gqlApi.reportMenuItem(STREAMER_USERNAME)).thenReturn(Optional.empty());
+		lenient().when(gqlApi.reportMenuItemAsync(STREAMER_USERNAME)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 		lenient().when(reportMenuItemDataGQLResponse.getData()).thenReturn(reportMenuItemData);
 		lenient().when(reportMenuItemData.getUser()).thenReturn(user);
 	}
@@ -78,7 +79,7 @@ class StreamerConfigurationReloadInitialWithFollowsTest{
 		
 		var expectedStreamer = new Streamer(STREAMER_ID, STREAMER_USERNAME, streamerSettings);
 		verify(miner).addStreamer(expectedStreamer);
-		verify(gqlApi, never()).reportMenuItem(anyString());
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
 	}
 	
 	@Test
@@ -88,7 +89,7 @@ class StreamerConfigurationReloadInitialWithFollowsTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(miner, never()).addStreamer(any());
-		verify(gqlApi, never()).reportMenuItem(anyString());
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
 	}
 	
 	@Test
@@ -96,7 +97,7 @@ class StreamerConfigurationReloadInitialWithFollowsTest{
 		when(user.getId()).thenReturn(STREAMER_ID);
 		
 		when(streamerSettingsFactory.getStreamerConfigs()).thenReturn(Stream.of(Paths.get(STREAMER_USERNAME + ".json")));
-		when(gqlApi.reportMenuItem(STREAMER_USERNAME)).thenReturn(Optional.of(reportMenuItemDataGQLResponse));
+		when(gqlApi.reportMenuItemAsync(STREAMER_USERNAME)).thenReturn(CompletableFuture.completedFuture(Optional.of(reportMenuItemDataGQLResponse)));
 		
 		assertDoesNotThrow(() -> tested.run());
 		
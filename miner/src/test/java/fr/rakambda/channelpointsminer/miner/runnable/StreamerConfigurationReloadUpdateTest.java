@@ -12,6 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -72,7 +73,7 @@ class StreamerConfigurationReloadUpdateTest{
 		
 		var expectedStreamer = new Streamer(STREAMER_ID, STREAMER_USERNAME, streamerSettings);
 		verify(miner).addStreamer(expectedStreamer);
-		verify(gqlApi, never()).reportMenuItem(anyString());
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
 	}
 	
 	@Test
@@ -86,7 +87,7 @@ class StreamerConfigurationReloadUpdateTest{
 		var expectedStreamer = new Streamer(STREAMER_ID, STREAMER_USERNAME, streamerSettings);
 		verify(miner, never()).addStreamer(expectedStreamer);
 		verify(miner).removeStreamer(expectedStreamer);
-		verify(gqlApi, never()).reportMenuItem(anyString());
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
 	}
 	
 	@Test
@@ -98,7 +99,19 @@ class StreamerConfigurationReloadUpdateTest{
 		
 		verify(existingStreamer).setSettings(streamerSettings);
 		verify(miner).updateStreamer(existingStreamer);
-		verify(gqlApi, never()).reportMenuItem(anyString());
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
+	}
+	
+	@Test
+	void updateExistingFromConfigurationDoesNotQueryId(){
+		when(streamerSettingsFactory.getStreamerConfigs()).thenReturn(Stream.of(Paths.get(STREAMER_USERNAME + ".json")));
+		when(gqlApi.allChannelFollows()).thenReturn(List.of());
+		
+		assertDoesNotThrow(() -> tested.run());
+		
+		verify(existingStreamer).setSettings(streamerSettings);
+		verify(miner).updateStreamer(existingStreamer);
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
 	}
 	
 	@Test
@@ -108,6 +121,6 @@ class StreamerConfigurationReloadUpdateTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(miner).removeStreamer(existingStreamer);
-		verify(gqlApi, never()).reportMenuItem(anyString());
+		verify(gqlApi, never()).reportMenuItemAsync(anyString());
 	}
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.lenient;
@@ -88,7 +89,7 @@ class SyncInventoryTest{
 		lenient().when(timeBasedDropSelfEdge.getDropInstanceId()).thenReturn(DROP_ID);
 		
 		lenient().when(gqlApi.inventory()).thenReturn(Optional.of(inventoryDataGQLResponse));
-		lenient().when(gqlApi.dropsPageClaimDropRewards(DROP_ID)).thenReturn(Optional.of(dropsPageClaimDropRewardsDataGQLResponse));
+		lenient().when(gqlApi.dropsPageClaimDropRewardsAsync(DROP_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(dropsPageClaimDropRewardsDataGQLResponse)));
 	}
 	
 	@Test
@@ -99,7 +100,7 @@ class SyncInventoryTest{
 			assertDoesNotThrow(() -> tested.run());
 			
 			verify(minerData).setInventory(inventoryData);
-			verify(gqlApi).dropsPageClaimDropRewards(DROP_ID);
+			verify(gqlApi).dropsPageClaimDropRewardsAsync(DROP_ID);
 			verify(miner).onEvent(new DropClaimEvent(miner, timeBasedDrop, NOW));
 			verify(miner).onEvent(new DropClaimedEvent(miner, timeBasedDrop, NOW));
 		}
@@ -112,7 +113,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(inventoryData);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -123,7 +124,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(inventoryData);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -134,7 +135,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(inventoryData);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -145,7 +146,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(inventoryData);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -156,7 +157,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(inventoryData);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -167,7 +168,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(inventoryData);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -178,7 +179,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData).setInventory(null);
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -189,7 +190,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData, never()).setInventory(any());
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -200,7 +201,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData, never()).setInventory(any());
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -211,7 +212,7 @@ class SyncInventoryTest{
 		assertDoesNotThrow(() -> tested.run());
 		
 		verify(minerData, never()).setInventory(any());
-		verify(gqlApi, never()).dropsPageClaimDropRewards(any());
+		verify(gqlApi, never()).dropsPageClaimDropRewardsAsync(any());
 		verify(miner, never()).onEvent(any());
 	}
 	
@@ -225,7 +226,7 @@ class SyncInventoryTest{
 			assertDoesNotThrow(() -> tested.run());
 			
 			verify(minerData).setInventory(inventoryData);
-			verify(gqlApi).dropsPageClaimDropRewards(DROP_ID);
+			verify(gqlApi).dropsPageClaimDropRewardsAsync(DROP_ID);
 			verify(miner).onEvent(new DropClaimEvent(miner, timeBasedDrop, NOW));
 			verify(miner, never()).onEvent(any(DropClaimedEvent.class));
 		}
@@ -236,12 +237,28 @@ class SyncInventoryTest{
 		try(var timeFactory = mockStatic(TimeFactory.class)){
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
-			when(gqlApi.dropsPageClaimDropRewards(DROP_ID)).thenReturn(Optional.empty());
+			when(gqlApi.dropsPageClaimDropRewardsAsync(DROP_ID)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 			
 			assertDoesNotThrow(() -> tested.run());
 			
 			verify(minerData).setInventory(inventoryData);
-			verify(gqlApi).dropsPageClaimDropRewards(DROP_ID);
+			verify(gqlApi).dropsPageClaimDropRewardsAsync(DROP_ID);
+			verify(miner).onEvent(new DropClaimEvent(miner, timeBasedDrop, NOW));
+			verify(miner, never()).onEvent(any(DropClaimedEvent.class));
+		}
+	}
+	
+	@Test
+	void updateInventoryWithClaimFailure(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::now).thenReturn(NOW);
+			
+			when(gqlApi.dropsPageClaimDropRewardsAsync(DROP_ID)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("For tests")));
+			
+			assertDoesNotThrow(() -> tested.run());
+			
+			verify(minerData).setInventory(inventoryData);
+			verify(gqlApi).dropsPageClaimDropRewardsAsync(DROP_ID);
 			verify(miner).onEvent(new DropClaimEvent(miner, timeBasedDrop, NOW));
 			verify(miner, never()).onEvent(any(DropClaimedEvent.class));
 		}
@@ -1,13 +1,19 @@
 package fr.rakambda.channelpointsminer.miner.runnable;
 
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.GQLApi;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.GQLBatchResponse;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.GQLResponse;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.IGQLOperation;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.channelpointscontext.ChannelPointsContextData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.channelpointscontext.ChannelPointsContextOperation;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.chatroombanstatus.ChatRoomBanStatusData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.chatroombanstatus.ChatRoomBanStatusOperation;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.dropshighlightserviceavailabledrops.DropsHighlightServiceAvailableDropsData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.dropshighlightserviceavailabledrops.DropsHighlightServiceAvailableDropsOperation;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.ChatRoomBanStatus;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.User;
 import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.videoplayerstreaminfooverlaychannel.VideoPlayerStreamInfoOverlayChannelData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.videoplayerstreaminfooverlaychannel.VideoPlayerStreamInfoOverlayChannelOperation;
 import fr.rakambda.channelpointsminer.miner.api.passport.TwitchLogin;
 import fr.rakambda.channelpointsminer.miner.api.twitch.TwitchApi;
 import fr.rakambda.channelpointsminer.miner.factory.TimeFactory;
@@ -23,12 +29,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -44,6 +57,11 @@ class UpdateStreamInfoTest{
 	private static final String STREAMER_USERNAME = "streamer-username";
 	private static final String STREAMER_ID = "streamer-id";
 	private static final String ACCOUNT_ID = "account-id";
+	private static final String CLAIM_ID = "claim-id";
+	private static final IGQLOperation<?> VIDEO_OPERATION = new VideoPlayerStreamInfoOverlayChannelOperation(STREAMER_USERNAME);
+	private static final IGQLOperation<?> POINTS_CONTEXT_OPERATION = new ChannelPointsContextOperation(STREAMER_USERNAME);
+	private static final IGQLOperation<?> BAN_STATUS_OPERATION = new ChatRoomBanStatusOperation(STREAMER_ID, ACCOUNT_ID);
+	private static final IGQLOperation<?> DROPS_OPERATION = new DropsHighlightServiceAvailableDropsOperation(STREAMER_ID);
 	
 	@InjectMocks
 	private UpdateStreamInfo tested;
@@ -75,6 +93,8 @@ class UpdateStreamInfoTest{
 	@Mock
 	private ChatRoomBanStatusData chatRoomBanStatusData;
 	
+	private final Map<Class<?>, GQLResponse<?>> responses = new HashMap<>();
+	private final List<IGQLOperation<?>> sentOperations = new ArrayList<>();
 	private URL spadeUrl;
 	private URL streamerUrl;
 	
@@ -100,6 +120,23 @@ class UpdateStreamInfoTest{
 		lenient().when(gqlResponseChannelPoints.getData()).thenReturn(channelPointsContextData);
 		lenient().when(videoPlayerStreamInfoOverlayChannelData.getUser()).thenReturn(user);
 		lenient().when(gqlResponseChatRoomBanStatus.getData()).thenReturn(chatRoomBanStatusData);
+		
+		lenient().when(gqlApi.batchAsync(anyList())).thenAnswer(invocation -> {
+			List<IGQLOperation<?>> operations = invocation.getArgument(0);
+			sentOperations.addAll(operations);
+			
+			var batchResponse = new GQLBatchResponse();
+			operations.forEach(operation -> putResponse(batchResponse, operation));
+			return CompletableFuture.completedFuture(batchResponse);
+		});
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> void putResponse(GQLBatchResponse batchResponse, IGQLOperation<T> operation){
+		var response = (GQLResponse<T>) responses.get(operation.getClass());
+		if(Objects.nonNull(response)){
+			batchResponse.put(operation, response);
+		}
 	}
 	
 	@Test
@@ -108,16 +145,13 @@ class UpdateStreamInfoTest{
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
 			when(streamer.isStreaming()).thenReturn(false);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(gqlApi, never()).chatRoomBanStatus(anyString(), anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -136,15 +170,11 @@ class UpdateStreamInfoTest{
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
 			when(streamer.isStreaming()).thenReturn(true).thenReturn(false);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.empty());
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.empty());
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(gqlApi, never()).chatRoomBanStatus(anyString(), anyString());
-			verify(twitchApi, never()).getSpadeUrl(any());
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any());
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(null);
 			verify(streamer).setChannelPointsContext(null);
@@ -163,16 +193,11 @@ class UpdateStreamInfoTest{
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
 			when(streamer.isStreaming()).thenReturn(false);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.empty());
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.empty());
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(gqlApi, never()).chatRoomBanStatus(anyString(), anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(null);
 			verify(streamer).setChannelPointsContext(null);
@@ -192,17 +217,14 @@ class UpdateStreamInfoTest{
 			
 			when(streamer.isStreaming()).thenReturn(true);
 			when(streamer.getSpadeUrl()).thenReturn(spadeUrl);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -222,19 +244,16 @@ class UpdateStreamInfoTest{
 			
 			when(streamer.isStreaming()).thenReturn(true);
 			when(streamer.getSpadeUrl()).thenReturn(spadeUrl);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
 			
 			when(chatRoomBanStatusData.getChatRoomBanStatus()).thenReturn(mock(ChatRoomBanStatus.class));
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -254,17 +273,15 @@ class UpdateStreamInfoTest{
 			
 			when(streamer.isStreaming()).thenReturn(true);
 			when(streamer.getSpadeUrl()).thenReturn(null);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
-			when(twitchApi.getSpadeUrl(streamerUrl)).thenReturn(Optional.of(spadeUrl));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
+			when(twitchApi.getSpadeUrlAsync(streamerUrl)).thenReturn(CompletableFuture.completedFuture(Optional.of(spadeUrl)));
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(twitchApi).getSpadeUrl(streamerUrl);
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION);
+			verify(twitchApi).getSpadeUrlAsync(streamerUrl);
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -284,18 +301,15 @@ class UpdateStreamInfoTest{
 			
 			when(streamer.isStreaming()).thenReturn(true);
 			when(streamer.getSpadeUrl()).thenReturn(null);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
-			when(twitchApi.getSpadeUrl(streamerUrl)).thenReturn(Optional.empty());
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
+			when(twitchApi.getSpadeUrlAsync(streamerUrl)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(twitchApi).getSpadeUrl(streamerUrl);
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION);
+			verify(twitchApi).getSpadeUrlAsync(streamerUrl);
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -308,6 +322,42 @@ class UpdateStreamInfoTest{
 		}
 	}
 	
+	@Test
+	void updateWithDataStreamingAndSpadeUrlFailing(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::now).thenReturn(NOW);
+			
+			when(streamer.isStreaming()).thenReturn(true);
+			when(streamer.getSpadeUrl()).thenReturn(null);
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			when(twitchApi.getSpadeUrlAsync(streamerUrl)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("For tests")));
+			
+			assertDoesNotThrow(() -> tested.run());
+			
+			verify(twitchApi).getSpadeUrlAsync(streamerUrl);
+			verify(streamer, never()).setSpadeUrl(any());
+			verify(streamer).setLastUpdated(NOW);
+		}
+	}
+	
+	@Test
+	void updateClaimsCommunityPoints(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::now).thenReturn(NOW);
+			
+			when(streamer.isStreaming()).thenReturn(false);
+			when(streamer.getClaimId()).thenReturn(Optional.of(CLAIM_ID));
+			when(gqlApi.claimCommunityPointsAsync(STREAMER_ID, CLAIM_ID)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+			
+			assertDoesNotThrow(() -> tested.run());
+			
+			verify(gqlApi).claimCommunityPointsAsync(STREAMER_ID, CLAIM_ID);
+			verify(gqlApi, never()).claimCommunityPoints(any(), any());
+			verify(streamer).setLastUpdated(NOW);
+		}
+	}
+	
 	@Test
 	void updateWithDataStreamingUpdateCampaign(){
 		try(var timeFactory = mockStatic(TimeFactory.class)){
@@ -320,18 +370,15 @@ class UpdateStreamInfoTest{
 			when(streamer.isParticipateCampaigns()).thenReturn(true);
 			when(streamer.isStreamingGame()).thenReturn(true);
 			when(streamer.getSpadeUrl()).thenReturn(spadeUrl);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.dropsHighlightServiceAvailableDrops(STREAMER_ID)).thenReturn(Optional.of(dropsHighlightServiceAvailableDrops));
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(DropsHighlightServiceAvailableDropsOperation.class, dropsHighlightServiceAvailableDrops);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi).dropsHighlightServiceAvailableDrops(STREAMER_ID);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION, DROPS_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -353,18 +400,14 @@ class UpdateStreamInfoTest{
 			when(streamer.isParticipateCampaigns()).thenReturn(true);
 			when(streamer.isStreamingGame()).thenReturn(true);
 			when(streamer.getSpadeUrl()).thenReturn(spadeUrl);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.dropsHighlightServiceAvailableDrops(STREAMER_ID)).thenReturn(Optional.empty());
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi).dropsHighlightServiceAvailableDrops(STREAMER_ID);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION, DROPS_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -386,17 +429,14 @@ class UpdateStreamInfoTest{
 			when(streamer.isParticipateCampaigns()).thenReturn(true);
 			when(streamer.isStreamingGame()).thenReturn(false);
 			when(streamer.getSpadeUrl()).thenReturn(spadeUrl);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
-			when(gqlApi.chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID)).thenReturn(Optional.of(gqlResponseChatRoomBanStatus));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
+			responses.put(ChatRoomBanStatusOperation.class, gqlResponseChatRoomBanStatus);
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi).chatRoomBanStatus(STREAMER_ID, ACCOUNT_ID);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, BAN_STATUS_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -415,14 +455,11 @@ class UpdateStreamInfoTest{
 			timeFactory.when(TimeFactory::now).thenReturn(NOW);
 			
 			when(streamer.isStreaming()).thenReturn(false);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.empty());
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.empty());
 			when(miner.getStreamers()).thenReturn(List.of(streamer, streamer));
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi, times(2)).videoPlayerStreamInfoOverlayChannel(anyString());
-			verify(gqlApi, times(2)).channelPointsContext(anyString());
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION, VIDEO_OPERATION, POINTS_CONTEXT_OPERATION);
 			
 			verify(streamer, times(2)).setVideoPlayerStreamInfoOverlayChannel(null);
 			verify(streamer, times(2)).setChannelPointsContext(null);
@@ -435,9 +472,25 @@ class UpdateStreamInfoTest{
 		}
 	}
 	
+	@Test
+	void updateByGroups(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::now).thenReturn(NOW);
+			
+			when(streamer.isStreaming()).thenReturn(false);
+			when(miner.getStreamers()).thenReturn(Collections.nCopies(51, streamer));
+			
+			assertDoesNotThrow(() -> tested.run());
+			
+			assertThat(sentOperations).hasSize(102);
+			verify(gqlApi, times(4)).batchAsync(anyList());
+			verify(streamer, times(51)).setLastUpdated(NOW);
+		}
+	}
+	
 	@Test
 	void updateException(){
-		when(gqlApi.videoPlayerStreamInfoOverlayChannel(any())).thenThrow(new RuntimeException("For tests"));
+		when(gqlApi.batchAsync(anyList())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("For tests")));
 		
 		assertDoesNotThrow(() -> tested.run());
 	}
@@ -449,11 +502,8 @@ class UpdateStreamInfoTest{
 			
 			assertDoesNotThrow(() -> tested.run());
 			
-			verify(gqlApi, never()).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi, never()).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(gqlApi, never()).chatRoomBanStatus(anyString(), anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).isEmpty();
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer, never()).setVideoPlayerStreamInfoOverlayChannel(any());
 			verify(streamer, never()).setChannelPointsContext(any());
@@ -473,16 +523,13 @@ class UpdateStreamInfoTest{
 			
 			lenient().when(streamer.needUpdate()).thenReturn(false);
 			when(streamer.isStreaming()).thenReturn(false);
-			when(gqlApi.videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseVideoPlayer));
-			when(gqlApi.channelPointsContext(STREAMER_USERNAME)).thenReturn(Optional.of(gqlResponseChannelPoints));
+			responses.put(VideoPlayerStreamInfoOverlayChannelOperation.class, gqlResponseVideoPlayer);
+			responses.put(ChannelPointsContextOperation.class, gqlResponseChannelPoints);
 			
 			assertDoesNotThrow(() -> tested.run(streamer));
 			
-			verify(gqlApi).videoPlayerStreamInfoOverlayChannel(STREAMER_USERNAME);
-			verify(gqlApi).channelPointsContext(STREAMER_USERNAME);
-			verify(gqlApi, never()).chatRoomBanStatus(anyString(), anyString());
-			verify(gqlApi, never()).dropsHighlightServiceAvailableDrops(anyString());
-			verify(twitchApi, never()).getSpadeUrl(any(URL.class));
+			assertThat(sentOperations).containsExactlyInAnyOrder(VIDEO_OPERATION, POINTS_CONTEXT_OPERATION);
+			verify(twitchApi, never()).getSpadeUrlAsync(any(URL.class));
 			
 			verify(streamer).setVideoPlayerStreamInfoOverlayChannel(videoPlayerStreamInfoOverlayChannelData);
 			verify(streamer).setChannelPointsContext(channelPointsContextData);
@@ -0,0 +1,122 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ParallelizableTest
+class AsyncLimiterTest{
+	@Test
+	void invalidLimit(){
+		assertThrows(IllegalArgumentException.class, () -> new AsyncLimiter(0));
+	}
+	
+	@Test
+	void callsOverLimitWait(){
+		var tested = new AsyncLimiter(2);
+		var calls = new ArrayList<CompletableFuture<Integer>>();
+		var started = new AtomicInteger(0);
+		
+		var results = new ArrayList<CompletableFuture<Integer>>();
+		for(var i = 0; i < 5; i++){
+			results.add(tested.submit(() -> {
+				started.incrementAndGet();
+				var call = new CompletableFuture<Integer>();
+				calls.add(call);
+				return call;
+			}));
+		}
+		
+		assertThat(started).hasValue(2);
+		assertThat(tested.getInFlightCount()).isEqualTo(2);
+		assertThat(tested.getPendingCount()).isEqualTo(3);
+		
+		calls.get(0).complete(0);
+		assertThat(results.get(0)).isCompletedWithValue(0);
+		assertThat(started).hasValue(3);
+		assertThat(tested.getInFlightCount()).isEqualTo(2);
+		assertThat(tested.getPendingCount()).isEqualTo(2);
+		
+		for(var i = 1; i < 5; i++){
+			calls.get(i).complete(i);
+		}
+		
+		assertThat(results).allMatch(CompletableFuture::isDone);
+		assertThat(results.stream().map(CompletableFuture::join).toList()).containsExactly(0, 1, 2, 3, 4);
+		assertThat(tested.getInFlightCount()).isZero();
+		assertThat(tested.getPendingCount()).isZero();
+	}
+	
+	@Test
+	void failedCallReleasesSlot(){
+		var tested = new AsyncLimiter(1);
+		
+		var failed = tested.<Integer> submit(() -> CompletableFuture.failedFuture(new IllegalStateException("For tests")));
+		var next = tested.submit(() -> CompletableFuture.completedFuture(1));
+		
+		var thrown = assertThrows(CompletionException.class, failed::join);
+		assertThat(thrown).hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(next).isCompletedWithValue(1);
+		assertThat(tested.getInFlightCount()).isZero();
+	}
+	
+	@Test
+	void throwingCallReleasesSlot(){
+		var tested = new AsyncLimiter(1);
+		
+		var failed = tested.<Integer> submit(() -> {
+			throw new IllegalStateException("For tests");
+		});
+		var next = tested.submit(() -> CompletableFuture.completedFuture(1));
+		
+		assertThat(failed).isCompletedExceptionally();
+		assertThat(next).isCompletedWithValue(1);
+		assertThat(tested.getInFlightCount()).isZero();
+	}
+	
+	@Test
+	void manyQueuedCallsFailingRightAway(){
+		var tested = new AsyncLimiter(1);
+		var gate = new CompletableFuture<Integer>();
+		
+		var first = tested.submit(() -> gate);
+		var results = new ArrayList<CompletableFuture<Integer>>();
+		for(var i = 0; i < 5000; i++){
+			results.add(tested.submit(() -> CompletableFuture.failedFuture(new IllegalStateException("For tests"))));
+		}
+		assertThat(tested.getPendingCount()).isEqualTo(5000);
+		
+		gate.complete(0);
+		
+		assertThat(first).isCompletedWithValue(0);
+		assertThat(results).allMatch(CompletableFuture::isCompletedExceptionally);
+		assertThat(tested.getInFlightCount()).isZero();
+		assertThat(tested.getPendingCount()).isZero();
+	}
+	
+	@Test
+	void manyCalls(){
+		var tested = new AsyncLimiter(4);
+		var maxInFlight = new AtomicInteger(0);
+		
+		List<CompletableFuture<Integer>> results = new ArrayList<>();
+		for(var i = 0; i < 500; i++){
+			var value = i;
+			results.add(tested.submit(() -> CompletableFuture.supplyAsync(() -> {
+				maxInFlight.accumulateAndGet(tested.getInFlightCount(), Math::max);
+				return value;
+			})));
+		}
+		
+		CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+		assertThat(maxInFlight.get()).isBetween(1, 4);
+		assertThat(tested.getInFlightCount()).isZero();
+		assertThat(tested.getPendingCount()).isZero();
+	}
+}
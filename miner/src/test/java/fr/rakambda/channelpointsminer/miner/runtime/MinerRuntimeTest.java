@@ -0,0 +1,159 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.api.websocket.WebSocketOptions;
+import fr.rakambda.channelpointsminer.miner.config.RuntimeConfiguration;
+import fr.rakambda.channelpointsminer.miner.config.WebSocketTransport;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.condition.JRE.JAVA_20;
+import static org.junit.jupiter.api.condition.JRE.JAVA_21;
+
+@ParallelizableTest
+class MinerRuntimeTest{
+	private static final String NAME = "tenant";
+	
+	@Test
+	void platformThreads() throws Exception{
+		var configuration = RuntimeConfiguration.builder()
+				.schedulerThreads(1)
+				.workerThreads(2)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.isVirtualThreads()).isFalse();
+			assertThat(tested.getMaxConcurrentTasksPerAccount()).isEqualTo(8);
+			
+			var tenant = tested.createTenant(NAME);
+			assertThat(tenant.getName()).isEqualTo(NAME);
+			assertThat(runOn(tenant).get(10, TimeUnit.SECONDS)).startsWith("miner-worker-");
+			assertThat(tenant.getScheduledExecutor().schedule(() -> Thread.currentThread().getName(), 1, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS)).startsWith("miner-worker-");
+		}
+	}
+	
+	@Test
+	@EnabledForJreRange(min = JAVA_21)
+	void virtualThreads() throws Exception{
+		var configuration = RuntimeConfiguration.builder()
+				.schedulerThreads(1)
+				.workerThreads(2)
+				.virtualThreads(true)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.isVirtualThreads()).isTrue();
+			assertThat(tested.getMaxConcurrentTasksPerAccount()).isEqualTo(256);
+			
+			var tenant = tested.createTenant(NAME);
+			var isVirtual = Thread.class.getMethod("isVirtual");
+			var virtualTask = CompletableFuture.supplyAsync(() -> {
+				try{
+					return (boolean) isVirtual.invoke(Thread.currentThread());
+				}
+				catch(ReflectiveOperationException e){
+					throw new IllegalStateException(e);
+				}
+			}, tenant.getHandlerExecutor());
+			assertThat(virtualTask.get(10, TimeUnit.SECONDS)).isTrue();
+		}
+	}
+	
+	@Test
+	@EnabledForJreRange(max = JAVA_20)
+	void virtualThreadsFallBackToWorkers() throws Exception{
+		var configuration = RuntimeConfiguration.builder()
+				.schedulerThreads(1)
+				.workerThreads(2)
+				.virtualThreads(true)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.isVirtualThreads()).isFalse();
+			assertThat(tested.getMaxConcurrentTasksPerAccount()).isEqualTo(8);
+			
+			var tenant = tested.createTenant(NAME);
+			assertThat(runOn(tenant).get(10, TimeUnit.SECONDS)).startsWith("miner-worker-");
+		}
+	}
+	
+	@Test
+	void configuredMaxConcurrentTasksPerAccount(){
+		var configuration = RuntimeConfiguration.builder()
+				.maxConcurrentTasksPerAccount(4)
+				.virtualThreads(true)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.getMaxConcurrentTasksPerAccount()).isEqualTo(4);
+		}
+	}
+	
+	@Test
+	void closingTenantKeepsRuntime() throws Exception{
+		var configuration = RuntimeConfiguration.builder().build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			var tenant1 = tested.createTenant("tenant1");
+			var tenant2 = tested.createTenant("tenant2");
+			
+			tenant1.getScheduledExecutor().shutdown();
+			tenant1.getHandlerExecutor().shutdown();
+			
+			assertThat(runOn(tenant2).get(10, TimeUnit.SECONDS)).isNotNull();
+			assertThat(tested.getWorker().isShutdown()).isFalse();
+		}
+	}
+	
+	@Test
+	void webSocketHttpClient(){
+		var configuration = RuntimeConfiguration.builder()
+				.webSocketTransport(WebSocketTransport.HTTP_CLIENT)
+				.webSocketThreads(1)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.getWebSocketOptions().getHttpClient()).isNotNull()
+					.satisfies(client -> assertThat(client.executor()).isPresent());
+		}
+	}
+	
+	@Test
+	void defaultWebSocketOptions(){
+		try(var tested = new MinerRuntime(RuntimeConfiguration.builder().build())){
+			assertThat(tested.getWebSocketOptions()).isEqualTo(WebSocketOptions.DEFAULT);
+		}
+	}
+	
+	@Test
+	void webSocketCompression(){
+		var configuration = RuntimeConfiguration.builder()
+				.webSocketCompression(true)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.getWebSocketOptions().isCompression()).isTrue();
+			assertThat(tested.getWebSocketOptions().getHttpClient()).isNull();
+		}
+	}
+	
+	@Test
+	void webSocketCompressionIgnoredWithHttpClient(){
+		var configuration = RuntimeConfiguration.builder()
+				.webSocketTransport(WebSocketTransport.HTTP_CLIENT)
+				.webSocketThreads(1)
+				.webSocketCompression(true)
+				.build();
+		
+		try(var tested = new MinerRuntime(configuration)){
+			assertThat(tested.getWebSocketOptions().isCompression()).isFalse();
+			assertThat(tested.getWebSocketOptions().getHttpClient()).isNotNull();
+		}
+	}
+	
+	private static CompletableFuture<String> runOn(RuntimeTenant tenant){
+		return CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), tenant.getHandlerExecutor());
+	}
+}
@@ -0,0 +1,103 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.config.RuntimeConfiguration;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ParallelizableTest
+class StartupOrchestratorTest{
+	private static final List<String> ACCOUNTS = List.of("account1", "account2", "account3", "account4");
+	
+	@Test
+	void allAccountsAreStarted(){
+		var tested = new StartupOrchestrator(configuration(2, 0, 0));
+		var started = new ConcurrentLinkedQueue<String>();
+		
+		tested.startAll(ACCOUNTS, Function.identity(), started::add);
+		
+		assertThat(started).containsExactlyInAnyOrderElementsOf(ACCOUNTS);
+	}
+	
+	@Test
+	void concurrencyIsLimited(){
+		var tested = new StartupOrchestrator(configuration(2, 0, 0));
+		var running = new AtomicInteger();
+		var maxRunning = new AtomicInteger();
+		
+		tested.startAll(ACCOUNTS, Function.identity(), account -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try{
+				Thread.sleep(50);
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+		});
+		
+		assertThat(maxRunning.get()).isBetween(1, 2);
+	}
+	
+	@Test
+	void failureDoesNotPreventOtherAccounts(){
+		var tested = new StartupOrchestrator(configuration(1, 0, 0));
+		var started = new ConcurrentLinkedQueue<String>();
+		
+		assertThatThrownBy(() -> tested.startAll(ACCOUNTS, Function.identity(), account -> {
+			if(account.equals("account2")){
+				throw new IllegalStateException("Failed to login");
+			}
+			started.add(account);
+		}))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("account2");
+		
+		assertThat(started).containsExactly("account1", "account3", "account4");
+	}
+	
+	@Test
+	void noAccounts(){
+		var tested = new StartupOrchestrator(configuration(2, 1000, 1000));
+		
+		tested.startAll(List.<String>of(), Function.identity(), account -> {
+			throw new IllegalStateException("Should not be called");
+		});
+	}
+	
+	@Test
+	void startsAreSpaced(){
+		var tested = new StartupOrchestrator(configuration(2, 10_000, 0));
+		
+		assertThat(tested.reserveStartDelay()).isZero();
+		assertThat(tested.reserveStartDelay()).isBetween(9_000L, 10_000L);
+		assertThat(tested.reserveStartDelay()).isBetween(19_000L, 20_000L);
+	}
+	
+	@Test
+	void jitterIsAdded(){
+		var tested = new StartupOrchestrator(configuration(2, 0, 500));
+		
+		for(var i = 0; i < 100; i++){
+			assertThat(tested.reserveStartDelay()).isBetween(0L, 500L);
+		}
+	}
+	
+	@Test
+	void invalidConcurrency(){
+		assertThatThrownBy(() -> new StartupOrchestrator(configuration(0, 0, 0))).isInstanceOf(IllegalArgumentException.class);
+	}
+	
+	private static RuntimeConfiguration configuration(int maxConcurrentStartups, long interval, long jitter){
+		return RuntimeConfiguration.builder()
+				.maxConcurrentStartups(maxConcurrentStartups)
+				.startupInterval(interval)
+				.startupJitter(jitter)
+				.build();
+	}
+}
@@ -0,0 +1,141 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ParallelizableTest
+class StripedExecutorTest{
+	private static final String KEY_1 = "key1";
+	private static final String KEY_2 = "key2";
+	
+	private ExecutorService delegate;
+	private StripedExecutor tested;
+	
+	@BeforeEach
+	void setUp(){
+		delegate = Executors.newFixedThreadPool(8);
+		tested = new StripedExecutor(delegate, 16, 1000);
+	}
+	
+	@AfterEach
+	void tearDown(){
+		delegate.shutdownNow();
+	}
+	
+	@Test
+	void keepsOrderPerKey() throws InterruptedException{
+		var results = Collections.synchronizedList(new ArrayList<Integer>());
+		var done = new CountDownLatch(500);
+		
+		for(var i = 0; i < 500; i++){
+			var value = i;
+			tested.execute(KEY_1, () -> {
+				results.add(value);
+				done.countDown();
+			});
+		}
+		
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(results).isSorted().hasSize(500);
+	}
+	
+	@Test
+	void differentKeysRunInParallel() throws InterruptedException{
+		var small = new StripedExecutor(delegate, 2, 10);
+		var release = new CountDownLatch(1);
+		var otherDone = new CountDownLatch(1);
+		
+		var blockingKey = 0;
+		var otherKey = 1;
+		small.execute(blockingKey, () -> {
+			try{
+				release.await();
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		});
+		small.execute(otherKey, otherDone::countDown);
+		
+		assertThat(otherDone.await(10, TimeUnit.SECONDS)).isTrue();
+		release.countDown();
+	}
+	
+	@Test
+	void failingTaskDoesNotBlockStripe() throws InterruptedException{
+		var done = new CountDownLatch(1);
+		
+		tested.execute(KEY_1, () -> {
+			throw new IllegalStateException("For tests");
+		});
+		tested.execute(KEY_1, done::countDown);
+		
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+	
+	@Test
+	void dropsOldestWhenFull(){
+		var small = new StripedExecutor(delegate, 1, 2);
+		var release = new CountDownLatch(1);
+		var started = new CountDownLatch(1);
+		
+		small.execute(KEY_1, () -> {
+			started.countDown();
+			try{
+				release.await();
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		});
+		await().atMost(Duration.ofSeconds(10)).until(() -> started.getCount() == 0);
+		
+		var results = Collections.synchronizedList(new ArrayList<Integer>());
+		for(var i = 0; i < 3; i++){
+			var value = i;
+			small.execute(KEY_2, () -> results.add(value));
+		}
+		assertThat(small.getDroppedCount()).isEqualTo(1);
+		assertThat(small.getDroppedCounts()).containsExactly(1L);
+		assertThat(small.getQueueDepths()).containsExactly(2);
+		assertThat(small.getMaxQueueDepth()).isEqualTo(2);
+		
+		release.countDown();
+		await().atMost(Duration.ofSeconds(10)).until(() -> results.size() == 2);
+		assertThat(results).containsExactly(1, 2);
+		assertThat(small.getMaxQueueDepth()).isZero();
+	}
+	
+	@Test
+	void stripeCountIsRoundedToPowerOfTwo(){
+		assertThat(new StripedExecutor(delegate, 5, 1).getStripeCount()).isEqualTo(8);
+		assertThat(new StripedExecutor(delegate, 16, 1).getStripeCount()).isEqualTo(16);
+	}
+	
+	@Test
+	void nullKey() throws InterruptedException{
+		var done = new CountDownLatch(1);
+		
+		tested.execute(null, done::countDown);
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+	
+	@Test
+	void invalidParameters(){
+		assertThrows(IllegalArgumentException.class, () -> new StripedExecutor(delegate, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new StripedExecutor(delegate, 1, 0));
+	}
+}
@@ -0,0 +1,112 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ParallelizableTest
+class TenantExecutorServiceTest{
+	private static final String NAME = "tenant";
+	private static final int MAX_CONCURRENT = 2;
+	
+	private ExecutorService shared;
+	private TenantExecutorService tested;
+	
+	@BeforeEach
+	void setUp(){
+		shared = Executors.newFixedThreadPool(8);
+		tested = new TenantExecutorService(NAME, shared, MAX_CONCURRENT);
+	}
+	
+	@AfterEach
+	void tearDown(){
+		shared.shutdownNow();
+	}
+	
+	@Test
+	void executesTasks() throws InterruptedException{
+		var latch = new CountDownLatch(10);
+		for(var i = 0; i < 10; i++){
+			tested.execute(latch::countDown);
+		}
+		
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+	
+	@Test
+	void limitsConcurrentTasks() throws InterruptedException{
+		var release = new CountDownLatch(1);
+		var maxRunning = new AtomicInteger(0);
+		var running = new AtomicInteger(0);
+		var done = new CountDownLatch(6);
+		
+		for(var i = 0; i < 6; i++){
+			tested.execute(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try{
+					release.await();
+				}
+				catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				done.countDown();
+			});
+		}
+		
+		await().atMost(Duration.ofSeconds(10)).until(() -> tested.getRunningCount() == MAX_CONCURRENT);
+		assertThat(tested.getQueueSize()).isEqualTo(4);
+		
+		release.countDown();
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxRunning.get()).isEqualTo(MAX_CONCURRENT);
+	}
+	
+	@Test
+	void shutdownDoesNotAffectShared() throws InterruptedException{
+		tested.shutdown();
+		
+		assertThat(tested.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(tested.isShutdown()).isTrue();
+		assertThat(tested.isTerminated()).isTrue();
+		assertThat(shared.isShutdown()).isFalse();
+		assertThrows(RejectedExecutionException.class, () -> tested.execute(() -> {}));
+	}
+	
+	@Test
+	void shutdownNowReturnsPendingTasks(){
+		var release = new CountDownLatch(1);
+		for(var i = 0; i < 5; i++){
+			tested.execute(() -> {
+				try{
+					release.await();
+				}
+				catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		
+		await().atMost(Duration.ofSeconds(10)).until(() -> tested.getRunningCount() == MAX_CONCURRENT);
+		assertThat(tested.shutdownNow()).hasSize(3);
+		
+		release.countDown();
+		await().atMost(Duration.ofSeconds(10)).until(tested::isTerminated);
+	}
+	
+	@Test
+	void invalidLimit(){
+		assertThrows(IllegalArgumentException.class, () -> new TenantExecutorService(NAME, shared, 0));
+	}
+}
@@ -0,0 +1,153 @@
+package fr.rakambda.channelpointsminer.miner.runtime;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ParallelizableTest
+class TenantScheduledExecutorServiceTest{
+	private ScheduledExecutorService timer;
+	private ExecutorService worker;
+	private TenantScheduledExecutorService tested;
+	
+	@BeforeEach
+	void setUp(){
+		timer = Executors.newSingleThreadScheduledExecutor();
+		worker = Executors.newFixedThreadPool(4);
+		tested = new TenantScheduledExecutorService(timer, worker);
+	}
+	
+	@AfterEach
+	void tearDown(){
+		timer.shutdownNow();
+		worker.shutdownNow();
+	}
+	
+	@Test
+	void scheduleCallable() throws Exception{
+		var future = tested.schedule(() -> Thread.currentThread().getName(), 10, MILLISECONDS);
+		
+		assertThat(future.get(10, TimeUnit.SECONDS)).doesNotContain("single");
+		assertThat(future.isDone()).isTrue();
+	}
+	
+	@Test
+	void scheduleRunnableCancelled(){
+		var counter = new AtomicInteger(0);
+		var future = tested.schedule(counter::incrementAndGet, 1, TimeUnit.HOURS);
+		
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(counter.get()).isZero();
+	}
+	
+	@Test
+	void fixedRateSkipsOverlappingRuns() throws InterruptedException{
+		var release = new CountDownLatch(1);
+		var counter = new AtomicInteger(0);
+		tested.scheduleAtFixedRate(() -> {
+			counter.incrementAndGet();
+			try{
+				release.await();
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}, 0, 5, MILLISECONDS);
+		
+		await().atMost(Duration.ofSeconds(10)).until(() -> counter.get() == 1);
+		Thread.sleep(100);
+		assertThat(counter.get()).isEqualTo(1);
+		
+		release.countDown();
+		await().atMost(Duration.ofSeconds(10)).until(() -> counter.get() > 1);
+	}
+	
+	@Test
+	void fixedDelayKeepsRunningAfterFailure(){
+		var counter = new AtomicInteger(0);
+		var future = tested.scheduleWithFixedDelay(() -> {
+			if(counter.incrementAndGet() == 1){
+				throw new IllegalStateException("For tests");
+			}
+		}, 0, 5, MILLISECONDS);
+		
+		await().atMost(Duration.ofSeconds(10)).until(() -> counter.get() >= 3);
+		
+		future.cancel(false);
+		assertThat(future.isCancelled()).isTrue();
+	}
+	
+	@Test
+	void fixedDelayOfZeroIsRescheduled(){
+		var counter = new AtomicInteger(0);
+		var future = tested.scheduleWithFixedDelay(counter::incrementAndGet, 0, 0, MILLISECONDS);
+		
+		await().atMost(Duration.ofSeconds(10)).until(() -> counter.get() >= 3);
+		
+		future.cancel(false);
+		assertThat(future.isCancelled()).isTrue();
+	}
+	
+	@Test
+	void shutdownCancelsTasks(){
+		var oneShot = tested.schedule(() -> {}, 1, TimeUnit.HOURS);
+		var periodic = tested.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.HOURS);
+		
+		tested.shutdown();
+		
+		assertThat(tested.isShutdown()).isTrue();
+		assertThat(oneShot.isCancelled()).isTrue();
+		assertThat(periodic.isCancelled()).isTrue();
+		assertThat(timer.isShutdown()).isFalse();
+		assertThat(worker.isShutdown()).isFalse();
+		assertThrows(RejectedExecutionException.class, () -> tested.schedule(() -> {}, 1, MILLISECONDS));
+	}
+	
+	@Test
+	void terminationWaitsForRunningTasks() throws InterruptedException{
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		tested.schedule(() -> {
+			started.countDown();
+			try{
+				release.await();
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}, 0, MILLISECONDS);
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		
+		tested.shutdown();
+		assertThat(tested.isTerminated()).isFalse();
+		assertThat(tested.awaitTermination(50, MILLISECONDS)).isFalse();
+		
+		release.countDown();
+		assertThat(tested.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(tested.isTerminated()).isTrue();
+	}
+	
+	@Test
+	void terminatedRightAwayWithoutRunningTasks() throws InterruptedException{
+		tested.scheduleAtFixedRate(() -> {}, 1, 1, TimeUnit.HOURS);
+		
+		tested.shutdown();
+		
+		assertThat(tested.isTerminated()).isTrue();
+		assertThat(tested.awaitTermination(0, MILLISECONDS)).isTrue();
+	}
+}
@@ -0,0 +1,144 @@
+package fr.rakambda.channelpointsminer.miner.state;
+
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.channelpointscontext.ChannelPointsContextData;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.Channel;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.ChannelSelfEdge;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.CommunityPointsProperties;
+import fr.rakambda.channelpointsminer.miner.api.gql.gql.data.types.User;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.Event;
+import fr.rakambda.channelpointsminer.miner.api.ws.data.message.subtype.EventStatus;
+import fr.rakambda.channelpointsminer.miner.handler.data.PredictionState;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import static java.time.ZoneOffset.UTC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class MinerSnapshotStoreTest{
+	private static final Instant NOW = Instant.parse("2021-10-10T12:00:00Z");
+	private static final ZonedDateTime EVENT_DATE = ZonedDateTime.of(2021, 10, 10, 11, 59, 0, 0, UTC);
+	
+	@TempDir
+	private Path folder;
+	
+	private MinerSnapshotStore tested;
+	
+	@BeforeEach
+	void setUp(){
+		tested = new MinerSnapshotStore(folder.resolve("sub").resolve("user.json.gz"));
+	}
+	
+	@Test
+	void noFile(){
+		assertThat(tested.load()).isEmpty();
+	}
+	
+	@Test
+	void corruptedFile() throws IOException{
+		Files.createDirectories(tested.getFile().getParent());
+		Files.writeString(tested.getFile(), "not gzip");
+		
+		assertThat(tested.load()).isEmpty();
+	}
+	
+	@Test
+	void otherVersion() throws IOException{
+		tested.save(MinerSnapshot.builder()
+				.version(MinerSnapshot.CURRENT_VERSION + 1)
+				.savedAt(NOW)
+				.build());
+		
+		assertThat(tested.load()).isEmpty();
+	}
+	
+	@Test
+	void roundTrip() throws IOException{
+		var snapshot = MinerSnapshot.builder()
+				.savedAt(NOW)
+				.streamers(List.of(StreamerSnapshot.builder()
+						.id("streamer-id")
+						.username("streamer")
+						.lastUpdated(NOW)
+						.lastOffline(NOW.minusSeconds(3600))
+						.watchedMillis(123456)
+						.spadeUrl(URI.create("https://spade.example.com").toURL())
+						.channelPointsContext(ChannelPointsContextData.builder()
+								.community(User.builder()
+										.id("streamer-id")
+										.channel(Channel.builder()
+												.self(ChannelSelfEdge.builder()
+														.communityPoints(CommunityPointsProperties.builder()
+																.balance(1234)
+																.build())
+														.build())
+												.build())
+										.build())
+								.build())
+						.build()))
+				.predictions(List.of(PredictionSnapshot.builder()
+						.streamerId("streamer-id")
+						.event(Event.builder()
+								.id("event-id")
+								.channelId("streamer-id")
+								.createdAt(EVENT_DATE)
+								.predictionWindowSeconds(300)
+								.status(EventStatus.ACTIVE)
+								.title("title")
+								.outcomes(List.of())
+								.build())
+						.lastUpdate(EVENT_DATE)
+						.state(PredictionState.PLACED)
+						.build()))
+				.placedPredictions(List.of(PlacedPredictionSnapshot.builder()
+						.eventId("event-id")
+						.amount(50)
+						.outcomeId("outcome-id")
+						.predictedAt(NOW)
+						.build()))
+				.build();
+		
+		tested.save(snapshot);
+		
+		assertThat(tested.getFile()).exists();
+		assertThat(tested.getFile().getParent()).isDirectoryNotContaining("glob:**.tmp");
+		assertThat(tested.load()).contains(snapshot);
+	}
+	
+	@Test
+	void overwrite() throws IOException{
+		tested.save(MinerSnapshot.builder().savedAt(NOW).build());
+		tested.save(MinerSnapshot.builder().savedAt(NOW.plusSeconds(60)).build());
+		
+		assertThat(tested.load()).get().extracting(MinerSnapshot::getSavedAt).isEqualTo(NOW.plusSeconds(60));
+	}
+	
+	@Test
+	void concurrentSaves(){
+		var saves = IntStream.range(0, 8)
+				.mapToObj(i -> CompletableFuture.runAsync(() -> {
+					try{
+						tested.save(MinerSnapshot.builder().savedAt(NOW.plusSeconds(i)).build());
+					}
+					catch(IOException e){
+						throw new RuntimeException(e);
+					}
+				}))
+				.toArray(CompletableFuture[]::new);
+		
+		assertThat(CompletableFuture.allOf(saves)).succeedsWithin(Duration.ofSeconds(10));
+		assertThat(tested.load()).isPresent();
+		assertThat(tested.getFile().getParent()).isDirectoryNotContaining("glob:**.tmp");
+	}
+}
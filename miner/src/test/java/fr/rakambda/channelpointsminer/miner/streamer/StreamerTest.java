@@ -477,6 +477,34 @@ class StreamerTest{
 		}
 	}
 	
+	@Test
+	void streakStateSurvivesSnapshot(){
+		try(var timeFactory = mockStatic(TimeFactory.class)){
+			timeFactory.when(TimeFactory::now).thenReturn(NOW);
+			
+			tested.setLastOffline(NOW.minus(1, HOURS));
+			tested.addWatchedDuration(ofMinutes(7));
+			
+			var restored = new Streamer("streamer-id", USERNAME, settings);
+			restored.restoreSnapshot(tested.createSnapshot());
+			
+			assertThat(restored.getWatchedDuration()).isEqualTo(ofMinutes(7));
+			assertThat(restored.mayClaimStreak()).isFalse();
+			assertThat(restored.createSnapshot()).isEqualTo(tested.createSnapshot());
+		}
+	}
+	
+	@Test
+	void snapshotKeepsCachedData(){
+		tested.setChannelPointsContext(channelPointsContextData);
+		
+		var restored = new Streamer("streamer-id", USERNAME, settings);
+		restored.restoreSnapshot(tested.createSnapshot());
+		
+		assertThat(restored.createSnapshot().getChannelPointsContext()).isSameAs(channelPointsContextData);
+		assertThat(restored.createSnapshot().getVideoPlayerStreamInfoOverlayChannel()).isSameAs(videoPlayerStreamInfoOverlayChannelData);
+	}
+	
 	@Test
 	void addWatchedDuration(){
 		var duration = ofMinutes(15);
@@ -0,0 +1,62 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ParallelizableTest
+class ConsistentHashRingTest{
+	private static final List<String> KEYS = IntStream.range(0, 10_000).mapToObj("channel%d"::formatted).toList();
+	
+	@Test
+	void singleNodeOwnsEverything(){
+		var tested = new ConsistentHashRing<>(List.of("a"), 16);
+		
+		assertThat(KEYS).allSatisfy(key -> assertThat(tested.get(key)).isEqualTo("a"));
+	}
+	
+	@Test
+	void sameKeySameNode(){
+		var tested = new ConsistentHashRing<>(List.of(0, 1, 2, 3), 64);
+		var other = new ConsistentHashRing<>(List.of(0, 1, 2, 3), 64);
+		
+		assertThat(KEYS).allSatisfy(key -> assertThat(tested.get(key)).isEqualTo(other.get(key)));
+	}
+	
+	@Test
+	void keysAreSpread(){
+		var tested = new ConsistentHashRing<>(List.of(0, 1, 2, 3), 64);
+		
+		var counts = KEYS.stream().collect(Collectors.groupingBy(tested::get, Collectors.counting()));
+		assertThat(counts).hasSize(4);
+		assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(1_500L, 3_500L));
+	}
+	
+	@Test
+	void addingNodeMovesFewKeys(){
+		var before = new ConsistentHashRing<>(List.of(0, 1, 2, 3), 64);
+		var after = new ConsistentHashRing<>(List.of(0, 1, 2, 3, 4), 64);
+		
+		var moved = KEYS.stream()
+				.filter(key -> !before.get(key).equals(after.get(key)))
+				.toList();
+		assertThat(moved).hasSizeLessThan(KEYS.size() / 3);
+		assertThat(moved).allSatisfy(key -> assertThat(after.get(key)).isEqualTo(4));
+	}
+	
+	@Test
+	void hashIsStable(){
+		assertThat(ConsistentHashRing.hash("streamer")).isEqualTo(ConsistentHashRing.hash("streamer"));
+		assertThat(ConsistentHashRing.hash("streamer")).isNotEqualTo(ConsistentHashRing.hash("streamer2"));
+	}
+	
+	@Test
+	void invalidArguments(){
+		assertThatThrownBy(() -> new ConsistentHashRing<>(List.of(), 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ConsistentHashRing<>(List.of("a"), 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,31 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class ExponentialBackoffTest{
+	private final ExponentialBackoff tested = new ExponentialBackoff(Duration.ofMillis(100), Duration.ofSeconds(1));
+	
+	@RepeatedTest(20)
+	void delayDoublesWithAttempts(){
+		assertThat(tested.getDelay(0)).isBetween(50L, 100L);
+		assertThat(tested.getDelay(1)).isBetween(100L, 200L);
+		assertThat(tested.getDelay(2)).isBetween(200L, 400L);
+		assertThat(tested.getDelay(3)).isBetween(400L, 800L);
+	}
+	
+	@RepeatedTest(20)
+	void delayIsCapped(){
+		assertThat(tested.getDelay(4)).isBetween(500L, 1000L);
+		assertThat(tested.getDelay(Integer.MAX_VALUE)).isBetween(500L, 1000L);
+	}
+	
+	@Test
+	void negativeAttempt(){
+		assertThat(tested.getDelay(-1)).isBetween(50L, 100L);
+	}
+}
@@ -0,0 +1,19 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class HashUtilsTest{
+	@ParameterizedTest
+	@CsvSource({
+			"'', cbf29ce484222325",
+			"a, af63dc4c8601ec8c",
+			"foobar, 85944171f73967e8"
+	})
+	void fnv1a64(String value, String expected){
+		assertThat(HashUtils.fnv1a64(value)).isEqualTo(Long.parseUnsignedLong(expected, 16));
+	}
+}
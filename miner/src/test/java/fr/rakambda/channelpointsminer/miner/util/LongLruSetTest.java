@@ -0,0 +1,66 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ParallelizableTest
+class LongLruSetTest{
+	@Test
+	void addReturnsIfNew(){
+		var tested = new LongLruSet(4);
+		
+		assertThat(tested.add(1)).isTrue();
+		assertThat(tested.add(2)).isTrue();
+		assertThat(tested.add(1)).isFalse();
+		assertThat(tested.getSize()).isEqualTo(2);
+		assertThat(tested.contains(1)).isTrue();
+		assertThat(tested.contains(3)).isFalse();
+	}
+	
+	@Test
+	void leastRecentlyUsedIsEvicted(){
+		var tested = new LongLruSet(3);
+		
+		tested.add(1);
+		tested.add(2);
+		tested.add(3);
+		tested.add(1);
+		tested.add(4);
+		
+		assertThat(tested.getSize()).isEqualTo(3);
+		assertThat(tested.contains(1)).isTrue();
+		assertThat(tested.contains(2)).isFalse();
+		assertThat(tested.contains(3)).isTrue();
+		assertThat(tested.contains(4)).isTrue();
+	}
+	
+	@Test
+	void sameAsLinkedHashMap(){
+		var capacity = 50;
+		var tested = new LongLruSet(capacity);
+		var expected = new LinkedHashMap<Long, Boolean>(16, 0.75f, true){
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest){
+				return size() > capacity;
+			}
+		};
+		
+		var random = new Random(42);
+		for(var i = 0; i < 100_000; i++){
+			var value = random.nextInt(capacity * 3) * (random.nextBoolean() ? 1L : 1L << 40);
+			assertThat(tested.add(value)).isEqualTo(Objects.isNull(expected.put(value, true)));
+		}
+		expected.keySet().forEach(value -> assertThat(tested.contains(value)).isTrue());
+	}
+	
+	@Test
+	void invalidCapacity(){
+		assertThatThrownBy(() -> new LongLruSet(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
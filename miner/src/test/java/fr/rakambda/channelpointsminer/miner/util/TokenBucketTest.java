@@ -0,0 +1,73 @@
+package fr.rakambda.channelpointsminer.miner.util;
+
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ParallelizableTest
+class TokenBucketTest{
+	private final AtomicLong clock = new AtomicLong();
+	
+	private TokenBucket tested;
+	
+	@BeforeEach
+	void setUp(){
+		tested = new TokenBucket(20, Duration.ofSeconds(10), clock::get);
+	}
+	
+	@Test
+	void startsFull(){
+		assertThat(tested.getCapacity()).isEqualTo(20);
+		assertThat(tested.getAvailable()).isEqualTo(20);
+		assertThat(tested.getDelayUntilAvailable()).isZero();
+	}
+	
+	@Test
+	void grantsUpToAvailable(){
+		assertThat(tested.tryAcquire(15)).isEqualTo(15);
+		assertThat(tested.tryAcquire(15)).isEqualTo(5);
+		assertThat(tested.tryAcquire(1)).isEqualTo(0);
+		assertThat(tested.getAvailable()).isEqualTo(0);
+	}
+	
+	@Test
+	void negativeRequestGrantsNothing(){
+		assertThat(tested.tryAcquire(-1)).isEqualTo(0);
+		assertThat(tested.getAvailable()).isEqualTo(20);
+	}
+	
+	@Test
+	void refillsOverTime(){
+		tested.tryAcquire(20);
+		assertThat(tested.getDelayUntilAvailable()).isEqualTo(Duration.ofMillis(500));
+		
+		clock.addAndGet(Duration.ofMillis(300).toNanos());
+		assertThat(tested.getAvailable()).isEqualTo(0);
+		assertThat(tested.getDelayUntilAvailable()).isEqualTo(Duration.ofMillis(200));
+		
+		clock.addAndGet(Duration.ofMillis(1000).toNanos());
+		assertThat(tested.getAvailable()).isEqualTo(2);
+		assertThat(tested.getDelayUntilAvailable()).isZero();
+		
+		assertThat(tested.tryAcquire(5)).isEqualTo(2);
+		assertThat(tested.getDelayUntilAvailable()).isEqualTo(Duration.ofMillis(200));
+	}
+	
+	@Test
+	void refillIsCapped(){
+		tested.tryAcquire(20);
+		
+		clock.addAndGet(Duration.ofMinutes(5).toNanos());
+		assertThat(tested.getAvailable()).isEqualTo(20);
+		assertThat(tested.tryAcquire(30)).isEqualTo(20);
+	}
+	
+	@Test
+	void invalidCapacity(){
+		assertThatThrownBy(() -> new TokenBucket(0, Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+	}
+}
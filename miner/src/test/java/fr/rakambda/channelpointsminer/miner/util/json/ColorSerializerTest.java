@@ -0,0 +1,25 @@
+package fr.rakambda.channelpointsminer.miner.util.json;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.awt.Color;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class ColorSerializerTest extends SerializerTest<Color>{
+	@Test
+	void hexValue(){
+		assertThat(serialize(Color.RED)).isEqualTo("\"#FF0000\"");
+	}
+	
+	@Test
+	void leadingZeros(){
+		assertThat(serialize(new Color(0, 0, 10))).isEqualTo("\"#00000A\"");
+	}
+	
+	@Override
+	protected JsonSerializer<Color> getSerializer(){
+		return new ColorSerializer();
+	}
+}
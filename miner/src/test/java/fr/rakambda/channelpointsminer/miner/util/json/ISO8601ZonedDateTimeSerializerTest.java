@@ -0,0 +1,28 @@
+package fr.rakambda.channelpointsminer.miner.util.json;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class ISO8601ZonedDateTimeSerializerTest extends SerializerTest<ZonedDateTime>{
+	@Test
+	void stringValue(){
+		var date = ZonedDateTime.of(2021, 10, 15, 12, 52, 32, 123_000_000, ZoneOffset.UTC);
+		assertThat(serialize(date)).isEqualTo("\"2021-10-15T12:52:32.123Z\"");
+	}
+	
+	@Test
+	void offsetValue(){
+		var date = ZonedDateTime.of(2021, 10, 15, 12, 52, 32, 0, ZoneOffset.ofHours(2));
+		assertThat(serialize(date)).isEqualTo("\"2021-10-15T12:52:32+02:00\"");
+	}
+	
+	@Override
+	protected JsonSerializer<ZonedDateTime> getSerializer(){
+		return new ISO8601ZonedDateTimeSerializer();
+	}
+}
@@ -0,0 +1,26 @@
+package fr.rakambda.channelpointsminer.miner.util.json;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import fr.rakambda.channelpointsminer.miner.tests.ParallelizableTest;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ParallelizableTest
+class InstantDeserializerTest extends DeserializerTest<Instant>{
+	@Test
+	void stringValue(){
+		var content = "2021-10-15T12:52:32.123Z";
+		assertThat(deserialize("\"%s\"".formatted(content))).isEqualTo(Instant.parse(content));
+	}
+	
+	@Test
+	void empty(){
+		assertThat(deserialize("\"\"")).isNull();
+	}
+	
+	@Override
+	protected JsonDeserializer<Instant> getDeserializer(){
+		return new InstantDeserializer();
+	}
+}